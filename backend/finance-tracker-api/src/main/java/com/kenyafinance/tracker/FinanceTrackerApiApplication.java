@@ -2,6 +2,7 @@ package com.kenyafinance.tracker;
 
 import com.kenyafinance.tracker.service.CategoryService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
@@ -12,14 +13,19 @@ public class FinanceTrackerApiApplication implements CommandLineRunner {
 	@Autowired
 	private CategoryService categoryService;
 
+	@Value("${app.categories.seed-on-startup:true}")
+	private boolean seedDefaultCategories;
+
 	public static void main(String[] args) {
 		SpringApplication.run(FinanceTrackerApiApplication.class, args);
 	}
 
 	@Override
 	public void run(String... args) throws Exception {
-		// Initialize default categories on startup
-		categoryService.initializeDefaultCategories();
+		// Initialize default categories on startup (the fast-startup profile seeds them from SQL instead)
+		if (seedDefaultCategories) {
+			categoryService.initializeDefaultCategories();
+		}
 		System.out.println("✅ Personal Finance Tracker API started successfully!");
 		System.out.println("📊 Default categories initialized");
 		System.out.println("🌐 API Documentation: http://localhost:8080/swagger-ui.html");
@@ -0,0 +1,54 @@
+package com.kenyafinance.tracker.config;
+
+import com.kenyafinance.tracker.limit.AimdConcurrencyLimiter;
+import com.kenyafinance.tracker.limit.ConcurrencyLimitFilter;
+import com.kenyafinance.tracker.limit.EndpointClass;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Adaptive concurrency limits per endpoint class, configured under
+ * app.concurrency-limit.{dashboard|list-read|write|export}.*
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+    
+    private static final String PREFIX = "app.concurrency-limit.";
+    
+    @Value("${app.concurrency-limit.backoff-ratio:0.9}")
+    private double backoffRatio;
+    
+    @Value("${app.concurrency-limit.retry-after-seconds:1}")
+    private long retryAfterSeconds;
+    
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(Environment environment,
+                                                                                 MeterRegistry meterRegistry) {
+        Map<EndpointClass, AimdConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            String prefix = PREFIX + endpointClass.getPropertyKey() + ".";
+            limiters.put(endpointClass, new AimdConcurrencyLimiter(
+                    environment.getProperty(prefix + "initial-limit", Integer.class, endpointClass.getDefaultInitialLimit()),
+                    environment.getProperty(prefix + "min-limit", Integer.class, 1),
+                    environment.getProperty(prefix + "max-limit", Integer.class, endpointClass.getDefaultMaxLimit()),
+                    environment.getProperty(prefix + "latency-threshold-ms", Long.class, endpointClass.getDefaultLatencyThresholdMillis()),
+                    backoffRatio));
+        }
+        
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration =
+                new FilterRegistrationBean<>(new ConcurrencyLimitFilter(limiters, meterRegistry, retryAfterSeconds));
+        // Shed load before authentication and any database work
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 1);
+        return registration;
+    }
+}
@@ -0,0 +1,52 @@
+package com.kenyafinance.tracker.config;
+
+import com.kenyafinance.tracker.jfr.JfrEndpoint;
+import com.kenyafinance.tracker.jfr.JfrInstrumentationAspect;
+import com.kenyafinance.tracker.jfr.JfrRequestFilter;
+import com.kenyafinance.tracker.jfr.UserIdHasher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Custom Flight Recorder events for requests, service calls and repository queries,
+ * plus the /actuator/jfr endpoint to record them on demand.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.jfr.enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfig {
+    
+    @Value("${app.jfr.user-hash-salt:}")
+    private String userHashSalt;
+    
+    @Value("${app.jfr.max-age-minutes:30}")
+    private long maxAgeMinutes;
+    
+    @Bean
+    public UserIdHasher userIdHasher() {
+        return new UserIdHasher(userHashSalt);
+    }
+    
+    @Bean
+    public JfrInstrumentationAspect jfrInstrumentationAspect(UserIdHasher userIdHasher) {
+        return new JfrInstrumentationAspect(userIdHasher);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<JfrRequestFilter> jfrRequestFilter(UserIdHasher userIdHasher) {
+        FilterRegistrationBean<JfrRequestFilter> registration =
+                new FilterRegistrationBean<>(new JfrRequestFilter(userIdHasher));
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 3);
+        return registration;
+    }
+    
+    @Bean
+    public JfrEndpoint jfrEndpoint() {
+        return new JfrEndpoint(Duration.ofMinutes(maxAgeMinutes));
+    }
+}
@@ -0,0 +1,88 @@
+package com.kenyafinance.tracker.config;
+
+import com.kenyafinance.tracker.security.CachingJwtDecoder;
+import com.kenyafinance.tracker.security.JwtUserResolver;
+import com.kenyafinance.tracker.security.LocalJwtDecoders;
+import com.kenyafinance.tracker.security.UserJwtAuthenticationConverter;
+import com.kenyafinance.tracker.service.UserService;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.time.Duration;
+
+/**
+ * Bearer-token authentication against the identity provider's JWKS, verified locally:
+ * the key set is cached and refreshed in the background, verified tokens are cached
+ * until expiry, and token subjects are mapped to internal user ids through a bounded cache.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.security.jwt.enabled", havingValue = "true", matchIfMissing = true)
+public class JwtSecurityConfig {
+    
+    @Value("${app.security.jwt.jwk-set-uri}")
+    private String jwkSetUri;
+    
+    @Value("${app.security.jwt.issuer:}")
+    private String issuer;
+    
+    @Value("${app.security.jwt.audience:}")
+    private String audience;
+    
+    @Value("${app.security.jwt.jwks-cache-ttl-ms:300000}")
+    private long jwksCacheTtlMillis;
+    
+    @Value("${app.security.jwt.jwks-refresh-ahead-ms:30000}")
+    private long jwksRefreshAheadMillis;
+    
+    @Value("${app.security.jwt.jwks-refresh-timeout-ms:5000}")
+    private long jwksRefreshTimeoutMillis;
+    
+    @Value("${app.security.jwt.token-cache-size:10000}")
+    private long tokenCacheSize;
+    
+    @Value("${app.security.jwt.token-cache-max-ttl-ms:3600000}")
+    private long tokenCacheMaxTtlMillis;
+    
+    @Value("${app.security.jwt.user-cache-size:10000}")
+    private long userCacheSize;
+    
+    @Value("${app.security.jwt.user-cache-ttl-ms:600000}")
+    private long userCacheTtlMillis;
+    
+    @Bean
+    public JWKSource<SecurityContext> jwkSource() throws MalformedURLException {
+        return LocalJwtDecoders.remoteJwkSource(URI.create(jwkSetUri).toURL(),
+                Duration.ofMillis(jwksCacheTtlMillis),
+                Duration.ofMillis(jwksRefreshTimeoutMillis),
+                Duration.ofMillis(jwksRefreshAheadMillis));
+    }
+    
+    @Bean
+    public JwtDecoder jwtDecoder(JWKSource<SecurityContext> jwkSource, MeterRegistry meterRegistry) {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(LocalJwtDecoders.decoder(jwkSource, issuer, audience),
+                tokenCacheSize, Duration.ofMillis(tokenCacheMaxTtlMillis));
+        CaffeineCacheMetrics.monitor(meterRegistry, decoder.getCache(), "jwt.verified-tokens");
+        return decoder;
+    }
+    
+    @Bean
+    public JwtUserResolver jwtUserResolver(UserService userService, MeterRegistry meterRegistry) {
+        JwtUserResolver resolver = new JwtUserResolver(userService, userCacheSize, Duration.ofMillis(userCacheTtlMillis));
+        CaffeineCacheMetrics.monitor(meterRegistry, resolver.getCache(), "jwt.user-ids");
+        return resolver;
+    }
+    
+    @Bean
+    public UserJwtAuthenticationConverter userJwtAuthenticationConverter(JwtUserResolver jwtUserResolver) {
+        return new UserJwtAuthenticationConverter(jwtUserResolver);
+    }
+}
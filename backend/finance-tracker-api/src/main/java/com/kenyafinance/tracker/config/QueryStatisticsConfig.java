@@ -0,0 +1,72 @@
+package com.kenyafinance.tracker.config;
+
+import com.kenyafinance.tracker.datasource.QueryStatistics;
+import com.kenyafinance.tracker.datasource.QueryStatisticsFilter;
+import com.kenyafinance.tracker.datasource.SlowQueryListener;
+import com.kenyafinance.tracker.datasource.StatementTimeoutListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+import javax.sql.DataSource;
+
+/**
+ * Wraps the application DataSource in a statement-level proxy that counts SQL per request
+ * and logs queries slower than app.sql.slow-query-threshold-ms, and that applies the request's
+ * statement deadline (see {@link StatementTimeoutConfig}).
+ */
+@Configuration
+public class QueryStatisticsConfig {
+    
+    @Value("${app.sql.slow-query-threshold-ms:200}")
+    private long slowQueryThresholdMillis;
+    
+    @Value("${app.sql.log-parameters:false}")
+    private boolean logParameters;
+    
+    @Bean
+    public QueryStatistics queryStatistics() {
+        return new QueryStatistics();
+    }
+    
+    @Bean
+    public SlowQueryListener slowQueryListener(QueryStatistics queryStatistics) {
+        return new SlowQueryListener(queryStatistics, slowQueryThresholdMillis, logParameters);
+    }
+    
+    @Bean
+    public static BeanPostProcessor queryStatisticsDataSourceProxy(ObjectProvider<SlowQueryListener> slowQueryListener,
+                                                                   ObjectProvider<StatementTimeoutListener> statementTimeoutListener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && "dataSource".equals(beanName)) {
+                    return ProxyDataSourceBuilder.create(dataSource)
+                            .name(beanName)
+                            .listener(slowQueryListener.getObject())
+                            .listener(statementTimeoutListener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+    
+    @Bean
+    public FilterRegistrationBean<QueryStatisticsFilter> queryStatisticsFilter(QueryStatistics queryStatistics,
+                                                                               Environment environment) {
+        boolean responseHeaders = !environment.acceptsProfiles(Profiles.of("prod"));
+        FilterRegistrationBean<QueryStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new QueryStatisticsFilter(queryStatistics, responseHeaders));
+        // Outermost, so the headers cover everything the request does, including rejected requests
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER - 2);
+        return registration;
+    }
+}
@@ -0,0 +1,120 @@
+package com.kenyafinance.tracker.config;
+
+import com.kenyafinance.tracker.datasource.ReadYourWritesFilter;
+import com.kenyafinance.tracker.datasource.ReadYourWritesTracker;
+import com.kenyafinance.tracker.datasource.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to replicas when app.datasource.replica.enabled=true.
+ * The primary is configured through the usual spring.datasource.* properties; both it and
+ * the replica pools take the spring.datasource.hikari.* settings, and all of them are closed
+ * with the context.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+    
+    private static final String HIKARI_PROPERTIES = "spring.datasource.hikari";
+    
+    @Value("${app.datasource.replica.urls:}")
+    private String replicaUrls;
+    
+    @Value("${app.datasource.replica.username:${spring.datasource.username:}}")
+    private String replicaUsername;
+    
+    @Value("${app.datasource.replica.password:${spring.datasource.password:}}")
+    private String replicaPassword;
+    
+    @Value("${app.datasource.replica.pool-size:10}")
+    private int replicaPoolSize;
+    
+    @Value("${app.datasource.replica.connection-timeout-ms:1000}")
+    private long replicaConnectionTimeoutMillis;
+    
+    @Value("${app.datasource.replica.sticky-window-ms:5000}")
+    private long stickyWindowMillis;
+    
+    @Value("${app.datasource.replica.retry-after-ms:30000}")
+    private long retryAfterMillis;
+    
+    @Bean
+    public ReadYourWritesTracker readYourWritesTracker() {
+        return new ReadYourWritesTracker(stickyWindowMillis);
+    }
+    
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        return new ReadYourWritesFilter(readYourWritesTracker);
+    }
+    
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties properties, ReadYourWritesTracker readYourWritesTracker,
+                                 Environment environment) {
+        Binder binder = Binder.get(environment);
+        HikariDataSource primary = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        // What Spring Boot's own pool gets from spring.datasource.hikari.*
+        binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(primary));
+        primary.setPoolName("primary");
+        
+        List<DataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls.split(",")) {
+            if (url.isBlank()) {
+                continue;
+            }
+            // Tuned like the primary, then given the replica's own settings
+            HikariDataSource replica = new HikariDataSource();
+            binder.bind(HIKARI_PROPERTIES, Bindable.ofInstance(replica));
+            replica.setDriverClassName(properties.determineDriverClassName());
+            replica.setJdbcUrl(url.trim());
+            replica.setUsername(replicaUsername);
+            replica.setPassword(replicaPassword);
+            replica.setPoolName("replica-" + replicas.size());
+            replica.setMaximumPoolSize(replicaPoolSize);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(replicaConnectionTimeoutMillis);
+            // Do not fail startup because a replica is down; reads fall back to the primary
+            replica.setInitializationFailTimeout(-1);
+            replicas.add(replica);
+        }
+        
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker, retryAfterMillis);
+        return new ClosingLazyConnectionDataSourceProxy(routing);
+    }
+    
+    /**
+     * Lazy proxy whose close() shuts the pools down; Spring infers it as the bean's destroy method
+     */
+    private static final class ClosingLazyConnectionDataSourceProxy extends LazyConnectionDataSourceProxy implements Closeable {
+        
+        private final ReplicaRoutingDataSource routing;
+        
+        ClosingLazyConnectionDataSourceProxy(ReplicaRoutingDataSource routing) {
+            super(routing);
+            this.routing = routing;
+        }
+        
+        @Override
+        public void close() {
+            routing.close();
+        }
+    }
+}
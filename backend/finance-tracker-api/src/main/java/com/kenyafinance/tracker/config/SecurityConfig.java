@@ -1,12 +1,28 @@
 package com.kenyafinance.tracker.config;
 
+import com.kenyafinance.tracker.repository.ArchivedTransactionRepository;
+import com.kenyafinance.tracker.repository.CategoryRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.security.OwnEmailAuthorizationManager;
+import com.kenyafinance.tracker.security.ResourceOwnerAuthorizationManager;
+import com.kenyafinance.tracker.security.UserJwtAuthenticationConverter;
+import com.kenyafinance.tracker.security.UserPathAuthorizationManager;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -18,11 +34,40 @@ import java.util.List;
 @EnableWebSecurity
 public class SecurityConfig {
     
+    // Resources of one user, all named by the {userId} path variable
+    private static final String[] USER_SCOPED_PATHS = {
+            "/api/v1/categories/user/{userId}",
+            "/api/v1/categories/{id}/user/{userId}",
+            "/api/v1/categories/{id}/merge/user/{userId}",
+            "/api/v1/transactions/user/{userId}",
+            "/api/v1/transactions/user/{userId}/search",
+            "/api/v1/transactions/{id}/user/{userId}",
+            "/api/v1/transactions/dashboard/user/{userId}",
+            "/api/v1/transactions/dashboard/user/{userId}/stream",
+            "/api/v1/transactions/spending/user/{userId}",
+            "/api/v1/transactions/export/user/{userId}"
+    };
+    
     @Value("${app.cors.allowed-origins:http://localhost:3000,http://localhost:8080}")
     private String allowedOrigins;
     
+    @Value("${app.security.admin-authority:SCOPE_admin}")
+    private String adminAuthority;
+    
+    @Value("${app.security.prometheus.allowed-addresses:127.0.0.1/32,::1/128}")
+    private String prometheusAllowedAddresses;
+    
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, ObjectProvider<JwtDecoder> jwtDecoder,
+                                           ObjectProvider<UserJwtAuthenticationConverter> jwtAuthenticationConverter,
+                                           TransactionRepository transactionRepository,
+                                           ArchivedTransactionRepository archivedTransactionRepository,
+                                           CategoryRepository categoryRepository)
+            throws Exception {
+        boolean jwtEnabled = jwtDecoder.getIfAvailable() != null && jwtAuthenticationConverter.getIfAvailable() != null;
+        AuthorityAuthorizationManager<RequestAuthorizationContext> admin =
+                AuthorityAuthorizationManager.hasAuthority(adminAuthority);
+        
         http
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .csrf(csrf -> csrf.disable())
@@ -31,20 +76,61 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/api/v1/categories/defaults").permitAll()
                 .requestMatchers("/api/v1/categories/initialize-defaults").permitAll()
-                .requestMatchers("/actuator/health").permitAll()
+                .requestMatchers("/actuator/health", "/actuator/health/liveness", "/actuator/health/readiness").permitAll()
+                // Scrapes come from the monitoring network; operators may also read it with a token
+                .requestMatchers("/actuator/prometheus").access(AuthorizationManagers.anyOf(admin, scraper()))
+                // Recordings hold request data from every user
+                .requestMatchers("/actuator/jfr", "/actuator/jfr/**").access(admin)
+                // Metrics and the remaining actuator endpoints are for operators only
+                .requestMatchers("/actuator/**").access(admin)
                 .requestMatchers("/swagger-ui/**").permitAll()
                 .requestMatchers("/v3/api-docs/**").permitAll()
                 .requestMatchers("/swagger-ui.html").permitAll()
                 .requestMatchers("/api-docs/**").permitAll()
+                // Signup and the user listing are not scoped to one user
+                .requestMatchers(HttpMethod.POST, "/api/v1/users").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/v1/users", "/api/v1/users/stream", "/api/v1/users/count").access(admin)
+                // Email lookups: only the caller's own verified email
+                .requestMatchers(HttpMethod.GET, "/api/v1/users/email/{email}", "/api/v1/users/exists/{email}")
+                    .access(AuthorizationManagers.anyOf(admin, new OwnEmailAuthorizationManager("email")))
+                // Users may only access their own resources; ownership is checked on the decoded
+                // path variables the controllers receive, never on the raw URI
+                .requestMatchers(USER_SCOPED_PATHS).access(new UserPathAuthorizationManager("userId"))
+                .requestMatchers("/api/v1/users/{id}", "/api/v1/users/{id}/purge").access(new UserPathAuthorizationManager("id"))
+                .requestMatchers(HttpMethod.GET, "/api/v1/transactions/{id}")
+                    .access(new ResourceOwnerAuthorizationManager("id", (id, userId) -> transactionRepository.existsByIdAndUserId(id, userId)
+                            || archivedTransactionRepository.existsByIdAndUserId(id, userId)))
+                .requestMatchers(HttpMethod.GET, "/api/v1/categories/{id}")
+                    .access(new ResourceOwnerAuthorizationManager("id", categoryRepository::isVisibleTo))
+                // Any other API path is not a route anyone may use
+                .requestMatchers("/api/**").denyAll()
                 // All other endpoints require authentication
                 .anyRequest().authenticated()
             );
-            // TODO: Add JWT authentication when integrating with Supabase
-            // .oauth2ResourceServer(oauth2 -> oauth2.jwt(Customizer.withDefaults()));
+        
+        if (jwtEnabled) {
+            // Supabase access tokens, verified locally against the cached JWKS
+            http.oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt
+                    .decoder(jwtDecoder.getObject())
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter.getObject())));
+        }
         
         return http.build();
     }
     
+    /**
+     * Allows requests whose remote address is in one of the configured scraper ranges
+     */
+    private AuthorizationManager<RequestAuthorizationContext> scraper() {
+        List<IpAddressMatcher> ranges = Arrays.stream(prometheusAllowedAddresses.split(","))
+                .map(String::trim)
+                .filter(range -> !range.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        return (authentication, context) -> new AuthorizationDecision(
+                ranges.stream().anyMatch(range -> range.matches(context.getRequest())));
+    }
+    
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -0,0 +1,55 @@
+package com.kenyafinance.tracker.config;
+
+import com.kenyafinance.tracker.datasource.StatementDeadlines;
+import com.kenyafinance.tracker.datasource.StatementTimeoutFilter;
+import com.kenyafinance.tracker.datasource.StatementTimeoutInterceptor;
+import com.kenyafinance.tracker.datasource.StatementTimeoutListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-request statement deadlines: the client's X-Client-Timeout-Ms, tightened by the
+ * handler's {@link com.kenyafinance.tracker.datasource.StatementTimeout}
+ * (app.statement-timeout.*). The listener is attached by the datasource proxy in
+ * {@link QueryStatisticsConfig}.
+ */
+@Configuration
+public class StatementTimeoutConfig implements WebMvcConfigurer {
+    
+    private final Environment environment;
+    
+    public StatementTimeoutConfig(Environment environment) {
+        this.environment = environment;
+    }
+    
+    @Bean
+    public StatementDeadlines statementDeadlines() {
+        return new StatementDeadlines();
+    }
+    
+    @Bean
+    public StatementTimeoutListener statementTimeoutListener(StatementDeadlines statementDeadlines) {
+        return new StatementTimeoutListener(statementDeadlines);
+    }
+    
+    @Bean
+    public FilterRegistrationBean<StatementTimeoutFilter> statementTimeoutFilter(StatementDeadlines statementDeadlines,
+                                                                                 MeterRegistry meterRegistry) {
+        FilterRegistrationBean<StatementTimeoutFilter> registration =
+                new FilterRegistrationBean<>(new StatementTimeoutFilter(statementDeadlines, meterRegistry));
+        // Inside the concurrency limit, so timeouts count as failures there, and after authentication
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+    
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new StatementTimeoutInterceptor(statementDeadlines(), environment));
+    }
+}
@@ -1,6 +1,7 @@
 package com.kenyafinance.tracker.controller;
 
 import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.CategoryMergeDto;
 import com.kenyafinance.tracker.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -75,6 +76,20 @@ public class CategoryController {
         }
     }
     
+    @Operation(summary = "Move all of a user's transactions from this category into another, then delete it if the user owns it")
+    @PostMapping("/{id}/merge/user/{userId}")
+    public ResponseEntity<CategoryMergeDto> mergeCategory(
+            @Parameter(description = "User ID") @PathVariable UUID userId,
+            @Parameter(description = "Category ID to merge away") @PathVariable Long id,
+            @Parameter(description = "Category ID to move the transactions into") @RequestParam Long into) {
+        try {
+            CategoryMergeDto result = categoryService.mergeCategory(userId, id, into);
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+    
     @Operation(summary = "Delete category")
     @DeleteMapping("/{id}/user/{userId}")
     public ResponseEntity<Void> deleteCategory(
@@ -1,20 +1,44 @@
 package com.kenyafinance.tracker.controller;
 
+import com.kenyafinance.tracker.datasource.StatementTimeout;
 import com.kenyafinance.tracker.dto.DashboardSummaryDto;
 import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.TransactionExportDto;
+import com.kenyafinance.tracker.dto.TransactionSearchCriteria;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.service.DashboardSnapshot;
+import com.kenyafinance.tracker.service.DashboardSnapshotCache;
+import com.kenyafinance.tracker.service.ReadCoalescingService;
+import com.kenyafinance.tracker.service.TransactionArchivedException;
+import com.kenyafinance.tracker.service.TransactionExportService;
 import com.kenyafinance.tracker.service.TransactionService;
+import com.kenyafinance.tracker.service.TransactionWriteBatcher;
+import com.kenyafinance.tracker.stream.DashboardStreamHub;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 @RestController
@@ -23,11 +47,28 @@ import java.util.UUID;
 @CrossOrigin(origins = "*")
 public class TransactionController {
     
+    private static final Set<String> SEARCH_SORT_FIELDS = Set.of("transactionDate", "amount", "createdAt");
+    
     private final TransactionService transactionService;
+    private final ReadCoalescingService readCoalescingService;
+    private final TransactionExportService transactionExportService;
+    private final DashboardStreamHub dashboardStreamHub;
+    private final DashboardSnapshotCache dashboardSnapshotCache;
+    private final TransactionWriteBatcher writeBatcher;
     
     @Autowired
-    public TransactionController(TransactionService transactionService) {
+    public TransactionController(TransactionService transactionService, ReadCoalescingService readCoalescingService,
+                                 TransactionExportService transactionExportService,
+                                 DashboardStreamHub dashboardStreamHub,
+                                 DashboardSnapshotCache dashboardSnapshotCache,
+                                 ObjectProvider<TransactionWriteBatcher> writeBatcher) {
         this.transactionService = transactionService;
+        this.readCoalescingService = readCoalescingService;
+        this.transactionExportService = transactionExportService;
+        this.dashboardStreamHub = dashboardStreamHub;
+        this.dashboardSnapshotCache = dashboardSnapshotCache;
+        // Only present when app.write-batching.enabled=true
+        this.writeBatcher = writeBatcher.getIfAvailable();
     }
     
     @Operation(summary = "Create a new transaction")
@@ -36,15 +77,19 @@ public class TransactionController {
             @Parameter(description = "User ID") @PathVariable UUID userId,
             @Valid @RequestBody TransactionDto transactionDto) {
         try {
-            TransactionDto createdTransaction = transactionService.createTransaction(userId, transactionDto);
+            TransactionDto createdTransaction = writeBatcher != null
+                    ? writeBatcher.createTransaction(userId, transactionDto)
+                    : transactionService.createTransaction(userId, transactionDto);
             return new ResponseEntity<>(createdTransaction, HttpStatus.CREATED);
         } catch (RuntimeException e) {
             return new ResponseEntity<>(null, HttpStatus.BAD_REQUEST);
         }
     }
     
-    @Operation(summary = "Get transactions for a user with pagination")
+    @Operation(summary = "Get transactions for a user with pagination",
+            description = "Lists hot transactions only; those older than app.archive.after-months are archived and can be fetched by id")
     @GetMapping("/user/{userId}")
+    @StatementTimeout("${app.statement-timeout.list-ms:3000}")
     public ResponseEntity<Page<TransactionDto>> getTransactionsForUser(
             @Parameter(description = "User ID") @PathVariable UUID userId,
             @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
@@ -58,7 +103,48 @@ public class TransactionController {
         }
     }
     
-    @Operation(summary = "Get transaction by ID")
+    @Operation(summary = "Search transactions for a user by type, categories, amount range and date range",
+            description = "Searches hot transactions only; those older than app.archive.after-months are archived and can be fetched by id")
+    @GetMapping("/user/{userId}/search")
+    @StatementTimeout("${app.statement-timeout.search-ms:5000}")
+    public ResponseEntity<Page<TransactionDto>> searchTransactions(
+            @Parameter(description = "User ID") @PathVariable UUID userId,
+            @Parameter(description = "Transaction type") @RequestParam(required = false) TransactionType type,
+            @Parameter(description = "Category IDs") @RequestParam(required = false) List<Long> categoryIds,
+            @Parameter(description = "Minimum amount (inclusive)") @RequestParam(required = false) BigDecimal minAmount,
+            @Parameter(description = "Maximum amount (inclusive)") @RequestParam(required = false) BigDecimal maxAmount,
+            @Parameter(description = "Start date (inclusive, ISO-8601)") @RequestParam(required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @Parameter(description = "End date (inclusive, ISO-8601)") @RequestParam(required = false)
+                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @Parameter(description = "Sort field: transactionDate, amount or createdAt") @RequestParam(defaultValue = "transactionDate") String sortBy,
+            @Parameter(description = "Sort direction: ASC or DESC") @RequestParam(defaultValue = "DESC") Sort.Direction direction,
+            @Parameter(description = "Page number (0-based)") @RequestParam(defaultValue = "0") int page,
+            @Parameter(description = "Page size") @RequestParam(defaultValue = "20") int size) {
+        if (!SEARCH_SORT_FIELDS.contains(sortBy)) {
+            return ResponseEntity.badRequest().build();
+        }
+        
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setType(type);
+        criteria.setCategoryIds(categoryIds);
+        criteria.setMinAmount(minAmount);
+        criteria.setMaxAmount(maxAmount);
+        criteria.setStartDate(startDate);
+        criteria.setEndDate(endDate);
+        
+        // Tie-break on id so pages stay stable when the sort field has duplicates
+        Sort sort = Sort.by(direction, sortBy).and(Sort.by(direction, "id"));
+        try {
+            Pageable pageable = PageRequest.of(page, size, sort);
+            Page<TransactionDto> transactions = transactionService.searchTransactions(userId, criteria, pageable);
+            return ResponseEntity.ok(transactions);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @Operation(summary = "Get transaction by ID, hot or archived")
     @GetMapping("/{id}")
     public ResponseEntity<TransactionDto> getTransactionById(
             @Parameter(description = "Transaction ID") @PathVariable Long id) {
@@ -68,6 +154,7 @@ public class TransactionController {
     }
     
     @Operation(summary = "Update transaction")
+    @ApiResponse(responseCode = "409", description = "The transaction is archived and read-only")
     @PutMapping("/{id}/user/{userId}")
     public ResponseEntity<TransactionDto> updateTransaction(
             @Parameter(description = "User ID") @PathVariable UUID userId,
@@ -76,12 +163,15 @@ public class TransactionController {
         try {
             TransactionDto updatedTransaction = transactionService.updateTransaction(userId, id, transactionDto);
             return ResponseEntity.ok(updatedTransaction);
+        } catch (TransactionArchivedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @Operation(summary = "Delete transaction")
+    @ApiResponse(responseCode = "409", description = "The transaction is archived and read-only")
     @DeleteMapping("/{id}/user/{userId}")
     public ResponseEntity<Void> deleteTransaction(
             @Parameter(description = "User ID") @PathVariable UUID userId,
@@ -89,18 +179,66 @@ public class TransactionController {
         try {
             transactionService.deleteTransaction(userId, id);
             return ResponseEntity.noContent().build();
+        } catch (TransactionArchivedException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
     @Operation(summary = "Get dashboard summary for a user")
-    @GetMapping("/dashboard/user/{userId}")
-    public ResponseEntity<DashboardSummaryDto> getDashboardSummary(
+    @ApiResponse(responseCode = "200", content = @Content(schema = @Schema(implementation = DashboardSummaryDto.class)))
+    @GetMapping(value = "/dashboard/user/{userId}", produces = MediaType.APPLICATION_JSON_VALUE)
+    @StatementTimeout("${app.statement-timeout.dashboard-ms:5000}")
+    public ResponseEntity<?> getDashboardSummary(
+            @Parameter(description = "User ID") @PathVariable UUID userId) {
+        try {
+            DashboardSnapshot snapshot = dashboardSnapshotCache.getDashboard(userId);
+            if (snapshot.json() != null) {
+                // Cached already serialized
+                return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(snapshot.json());
+            }
+            return ResponseEntity.ok(snapshot.summary());
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @Operation(summary = "Stream live dashboard updates for a user (a snapshot event, then deltas)")
+    @GetMapping(value = "/dashboard/user/{userId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamDashboard(
+            @Parameter(description = "User ID") @PathVariable UUID userId) {
+        try {
+            return ResponseEntity.ok(dashboardStreamHub.subscribe(userId));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @Operation(summary = "Get expense breakdown by category for a user")
+    @GetMapping("/spending/user/{userId}")
+    @StatementTimeout("${app.statement-timeout.spending-ms:5000}")
+    public ResponseEntity<List<DashboardSummaryDto.CategorySpendingDto>> getCategorySpending(
+            @Parameter(description = "User ID") @PathVariable UUID userId) {
+        try {
+            List<DashboardSummaryDto.CategorySpendingDto> spending = readCoalescingService.getCategorySpending(userId);
+            return ResponseEntity.ok(spending);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @Operation(summary = "Export a user's transactions to month-partitioned Arrow IPC files on the server")
+    @PostMapping("/export/user/{userId}")
+    public ResponseEntity<TransactionExportDto> exportTransactions(
             @Parameter(description = "User ID") @PathVariable UUID userId) {
         try {
-            DashboardSummaryDto summary = transactionService.getDashboardSummary(userId);
-            return ResponseEntity.ok(summary);
+            TransactionExportDto export = transactionExportService.exportUser(userId);
+            return new ResponseEntity<>(export, HttpStatus.CREATED);
+        } catch (UncheckedIOException e) {
+            return ResponseEntity.internalServerError().build();
         } catch (RuntimeException e) {
             return ResponseEntity.notFound().build();
         }
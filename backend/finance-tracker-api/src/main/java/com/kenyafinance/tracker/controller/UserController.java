@@ -1,17 +1,26 @@
 package com.kenyafinance.tracker.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.kenyafinance.tracker.dto.AccountPurgeDto;
 import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.dto.UserPageDto;
+import com.kenyafinance.tracker.service.AccountPurgeService;
 import com.kenyafinance.tracker.service.UserService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
 import java.util.UUID;
 
 @RestController
@@ -20,11 +29,19 @@ import java.util.UUID;
 @CrossOrigin(origins = "*")
 public class UserController {
     
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int STREAM_FLUSH_EVERY = 500;
+    
     private final UserService userService;
+    private final AccountPurgeService accountPurgeService;
+    private final ObjectMapper objectMapper;
     
     @Autowired
-    public UserController(UserService userService) {
+    public UserController(UserService userService, AccountPurgeService accountPurgeService, ObjectMapper objectMapper) {
         this.userService = userService;
+        this.accountPurgeService = accountPurgeService;
+        this.objectMapper = objectMapper;
     }
     
     @Operation(summary = "Create a new user")
@@ -81,11 +98,64 @@ public class UserController {
         }
     }
     
-    @Operation(summary = "Get all active users")
+    @Operation(summary = "Erase a user and all their data in the background")
+    @PostMapping("/{id}/purge")
+    public ResponseEntity<AccountPurgeDto> requestPurge(
+            @Parameter(description = "User ID") @PathVariable UUID id) {
+        try {
+            AccountPurgeDto purge = accountPurgeService.requestPurge(id);
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/v1/users/" + id + "/purge"))
+                    .body(purge);
+        } catch (RuntimeException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+    
+    @Operation(summary = "Get the progress of a user's erasure")
+    @GetMapping("/{id}/purge")
+    public ResponseEntity<AccountPurgeDto> getPurge(
+            @Parameter(description = "User ID") @PathVariable UUID id) {
+        return accountPurgeService.getPurge(id)
+                .map(purge -> ResponseEntity.ok(purge))
+                .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @Operation(summary = "Get active users, one page at a time")
     @GetMapping
-    public ResponseEntity<List<UserDto>> getAllActiveUsers() {
-        List<UserDto> users = userService.getAllActiveUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<UserPageDto> getActiveUsers(
+            @Parameter(description = "nextCursor of the previous page; omit for the first page") @RequestParam(required = false) UUID after,
+            @Parameter(description = "Page size (1-" + MAX_PAGE_SIZE + ")") @RequestParam(defaultValue = "100") int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(userService.getActiveUsers(after, size));
+    }
+    
+    @Operation(summary = "Stream all active users as newline-delimited JSON")
+    @GetMapping(value = "/stream", produces = NDJSON)
+    public void streamActiveUsers(HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        ObjectWriter writer = objectMapper.writerFor(UserDto.class);
+        OutputStream out = response.getOutputStream();
+        int[] written = {0};
+        try {
+            userService.streamActiveUsers(user -> {
+                try {
+                    out.write(writer.writeValueAsBytes(user));
+                    out.write('\n');
+                    if (++written[0] % STREAM_FLUSH_EVERY == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            // Client went away; the cursor and transaction are already closed
+            throw e.getCause();
+        }
+        out.flush();
     }
     
     @Operation(summary = "Check if user exists by email")
@@ -0,0 +1,49 @@
+package com.kenyafinance.tracker.datasource;
+
+/**
+ * Per-request SQL statement accounting. The request filter opens a scope on the request
+ * thread; the statement listener adds every execution on that thread to it.
+ */
+public class QueryStatistics {
+    
+    private final ThreadLocal<Counters> current = new ThreadLocal<>();
+    
+    /**
+     * Start counting statements for the current thread
+     */
+    public Counters start() {
+        Counters counters = new Counters();
+        current.set(counters);
+        return counters;
+    }
+    
+    public void clear() {
+        current.remove();
+    }
+    
+    /**
+     * Record one statement execution if a scope is open on this thread
+     */
+    public void record(long elapsedMillis) {
+        Counters counters = current.get();
+        if (counters != null) {
+            counters.queryCount++;
+            counters.elapsedMillis += elapsedMillis;
+        }
+    }
+    
+    /** Statement count and total database time for one request */
+    public static class Counters {
+        
+        private int queryCount;
+        private long elapsedMillis;
+        
+        public int getQueryCount() {
+            return queryCount;
+        }
+        
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.kenyafinance.tracker.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens a {@link QueryStatistics} scope per request and reports the statement count and
+ * database time, either in the debug log or (outside prod) as X-DB-Queries/X-DB-Time headers.
+ */
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+    
+    public static final String QUERY_COUNT_HEADER = "X-DB-Queries";
+    public static final String QUERY_TIME_HEADER = "X-DB-Time";
+    
+    private static final Logger log = LoggerFactory.getLogger(QueryStatisticsFilter.class);
+    
+    private final QueryStatistics queryStatistics;
+    private final boolean responseHeaders;
+    
+    public QueryStatisticsFilter(QueryStatistics queryStatistics, boolean responseHeaders) {
+        this.queryStatistics = queryStatistics;
+        this.responseHeaders = responseHeaders;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        QueryStatistics.Counters counters = queryStatistics.start();
+        HttpServletResponse wrapped = responseHeaders ? new StatisticsHeaderResponse(response, counters) : response;
+        try {
+            filterChain.doFilter(request, wrapped);
+        } finally {
+            queryStatistics.clear();
+            if (wrapped instanceof StatisticsHeaderResponse headerResponse) {
+                // Bodiless responses never commit inside the chain
+                headerResponse.writeHeaders();
+            }
+            if (log.isDebugEnabled()) {
+                log.debug("{} {} -> {} queries, {} ms in database", request.getMethod(), request.getRequestURI(),
+                        counters.getQueryCount(), counters.getElapsedMillis());
+            }
+        }
+    }
+    
+    /**
+     * Adds the statistics headers just before the response is committed, when the
+     * controller has finished all of its database work.
+     */
+    private static class StatisticsHeaderResponse extends OnCommittedResponseWrapper {
+        
+        private final QueryStatistics.Counters counters;
+        private boolean written;
+        
+        StatisticsHeaderResponse(HttpServletResponse response, QueryStatistics.Counters counters) {
+            super(response);
+            this.counters = counters;
+        }
+        
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+        
+        void writeHeaders() {
+            if (written || isCommitted()) {
+                return;
+            }
+            written = true;
+            setHeader(QUERY_COUNT_HEADER, String.valueOf(counters.getQueryCount()));
+            setHeader(QUERY_TIME_HEADER, counters.getElapsedMillis() + "ms");
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.kenyafinance.tracker.datasource;
+
+import com.kenyafinance.tracker.support.UserIdPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the user a request acts on (taken from the /user/{userId} or /users/{id} path segment)
+ * so the routing data source can apply read-your-writes stickiness.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+    
+    private final ReadYourWritesTracker readYourWritesTracker;
+    
+    public ReadYourWritesFilter(ReadYourWritesTracker readYourWritesTracker) {
+        this.readYourWritesTracker = readYourWritesTracker;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        UserIdPaths.find(request.getRequestURI()).ifPresent(readYourWritesTracker::setCurrentUser);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            readYourWritesTracker.clearCurrentUser();
+        }
+    }
+}
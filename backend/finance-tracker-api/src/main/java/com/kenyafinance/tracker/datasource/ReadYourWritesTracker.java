@@ -0,0 +1,68 @@
+package com.kenyafinance.tracker.datasource;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which users wrote recently, so their reads stay on the primary until
+ * replicas have had time to catch up. Also carries the user of the current request.
+ */
+public class ReadYourWritesTracker {
+    
+    private static final int CLEANUP_THRESHOLD = 10_000;
+    
+    private final ThreadLocal<UUID> currentUser = new ThreadLocal<>();
+    private final Map<UUID, Long> lastWriteNanos = new ConcurrentHashMap<>();
+    private final long stickyWindowNanos;
+    
+    public ReadYourWritesTracker(long stickyWindowMillis) {
+        this.stickyWindowNanos = stickyWindowMillis * 1_000_000L;
+    }
+    
+    /**
+     * Bind the user the current request acts on
+     */
+    public void setCurrentUser(UUID userId) {
+        currentUser.set(userId);
+    }
+    
+    public UUID getCurrentUser() {
+        return currentUser.get();
+    }
+    
+    public void clearCurrentUser() {
+        currentUser.remove();
+    }
+    
+    /**
+     * Record a write by the current request's user, if one is bound
+     */
+    public void recordWrite() {
+        UUID userId = currentUser.get();
+        if (userId != null) {
+            recordWrite(userId);
+        }
+    }
+    
+    public void recordWrite(UUID userId) {
+        long now = System.nanoTime();
+        lastWriteNanos.put(userId, now);
+        if (lastWriteNanos.size() > CLEANUP_THRESHOLD) {
+            lastWriteNanos.values().removeIf(writtenAt -> now - writtenAt > stickyWindowNanos);
+        }
+    }
+    
+    /**
+     * Whether the current request's user wrote within the sticky window
+     */
+    public boolean isCurrentUserSticky() {
+        UUID userId = currentUser.get();
+        return userId != null && isSticky(userId);
+    }
+    
+    public boolean isSticky(UUID userId) {
+        Long writtenAt = lastWriteNanos.get(userId);
+        return writtenAt != null && System.nanoTime() - writtenAt < stickyWindowNanos;
+    }
+}
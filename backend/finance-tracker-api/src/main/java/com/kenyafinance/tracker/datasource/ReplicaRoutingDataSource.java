@@ -0,0 +1,122 @@
+package com.kenyafinance.tracker.datasource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Sends connections for read-only transactions to a pool of replicas (round robin) and
+ * everything else to the primary. Reads fall back to the primary when the current user wrote
+ * within the sticky window, or when no replica can hand out a connection.
+ *
+ * The routing decision depends on the transaction's read-only flag, which is only known after
+ * the transaction has begun, so this must be wrapped in a LazyConnectionDataSourceProxy.
+ * Closing it closes the primary and replica pools.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+    
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+    
+    private final DataSource primary;
+    private final List<DataSource> replicas;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final long retryAfterNanos;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLongArray unavailableUntil;
+    
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker, long retryAfterMillis) {
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.retryAfterNanos = retryAfterMillis * 1_000_000L;
+        this.unavailableUntil = new AtomicLongArray(this.replicas.size());
+    }
+    
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+    
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(target -> target.getConnection(username, password));
+    }
+    
+    @Override
+    public void close() {
+        closeQuietly(primary, "primary");
+        for (int i = 0; i < replicas.size(); i++) {
+            closeQuietly(replicas.get(i), "replica " + i);
+        }
+    }
+    
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (!readYourWritesTracker.isCurrentUserSticky()) {
+                Connection replicaConnection = getReplicaConnection(source);
+                if (replicaConnection != null) {
+                    return replicaConnection;
+                }
+            }
+        } else if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            readYourWritesTracker.recordWrite();
+        }
+        return source.getConnection(primary);
+    }
+    
+    /**
+     * Try each available replica once, starting from the next in round-robin order.
+     * Returns null when none of them can hand out a connection.
+     */
+    private Connection getReplicaConnection(ConnectionSource source) {
+        int count = replicas.size();
+        if (count == 0) {
+            return null;
+        }
+        
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int index = (start + i) % count;
+            long now = System.nanoTime();
+            if (now - unavailableUntil.get(index) < 0) {
+                continue;
+            }
+            try {
+                return source.getConnection(replicas.get(index));
+            } catch (SQLException e) {
+                log.warn("Replica {} unavailable, routing reads elsewhere for {} ms", index, retryAfterNanos / 1_000_000L, e);
+                unavailableUntil.set(index, now + retryAfterNanos);
+            }
+        }
+        return null;
+    }
+    
+    private static void closeQuietly(DataSource dataSource, String name) {
+        if (dataSource instanceof AutoCloseable closeable) {
+            try {
+                closeable.close();
+            } catch (Exception e) {
+                log.warn("Could not close the {} data source", name, e);
+            }
+        }
+    }
+    
+    /**
+     * How to get a connection from the chosen data source
+     */
+    @FunctionalInterface
+    private interface ConnectionSource {
+        
+        Connection getConnection(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,69 @@
+package com.kenyafinance.tracker.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * Counts every statement towards the current request and logs the ones slower than the
+ * threshold. Bound parameter values are redacted (only their types are logged) unless
+ * parameter logging is explicitly enabled.
+ */
+public class SlowQueryListener implements QueryExecutionListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(SlowQueryListener.class);
+    
+    private final QueryStatistics queryStatistics;
+    private final long thresholdMillis;
+    private final boolean logParameters;
+    
+    public SlowQueryListener(QueryStatistics queryStatistics, long thresholdMillis, boolean logParameters) {
+        this.queryStatistics = queryStatistics;
+        this.thresholdMillis = thresholdMillis;
+        this.logParameters = logParameters;
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedMillis = execInfo.getElapsedTime();
+        queryStatistics.record(elapsedMillis);
+        
+        if (elapsedMillis >= thresholdMillis && log.isWarnEnabled()) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                log.warn("Slow query ({} ms, success={}, batch={}): {} params={}", elapsedMillis,
+                        execInfo.isSuccess(), execInfo.isBatch(), queryInfo.getQuery(), describeParameters(queryInfo));
+            }
+        }
+    }
+    
+    private String describeParameters(QueryInfo queryInfo) {
+        StringJoiner batches = new StringJoiner(", ", "[", "]");
+        for (List<ParameterSetOperation> parameters : queryInfo.getParametersList()) {
+            StringJoiner values = new StringJoiner(", ", "(", ")");
+            for (ParameterSetOperation parameter : parameters) {
+                Object[] args = parameter.getArgs();
+                boolean setNull = "setNull".equals(parameter.getMethod().getName());
+                values.add(describeValue(setNull || args.length < 2 ? null : args[1]));
+            }
+            batches.add(values.toString());
+        }
+        return batches.toString();
+    }
+    
+    private String describeValue(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        return logParameters ? String.valueOf(value) : "<" + value.getClass().getSimpleName() + ">";
+    }
+}
@@ -0,0 +1,125 @@
+package com.kenyafinance.tracker.datasource;
+
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request statement deadline. The request filter opens a scope on the request thread,
+ * bounded by the client's own timeout when it sends one; the handler interceptor tightens it
+ * to the endpoint's statement timeout; the statement listener gives every statement on that
+ * thread whatever time is left, and refuses to start one once no time is left or the client
+ * has gone away.
+ */
+public class StatementDeadlines {
+    
+    // PostgreSQL query_canceled, which H2 also uses for its statement timeout
+    private static final String QUERY_CANCELED_STATE = "57014";
+    
+    private final ThreadLocal<Deadline> current = new ThreadLocal<>();
+    
+    /**
+     * Open a scope on the current thread, bounded by the given budget if it is positive
+     */
+    public Deadline start(long budgetMillis) {
+        Deadline deadline = new Deadline();
+        deadline.tighten(budgetMillis);
+        current.set(deadline);
+        return deadline;
+    }
+    
+    /**
+     * Deadline of the current thread, or null outside a request
+     */
+    public Deadline current() {
+        return current.get();
+    }
+    
+    public void clear() {
+        current.remove();
+    }
+    
+    /**
+     * Record that the current request lost a statement to a timeout, including one run by
+     * another request whose result it shared
+     */
+    public void markTimedOut() {
+        Deadline deadline = current.get();
+        if (deadline != null) {
+            deadline.markTimedOut();
+        }
+    }
+    
+    /**
+     * Whether the exception, or any of its causes, is a statement cancelled by its timeout
+     */
+    public static boolean isTimeout(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTimeoutException || cause instanceof QueryTimeoutException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && QUERY_CANCELED_STATE.equals(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /** Time budget for the statements of one request */
+    public static class Deadline {
+        
+        private boolean bounded;
+        private long deadlineNanos;
+        private long timeoutMillis;
+        private volatile boolean timedOut;
+        private volatile boolean abandoned;
+        
+        /**
+         * Bring the deadline forward to the given timeout from now, if that is sooner.
+         * Zero or a negative timeout leaves it unchanged.
+         */
+        public void tighten(long timeoutMillis) {
+            if (timeoutMillis <= 0) {
+                return;
+            }
+            long candidate = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+            if (!bounded || candidate - deadlineNanos < 0) {
+                bounded = true;
+                deadlineNanos = candidate;
+                this.timeoutMillis = timeoutMillis;
+            }
+        }
+        
+        public boolean isBounded() {
+            return bounded;
+        }
+        
+        public long remainingMillis() {
+            return TimeUnit.NANOSECONDS.toMillis(deadlineNanos - System.nanoTime());
+        }
+        
+        /** The timeout that set the current deadline */
+        public long getTimeoutMillis() {
+            return timeoutMillis;
+        }
+        
+        public boolean isTimedOut() {
+            return timedOut;
+        }
+        
+        /** Whether the client went away, so no further statement should run for it */
+        public boolean isAbandoned() {
+            return abandoned;
+        }
+        
+        void abandon() {
+            abandoned = true;
+        }
+        
+        void markTimedOut() {
+            timedOut = true;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.kenyafinance.tracker.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Statement timeout for the annotated endpoint, in milliseconds, applied to every SQL
+ * statement it runs. Property placeholders are resolved; zero leaves the endpoint bounded
+ * only by the client's own timeout.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StatementTimeout {
+    
+    String value();
+}
@@ -0,0 +1,210 @@
+package com.kenyafinance.tracker.datasource;
+
+import com.kenyafinance.tracker.limit.EndpointClass;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Opens the {@link StatementDeadlines} scope of each request. A client that sends
+ * X-Client-Timeout-Ms (how long it will wait for the response) has its statements cancelled
+ * once it has given up; a client that goes away without sending it shows up as a failed write
+ * to the response, after which the request starts no further statements. A request that lost
+ * a statement to its deadline is answered 503 with X-Statement-Timeout-Ms (and no Retry-After,
+ * unlike a concurrency limit rejection) instead of whatever error the controller made of it.
+ *
+ * Metrics: http.statement-timeouts{class}
+ */
+public class StatementTimeoutFilter extends OncePerRequestFilter {
+    
+    public static final String CLIENT_TIMEOUT_HEADER = "X-Client-Timeout-Ms";
+    public static final String STATEMENT_TIMEOUT_HEADER = "X-Statement-Timeout-Ms";
+    
+    private static final Logger log = LoggerFactory.getLogger(StatementTimeoutFilter.class);
+    
+    private final StatementDeadlines statementDeadlines;
+    private final Map<EndpointClass, Counter> timeouts = new EnumMap<>(EndpointClass.class);
+    
+    public StatementTimeoutFilter(StatementDeadlines statementDeadlines, MeterRegistry meterRegistry) {
+        this.statementDeadlines = statementDeadlines;
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            timeouts.put(endpointClass, Counter.builder("http.statement-timeouts")
+                    .description("Requests answered 503 because a SQL statement ran past the request's deadline")
+                    .tag("class", endpointClass.getPropertyKey())
+                    .register(meterRegistry));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        StatementDeadlines.Deadline deadline = statementDeadlines.start(clientTimeoutMillis(request));
+        TimeoutStatusResponse wrapped = new TimeoutStatusResponse(response, deadline);
+        try {
+            filterChain.doFilter(request, wrapped);
+        } catch (ServletException | IOException | RuntimeException e) {
+            if (StatementDeadlines.isTimeout(e)) {
+                deadline.markTimedOut();
+            }
+            if (!deadline.isTimedOut() || response.isCommitted()) {
+                throw e;
+            }
+            wrapped.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        } finally {
+            statementDeadlines.clear();
+        }
+        
+        if (deadline.isTimedOut() && response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value()) {
+            timeouts.get(EndpointClass.of(request.getMethod(), request.getRequestURI())).increment();
+            log.debug("{} {} ran out of its {} ms statement budget", request.getMethod(), request.getRequestURI(),
+                    deadline.getTimeoutMillis());
+        }
+    }
+    
+    private static long clientTimeoutMillis(HttpServletRequest request) {
+        String header = request.getHeader(CLIENT_TIMEOUT_HEADER);
+        if (header == null) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(header.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+    
+    /**
+     * Turns the error status of a request that timed out into a 503. A controller that
+     * recovered and answered successfully keeps its status. A failed write abandons the deadline.
+     */
+    private static class TimeoutStatusResponse extends HttpServletResponseWrapper {
+        
+        private final StatementDeadlines.Deadline deadline;
+        private ServletOutputStream outputStream;
+        
+        TimeoutStatusResponse(HttpServletResponse response, StatementDeadlines.Deadline deadline) {
+            super(response);
+            this.deadline = deadline;
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                outputStream = new AbandoningOutputStream(super.getOutputStream(), deadline);
+            }
+            return outputStream;
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            try {
+                super.flushBuffer();
+            } catch (IOException e) {
+                deadline.abandon();
+                throw e;
+            }
+        }
+        
+        @Override
+        public void setStatus(int status) {
+            super.setStatus(replace(status));
+        }
+        
+        @Override
+        public void sendError(int status) throws IOException {
+            super.sendError(replace(status));
+        }
+        
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            super.sendError(replace(status), message);
+        }
+        
+        private int replace(int status) {
+            if (!deadline.isTimedOut() || status < 400) {
+                return status;
+            }
+            setHeader(STATEMENT_TIMEOUT_HEADER, String.valueOf(deadline.getTimeoutMillis()));
+            return HttpStatus.SERVICE_UNAVAILABLE.value();
+        }
+    }
+    
+    /**
+     * Response body stream that abandons the request's deadline when a write or flush fails,
+     * which is how a client that went away shows up
+     */
+    private static class AbandoningOutputStream extends ServletOutputStream {
+        
+        private final ServletOutputStream delegate;
+        private final StatementDeadlines.Deadline deadline;
+        
+        AbandoningOutputStream(ServletOutputStream delegate, StatementDeadlines.Deadline deadline) {
+            this.delegate = delegate;
+            this.deadline = deadline;
+        }
+        
+        @Override
+        public void write(int b) throws IOException {
+            try {
+                delegate.write(b);
+            } catch (IOException e) {
+                deadline.abandon();
+                throw e;
+            }
+        }
+        
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            try {
+                delegate.write(b, off, len);
+            } catch (IOException e) {
+                deadline.abandon();
+                throw e;
+            }
+        }
+        
+        @Override
+        public void flush() throws IOException {
+            try {
+                delegate.flush();
+            } catch (IOException e) {
+                deadline.abandon();
+                throw e;
+            }
+        }
+        
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+        
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+        
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
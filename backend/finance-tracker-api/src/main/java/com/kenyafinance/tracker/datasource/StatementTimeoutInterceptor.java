@@ -0,0 +1,44 @@
+package com.kenyafinance.tracker.datasource;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.env.Environment;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tightens the request's statement deadline to the {@link StatementTimeout} of the handler
+ * method, once the handler is known.
+ */
+public class StatementTimeoutInterceptor implements HandlerInterceptor {
+    
+    private final StatementDeadlines statementDeadlines;
+    private final Environment environment;
+    private final Map<Method, Long> timeouts = new ConcurrentHashMap<>();
+    
+    public StatementTimeoutInterceptor(StatementDeadlines statementDeadlines, Environment environment) {
+        this.statementDeadlines = statementDeadlines;
+        this.environment = environment;
+    }
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        StatementDeadlines.Deadline deadline = statementDeadlines.current();
+        if (deadline != null && handler instanceof HandlerMethod handlerMethod) {
+            deadline.tighten(timeouts.computeIfAbsent(handlerMethod.getMethod(), method -> timeoutOf(handlerMethod)));
+        }
+        return true;
+    }
+    
+    private long timeoutOf(HandlerMethod handlerMethod) {
+        StatementTimeout statementTimeout = handlerMethod.getMethodAnnotation(StatementTimeout.class);
+        if (statementTimeout == null) {
+            return 0;
+        }
+        return Long.parseLong(environment.resolveRequiredPlaceholders(statementTimeout.value()));
+    }
+}
@@ -0,0 +1,72 @@
+package com.kenyafinance.tracker.datasource;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sets the JDBC query timeout of every statement run inside a bounded request to the time
+ * left before its deadline, so the driver cancels the statement once the request has run
+ * out of time. JDBC timeouts are whole seconds, so the remainder is rounded up. A statement
+ * is not started at all once the deadline has passed or the client has gone away.
+ */
+public class StatementTimeoutListener implements QueryExecutionListener {
+    
+    private static final Logger log = LoggerFactory.getLogger(StatementTimeoutListener.class);
+    
+    private final StatementDeadlines statementDeadlines;
+    
+    public StatementTimeoutListener(StatementDeadlines statementDeadlines) {
+        this.statementDeadlines = statementDeadlines;
+    }
+    
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementDeadlines.Deadline deadline = statementDeadlines.current();
+        if (deadline == null) {
+            return;
+        }
+        if (deadline.isAbandoned()) {
+            throw new QueryTimeoutException("Client went away before the statement started");
+        }
+        if (!deadline.isBounded()) {
+            return;
+        }
+        long remainingMillis = deadline.remainingMillis();
+        if (remainingMillis <= 0) {
+            deadline.markTimedOut();
+            throw new QueryTimeoutException("Statement deadline of " + deadline.getTimeoutMillis()
+                    + " ms passed before the statement started");
+        }
+        long seconds = Math.ceilDiv(remainingMillis, TimeUnit.SECONDS.toMillis(1));
+        setQueryTimeout(execInfo, (int) Math.min(seconds, Integer.MAX_VALUE));
+    }
+    
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        StatementDeadlines.Deadline deadline = statementDeadlines.current();
+        if (deadline == null || !deadline.isBounded()) {
+            return;
+        }
+        if (!execInfo.isSuccess() && StatementDeadlines.isTimeout(execInfo.getThrowable())) {
+            deadline.markTimedOut();
+        }
+        // H2 keeps the timeout on the session, which outlives the request in the pool
+        setQueryTimeout(execInfo, 0);
+    }
+    
+    private void setQueryTimeout(ExecutionInfo execInfo, int seconds) {
+        try {
+            execInfo.getStatement().setQueryTimeout(seconds);
+        } catch (SQLException e) {
+            log.debug("Could not set a {} s query timeout", seconds, e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.kenyafinance.tracker.dto;
+
+import com.kenyafinance.tracker.entity.AccountPurgeStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+public class AccountPurgeDto {
+    
+    private UUID userId;
+    private AccountPurgeStatus status;
+    private Long transactionsDeleted;
+    private Long categoriesDeleted;
+    private LocalDateTime requestedAt;
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public AccountPurgeDto() {}
+    
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+    
+    public AccountPurgeStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(AccountPurgeStatus status) {
+        this.status = status;
+    }
+    
+    public Long getTransactionsDeleted() {
+        return transactionsDeleted;
+    }
+    
+    public void setTransactionsDeleted(Long transactionsDeleted) {
+        this.transactionsDeleted = transactionsDeleted;
+    }
+    
+    public Long getCategoriesDeleted() {
+        return categoriesDeleted;
+    }
+    
+    public void setCategoriesDeleted(Long categoriesDeleted) {
+        this.categoriesDeleted = categoriesDeleted;
+    }
+    
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+    
+    public void setRequestedAt(LocalDateTime requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
@@ -0,0 +1,55 @@
+package com.kenyafinance.tracker.dto;
+
+/**
+ * Outcome of moving a user's transactions from one category to another.
+ */
+public class CategoryMergeDto {
+    
+    private Long sourceCategoryId;
+    private Long targetCategoryId;
+    private int transactionsMoved;
+    private boolean sourceDeleted;
+    
+    // Constructors
+    public CategoryMergeDto() {}
+    
+    public CategoryMergeDto(Long sourceCategoryId, Long targetCategoryId, int transactionsMoved, boolean sourceDeleted) {
+        this.sourceCategoryId = sourceCategoryId;
+        this.targetCategoryId = targetCategoryId;
+        this.transactionsMoved = transactionsMoved;
+        this.sourceDeleted = sourceDeleted;
+    }
+    
+    // Getters and Setters
+    public Long getSourceCategoryId() {
+        return sourceCategoryId;
+    }
+    
+    public void setSourceCategoryId(Long sourceCategoryId) {
+        this.sourceCategoryId = sourceCategoryId;
+    }
+    
+    public Long getTargetCategoryId() {
+        return targetCategoryId;
+    }
+    
+    public void setTargetCategoryId(Long targetCategoryId) {
+        this.targetCategoryId = targetCategoryId;
+    }
+    
+    public int getTransactionsMoved() {
+        return transactionsMoved;
+    }
+    
+    public void setTransactionsMoved(int transactionsMoved) {
+        this.transactionsMoved = transactionsMoved;
+    }
+    
+    public boolean isSourceDeleted() {
+        return sourceDeleted;
+    }
+    
+    public void setSourceDeleted(boolean sourceDeleted) {
+        this.sourceDeleted = sourceDeleted;
+    }
+}
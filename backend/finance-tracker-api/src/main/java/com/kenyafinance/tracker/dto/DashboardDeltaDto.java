@@ -0,0 +1,127 @@
+package com.kenyafinance.tracker.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Change to a user's dashboard caused by one transaction event, pushed over the dashboard stream.
+ * Amounts are differences to add to the last snapshot; {@code transaction} is the created or
+ * updated transaction and {@code removedTransactionId} is set for deletes.
+ */
+public class DashboardDeltaDto {
+    
+    private long eventId;
+    private BigDecimal totalIncomeDelta;
+    private BigDecimal totalExpensesDelta;
+    private BigDecimal balanceDelta;
+    private long totalTransactionsDelta;
+    private List<CategorySpendingDeltaDto> categorySpendingDeltas;
+    private TransactionDto transaction;
+    private Long removedTransactionId;
+    
+    // Constructors
+    public DashboardDeltaDto() {}
+    
+    public DashboardDeltaDto(long eventId, BigDecimal totalIncomeDelta, BigDecimal totalExpensesDelta,
+                             long totalTransactionsDelta) {
+        this.eventId = eventId;
+        this.totalIncomeDelta = totalIncomeDelta;
+        this.totalExpensesDelta = totalExpensesDelta;
+        this.balanceDelta = totalIncomeDelta.subtract(totalExpensesDelta);
+        this.totalTransactionsDelta = totalTransactionsDelta;
+    }
+    
+    // Getters and Setters
+    public long getEventId() {
+        return eventId;
+    }
+    
+    public void setEventId(long eventId) {
+        this.eventId = eventId;
+    }
+    
+    public BigDecimal getTotalIncomeDelta() {
+        return totalIncomeDelta;
+    }
+    
+    public void setTotalIncomeDelta(BigDecimal totalIncomeDelta) {
+        this.totalIncomeDelta = totalIncomeDelta;
+    }
+    
+    public BigDecimal getTotalExpensesDelta() {
+        return totalExpensesDelta;
+    }
+    
+    public void setTotalExpensesDelta(BigDecimal totalExpensesDelta) {
+        this.totalExpensesDelta = totalExpensesDelta;
+    }
+    
+    public BigDecimal getBalanceDelta() {
+        return balanceDelta;
+    }
+    
+    public void setBalanceDelta(BigDecimal balanceDelta) {
+        this.balanceDelta = balanceDelta;
+    }
+    
+    public long getTotalTransactionsDelta() {
+        return totalTransactionsDelta;
+    }
+    
+    public void setTotalTransactionsDelta(long totalTransactionsDelta) {
+        this.totalTransactionsDelta = totalTransactionsDelta;
+    }
+    
+    public List<CategorySpendingDeltaDto> getCategorySpendingDeltas() {
+        return categorySpendingDeltas;
+    }
+    
+    public void setCategorySpendingDeltas(List<CategorySpendingDeltaDto> categorySpendingDeltas) {
+        this.categorySpendingDeltas = categorySpendingDeltas;
+    }
+    
+    public TransactionDto getTransaction() {
+        return transaction;
+    }
+    
+    public void setTransaction(TransactionDto transaction) {
+        this.transaction = transaction;
+    }
+    
+    public Long getRemovedTransactionId() {
+        return removedTransactionId;
+    }
+    
+    public void setRemovedTransactionId(Long removedTransactionId) {
+        this.removedTransactionId = removedTransactionId;
+    }
+    
+    // Nested class for per-category spending changes
+    public static class CategorySpendingDeltaDto {
+        private Long categoryId;
+        private BigDecimal amountDelta;
+        
+        public CategorySpendingDeltaDto() {}
+        
+        public CategorySpendingDeltaDto(Long categoryId, BigDecimal amountDelta) {
+            this.categoryId = categoryId;
+            this.amountDelta = amountDelta;
+        }
+        
+        public Long getCategoryId() {
+            return categoryId;
+        }
+        
+        public void setCategoryId(Long categoryId) {
+            this.categoryId = categoryId;
+        }
+        
+        public BigDecimal getAmountDelta() {
+            return amountDelta;
+        }
+        
+        public void setAmountDelta(BigDecimal amountDelta) {
+            this.amountDelta = amountDelta;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.kenyafinance.tracker.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * A completed columnar export: the directory it was written to, relative to app.export.directory,
+ * and its month-partitioned files, relative to that directory.
+ */
+public class TransactionExportDto {
+    
+    private String scope;
+    private String directory;
+    private List<String> files;
+    private long rowCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime completedAt;
+    
+    // Constructors
+    public TransactionExportDto() {}
+    
+    public TransactionExportDto(String scope, String directory, List<String> files, long rowCount,
+                                LocalDateTime startedAt, LocalDateTime completedAt) {
+        this.scope = scope;
+        this.directory = directory;
+        this.files = files;
+        this.rowCount = rowCount;
+        this.startedAt = startedAt;
+        this.completedAt = completedAt;
+    }
+    
+    // Getters and Setters
+    public String getScope() {
+        return scope;
+    }
+    
+    public void setScope(String scope) {
+        this.scope = scope;
+    }
+    
+    public String getDirectory() {
+        return directory;
+    }
+    
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+    
+    public List<String> getFiles() {
+        return files;
+    }
+    
+    public void setFiles(List<String> files) {
+        this.files = files;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    public void setRowCount(long rowCount) {
+        this.rowCount = rowCount;
+    }
+    
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+    
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+}
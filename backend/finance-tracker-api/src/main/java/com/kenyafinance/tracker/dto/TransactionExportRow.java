@@ -0,0 +1,63 @@
+package com.kenyafinance.tracker.dto;
+
+import com.kenyafinance.tracker.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * One transaction as written to analytics exports, selected directly by the export
+ * queries so no entities are loaded.
+ */
+public class TransactionExportRow {
+    
+    private final Long id;
+    private final UUID userId;
+    private final Long categoryId;
+    private final String categoryName;
+    private final TransactionType type;
+    private final BigDecimal amount;
+    private final LocalDateTime transactionDate;
+    
+    // Constructors
+    public TransactionExportRow(Long id, UUID userId, Long categoryId, String categoryName,
+                                TransactionType type, BigDecimal amount, LocalDateTime transactionDate) {
+        this.id = id;
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.categoryName = categoryName;
+        this.type = type;
+        this.amount = amount;
+        this.transactionDate = transactionDate;
+    }
+    
+    // Getters
+    public Long getId() {
+        return id;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public String getCategoryName() {
+        return categoryName;
+    }
+    
+    public TransactionType getType() {
+        return type;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+}
@@ -0,0 +1,73 @@
+package com.kenyafinance.tracker.dto;
+
+import com.kenyafinance.tracker.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Optional filters for searching a user's transactions.
+ * Any field left null (or empty) is not applied to the query.
+ */
+public class TransactionSearchCriteria {
+    
+    private TransactionType type;
+    private List<Long> categoryIds;
+    private BigDecimal minAmount;
+    private BigDecimal maxAmount;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    
+    // Constructors
+    public TransactionSearchCriteria() {}
+    
+    // Getters and Setters
+    public TransactionType getType() {
+        return type;
+    }
+    
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+    
+    public List<Long> getCategoryIds() {
+        return categoryIds;
+    }
+    
+    public void setCategoryIds(List<Long> categoryIds) {
+        this.categoryIds = categoryIds;
+    }
+    
+    public BigDecimal getMinAmount() {
+        return minAmount;
+    }
+    
+    public void setMinAmount(BigDecimal minAmount) {
+        this.minAmount = minAmount;
+    }
+    
+    public BigDecimal getMaxAmount() {
+        return maxAmount;
+    }
+    
+    public void setMaxAmount(BigDecimal maxAmount) {
+        this.maxAmount = maxAmount;
+    }
+    
+    public LocalDateTime getStartDate() {
+        return startDate;
+    }
+    
+    public void setStartDate(LocalDateTime startDate) {
+        this.startDate = startDate;
+    }
+    
+    public LocalDateTime getEndDate() {
+        return endDate;
+    }
+    
+    public void setEndDate(LocalDateTime endDate) {
+        this.endDate = endDate;
+    }
+}
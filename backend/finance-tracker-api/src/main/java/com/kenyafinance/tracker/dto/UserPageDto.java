@@ -0,0 +1,39 @@
+package com.kenyafinance.tracker.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * One page of users from a keyset-paginated listing. Pass nextCursor as the "after"
+ * parameter to get the next page; it is null on the last page.
+ */
+public class UserPageDto {
+    
+    private List<UserDto> users;
+    private UUID nextCursor;
+    
+    // Constructors
+    public UserPageDto() {}
+    
+    public UserPageDto(List<UserDto> users, UUID nextCursor) {
+        this.users = users;
+        this.nextCursor = nextCursor;
+    }
+    
+    // Getters and Setters
+    public List<UserDto> getUsers() {
+        return users;
+    }
+    
+    public void setUsers(List<UserDto> users) {
+        this.users = users;
+    }
+    
+    public UUID getNextCursor() {
+        return nextCursor;
+    }
+    
+    public void setNextCursor(UUID nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,119 @@
+package com.kenyafinance.tracker.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A request to erase a user and all their data. The purge worker deletes the data in
+ * chunks and records progress here, so an interrupted purge resumes where it stopped.
+ * Only the user id is kept once the purge has completed.
+ */
+@Entity
+@Table(name = "account_purges")
+public class AccountPurge {
+    
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private AccountPurgeStatus status = AccountPurgeStatus.PENDING;
+    
+    @Column(name = "transactions_deleted", nullable = false)
+    private Long transactionsDeleted = 0L;
+    
+    @Column(name = "categories_deleted", nullable = false)
+    private Long categoriesDeleted = 0L;
+    
+    @CreationTimestamp
+    @Column(name = "requested_at", nullable = false, updatable = false)
+    private LocalDateTime requestedAt;
+    
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public AccountPurge() {}
+    
+    public AccountPurge(UUID userId) {
+        this.userId = userId;
+    }
+    
+    // Getters and Setters
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+    
+    public AccountPurgeStatus getStatus() {
+        return status;
+    }
+    
+    public void setStatus(AccountPurgeStatus status) {
+        this.status = status;
+    }
+    
+    public Long getTransactionsDeleted() {
+        return transactionsDeleted;
+    }
+    
+    public void setTransactionsDeleted(Long transactionsDeleted) {
+        this.transactionsDeleted = transactionsDeleted;
+    }
+    
+    public Long getCategoriesDeleted() {
+        return categoriesDeleted;
+    }
+    
+    public void setCategoriesDeleted(Long categoriesDeleted) {
+        this.categoriesDeleted = categoriesDeleted;
+    }
+    
+    public LocalDateTime getRequestedAt() {
+        return requestedAt;
+    }
+    
+    public void setRequestedAt(LocalDateTime requestedAt) {
+        this.requestedAt = requestedAt;
+    }
+    
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+    
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "AccountPurge{" +
+                "userId=" + userId +
+                ", status=" + status +
+                ", transactionsDeleted=" + transactionsDeleted +
+                ", categoriesDeleted=" + categoriesDeleted +
+                ", requestedAt=" + requestedAt +
+                ", completedAt=" + completedAt +
+                '}';
+    }
+}
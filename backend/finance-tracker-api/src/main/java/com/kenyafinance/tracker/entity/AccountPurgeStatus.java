@@ -0,0 +1,6 @@
+package com.kenyafinance.tracker.entity;
+
+public enum AccountPurgeStatus {
+    PENDING,
+    COMPLETED
+}
@@ -0,0 +1,122 @@
+package com.kenyafinance.tracker.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A transaction moved out of the hot {@code transactions} table by the archiver. Rows keep
+ * their original id and are read-only; user and category are plain columns so the archive
+ * needs no joins or foreign keys.
+ */
+@Entity
+@Table(name = "transactions_archive", indexes = {
+    @Index(name = "idx_transactions_archive_user_date", columnList = "user_id, transaction_date")
+})
+public class ArchivedTransaction {
+    
+    @Id
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+    
+    @Column(nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(length = 500)
+    private String notes;
+    
+    @Column(name = "transaction_date", nullable = false)
+    private LocalDateTime transactionDate;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public ArchivedTransaction() {}
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public TransactionType getType() {
+        return type;
+    }
+    
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+    
+    public BigDecimal getAmount() {
+        return amount;
+    }
+    
+    public void setAmount(BigDecimal amount) {
+        this.amount = amount;
+    }
+    
+    public String getNotes() {
+        return notes;
+    }
+    
+    public void setNotes(String notes) {
+        this.notes = notes;
+    }
+    
+    public LocalDateTime getTransactionDate() {
+        return transactionDate;
+    }
+    
+    public void setTransactionDate(LocalDateTime transactionDate) {
+        this.transactionDate = transactionDate;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "ArchivedTransaction{" +
+                "id=" + id +
+                ", type=" + type +
+                ", amount=" + amount +
+                ", transactionDate=" + transactionDate +
+                '}';
+    }
+}
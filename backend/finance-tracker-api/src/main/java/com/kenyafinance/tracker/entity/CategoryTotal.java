@@ -0,0 +1,108 @@
+package com.kenyafinance.tracker.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * Lifetime total of one user's transactions of one type in one category, archived ones
+ * included. Maintained by {@link com.kenyafinance.tracker.service.RunningTotals}.
+ */
+@Entity
+@Table(name = "category_totals", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_category_totals_user_category_type", columnNames = {"user_id", "category_id", "type"})
+})
+public class CategoryTotal {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+    
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+    
+    // Constructors
+    public CategoryTotal() {}
+    
+    public CategoryTotal(UUID userId, Long categoryId, TransactionType type, BigDecimal totalAmount, Long transactionCount) {
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.type = type;
+        this.totalAmount = totalAmount;
+        this.transactionCount = transactionCount;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public TransactionType getType() {
+        return type;
+    }
+    
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+    
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+    
+    @Override
+    public String toString() {
+        return "CategoryTotal{" +
+                "id=" + id +
+                ", categoryId=" + categoryId +
+                ", type=" + type +
+                ", totalAmount=" + totalAmount +
+                ", transactionCount=" + transactionCount +
+                '}';
+    }
+}
@@ -0,0 +1,66 @@
+package com.kenyafinance.tracker.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Last outbox event id acknowledged by a named subscriber.
+ */
+@Entity
+@Table(name = "outbox_consumer_offsets")
+public class OutboxConsumerOffset {
+    
+    @Id
+    @Column(name = "consumer_name", length = 100)
+    private String consumerName;
+    
+    @Column(name = "last_event_id", nullable = false)
+    private Long lastEventId = 0L;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public OutboxConsumerOffset() {}
+    
+    public OutboxConsumerOffset(String consumerName) {
+        this.consumerName = consumerName;
+    }
+    
+    // Getters and Setters
+    public String getConsumerName() {
+        return consumerName;
+    }
+    
+    public void setConsumerName(String consumerName) {
+        this.consumerName = consumerName;
+    }
+    
+    public Long getLastEventId() {
+        return lastEventId;
+    }
+    
+    public void setLastEventId(Long lastEventId) {
+        this.lastEventId = lastEventId;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "OutboxConsumerOffset{" +
+                "consumerName='" + consumerName + '\'' +
+                ", lastEventId=" + lastEventId +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
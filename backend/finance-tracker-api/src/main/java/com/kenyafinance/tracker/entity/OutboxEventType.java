@@ -0,0 +1,12 @@
+package com.kenyafinance.tracker.entity;
+
+public enum OutboxEventType {
+    TRANSACTION_CREATED,
+    TRANSACTION_UPDATED,
+    TRANSACTION_DELETED,
+    CATEGORY_CREATED,
+    CATEGORY_UPDATED,
+    CATEGORY_DELETED,
+    CATEGORY_MERGED,
+    USER_PURGED
+}
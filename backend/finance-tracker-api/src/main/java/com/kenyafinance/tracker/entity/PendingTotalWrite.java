@@ -0,0 +1,84 @@
+package com.kenyafinance.tracker.entity;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A transaction write whose running total deltas are held in memory by one instance and not yet in
+ * category_totals; see {@link com.kenyafinance.tracker.service.RunningTotals}.
+ */
+@Entity
+@Table(name = "pending_total_writes", indexes = {
+    @Index(name = "idx_pending_total_writes_user_instance", columnList = "user_id, instance_id"),
+    @Index(name = "idx_pending_total_writes_created", columnList = "created_at")
+})
+public class PendingTotalWrite {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    /** Instance holding the deltas, or a marker for rows no instance will flush */
+    @Column(name = "instance_id", nullable = false, length = 64)
+    private String instanceId;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public PendingTotalWrite() {}
+    
+    public PendingTotalWrite(UUID userId, String instanceId, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.instanceId = instanceId;
+        this.createdAt = createdAt;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+    
+    public String getInstanceId() {
+        return instanceId;
+    }
+    
+    public void setInstanceId(String instanceId) {
+        this.instanceId = instanceId;
+    }
+    
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+    
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "PendingTotalWrite{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", instanceId='" + instanceId + '\'' +
+                ", createdAt=" + createdAt +
+                '}';
+    }
+}
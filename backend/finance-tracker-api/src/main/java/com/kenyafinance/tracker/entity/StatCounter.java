@@ -0,0 +1,70 @@
+package com.kenyafinance.tracker.entity;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * A named count maintained alongside the rows it counts, so reading it is a primary key
+ * lookup instead of a COUNT(*) over the table.
+ */
+@Entity
+@Table(name = "stat_counters")
+public class StatCounter {
+    
+    public static final String ACTIVE_USERS = "active_users";
+    
+    @Id
+    @Column(name = "name", length = 100)
+    private String name;
+    
+    @Column(name = "counter_value", nullable = false)
+    private Long value = 0L;
+    
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public StatCounter() {}
+    
+    public StatCounter(String name, Long value) {
+        this.name = name;
+        this.value = value;
+    }
+    
+    // Getters and Setters
+    public String getName() {
+        return name;
+    }
+    
+    public void setName(String name) {
+        this.name = name;
+    }
+    
+    public Long getValue() {
+        return value;
+    }
+    
+    public void setValue(Long value) {
+        this.value = value;
+    }
+    
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+    
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+    
+    @Override
+    public String toString() {
+        return "StatCounter{" +
+                "name='" + name + '\'' +
+                ", value=" + value +
+                ", updatedAt=" + updatedAt +
+                '}';
+    }
+}
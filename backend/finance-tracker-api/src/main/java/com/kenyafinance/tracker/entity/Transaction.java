@@ -12,7 +12,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "transactions")
+@Table(name = "transactions", indexes = {
+    @Index(name = "idx_transactions_user_date", columnList = "user_id, transaction_date"),
+    @Index(name = "idx_transactions_user_type_date", columnList = "user_id, type, transaction_date"),
+    @Index(name = "idx_transactions_user_category_date", columnList = "user_id, category_id, transaction_date"),
+    @Index(name = "idx_transactions_user_amount", columnList = "user_id, amount")
+})
 public class Transaction {
     
     @Id
@@ -0,0 +1,126 @@
+package com.kenyafinance.tracker.entity;
+
+import jakarta.persistence.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Totals of archived transactions for one user, category, type and month. Rows are only
+ * ever appended (one per archived chunk), so the same month may appear several times and
+ * readers always sum them.
+ */
+@Entity
+@Table(name = "transaction_month_summaries", indexes = {
+    @Index(name = "idx_month_summaries_user_type", columnList = "user_id, type"),
+    @Index(name = "idx_month_summaries_user_category", columnList = "user_id, category_id")
+})
+public class TransactionMonthSummary {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(name = "category_id", nullable = false)
+    private Long categoryId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type;
+    
+    /** First day of the month */
+    @Column(name = "summary_month", nullable = false)
+    private LocalDate month;
+    
+    @Column(name = "total_amount", nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private Long transactionCount;
+    
+    // Constructors
+    public TransactionMonthSummary() {}
+    
+    public TransactionMonthSummary(UUID userId, Long categoryId, TransactionType type, LocalDate month,
+                                   BigDecimal totalAmount, Long transactionCount) {
+        this.userId = userId;
+        this.categoryId = categoryId;
+        this.type = type;
+        this.month = month;
+        this.totalAmount = totalAmount;
+        this.transactionCount = transactionCount;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+    
+    public Long getCategoryId() {
+        return categoryId;
+    }
+    
+    public void setCategoryId(Long categoryId) {
+        this.categoryId = categoryId;
+    }
+    
+    public TransactionType getType() {
+        return type;
+    }
+    
+    public void setType(TransactionType type) {
+        this.type = type;
+    }
+    
+    public LocalDate getMonth() {
+        return month;
+    }
+    
+    public void setMonth(LocalDate month) {
+        this.month = month;
+    }
+    
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+    
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+    
+    public Long getTransactionCount() {
+        return transactionCount;
+    }
+    
+    public void setTransactionCount(Long transactionCount) {
+        this.transactionCount = transactionCount;
+    }
+    
+    @Override
+    public String toString() {
+        return "TransactionMonthSummary{" +
+                "id=" + id +
+                ", categoryId=" + categoryId +
+                ", type=" + type +
+                ", month=" + month +
+                ", totalAmount=" + totalAmount +
+                ", transactionCount=" + transactionCount +
+                '}';
+    }
+}
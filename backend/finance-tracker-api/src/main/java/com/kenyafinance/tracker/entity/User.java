@@ -40,6 +40,10 @@ public class User {
     @Column(name = "profile_picture_url")
     private String profilePictureUrl;
     
+    /** Subject (sub claim) of the user's identity provider account */
+    @Column(name = "auth_subject", unique = true)
+    private String authSubject;
+    
     @Column(name = "is_active")
     private Boolean isActive = true;
     
@@ -116,6 +120,14 @@ public class User {
         this.profilePictureUrl = profilePictureUrl;
     }
     
+    public String getAuthSubject() {
+        return authSubject;
+    }
+    
+    public void setAuthSubject(String authSubject) {
+        this.authSubject = authSubject;
+    }
+    
     public Boolean getIsActive() {
         return isActive;
     }
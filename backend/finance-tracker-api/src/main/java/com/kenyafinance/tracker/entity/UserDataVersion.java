@@ -0,0 +1,80 @@
+package com.kenyafinance.tracker.entity;
+
+import jakarta.persistence.*;
+
+import java.util.UUID;
+
+/**
+ * One stripe of a user's data version. A user's version is the sum of their stripes; see
+ * {@link com.kenyafinance.tracker.service.UserDataVersions}.
+ */
+@Entity
+@Table(name = "user_data_versions", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_user_data_versions_user_stripe", columnNames = {"user_id", "stripe"})
+})
+public class UserDataVersion {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    
+    @Column(nullable = false)
+    private Integer stripe;
+    
+    @Column(nullable = false)
+    private Long version = 0L;
+    
+    // Constructors
+    public UserDataVersion() {}
+    
+    public UserDataVersion(UUID userId, Integer stripe) {
+        this.userId = userId;
+        this.stripe = stripe;
+    }
+    
+    // Getters and Setters
+    public Long getId() {
+        return id;
+    }
+    
+    public void setId(Long id) {
+        this.id = id;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+    
+    public void setUserId(UUID userId) {
+        this.userId = userId;
+    }
+    
+    public Integer getStripe() {
+        return stripe;
+    }
+    
+    public void setStripe(Integer stripe) {
+        this.stripe = stripe;
+    }
+    
+    public Long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+    
+    @Override
+    public String toString() {
+        return "UserDataVersion{" +
+                "id=" + id +
+                ", userId=" + userId +
+                ", stripe=" + stripe +
+                ", version=" + version +
+                '}';
+    }
+}
@@ -0,0 +1,185 @@
+package com.kenyafinance.tracker.event;
+
+import com.kenyafinance.tracker.entity.OutboxConsumerOffset;
+import com.kenyafinance.tracker.entity.OutboxEvent;
+import com.kenyafinance.tracker.repository.OutboxConsumerOffsetRepository;
+import com.kenyafinance.tracker.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Polls the outbox table and delivers events to every {@link OutboxEventSubscriber}.
+ * Each subscriber has its own offset, so a slow or failing subscriber never holds back the others.
+ * The offset row is locked while a batch is delivered, so running several instances does not
+ * deliver the same batch to the same subscriber concurrently.
+ * <p>
+ * Ids are taken when an event is inserted but become visible when its transaction commits, so a
+ * missing id is usually a transaction that has not committed yet. Delivery stops at such a gap
+ * and only moves past it once it has stayed open for {@code app.outbox.gap-settle-ms}, after
+ * which the id is taken to belong to a rolled-back transaction.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.dispatcher.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDispatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxConsumerOffsetRepository offsetRepository;
+    private final List<OutboxEventSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    
+    // Open gaps per subscriber: first missing id -> when it was first seen (nanoTime)
+    private final Map<String, NavigableMap<Long, Long>> openGaps = new ConcurrentHashMap<>();
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.gap-settle-ms:10000}")
+    private long gapSettleMillis;
+    
+    @Value("${app.outbox.retention-ms:86400000}")
+    private long retentionMillis;
+    
+    @Autowired
+    public OutboxDispatcher(OutboxEventRepository outboxEventRepository,
+                            OutboxConsumerOffsetRepository offsetRepository,
+                            List<OutboxEventSubscriber> subscribers,
+                            PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.offsetRepository = offsetRepository;
+        this.subscribers = subscribers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Deliver pending events to all subscribers
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void dispatch() {
+        for (OutboxEventSubscriber subscriber : subscribers) {
+            try {
+                // Keep draining while full batches come back
+                while (dispatchBatch(subscriber) == batchSize) {
+                    // next batch
+                }
+            } catch (RuntimeException e) {
+                log.warn("Outbox dispatch to {} failed, will retry on next poll", subscriber.getName(), e);
+            }
+        }
+    }
+    
+    /**
+     * Remove events older than {@code app.outbox.retention-ms} that every subscriber has already
+     * acknowledged. Offsets stored by other instances count too, so a subscriber that only some
+     * instances run is not skipped; the offset row of a retired subscriber must be deleted for
+     * purging to continue past it. Without any subscriber or offset the age alone decides: the
+     * dashboard stream relays tail the table within seconds and keep no shared offset.
+     */
+    @Scheduled(fixedDelayString = "${app.outbox.cleanup-interval-ms:60000}")
+    public void purgeDelivered() {
+        transactionTemplate.executeWithoutResult(status -> {
+            long upTo = outboxEventRepository.findMaxId();
+            for (OutboxEventSubscriber subscriber : subscribers) {
+                long offset = offsetRepository.findById(subscriber.getName())
+                        .map(OutboxConsumerOffset::getLastEventId)
+                        .orElse(0L);
+                upTo = Math.min(upTo, offset);
+            }
+            for (OutboxConsumerOffset offset : offsetRepository.findAll()) {
+                upTo = Math.min(upTo, offset.getLastEventId());
+            }
+            if (upTo > 0) {
+                LocalDateTime cutoff = LocalDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(retentionMillis));
+                int deleted = outboxEventRepository.deleteUpToIdCreatedBefore(upTo, cutoff);
+                log.debug("Purged {} delivered outbox events", deleted);
+            }
+        });
+    }
+    
+    /**
+     * Deliver one batch to a subscriber and advance its offset past the delivered events.
+     * Returns the number of events delivered, which is less than the batch size when delivery
+     * stopped at a gap that has not settled yet.
+     */
+    int dispatchBatch(OutboxEventSubscriber subscriber) {
+        ensureOffsetExists(subscriber.getName());
+        
+        Integer fetched = transactionTemplate.execute(status -> {
+            OutboxConsumerOffset offset = offsetRepository.findForUpdate(subscriber.getName())
+                    .orElseThrow(() -> new RuntimeException("Missing outbox offset for " + subscriber.getName()));
+            
+            List<OutboxEvent> batch = outboxEventRepository
+                    .findByIdGreaterThanOrderByIdAsc(offset.getLastEventId(), PageRequest.of(0, batchSize));
+            
+            NavigableMap<Long, Long> gaps = openGaps.computeIfAbsent(subscriber.getName(),
+                    name -> new ConcurrentSkipListMap<>());
+            long now = System.nanoTime();
+            long previous = offset.getLastEventId();
+            for (OutboxEvent event : batch) {
+                if (event.getId() > previous + 1) {
+                    gaps.putIfAbsent(previous + 1, now);
+                }
+                previous = event.getId();
+            }
+            
+            long delivered = offset.getLastEventId();
+            int count = 0;
+            try {
+                for (OutboxEvent event : batch) {
+                    if (event.getId() > delivered + 1) {
+                        long openNanos = now - gaps.get(delivered + 1);
+                        if (openNanos < TimeUnit.MILLISECONDS.toNanos(gapSettleMillis)) {
+                            break;
+                        }
+                        log.debug("Skipping outbox ids {} to {} for {}, not committed after {} ms",
+                                delivered + 1, event.getId() - 1, subscriber.getName(), gapSettleMillis);
+                    }
+                    subscriber.onEvent(event);
+                    delivered = event.getId();
+                    count++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Subscriber {} failed on outbox event after id {}", subscriber.getName(), delivered, e);
+                offset.setLastEventId(delivered);
+                return 0;
+            } finally {
+                gaps.headMap(delivered, true).clear();
+            }
+            
+            offset.setLastEventId(delivered);
+            log.debug("Delivered {} outbox events to {}", count, subscriber.getName());
+            return count;
+        });
+        return fetched != null ? fetched : 0;
+    }
+    
+    private void ensureOffsetExists(String consumerName) {
+        if (offsetRepository.existsById(consumerName)) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    offsetRepository.save(new OutboxConsumerOffset(consumerName)));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created it first
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.kenyafinance.tracker.event;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyafinance.tracker.entity.OutboxEvent;
+import com.kenyafinance.tracker.entity.OutboxEventType;
+import com.kenyafinance.tracker.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Writes change events to the outbox table as part of the caller's transaction,
+ * so an event exists if and only if the change it describes was committed.
+ */
+@Component
+public class OutboxEventPublisher {
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+    
+    @Autowired
+    public OutboxEventPublisher(OutboxEventRepository outboxEventRepository, ObjectMapper objectMapper) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * Record an event; must be called inside an existing transaction
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(OutboxEventType eventType, String aggregateType, Object aggregateId,
+                        UUID userId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize outbox payload for " + eventType, e);
+        }
+        
+        outboxEventRepository.save(new OutboxEvent(eventType, aggregateType, String.valueOf(aggregateId), userId, json));
+    }
+}
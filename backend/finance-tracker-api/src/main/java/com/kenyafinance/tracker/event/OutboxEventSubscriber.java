@@ -0,0 +1,18 @@
+package com.kenyafinance.tracker.event;
+
+import com.kenyafinance.tracker.entity.OutboxEvent;
+
+/**
+ * In-process consumer of outbox events.
+ * Delivery is at-least-once, so implementations must tolerate seeing the same event twice.
+ * Throwing from {@link #onEvent} stops the current batch; the event is redelivered on the next poll.
+ */
+public interface OutboxEventSubscriber {
+    
+    /**
+     * Stable name used to track this subscriber's offset
+     */
+    String getName();
+    
+    void onEvent(OutboxEvent event);
+}
@@ -0,0 +1,38 @@
+package com.kenyafinance.tracker.event;
+
+import com.kenyafinance.tracker.dto.TransactionDto;
+
+/**
+ * Outbox payload for transaction events.
+ * {@code previous} is null for creates and {@code current} is null for deletes.
+ */
+public class TransactionChangePayload {
+    
+    private TransactionDto previous;
+    private TransactionDto current;
+    
+    // Constructors
+    public TransactionChangePayload() {}
+    
+    public TransactionChangePayload(TransactionDto previous, TransactionDto current) {
+        this.previous = previous;
+        this.current = current;
+    }
+    
+    // Getters and Setters
+    public TransactionDto getPrevious() {
+        return previous;
+    }
+    
+    public void setPrevious(TransactionDto previous) {
+        this.previous = previous;
+    }
+    
+    public TransactionDto getCurrent() {
+        return current;
+    }
+    
+    public void setCurrent(TransactionDto current) {
+        this.current = current;
+    }
+}
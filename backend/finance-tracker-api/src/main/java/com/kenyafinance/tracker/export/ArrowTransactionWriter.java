@@ -0,0 +1,179 @@
+package com.kenyafinance.tracker.export;
+
+import com.kenyafinance.tracker.dto.TransactionExportRow;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.vector.BigIntVector;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.TimeStampMicroVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.TimeUnit;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.apache.arrow.vector.types.pojo.Field;
+import org.apache.arrow.vector.types.pojo.FieldType;
+import org.apache.arrow.vector.types.pojo.Schema;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes transaction rows as Arrow IPC files partitioned by month
+ * ({@code month=2025-01/part-0.arrow}). Rows are buffered in one record batch of at most
+ * {@code batchRows} rows that is reused for every batch, so memory stays constant however
+ * many rows are written. Rows should arrive in date order; a month that comes round again
+ * gets another part file.
+ */
+public class ArrowTransactionWriter implements Closeable {
+    
+    public static final Schema SCHEMA = new Schema(List.of(
+            new Field("id", FieldType.notNullable(new ArrowType.Int(64, true)), null),
+            new Field("user_id", FieldType.notNullable(ArrowType.Utf8.INSTANCE), null),
+            new Field("category_id", FieldType.notNullable(new ArrowType.Int(64, true)), null),
+            new Field("category_name", FieldType.nullable(ArrowType.Utf8.INSTANCE), null),
+            new Field("type", FieldType.notNullable(ArrowType.Utf8.INSTANCE), null),
+            new Field("amount", FieldType.notNullable(new ArrowType.Decimal(10, 2, 128)), null),
+            new Field("transaction_date", FieldType.notNullable(new ArrowType.Timestamp(TimeUnit.MICROSECOND, null)), null)
+    ));
+    
+    private final Path directory;
+    private final int batchRows;
+    private final VectorSchemaRoot root;
+    private final BigIntVector id;
+    private final VarCharVector userId;
+    private final BigIntVector categoryId;
+    private final VarCharVector categoryName;
+    private final VarCharVector type;
+    private final DecimalVector amount;
+    private final TimeStampMicroVector transactionDate;
+    
+    private final Map<YearMonth, Integer> partsPerMonth = new HashMap<>();
+    private final List<String> files = new ArrayList<>();
+    private YearMonth currentMonth;
+    private FileChannel currentChannel;
+    private ArrowFileWriter currentWriter;
+    private int batchSize;
+    private long rowCount;
+    
+    public ArrowTransactionWriter(Path directory, BufferAllocator allocator, int batchRows) {
+        this.directory = directory;
+        this.batchRows = batchRows;
+        this.root = VectorSchemaRoot.create(SCHEMA, allocator);
+        this.id = (BigIntVector) root.getVector("id");
+        this.userId = (VarCharVector) root.getVector("user_id");
+        this.categoryId = (BigIntVector) root.getVector("category_id");
+        this.categoryName = (VarCharVector) root.getVector("category_name");
+        this.type = (VarCharVector) root.getVector("type");
+        this.amount = (DecimalVector) root.getVector("amount");
+        this.transactionDate = (TimeStampMicroVector) root.getVector("transaction_date");
+    }
+    
+    /**
+     * Append one row, starting a new file when the month changes
+     */
+    public void write(TransactionExportRow row) throws IOException {
+        YearMonth month = YearMonth.from(row.getTransactionDate());
+        if (!month.equals(currentMonth)) {
+            finishFile();
+            startFile(month);
+        }
+        
+        int i = batchSize;
+        id.setSafe(i, row.getId());
+        userId.setSafe(i, row.getUserId().toString().getBytes(StandardCharsets.UTF_8));
+        categoryId.setSafe(i, row.getCategoryId());
+        if (row.getCategoryName() != null) {
+            categoryName.setSafe(i, row.getCategoryName().getBytes(StandardCharsets.UTF_8));
+        } else {
+            categoryName.setNull(i);
+        }
+        type.setSafe(i, row.getType().name().getBytes(StandardCharsets.UTF_8));
+        amount.setSafe(i, row.getAmount().setScale(2, RoundingMode.UNNECESSARY));
+        transactionDate.setSafe(i, toEpochMicros(row.getTransactionDate()));
+        rowCount++;
+        
+        if (++batchSize == batchRows) {
+            writeBatch();
+        }
+    }
+    
+    /**
+     * Files written so far, relative to the export directory
+     */
+    public List<String> getFiles() {
+        return files;
+    }
+    
+    public long getRowCount() {
+        return rowCount;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            finishFile();
+        } finally {
+            root.close();
+        }
+    }
+    
+    private void startFile(YearMonth month) throws IOException {
+        int part = partsPerMonth.merge(month, 1, Integer::sum) - 1;
+        String file = "month=" + month + "/part-" + part + ".arrow";
+        Path path = directory.resolve(file);
+        Files.createDirectories(path.getParent());
+        
+        currentMonth = month;
+        currentChannel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        currentWriter = new ArrowFileWriter(root, null, currentChannel);
+        currentWriter.start();
+        files.add(file);
+    }
+    
+    private void finishFile() throws IOException {
+        if (currentWriter == null) {
+            return;
+        }
+        try {
+            writeBatch();
+            currentWriter.end();
+        } finally {
+            currentWriter.close();
+            currentChannel.close();
+            currentWriter = null;
+            currentChannel = null;
+            currentMonth = null;
+        }
+    }
+    
+    private void writeBatch() throws IOException {
+        if (batchSize == 0) {
+            return;
+        }
+        root.setRowCount(batchSize);
+        currentWriter.writeBatch();
+        // Keep the buffers for the next batch
+        for (FieldVector vector : root.getFieldVectors()) {
+            vector.reset();
+        }
+        batchSize = 0;
+    }
+    
+    private static long toEpochMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+}
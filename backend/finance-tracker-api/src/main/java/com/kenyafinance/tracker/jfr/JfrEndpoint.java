@@ -0,0 +1,113 @@
+package com.kenyafinance.tracker.jfr;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * /actuator/jfr: list recordings (GET), start one (POST with optional settings and
+ * durationSeconds), download its data so far (GET /{id}) and stop it (DELETE /{id}).
+ */
+@Endpoint(id = "jfr")
+public class JfrEndpoint {
+    
+    private final Duration maxAge;
+    
+    public JfrEndpoint(Duration maxAge) {
+        this.maxAge = maxAge;
+    }
+    
+    @ReadOperation
+    public List<RecordingDescriptor> recordings() {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .map(RecordingDescriptor::of)
+                .toList();
+    }
+    
+    /**
+     * Start a recording with the given JFC settings ("default" or "profile")
+     */
+    @WriteOperation
+    public RecordingDescriptor start(@Nullable String settings, @Nullable Long durationSeconds) {
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settings != null ? settings : "default");
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + settings, e);
+        }
+        
+        Recording recording = new Recording(configuration);
+        recording.setName("finance-tracker-" + Instant.now());
+        recording.setToDisk(true);
+        recording.setMaxAge(maxAge);
+        if (durationSeconds != null) {
+            recording.setDuration(Duration.ofSeconds(durationSeconds));
+        }
+        recording.start();
+        return RecordingDescriptor.of(recording);
+    }
+    
+    /**
+     * Stream the data recorded so far; the recording keeps running
+     */
+    @ReadOperation(produces = "application/octet-stream")
+    public Resource dump(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        try {
+            Path file = Files.createTempFile("finance-tracker-", ".jfr");
+            recording.dump(file);
+            // The temporary dump is removed once the response has been streamed
+            return new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    @DeleteOperation
+    public RecordingDescriptor stop(@Selector long id) {
+        Recording recording = find(id);
+        if (recording == null) {
+            return null;
+        }
+        RecordingDescriptor descriptor = RecordingDescriptor.of(recording);
+        recording.close();
+        return descriptor;
+    }
+    
+    private Recording find(long id) {
+        return FlightRecorder.getFlightRecorder().getRecordings().stream()
+                .filter(recording -> recording.getId() == id)
+                .findFirst()
+                .orElse(null);
+    }
+    
+    public record RecordingDescriptor(long id, String name, String state, Instant startTime,
+                                      Duration duration, long size) {
+        
+        static RecordingDescriptor of(Recording recording) {
+            return new RecordingDescriptor(recording.getId(), recording.getName(), recording.getState().name(),
+                    recording.getStartTime(), recording.getDuration(), recording.getSize());
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.kenyafinance.tracker.jfr;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.data.domain.Slice;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.BaseStream;
+
+/**
+ * Emits a {@link ServiceCallEvent} per service method and a {@link QueryEvent} per
+ * repository method. When no recording has the events enabled the call goes straight
+ * through, so the aspect can stay on in production.
+ */
+@Aspect
+public class JfrInstrumentationAspect {
+    
+    private final UserIdHasher userIdHasher;
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+    
+    public JfrInstrumentationAspect(UserIdHasher userIdHasher) {
+        this.userIdHasher = userIdHasher;
+    }
+    
+    @Around("execution(public * com.kenyafinance.tracker.service.TransactionService.*(..))"
+            + " || execution(public * com.kenyafinance.tracker.service.CategoryService.*(..))"
+            + " || execution(public * com.kenyafinance.tracker.service.UserService.*(..))")
+    public Object recordServiceCall(ProceedingJoinPoint joinPoint) throws Throwable {
+        ServiceCallEvent event = new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        
+        event.begin();
+        Object result = null;
+        boolean success = false;
+        try {
+            result = joinPoint.proceed();
+            success = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.service = joinPoint.getSignature().getDeclaringType().getSimpleName();
+                event.method = joinPoint.getSignature().getName();
+                event.userHash = userIdHasher.hashFirstUser(joinPoint.getArgs());
+                event.rowCount = success ? rowCount(result) : 0;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+    
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object recordQuery(ProceedingJoinPoint joinPoint) throws Throwable {
+        QueryEvent event = new QueryEvent();
+        if (!event.isEnabled()) {
+            return joinPoint.proceed();
+        }
+        
+        event.begin();
+        Object result = null;
+        boolean success = false;
+        try {
+            result = joinPoint.proceed();
+            success = true;
+            return result;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.repository = repositoryName(joinPoint.getThis());
+                event.method = joinPoint.getSignature().getName();
+                event.userHash = userIdHasher.hashFirstUser(joinPoint.getArgs());
+                event.rowCount = success ? rowCount(result) : 0;
+                event.success = success;
+                event.commit();
+            }
+        }
+    }
+    
+    /**
+     * The repository interface behind a Spring Data proxy, e.g. TransactionRepository
+     */
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), proxyClass -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : proxyClass.getSimpleName();
+        });
+    }
+    
+    /**
+     * Elements in a returned collection or page, 1 for a single value, -1 for streams
+     */
+    static long rowCount(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection<?> collection) {
+            return collection.size();
+        }
+        if (result instanceof Slice<?> slice) {
+            return slice.getNumberOfElements();
+        }
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        if (result instanceof Iterable<?> || result instanceof BaseStream<?, ?>) {
+            return -1;
+        }
+        return 1;
+    }
+}
@@ -0,0 +1,54 @@
+package com.kenyafinance.tracker.jfr;
+
+import com.kenyafinance.tracker.support.UserIdPaths;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Emits a {@link RequestEvent} per API request. The path is recorded as the matched
+ * controller pattern, so no user ids end up in the recording.
+ */
+public class JfrRequestFilter extends OncePerRequestFilter {
+    
+    private final UserIdHasher userIdHasher;
+    
+    public JfrRequestFilter(UserIdHasher userIdHasher) {
+        this.userIdHasher = userIdHasher;
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                event.method = request.getMethod();
+                event.path = pattern != null ? pattern.toString() : "unmatched";
+                event.status = response.getStatus();
+                event.userHash = UserIdPaths.find(request.getRequestURI()).map(userIdHasher::hash).orElse(null);
+                event.commit();
+            }
+        }
+    }
+}
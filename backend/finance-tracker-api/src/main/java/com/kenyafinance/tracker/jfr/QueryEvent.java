@@ -0,0 +1,33 @@
+package com.kenyafinance.tracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One Spring Data repository method invocation */
+@Name("com.kenyafinance.tracker.Query")
+@Label("Repository Query")
+@Category({"Finance Tracker", "Database"})
+@Description("A Spring Data repository method invocation")
+@StackTrace(false)
+class QueryEvent extends Event {
+    
+    @Label("Repository")
+    String repository;
+    
+    @Label("Method")
+    String method;
+    
+    @Label("User Hash")
+    String userHash;
+    
+    @Label("Rows")
+    @Description("Rows or entities returned, -1 when unknown")
+    long rowCount;
+    
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,29 @@
+package com.kenyafinance.tracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One API request, from the first filter to the response */
+@Name("com.kenyafinance.tracker.Request")
+@Label("API Request")
+@Category({"Finance Tracker", "HTTP"})
+@Description("An API request handled by a controller")
+@StackTrace(false)
+class RequestEvent extends Event {
+    
+    @Label("Method")
+    String method;
+    
+    @Label("Path Pattern")
+    String path;
+    
+    @Label("Status")
+    int status;
+    
+    @Label("User Hash")
+    String userHash;
+}
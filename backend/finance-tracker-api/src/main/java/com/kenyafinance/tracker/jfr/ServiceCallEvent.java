@@ -0,0 +1,33 @@
+package com.kenyafinance.tracker.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** One public service method invocation */
+@Name("com.kenyafinance.tracker.ServiceCall")
+@Label("Service Call")
+@Category({"Finance Tracker", "Service"})
+@Description("A TransactionService, CategoryService or UserService method invocation")
+@StackTrace(false)
+class ServiceCallEvent extends Event {
+    
+    @Label("Service")
+    String service;
+    
+    @Label("Method")
+    String method;
+    
+    @Label("User Hash")
+    String userHash;
+    
+    @Label("Rows")
+    @Description("Elements returned, -1 when unknown")
+    long rowCount;
+    
+    @Label("Success")
+    boolean success;
+}
@@ -0,0 +1,61 @@
+package com.kenyafinance.tracker.jfr;
+
+import com.kenyafinance.tracker.entity.User;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Salted, truncated SHA-256 of user ids, so recordings can group events by user without
+ * containing the ids themselves. Without a configured salt a random one is used per process.
+ */
+public class UserIdHasher {
+    
+    private final byte[] salt;
+    
+    public UserIdHasher(String salt) {
+        if (salt == null || salt.isBlank()) {
+            this.salt = new byte[16];
+            new SecureRandom().nextBytes(this.salt);
+        } else {
+            this.salt = salt.getBytes(StandardCharsets.UTF_8);
+        }
+    }
+    
+    public String hash(UUID userId) {
+        if (userId == null) {
+            return null;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(salt);
+            digest.update(ByteBuffer.allocate(16)
+                    .putLong(userId.getMostSignificantBits())
+                    .putLong(userId.getLeastSignificantBits())
+                    .array());
+            return HexFormat.of().formatHex(digest.digest(), 0, 8);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * Hash the first user id (or User) among the arguments of a call
+     */
+    public String hashFirstUser(Object[] args) {
+        for (Object arg : args) {
+            if (arg instanceof UUID userId) {
+                return hash(userId);
+            }
+            if (arg instanceof User user) {
+                return hash(user.getId());
+            }
+        }
+        return null;
+    }
+}
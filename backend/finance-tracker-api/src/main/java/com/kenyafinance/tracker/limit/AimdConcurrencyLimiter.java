@@ -0,0 +1,98 @@
+package com.kenyafinance.tracker.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Additive-increase / multiplicative-decrease concurrency limiter.
+ * The limit grows by one for each fast response while the limiter is busy, and shrinks
+ * by the backoff ratio whenever a response is slow or fails. Requests over the limit are
+ * rejected immediately instead of queueing.
+ * <p>
+ * At most one decrease is applied per window: a slow or failed response only backs the
+ * limit off if its request started after the last decrease. The requests that were
+ * already in flight when the limit dropped saw the same overload, and counting each of
+ * them again would collapse the limit to its minimum after a single latency spike.
+ */
+public class AimdConcurrencyLimiter {
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+    private final LongSupplier nanoClock;
+    
+    private final AtomicInteger limit;
+    private final AtomicLong lastDecreaseNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                  long latencyThresholdMillis, double backoffRatio) {
+        this(initialLimit, minLimit, maxLimit, latencyThresholdMillis, backoffRatio, System::nanoTime);
+    }
+    
+    AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                           long latencyThresholdMillis, double backoffRatio, LongSupplier nanoClock) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdMillis * 1_000_000L;
+        this.backoffRatio = backoffRatio;
+        this.nanoClock = nanoClock;
+        this.limit = new AtomicInteger(Math.max(minLimit, Math.min(maxLimit, initialLimit)));
+        this.lastDecreaseNanos = new AtomicLong(nanoClock.getAsLong());
+    }
+    
+    /**
+     * Try to take a slot; returns false (and counts a rejection) when the limit is reached
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit.get()) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    /**
+     * Release a slot and adjust the limit from the observed outcome
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        
+        if (failed || latencyNanos > latencyThresholdNanos) {
+            decrease(latencyNanos);
+        } else if (inFlightBefore * 2 >= limit.get()) {
+            // Only probe upwards when the current limit is actually being used
+            limit.updateAndGet(current -> Math.min(maxLimit, current + 1));
+        }
+    }
+    
+    private void decrease(long latencyNanos) {
+        long now = nanoClock.getAsLong();
+        long lastDecrease = lastDecreaseNanos.get();
+        // Started before the last decrease (or another thread is applying one right now)
+        if (now - latencyNanos - lastDecrease < 0 || !lastDecreaseNanos.compareAndSet(lastDecrease, now)) {
+            return;
+        }
+        limit.updateAndGet(current -> Math.max(minLimit, (int) (current * backoffRatio)));
+    }
+    
+    public int getLimit() {
+        return limit.get();
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public long getRejected() {
+        return rejected.get();
+    }
+}
@@ -0,0 +1,74 @@
+package com.kenyafinance.tracker.limit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Applies a separate adaptive concurrency limit to each {@link EndpointClass} of the API.
+ * Requests over the limit get an immediate 503 with Retry-After rather than waiting for a
+ * database connection.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private final Map<EndpointClass, AimdConcurrencyLimiter> limiters;
+    private final Map<EndpointClass, Counter> rejections = new EnumMap<>(EndpointClass.class);
+    private final String retryAfterSeconds;
+    
+    public ConcurrencyLimitFilter(Map<EndpointClass, AimdConcurrencyLimiter> limiters,
+                                  MeterRegistry meterRegistry, long retryAfterSeconds) {
+        this.limiters = limiters;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
+        
+        limiters.forEach((endpointClass, limiter) -> {
+            String tag = endpointClass.getPropertyKey();
+            meterRegistry.gauge("http.concurrency.limit", Tags.of("class", tag),
+                    limiter, AimdConcurrencyLimiter::getLimit);
+            meterRegistry.gauge("http.concurrency.in-flight", Tags.of("class", tag),
+                    limiter, AimdConcurrencyLimiter::getInFlight);
+            rejections.put(endpointClass, Counter.builder("http.concurrency.rejected")
+                    .description("Requests rejected because the endpoint class was at its concurrency limit")
+                    .tag("class", tag)
+                    .register(meterRegistry));
+        });
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        EndpointClass endpointClass = EndpointClass.of(request.getMethod(), request.getRequestURI());
+        AimdConcurrencyLimiter limiter = limiters.get(endpointClass);
+        
+        if (!limiter.tryAcquire()) {
+            rejections.get(endpointClass).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            return;
+        }
+        
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, failed);
+        }
+    }
+}
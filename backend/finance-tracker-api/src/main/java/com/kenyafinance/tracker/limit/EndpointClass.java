@@ -0,0 +1,64 @@
+package com.kenyafinance.tracker.limit;
+
+/**
+ * Groups of endpoints that get their own concurrency limit, so expensive aggregation
+ * reads cannot starve cheap reads and writes of database connections.
+ */
+public enum EndpointClass {
+    DASHBOARD("dashboard", 8, 50, 1000),
+    LIST_READ("list-read", 20, 100, 300),
+    WRITE("write", 20, 100, 300),
+    // Dashboard stream handshakes: the permit covers the snapshot read, not the open stream, and
+    // is sized so that every client reconnecting after a restart or deploy is not turned away
+    STREAM("stream", 50, 500, 1000),
+    // User streams and exports run for as long as the result set takes, so latency never backs the limit off
+    EXPORT("export", 2, 4, 86_400_000);
+    
+    private final String propertyKey;
+    private final int defaultInitialLimit;
+    private final int defaultMaxLimit;
+    private final long defaultLatencyThresholdMillis;
+    
+    EndpointClass(String propertyKey, int defaultInitialLimit, int defaultMaxLimit, long defaultLatencyThresholdMillis) {
+        this.propertyKey = propertyKey;
+        this.defaultInitialLimit = defaultInitialLimit;
+        this.defaultMaxLimit = defaultMaxLimit;
+        this.defaultLatencyThresholdMillis = defaultLatencyThresholdMillis;
+    }
+    
+    /**
+     * Classify a request by method and path
+     */
+    public static EndpointClass of(String method, String path) {
+        // Checked first: the dashboard event stream is also under /dashboard/
+        if (path.contains("/dashboard/") && path.endsWith("/stream")) {
+            return STREAM;
+        }
+        if (path.endsWith("/stream") || path.contains("/export/")) {
+            return EXPORT;
+        }
+        if (path.contains("/dashboard/") || path.contains("/spending/")) {
+            return DASHBOARD;
+        }
+        if ("GET".equals(method) || "HEAD".equals(method)) {
+            return LIST_READ;
+        }
+        return WRITE;
+    }
+    
+    public String getPropertyKey() {
+        return propertyKey;
+    }
+    
+    public int getDefaultInitialLimit() {
+        return defaultInitialLimit;
+    }
+    
+    public int getDefaultMaxLimit() {
+        return defaultMaxLimit;
+    }
+    
+    public long getDefaultLatencyThresholdMillis() {
+        return defaultLatencyThresholdMillis;
+    }
+}
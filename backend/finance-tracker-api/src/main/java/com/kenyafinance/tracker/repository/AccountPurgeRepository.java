@@ -0,0 +1,32 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.entity.AccountPurge;
+import com.kenyafinance.tracker.entity.AccountPurgeStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface AccountPurgeRepository extends JpaRepository<AccountPurge, UUID> {
+    
+    /**
+     * Find and lock a purge so only one instance works on it at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM AccountPurge p WHERE p.userId = :userId")
+    Optional<AccountPurge> findForUpdate(@Param("userId") UUID userId);
+    
+    /**
+     * Ids of users with a purge in the given status, oldest request first
+     */
+    @Query("SELECT p.userId FROM AccountPurge p WHERE p.status = :status ORDER BY p.requestedAt")
+    List<UUID> findUserIdsByStatus(@Param("status") AccountPurgeStatus status, Pageable pageable);
+}
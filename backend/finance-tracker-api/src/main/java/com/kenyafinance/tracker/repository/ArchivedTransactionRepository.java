@@ -0,0 +1,71 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.dto.TransactionExportRow;
+import com.kenyafinance.tracker.entity.ArchivedTransaction;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+@Repository
+public interface ArchivedTransactionRepository extends JpaRepository<ArchivedTransaction, Long> {
+    
+    /**
+     * Copy transactions into the archive in one INSERT ... SELECT, keeping their ids
+     */
+    @Modifying
+    @Query("INSERT INTO ArchivedTransaction (id, userId, categoryId, type, amount, notes, transactionDate, createdAt) " +
+           "SELECT t.id, t.user.id, t.category.id, t.type, t.amount, t.notes, t.transactionDate, t.createdAt " +
+           "FROM Transaction t WHERE t.id IN :ids")
+    int copyFromTransactions(@Param("ids") List<Long> ids);
+    
+    /**
+     * Stream every archived transaction as an export row, oldest first (call within a transaction and close the stream)
+     */
+    @Query("SELECT new com.kenyafinance.tracker.dto.TransactionExportRow(a.id, a.userId, a.categoryId, c.name, a.type, a.amount, a.transactionDate) " +
+           "FROM ArchivedTransaction a LEFT JOIN Category c ON c.id = a.categoryId ORDER BY a.transactionDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<TransactionExportRow> streamForExport();
+    
+    /**
+     * Stream a user's archived transactions as export rows, oldest first (call within a transaction and close the stream)
+     */
+    @Query("SELECT new com.kenyafinance.tracker.dto.TransactionExportRow(a.id, a.userId, a.categoryId, c.name, a.type, a.amount, a.transactionDate) " +
+           "FROM ArchivedTransaction a LEFT JOIN Category c ON c.id = a.categoryId WHERE a.userId = :userId ORDER BY a.transactionDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<TransactionExportRow> streamForExportByUserId(@Param("userId") UUID userId);
+    
+    /**
+     * Move a user's archived transactions to another category
+     */
+    @Modifying
+    @Query("UPDATE ArchivedTransaction a SET a.categoryId = :targetId WHERE a.userId = :userId AND a.categoryId = :sourceId")
+    int moveToCategory(@Param("userId") UUID userId, @Param("sourceId") Long sourceId, @Param("targetId") Long targetId);
+    
+    /**
+     * Ids of a user's archived transactions, lowest first, for deleting them in chunks
+     */
+    @Query("SELECT a.id FROM ArchivedTransaction a WHERE a.userId = :userId ORDER BY a.id")
+    List<Long> findIdsByUserId(@Param("userId") UUID userId, Pageable pageable);
+    
+    /**
+     * Delete archived transactions by id without loading them
+     */
+    @Modifying
+    @Query("DELETE FROM ArchivedTransaction a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+    
+    /**
+     * Whether the archived transaction belongs to the user
+     */
+    boolean existsByIdAndUserId(Long id, UUID userId);
+}
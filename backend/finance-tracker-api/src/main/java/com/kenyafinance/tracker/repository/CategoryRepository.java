@@ -2,13 +2,16 @@ package com.kenyafinance.tracker.repository;
 
 import com.kenyafinance.tracker.entity.Category;
 import com.kenyafinance.tracker.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
@@ -52,4 +55,23 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
      */
     @Query("SELECT COUNT(c) FROM Category c WHERE c.user = :user AND c.isActive = true")
     long countByUser(@Param("user") User user);
+    
+    /**
+     * Ids of the categories a user created, for deleting them in chunks
+     */
+    @Query("SELECT c.id FROM Category c WHERE c.user.id = :userId ORDER BY c.id")
+    List<Long> findIdsByUserId(@Param("userId") UUID userId, Pageable pageable);
+    
+    /**
+     * Delete categories by id without loading them
+     */
+    @Modifying
+    @Query("DELETE FROM Category c WHERE c.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+    
+    /**
+     * Whether the user may see the category: a default category or one they created
+     */
+    @Query("SELECT COUNT(c) > 0 FROM Category c LEFT JOIN c.user u WHERE c.id = :id AND (c.isDefault = true OR u.id = :userId)")
+    boolean isVisibleTo(@Param("id") Long id, @Param("userId") UUID userId);
 }
@@ -0,0 +1,38 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.entity.CategoryTotal;
+import com.kenyafinance.tracker.entity.TransactionType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface CategoryTotalRepository extends JpaRepository<CategoryTotal, Long> {
+    
+    /**
+     * All of a user's totals
+     */
+    List<CategoryTotal> findByUserId(UUID userId);
+    
+    /**
+     * Add to one total in place; returns 0 if the row does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE CategoryTotal c SET c.totalAmount = c.totalAmount + :amount, c.transactionCount = c.transactionCount + :count " +
+           "WHERE c.userId = :userId AND c.categoryId = :categoryId AND c.type = :type")
+    int addToTotal(@Param("userId") UUID userId, @Param("categoryId") Long categoryId, @Param("type") TransactionType type,
+                   @Param("amount") BigDecimal amount, @Param("count") long count);
+    
+    /**
+     * Delete all of a user's totals
+     */
+    @Modifying
+    @Query("DELETE FROM CategoryTotal c WHERE c.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,22 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.entity.OutboxConsumerOffset;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface OutboxConsumerOffsetRepository extends JpaRepository<OutboxConsumerOffset, String> {
+    
+    /**
+     * Find and lock a consumer offset so only one instance dispatches to that consumer at a time
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM OutboxConsumerOffset o WHERE o.consumerName = :consumerName")
+    Optional<OutboxConsumerOffset> findForUpdate(@Param("consumerName") String consumerName);
+}
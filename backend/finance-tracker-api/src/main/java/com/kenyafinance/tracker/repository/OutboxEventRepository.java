@@ -0,0 +1,54 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Find the next batch of events after the given id
+     */
+    List<OutboxEvent> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    
+    /**
+     * Find the highest event id written so far
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM OutboxEvent e")
+    long findMaxId();
+    
+    /**
+     * Ids of the events visible in a range, in order
+     */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.id > :after AND e.id <= :upTo ORDER BY e.id")
+    List<Long> findIdsInRange(@Param("after") long after, @Param("upTo") long upTo);
+    
+    /**
+     * Delete acknowledged events that are older than the retention period
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id <= :id AND e.createdAt < :cutoff")
+    int deleteUpToIdCreatedBefore(@Param("id") Long id, @Param("cutoff") LocalDateTime cutoff);
+    
+    /**
+     * Ids of the events recorded for a user, for deleting them in chunks
+     */
+    @Query("SELECT e.id FROM OutboxEvent e WHERE e.userId = :userId ORDER BY e.id")
+    List<Long> findIdsByUserId(@Param("userId") UUID userId, Pageable pageable);
+    
+    /**
+     * Delete events by id without loading them
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
@@ -0,0 +1,61 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.entity.PendingTotalWrite;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PendingTotalWriteRepository extends JpaRepository<PendingTotalWrite, Long> {
+    
+    /**
+     * Writes of the user whose running total deltas are not persisted yet, on any instance
+     */
+    long countByUserId(UUID userId);
+    
+    /**
+     * Oldest pending writes of the user held by the instance
+     */
+    @Query("SELECT p.id FROM PendingTotalWrite p WHERE p.userId = :userId AND p.instanceId = :instanceId ORDER BY p.id")
+    List<Long> findIdsByUserIdAndInstanceId(@Param("userId") UUID userId, @Param("instanceId") String instanceId,
+                                            Pageable pageable);
+    
+    /**
+     * All pending writes of the user
+     */
+    @Query("SELECT p.id FROM PendingTotalWrite p WHERE p.userId = :userId")
+    List<Long> findIdsByUserId(@Param("userId") UUID userId);
+    
+    /**
+     * Users with a write pending since before the cutoff, longest waiting first
+     */
+    @Query("SELECT p.userId FROM PendingTotalWrite p WHERE p.createdAt < :cutoff GROUP BY p.userId ORDER BY MIN(p.createdAt)")
+    List<UUID> findUsersWithStaleTotals(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    /**
+     * Whether the user has a write pending since before the cutoff
+     */
+    boolean existsByUserIdAndCreatedAtBefore(UUID userId, LocalDateTime cutoff);
+    
+    /**
+     * Delete pending writes by id; returns how many still existed
+     */
+    @Modifying
+    @Query("DELETE FROM PendingTotalWrite p WHERE p.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Delete all of a user's pending writes
+     */
+    @Modifying
+    @Query("DELETE FROM PendingTotalWrite p WHERE p.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,35 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.entity.StatCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface StatCounterRepository extends JpaRepository<StatCounter, String> {
+    
+    /**
+     * Current value of a counter
+     */
+    @Query("SELECT c.value FROM StatCounter c WHERE c.name = :name")
+    Optional<Long> findValue(@Param("name") String name);
+    
+    /**
+     * Add a delta to a counter in the caller's transaction; returns 0 if the counter does not exist yet
+     */
+    @Modifying
+    @Query("UPDATE StatCounter c SET c.value = c.value + :delta WHERE c.name = :name")
+    int add(@Param("name") String name, @Param("delta") long delta);
+    
+    /**
+     * Reset the active user counter to the true count in one statement
+     */
+    @Modifying
+    @Query("UPDATE StatCounter c SET c.value = (SELECT COUNT(u) FROM User u WHERE u.isActive = true) " +
+           "WHERE c.name = '" + StatCounter.ACTIVE_USERS + "'")
+    int recountActiveUsers();
+}
@@ -0,0 +1,56 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.entity.TransactionMonthSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TransactionMonthSummaryRepository extends JpaRepository<TransactionMonthSummary, Long> {
+    
+    /**
+     * Number of archived transactions for user
+     */
+    @Query("SELECT COALESCE(SUM(s.transactionCount), 0) FROM TransactionMonthSummary s WHERE s.userId = :userId")
+    long countArchivedByUserId(@Param("userId") UUID userId);
+    
+    /**
+     * Archived spending by category id for user
+     */
+    @Query("SELECT s.categoryId, SUM(s.totalAmount) FROM TransactionMonthSummary s " +
+           "WHERE s.userId = :userId AND s.type = 'EXPENSE' GROUP BY s.categoryId")
+    List<Object[]> getArchivedSpendingByCategoryId(@Param("userId") UUID userId);
+    
+    /**
+     * Archived totals for user as [categoryId, type, sum, count], for rebuilding running totals
+     */
+    @Query("SELECT s.categoryId, s.type, SUM(s.totalAmount), SUM(s.transactionCount) FROM TransactionMonthSummary s " +
+           "WHERE s.userId = :userId GROUP BY s.categoryId, s.type")
+    List<Object[]> sumByCategoryAndType(@Param("userId") UUID userId);
+    
+    /**
+     * Move a user's archived totals to another category
+     */
+    @Modifying
+    @Query("UPDATE TransactionMonthSummary s SET s.categoryId = :targetId WHERE s.userId = :userId AND s.categoryId = :sourceId")
+    int moveToCategory(@Param("userId") UUID userId, @Param("sourceId") Long sourceId, @Param("targetId") Long targetId);
+    
+    /**
+     * Ids of a user's summaries, lowest first, for deleting them in chunks
+     */
+    @Query("SELECT s.id FROM TransactionMonthSummary s WHERE s.userId = :userId ORDER BY s.id")
+    List<Long> findIdsByUserId(@Param("userId") UUID userId, Pageable pageable);
+    
+    /**
+     * Delete summaries by id without loading them
+     */
+    @Modifying
+    @Query("DELETE FROM TransactionMonthSummary s WHERE s.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+}
@@ -1,22 +1,32 @@
 package com.kenyafinance.tracker.repository;
 
+import com.kenyafinance.tracker.dto.TransactionExportRow;
 import com.kenyafinance.tracker.entity.Category;
 import com.kenyafinance.tracker.entity.Transaction;
 import com.kenyafinance.tracker.entity.TransactionType;
 import com.kenyafinance.tracker.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+public interface TransactionRepository extends JpaRepository<Transaction, Long>, JpaSpecificationExecutor<Transaction> {
     
     /**
      * Find all transactions for a user with pagination
@@ -42,35 +52,48 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
                                            @Param("endDate") LocalDateTime endDate);
     
     /**
-     * Calculate total income for user
+     * Calculate lifetime income for user (hot transactions plus archived monthly totals)
      */
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user = :user AND t.type = 'INCOME'")
+    @Query("SELECT COALESCE((SELECT SUM(t.amount) FROM Transaction t WHERE t.user = u AND t.type = 'INCOME'), 0) + " +
+           "COALESCE((SELECT SUM(s.totalAmount) FROM TransactionMonthSummary s WHERE s.userId = u.id AND s.type = 'INCOME'), 0) " +
+           "FROM User u WHERE u = :user")
     BigDecimal calculateTotalIncomeByUser(@Param("user") User user);
     
     /**
-     * Calculate total expenses for user
+     * Calculate lifetime expenses for user (hot transactions plus archived monthly totals)
      */
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user = :user AND t.type = 'EXPENSE'")
+    @Query("SELECT COALESCE((SELECT SUM(t.amount) FROM Transaction t WHERE t.user = u AND t.type = 'EXPENSE'), 0) + " +
+           "COALESCE((SELECT SUM(s.totalAmount) FROM TransactionMonthSummary s WHERE s.userId = u.id AND s.type = 'EXPENSE'), 0) " +
+           "FROM User u WHERE u = :user")
     BigDecimal calculateTotalExpensesByUser(@Param("user") User user);
     
     /**
-     * Calculate total income for user within date range
+     * Calculate total income for user within date range (including archived transactions)
      */
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user = :user AND t.type = 'INCOME' AND t.transactionDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE((SELECT SUM(t.amount) FROM Transaction t WHERE t.user = u AND t.type = 'INCOME' " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate), 0) + " +
+           "COALESCE((SELECT SUM(a.amount) FROM ArchivedTransaction a WHERE a.userId = u.id AND a.type = 'INCOME' " +
+           "AND a.transactionDate BETWEEN :startDate AND :endDate), 0) " +
+           "FROM User u WHERE u = :user")
     BigDecimal calculateIncomeByUserAndDateRange(@Param("user") User user, 
                                                @Param("startDate") LocalDateTime startDate, 
                                                @Param("endDate") LocalDateTime endDate);
     
     /**
-     * Calculate total expenses for user within date range
+     * Calculate total expenses for user within date range (including archived transactions)
      */
-    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.user = :user AND t.type = 'EXPENSE' AND t.transactionDate BETWEEN :startDate AND :endDate")
+    @Query("SELECT COALESCE((SELECT SUM(t.amount) FROM Transaction t WHERE t.user = u AND t.type = 'EXPENSE' " +
+           "AND t.transactionDate BETWEEN :startDate AND :endDate), 0) + " +
+           "COALESCE((SELECT SUM(a.amount) FROM ArchivedTransaction a WHERE a.userId = u.id AND a.type = 'EXPENSE' " +
+           "AND a.transactionDate BETWEEN :startDate AND :endDate), 0) " +
+           "FROM User u WHERE u = :user")
     BigDecimal calculateExpensesByUserAndDateRange(@Param("user") User user, 
                                                  @Param("startDate") LocalDateTime startDate, 
                                                  @Param("endDate") LocalDateTime endDate);
     
     /**
-     * Get spending by category for user
+     * Get spending by category for user over hot transactions only; archived spending
+     * comes from {@link TransactionMonthSummaryRepository#getArchivedSpendingByCategoryId}
      */
     @Query("SELECT t.category, SUM(t.amount) FROM Transaction t WHERE t.user = :user AND t.type = 'EXPENSE' GROUP BY t.category ORDER BY SUM(t.amount) DESC")
     List<Object[]> getSpendingByCategory(@Param("user") User user);
@@ -82,23 +105,92 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findRecentTransactionsByUser(@Param("user") User user, Pageable pageable);
     
     /**
-     * Count transactions for user
+     * Owners of the most recently created transactions, newest first (may repeat)
+     */
+    @Query("SELECT t.user.id FROM Transaction t ORDER BY t.id DESC")
+    List<UUID> findRecentUserIds(Pageable pageable);
+    
+    /**
+     * Move all of a user's transactions in one category to another with a single UPDATE,
+     * without loading them; returns the number of transactions moved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Transaction t SET t.category = :target, t.updatedAt = :now " +
+           "WHERE t.user.id = :userId AND t.category = :source")
+    int moveToCategory(@Param("userId") UUID userId,
+                       @Param("source") Category source,
+                       @Param("target") Category target,
+                       @Param("now") LocalDateTime now);
+    
+    /**
+     * Stream every transaction as an export row, oldest first (call within a transaction and close the stream)
+     */
+    @Query("SELECT new com.kenyafinance.tracker.dto.TransactionExportRow(t.id, t.user.id, c.id, c.name, t.type, t.amount, t.transactionDate) " +
+           "FROM Transaction t JOIN t.category c ORDER BY t.transactionDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<TransactionExportRow> streamForExport();
+    
+    /**
+     * Stream a user's transactions as export rows, oldest first (call within a transaction and close the stream)
+     */
+    @Query("SELECT new com.kenyafinance.tracker.dto.TransactionExportRow(t.id, t.user.id, c.id, c.name, t.type, t.amount, t.transactionDate) " +
+           "FROM Transaction t JOIN t.category c WHERE t.user.id = :userId ORDER BY t.transactionDate")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<TransactionExportRow> streamForExportByUserId(@Param("userId") UUID userId);
+    
+    /**
+     * Ids of transactions dated before the cutoff, lowest first, for archiving them in chunks.
+     * The rows stay locked until the caller commits, so no update can change them between
+     * summarizing, copying and deleting.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM Transaction t WHERE t.transactionDate < :cutoff ORDER BY t.id")
+    List<Long> findIdsDatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    /**
+     * Totals of the given transactions per user, category, type, year and month
+     */
+    @Query("SELECT t.user.id, t.category.id, t.type, YEAR(t.transactionDate), MONTH(t.transactionDate), " +
+           "SUM(t.amount), COUNT(t) FROM Transaction t WHERE t.id IN :ids " +
+           "GROUP BY t.user.id, t.category.id, t.type, YEAR(t.transactionDate), MONTH(t.transactionDate)")
+    List<Object[]> summarizeByMonth(@Param("ids") List<Long> ids);
+    
+    /**
+     * Ids of a user's transactions, lowest first, for deleting them in chunks
+     */
+    @Query("SELECT t.id FROM Transaction t WHERE t.user.id = :userId ORDER BY t.id")
+    List<Long> findIdsByUserId(@Param("userId") UUID userId, Pageable pageable);
+    
+    /**
+     * Delete transactions by id without loading them
+     */
+    @Modifying
+    @Query("DELETE FROM Transaction t WHERE t.id IN :ids")
+    int deleteByIds(@Param("ids") List<Long> ids);
+    
+    /**
+     * Count hot (not archived) transactions for user
      */
     long countByUser(User user);
     
     /**
-     * Find transactions by multiple criteria
-     */
-    @Query("SELECT t FROM Transaction t WHERE t.user = :user " +
-           "AND (:type IS NULL OR t.type = :type) " +
-           "AND (:category IS NULL OR t.category = :category) " +
-           "AND (:startDate IS NULL OR t.transactionDate >= :startDate) " +
-           "AND (:endDate IS NULL OR t.transactionDate <= :endDate) " +
-           "ORDER BY t.transactionDate DESC")
-    Page<Transaction> findTransactionsByCriteria(@Param("user") User user,
-                                               @Param("type") TransactionType type,
-                                               @Param("category") Category category,
-                                               @Param("startDate") LocalDateTime startDate,
-                                               @Param("endDate") LocalDateTime endDate,
-                                               Pageable pageable);
+     * Count lifetime transactions for user (hot transactions plus archived monthly counts)
+     */
+    @Query("SELECT (SELECT COUNT(t) FROM Transaction t WHERE t.user = u) + " +
+           "COALESCE((SELECT SUM(s.transactionCount) FROM TransactionMonthSummary s WHERE s.userId = u.id), 0) " +
+           "FROM User u WHERE u = :user")
+    Long countIncludingArchivedByUser(@Param("user") User user);
+    
+    /**
+     * Hot transaction totals for user as [categoryId, type, sum, count], for rebuilding running totals
+     */
+    @Query("SELECT t.category.id, t.type, SUM(t.amount), COUNT(t) FROM Transaction t WHERE t.user.id = :userId " +
+           "GROUP BY t.category.id, t.type")
+    List<Object[]> sumByCategoryAndType(@Param("userId") UUID userId);
+    
+    /**
+     * Whether the transaction belongs to the user
+     */
+    @Query("SELECT COUNT(t) > 0 FROM Transaction t WHERE t.id = :id AND t.user.id = :userId")
+    boolean existsByIdAndUserId(@Param("id") Long id, @Param("userId") UUID userId);
 }
@@ -0,0 +1,77 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.dto.TransactionSearchCriteria;
+import com.kenyafinance.tracker.entity.Transaction;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.entity.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Specifications for dynamic transaction searches.
+ * Only the filters that are actually supplied end up in the WHERE clause, so each
+ * filter combination gets its own statement (and plan) instead of one catch-all query.
+ */
+public final class TransactionSpecifications {
+    
+    private TransactionSpecifications() {}
+    
+    /**
+     * Build the specification for a user's search criteria
+     */
+    public static Specification<Transaction> forCriteria(User user, TransactionSearchCriteria criteria) {
+        Specification<Transaction> spec = belongsTo(user);
+        
+        if (criteria.getType() != null) {
+            spec = spec.and(hasType(criteria.getType()));
+        }
+        if (criteria.getCategoryIds() != null && !criteria.getCategoryIds().isEmpty()) {
+            spec = spec.and(inCategories(criteria.getCategoryIds()));
+        }
+        if (criteria.getMinAmount() != null) {
+            spec = spec.and(amountAtLeast(criteria.getMinAmount()));
+        }
+        if (criteria.getMaxAmount() != null) {
+            spec = spec.and(amountAtMost(criteria.getMaxAmount()));
+        }
+        if (criteria.getStartDate() != null) {
+            spec = spec.and(onOrAfter(criteria.getStartDate()));
+        }
+        if (criteria.getEndDate() != null) {
+            spec = spec.and(onOrBefore(criteria.getEndDate()));
+        }
+        return spec;
+    }
+    
+    public static Specification<Transaction> belongsTo(User user) {
+        return (root, query, cb) -> cb.equal(root.get("user"), user);
+    }
+    
+    public static Specification<Transaction> hasType(TransactionType type) {
+        return (root, query, cb) -> cb.equal(root.get("type"), type);
+    }
+    
+    public static Specification<Transaction> inCategories(List<Long> categoryIds) {
+        // Compare on the foreign key directly so no join to categories is emitted
+        return (root, query, cb) -> root.get("category").get("id").in(categoryIds);
+    }
+    
+    public static Specification<Transaction> amountAtLeast(BigDecimal minAmount) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("amount"), minAmount);
+    }
+    
+    public static Specification<Transaction> amountAtMost(BigDecimal maxAmount) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("amount"), maxAmount);
+    }
+    
+    public static Specification<Transaction> onOrAfter(LocalDateTime startDate) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("transactionDate"), startDate);
+    }
+    
+    public static Specification<Transaction> onOrBefore(LocalDateTime endDate) {
+        return (root, query, cb) -> cb.lessThanOrEqualTo(root.get("transactionDate"), endDate);
+    }
+}
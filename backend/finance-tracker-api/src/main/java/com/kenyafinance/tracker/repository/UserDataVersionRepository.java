@@ -0,0 +1,36 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.entity.UserDataVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface UserDataVersionRepository extends JpaRepository<UserDataVersion, Long> {
+    
+    /**
+     * Add one to a stripe of each given user; users without that stripe row are left out
+     */
+    @Modifying
+    @Query("UPDATE UserDataVersion v SET v.version = v.version + 1 WHERE v.userId IN :userIds AND v.stripe = :stripe")
+    int increment(@Param("userIds") Collection<UUID> userIds, @Param("stripe") int stripe);
+    
+    /**
+     * Which of the given users have the stripe row
+     */
+    @Query("SELECT v.userId FROM UserDataVersion v WHERE v.userId IN :userIds AND v.stripe = :stripe")
+    List<UUID> findUserIdsWithStripe(@Param("userIds") Collection<UUID> userIds, @Param("stripe") int stripe);
+    
+    /**
+     * Delete all of a user's stripes
+     */
+    @Modifying
+    @Query("DELETE FROM UserDataVersion v WHERE v.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -1,13 +1,20 @@
 package com.kenyafinance.tracker.repository;
 
 import com.kenyafinance.tracker.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, UUID> {
@@ -17,16 +24,41 @@ public interface UserRepository extends JpaRepository<User, UUID> {
      */
     Optional<User> findByEmail(String email);
     
+    /**
+     * Find the id of the user with the given email address
+     */
+    @Query("SELECT u.id FROM User u WHERE u.email = :email")
+    Optional<UUID> findIdByEmail(@Param("email") String email);
+    
+    /**
+     * Find the id of the user linked to an identity provider subject
+     */
+    @Query("SELECT u.id FROM User u WHERE u.authSubject = :subject")
+    Optional<UUID> findIdByAuthSubject(@Param("subject") String subject);
+    
     /**
      * Check if user exists by email
      */
     boolean existsByEmail(String email);
     
     /**
-     * Find active users only
+     * First page of active users in id order
+     */
+    @Query("SELECT u FROM User u WHERE u.isActive = true ORDER BY u.id")
+    List<User> findActiveUsers(Pageable pageable);
+    
+    /**
+     * Next page of active users after the given id (keyset pagination, no OFFSET scan)
      */
-    @Query("SELECT u FROM User u WHERE u.isActive = true")
-    java.util.List<User> findAllActiveUsers();
+    @Query("SELECT u FROM User u WHERE u.isActive = true AND u.id > :after ORDER BY u.id")
+    List<User> findActiveUsersAfter(@Param("after") UUID after, Pageable pageable);
+    
+    /**
+     * Stream all active users through a forward-only cursor (call within a transaction and close the stream)
+     */
+    @Query("SELECT u FROM User u WHERE u.isActive = true ORDER BY u.id")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    Stream<User> streamActiveUsers();
     
     /**
      * Find user by email and active status
@@ -34,9 +66,23 @@ public interface UserRepository extends JpaRepository<User, UUID> {
     @Query("SELECT u FROM User u WHERE u.email = :email AND u.isActive = true")
     Optional<User> findByEmailAndIsActive(@Param("email") String email);
     
+    /**
+     * Delete a user row without loading it or cascading to its collections
+     */
+    @Modifying
+    @Query("DELETE FROM User u WHERE u.id = :id")
+    int deleteUserById(@Param("id") UUID id);
+    
     /**
      * Count total active users
      */
     @Query("SELECT COUNT(u) FROM User u WHERE u.isActive = true")
     long countActiveUsers();
+    
+    /**
+     * Current data version of a user, for validating cached views of their data
+     */
+    @Query("SELECT COALESCE(SUM(v.version), 0) FROM User u LEFT JOIN UserDataVersion v ON v.userId = u.id " +
+           "WHERE u.id = :id GROUP BY u.id")
+    Optional<Long> findDataVersionById(@Param("id") UUID id);
 }
@@ -0,0 +1,75 @@
+package com.kenyafinance.tracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+
+/**
+ * Remembers successfully verified tokens, keyed by their SHA-256, until they expire (or
+ * maxTtl, whichever is sooner), so a client repeating the same bearer token skips signature
+ * verification. Rejected tokens are never cached, and raw tokens are never kept.
+ */
+public class CachingJwtDecoder implements JwtDecoder {
+    
+    private final JwtDecoder delegate;
+    private final Cache<String, Jwt> verifiedTokens;
+    
+    public CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maxTtl) {
+        this(delegate, maximumSize, maxTtl, Clock.systemUTC());
+    }
+    
+    CachingJwtDecoder(JwtDecoder delegate, long maximumSize, Duration maxTtl, Clock clock) {
+        this.delegate = delegate;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(Expiry.<String, Jwt>creating((token, jwt) -> {
+                    Duration untilExpiry = Duration.between(clock.instant(), jwt.getExpiresAt());
+                    if (untilExpiry.isNegative()) {
+                        return Duration.ZERO;
+                    }
+                    return untilExpiry.compareTo(maxTtl) < 0 ? untilExpiry : maxTtl;
+                }))
+                .recordStats()
+                .build();
+    }
+    
+    @Override
+    public Jwt decode(String token) throws JwtException {
+        String key = sha256(token);
+        Jwt cached = verifiedTokens.getIfPresent(key);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Jwt jwt = delegate.decode(token);
+        Instant expiresAt = jwt.getExpiresAt();
+        if (expiresAt != null) {
+            verifiedTokens.put(key, jwt);
+        }
+        return jwt;
+    }
+    
+    public Cache<String, Jwt> getCache() {
+        return verifiedTokens;
+    }
+    
+    private static String sha256(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
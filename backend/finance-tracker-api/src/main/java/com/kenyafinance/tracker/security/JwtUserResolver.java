@@ -0,0 +1,64 @@
+package com.kenyafinance.tracker.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kenyafinance.tracker.service.UserService;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Maps a token's subject to the internal user id through a bounded cache. Only resolved
+ * subjects are cached, so a user created after their first request is picked up right away.
+ * A subject is only linked to an existing user by email when the token marks the email as
+ * verified.
+ */
+public class JwtUserResolver {
+    
+    private final UserService userService;
+    private final Cache<String, UUID> userIds;
+    
+    public JwtUserResolver(UserService userService, long maximumSize, Duration ttl) {
+        this.userService = userService;
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+    
+    /**
+     * The internal user id for the token, or null if no user is linked to it yet
+     */
+    public UUID resolve(Jwt jwt) {
+        String subject = jwt.getSubject();
+        if (subject == null) {
+            return null;
+        }
+        UUID cached = userIds.getIfPresent(subject);
+        if (cached != null) {
+            return cached;
+        }
+        
+        Optional<UUID> userId = userService.resolveUserIdForSubject(subject, verifiedEmail(jwt).orElse(null));
+        userId.ifPresent(id -> userIds.put(subject, id));
+        return userId.orElse(null);
+    }
+    
+    /**
+     * The token's email claim, only if the identity provider vouches for it with email_verified=true
+     */
+    public static Optional<String> verifiedEmail(Jwt jwt) {
+        String email = jwt.getClaimAsString("email");
+        if (email == null || !Boolean.TRUE.equals(jwt.getClaimAsBoolean("email_verified"))) {
+            return Optional.empty();
+        }
+        return Optional.of(email);
+    }
+    
+    public Cache<String, UUID> getCache() {
+        return userIds;
+    }
+}
@@ -0,0 +1,67 @@
+package com.kenyafinance.tracker.security;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+
+import java.net.URL;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Builds JWT decoders that verify signatures locally against a cached JWKS, so requests
+ * never wait for the identity provider once the key set has been loaded.
+ */
+public final class LocalJwtDecoders {
+    
+    private static final Set<JWSAlgorithm> ALGORITHMS = Set.of(JWSAlgorithm.RS256, JWSAlgorithm.ES256);
+    
+    private LocalJwtDecoders() {}
+    
+    /**
+     * JWKS fetched from the URL and cached for cacheTtl. A background task refreshes it
+     * refreshAhead before it expires; an unknown key id triggers a (rate-limited) reload.
+     */
+    public static JWKSource<SecurityContext> remoteJwkSource(URL jwkSetUrl, Duration cacheTtl,
+                                                             Duration refreshTimeout, Duration refreshAhead) {
+        return JWKSourceBuilder.<SecurityContext>create(jwkSetUrl)
+                .cache(cacheTtl.toMillis(), refreshTimeout.toMillis())
+                .refreshAheadCache(refreshAhead.toMillis(), true)
+                .build();
+    }
+    
+    /**
+     * Decoder checking signature, expiry, and (when given) issuer and audience
+     */
+    public static NimbusJwtDecoder decoder(JWKSource<SecurityContext> jwkSource, String issuer, String audience) {
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(ALGORITHMS, jwkSource));
+        // Claims are checked by the Spring validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {});
+        
+        List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+        validators.add(issuer == null || issuer.isBlank()
+                ? JwtValidators.createDefault()
+                : JwtValidators.createDefaultWithIssuer(issuer));
+        if (audience != null && !audience.isBlank()) {
+            validators.add(new JwtClaimValidator<List<String>>(JwtClaimNames.AUD,
+                    aud -> aud != null && aud.contains(audience)));
+        }
+        
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(validators));
+        return decoder;
+    }
+}
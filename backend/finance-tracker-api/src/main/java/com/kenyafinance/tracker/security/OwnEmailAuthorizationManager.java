@@ -0,0 +1,35 @@
+package com.kenyafinance.tracker.security;
+
+import com.kenyafinance.tracker.service.UserEmailDirectory;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+/**
+ * Requires the email named by a path variable to be the authenticated token's own,
+ * verified email, so email lookups cannot be used to probe other users' accounts.
+ */
+public class OwnEmailAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    
+    private final String variable;
+    
+    public OwnEmailAuthorizationManager(String variable) {
+        this.variable = variable;
+    }
+    
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        String pathEmail = context.getVariables().get(variable);
+        if (pathEmail == null || !(authentication.get() instanceof UserJwtAuthenticationToken token)
+                || !token.isAuthenticated()) {
+            return new AuthorizationDecision(false);
+        }
+        return new AuthorizationDecision(JwtUserResolver.verifiedEmail(token.getToken())
+                .map(UserEmailDirectory::normalize)
+                .filter(UserEmailDirectory.normalize(pathEmail)::equals)
+                .isPresent());
+    }
+}
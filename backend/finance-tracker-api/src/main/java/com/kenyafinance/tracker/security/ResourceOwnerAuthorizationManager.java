@@ -0,0 +1,42 @@
+package com.kenyafinance.tracker.security;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.UUID;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * For routes that address a resource by its own id rather than by user: requires the
+ * authenticated user to be allowed to see the resource named by a path variable.
+ */
+public class ResourceOwnerAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    
+    private final String variable;
+    private final BiPredicate<Long, UUID> visibleTo;
+    
+    /**
+     * @param visibleTo whether the resource with the given id may be seen by the given user
+     */
+    public ResourceOwnerAuthorizationManager(String variable, BiPredicate<Long, UUID> visibleTo) {
+        this.variable = variable;
+        this.visibleTo = visibleTo;
+    }
+    
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        UUID userId = UserPathAuthorizationManager.authenticatedUserId(authentication.get());
+        String resourceId = context.getVariables().get(variable);
+        if (userId == null || resourceId == null) {
+            return new AuthorizationDecision(false);
+        }
+        try {
+            return new AuthorizationDecision(visibleTo.test(Long.valueOf(resourceId), userId));
+        } catch (NumberFormatException e) {
+            return new AuthorizationDecision(false);
+        }
+    }
+}
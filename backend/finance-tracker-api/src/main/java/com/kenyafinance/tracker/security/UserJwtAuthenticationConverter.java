@@ -0,0 +1,24 @@
+package com.kenyafinance.tracker.security;
+
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+/**
+ * Turns a verified JWT into a {@link UserJwtAuthenticationToken}.
+ */
+public class UserJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+    
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+    private final JwtUserResolver jwtUserResolver;
+    
+    public UserJwtAuthenticationConverter(JwtUserResolver jwtUserResolver) {
+        this.jwtUserResolver = jwtUserResolver;
+    }
+    
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        return new UserJwtAuthenticationToken(jwt, authoritiesConverter.convert(jwt), jwtUserResolver.resolve(jwt));
+    }
+}
@@ -0,0 +1,26 @@
+package com.kenyafinance.tracker.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * JWT authentication carrying the internal id of the authenticated user (null when the
+ * token's subject is not linked to a user yet).
+ */
+public class UserJwtAuthenticationToken extends JwtAuthenticationToken {
+    
+    private final UUID userId;
+    
+    public UserJwtAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, UUID userId) {
+        super(jwt, authorities, jwt.getSubject());
+        this.userId = userId;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+}
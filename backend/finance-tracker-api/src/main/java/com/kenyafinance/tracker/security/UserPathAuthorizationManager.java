@@ -0,0 +1,50 @@
+package com.kenyafinance.tracker.security;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Requires the authenticated user to be the user named by a path variable of the matched
+ * route. The variable comes from the request matcher, decoded the same way Spring MVC
+ * decodes the controller's {@code @PathVariable}, so an encoded path cannot name one user
+ * here and another one in the controller.
+ */
+public class UserPathAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    
+    private final String variable;
+    
+    public UserPathAuthorizationManager(String variable) {
+        this.variable = variable;
+    }
+    
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        UUID userId = authenticatedUserId(authentication.get());
+        String pathUserId = context.getVariables().get(variable);
+        if (userId == null || pathUserId == null) {
+            return new AuthorizationDecision(false);
+        }
+        try {
+            return new AuthorizationDecision(userId.equals(UUID.fromString(pathUserId)));
+        } catch (IllegalArgumentException e) {
+            return new AuthorizationDecision(false);
+        }
+    }
+    
+    /**
+     * Internal id of the authenticated user, or null when there is none (anonymous, not a
+     * user token, or a token whose subject is not linked yet)
+     */
+    static UUID authenticatedUserId(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated() || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication instanceof UserJwtAuthenticationToken token ? token.getUserId() : null;
+    }
+}
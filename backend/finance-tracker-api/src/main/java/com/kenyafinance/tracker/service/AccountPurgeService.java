@@ -0,0 +1,189 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.AccountPurgeDto;
+import com.kenyafinance.tracker.entity.AccountPurge;
+import com.kenyafinance.tracker.entity.AccountPurgeStatus;
+import com.kenyafinance.tracker.entity.OutboxEventType;
+import com.kenyafinance.tracker.entity.User;
+import com.kenyafinance.tracker.event.OutboxEventPublisher;
+import com.kenyafinance.tracker.repository.AccountPurgeRepository;
+import com.kenyafinance.tracker.repository.ArchivedTransactionRepository;
+import com.kenyafinance.tracker.repository.CategoryRepository;
+import com.kenyafinance.tracker.repository.CategoryTotalRepository;
+import com.kenyafinance.tracker.repository.OutboxEventRepository;
+import com.kenyafinance.tracker.repository.PendingTotalWriteRepository;
+import com.kenyafinance.tracker.repository.TransactionMonthSummaryRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.repository.UserDataVersionRepository;
+import com.kenyafinance.tracker.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Erases a user and everything recorded for them (right-to-erasure requests).
+ * Each call to {@link #purgeNextChunk} is its own short transaction that bulk-deletes at
+ * most one chunk of rows by id, so no entities are loaded and row locks on the
+ * transactions table are held only for one chunk.
+ */
+@Service
+@Transactional
+@Timed(value = "service.invocations", histogram = true)
+@Counted(value = "service.errors", recordFailuresOnly = true)
+public class AccountPurgeService {
+    
+    private final AccountPurgeRepository accountPurgeRepository;
+    private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final TransactionMonthSummaryRepository monthSummaryRepository;
+    private final CategoryRepository categoryRepository;
+    private final CategoryTotalRepository categoryTotalRepository;
+    private final UserDataVersionRepository userDataVersionRepository;
+    private final PendingTotalWriteRepository pendingTotalWriteRepository;
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxEventPublisher outboxEventPublisher;
+    private final UserService userService;
+    private final UserEmailDirectory emailDirectory;
+    
+    @Value("${app.purge.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Autowired
+    public AccountPurgeService(AccountPurgeRepository accountPurgeRepository, UserRepository userRepository,
+                               TransactionRepository transactionRepository,
+                               ArchivedTransactionRepository archivedTransactionRepository,
+                               TransactionMonthSummaryRepository monthSummaryRepository, CategoryRepository categoryRepository,
+                               CategoryTotalRepository categoryTotalRepository, UserDataVersionRepository userDataVersionRepository,
+                               PendingTotalWriteRepository pendingTotalWriteRepository,
+                               OutboxEventRepository outboxEventRepository, OutboxEventPublisher outboxEventPublisher,
+                               UserService userService, UserEmailDirectory emailDirectory) {
+        this.accountPurgeRepository = accountPurgeRepository;
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.monthSummaryRepository = monthSummaryRepository;
+        this.categoryRepository = categoryRepository;
+        this.categoryTotalRepository = categoryTotalRepository;
+        this.userDataVersionRepository = userDataVersionRepository;
+        this.pendingTotalWriteRepository = pendingTotalWriteRepository;
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxEventPublisher = outboxEventPublisher;
+        this.userService = userService;
+        this.emailDirectory = emailDirectory;
+    }
+    
+    /**
+     * Deactivate the user and queue their data for erasure; repeated requests return the existing purge
+     */
+    public AccountPurgeDto requestPurge(UUID userId) {
+        Optional<AccountPurge> existing = accountPurgeRepository.findById(userId);
+        if (existing.isPresent()) {
+            return convertToDto(existing.get());
+        }
+        
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        if (Boolean.TRUE.equals(user.getIsActive())) {
+            userService.deactivateUser(userId);
+        }
+        return convertToDto(accountPurgeRepository.saveAndFlush(new AccountPurge(userId)));
+    }
+    
+    /**
+     * Get the purge for a user
+     */
+    @Transactional(readOnly = true)
+    public Optional<AccountPurgeDto> getPurge(UUID userId) {
+        return accountPurgeRepository.findById(userId)
+                .map(this::convertToDto);
+    }
+    
+    /**
+     * Users whose purge has not completed yet, oldest request first
+     */
+    @Transactional(readOnly = true)
+    public List<UUID> findPendingPurges(int limit) {
+        return accountPurgeRepository.findUserIdsByStatus(AccountPurgeStatus.PENDING, PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Delete the next chunk of the user's data and commit. Transactions go first (hot, then
+     * archived, then their monthly summaries), then categories, then outbox events, then the
+     * user row and its running totals. Returns false once the purge is complete.
+     */
+    public boolean purgeNextChunk(UUID userId) {
+        AccountPurge purge = accountPurgeRepository.findForUpdate(userId).orElse(null);
+        if (purge == null || purge.getStatus() == AccountPurgeStatus.COMPLETED) {
+            return false;
+        }
+        Pageable chunk = PageRequest.of(0, chunkSize);
+        
+        List<Long> transactionIds = transactionRepository.findIdsByUserId(userId, chunk);
+        if (!transactionIds.isEmpty()) {
+            purge.setTransactionsDeleted(purge.getTransactionsDeleted() + transactionRepository.deleteByIds(transactionIds));
+            return true;
+        }
+        
+        List<Long> archivedIds = archivedTransactionRepository.findIdsByUserId(userId, chunk);
+        if (!archivedIds.isEmpty()) {
+            purge.setTransactionsDeleted(purge.getTransactionsDeleted() + archivedTransactionRepository.deleteByIds(archivedIds));
+            return true;
+        }
+        
+        List<Long> summaryIds = monthSummaryRepository.findIdsByUserId(userId, chunk);
+        if (!summaryIds.isEmpty()) {
+            monthSummaryRepository.deleteByIds(summaryIds);
+            return true;
+        }
+        
+        List<Long> categoryIds = categoryRepository.findIdsByUserId(userId, chunk);
+        if (!categoryIds.isEmpty()) {
+            purge.setCategoriesDeleted(purge.getCategoriesDeleted() + categoryRepository.deleteByIds(categoryIds));
+            return true;
+        }
+        
+        // Pending events carry transaction details, so they are erased too
+        List<Long> eventIds = outboxEventRepository.findIdsByUserId(userId, chunk);
+        if (!eventIds.isEmpty()) {
+            outboxEventRepository.deleteByIds(eventIds);
+            return true;
+        }
+        
+        Optional<String> email = userRepository.findById(userId).map(User::getEmail);
+        userRepository.deleteUserById(userId);
+        categoryTotalRepository.deleteByUserId(userId);
+        userDataVersionRepository.deleteByUserId(userId);
+        pendingTotalWriteRepository.deleteByUserId(userId);
+        email.ifPresent(emailDirectory::changed);
+        
+        purge.setStatus(AccountPurgeStatus.COMPLETED);
+        purge.setCompletedAt(LocalDateTime.now());
+        outboxEventPublisher.publish(OutboxEventType.USER_PURGED, "User", userId, userId, convertToDto(purge));
+        return false;
+    }
+    
+    /**
+     * Convert Entity to DTO
+     */
+    private AccountPurgeDto convertToDto(AccountPurge purge) {
+        AccountPurgeDto dto = new AccountPurgeDto();
+        dto.setUserId(purge.getUserId());
+        dto.setStatus(purge.getStatus());
+        dto.setTransactionsDeleted(purge.getTransactionsDeleted());
+        dto.setCategoriesDeleted(purge.getCategoriesDeleted());
+        dto.setRequestedAt(purge.getRequestedAt());
+        dto.setCompletedAt(purge.getCompletedAt());
+        return dto;
+    }
+}
@@ -0,0 +1,56 @@
+package com.kenyafinance.tracker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Works through pending account purges one chunk (one short transaction) at a time.
+ * Progress is committed with every chunk, so after a crash or restart the next poll simply
+ * continues with whatever rows are left.
+ */
+@Component
+@ConditionalOnProperty(name = "app.purge.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class AccountPurgeWorker {
+    
+    private static final Logger log = LoggerFactory.getLogger(AccountPurgeWorker.class);
+    
+    private final AccountPurgeService accountPurgeService;
+    
+    @Value("${app.purge.chunk-pause-ms:50}")
+    private long chunkPauseMillis;
+    
+    @Autowired
+    public AccountPurgeWorker(AccountPurgeService accountPurgeService) {
+        this.accountPurgeService = accountPurgeService;
+    }
+    
+    /**
+     * Run every pending purge to completion
+     */
+    @Scheduled(fixedDelayString = "${app.purge.poll-interval-ms:10000}")
+    public void purgePending() {
+        for (UUID userId : accountPurgeService.findPendingPurges(10)) {
+            try {
+                int chunks = 0;
+                while (accountPurgeService.purgeNextChunk(userId)) {
+                    chunks++;
+                    // Leave room for other writers and for replicas to catch up
+                    Thread.sleep(chunkPauseMillis);
+                }
+                log.info("Purged account {} in {} chunks", userId, chunks);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.warn("Purge of account {} failed, will resume on next poll", userId, e);
+            }
+        }
+    }
+}
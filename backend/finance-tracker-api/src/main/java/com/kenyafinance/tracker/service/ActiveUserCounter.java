@@ -0,0 +1,71 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.entity.StatCounter;
+import com.kenyafinance.tracker.repository.StatCounterRepository;
+import com.kenyafinance.tracker.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Number of active users, kept in the stat_counters table. UserService adjusts it in the
+ * same transaction that creates or deactivates a user. A periodic recount corrects drift
+ * from writes that bypass the service (bulk imports, manual SQL).
+ */
+@Component
+public class ActiveUserCounter {
+    
+    private static final Logger log = LoggerFactory.getLogger(ActiveUserCounter.class);
+    
+    private final StatCounterRepository statCounterRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    public ActiveUserCounter(StatCounterRepository statCounterRepository, UserRepository userRepository,
+                             PlatformTransactionManager transactionManager) {
+        this.statCounterRepository = statCounterRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Current number of active users; counts the table only until the counter exists
+     */
+    public long get() {
+        return statCounterRepository.findValue(StatCounter.ACTIVE_USERS)
+                .orElseGet(userRepository::countActiveUsers);
+    }
+    
+    /**
+     * Adjust the count within the caller's transaction
+     */
+    public void add(long delta) {
+        if (statCounterRepository.add(StatCounter.ACTIVE_USERS, delta) == 0) {
+            log.debug("Active user counter not initialized yet, the next recount will include this change");
+        }
+    }
+    
+    /**
+     * Create the counter if missing and reset it to the true count
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.users.active-count.recount-interval-ms:3600000}")
+    public void recount() {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (statCounterRepository.recountActiveUsers() == 0) {
+                    statCounterRepository.saveAndFlush(
+                            new StatCounter(StatCounter.ACTIVE_USERS, userRepository.countActiveUsers()));
+                }
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another instance created the counter first; its count is just as fresh
+            log.debug("Active user counter was initialized concurrently");
+        }
+    }
+}
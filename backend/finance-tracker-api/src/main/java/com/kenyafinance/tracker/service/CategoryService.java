@@ -1,14 +1,24 @@
 package com.kenyafinance.tracker.service;
 
 import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.CategoryMergeDto;
 import com.kenyafinance.tracker.entity.Category;
+import com.kenyafinance.tracker.entity.OutboxEventType;
 import com.kenyafinance.tracker.entity.User;
+import com.kenyafinance.tracker.event.OutboxEventPublisher;
+import com.kenyafinance.tracker.repository.ArchivedTransactionRepository;
 import com.kenyafinance.tracker.repository.CategoryRepository;
+import com.kenyafinance.tracker.repository.TransactionMonthSummaryRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
 import com.kenyafinance.tracker.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -16,15 +26,36 @@ import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "service.invocations", histogram = true)
+@Counted(value = "service.errors", recordFailuresOnly = true)
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
     private final UserRepository userRepository;
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final TransactionMonthSummaryRepository monthSummaryRepository;
+    private final OutboxEventPublisher outboxEventPublisher;
+    private final UserDataVersions userDataVersions;
+    private final RunningTotals runningTotals;
     
     @Autowired
-    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository) {
+    public CategoryService(CategoryRepository categoryRepository, UserRepository userRepository,
+                           TransactionRepository transactionRepository,
+                           ArchivedTransactionRepository archivedTransactionRepository,
+                           TransactionMonthSummaryRepository monthSummaryRepository,
+                           OutboxEventPublisher outboxEventPublisher,
+                           UserDataVersions userDataVersions,
+                           ObjectProvider<RunningTotals> runningTotals) {
         this.categoryRepository = categoryRepository;
         this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.monthSummaryRepository = monthSummaryRepository;
+        this.outboxEventPublisher = outboxEventPublisher;
+        this.userDataVersions = userDataVersions;
+        // Only present with app.running-totals.enabled
+        this.runningTotals = runningTotals.getIfAvailable();
     }
     
     /**
@@ -44,7 +75,10 @@ public class CategoryService {
         category.setIsDefault(false); // User categories are not default
         
         Category savedCategory = categoryRepository.save(category);
-        return convertToDto(savedCategory);
+        CategoryDto createdDto = convertToDto(savedCategory);
+        userDataVersions.bump(userId);
+        outboxEventPublisher.publish(OutboxEventType.CATEGORY_CREATED, "Category", savedCategory.getId(), userId, createdDto);
+        return createdDto;
     }
     
     /**
@@ -99,7 +133,10 @@ public class CategoryService {
         existingCategory.setColorCode(categoryDto.getColorCode());
         
         Category updatedCategory = categoryRepository.save(existingCategory);
-        return convertToDto(updatedCategory);
+        CategoryDto updatedDto = convertToDto(updatedCategory);
+        userDataVersions.bump(userId);
+        outboxEventPublisher.publish(OutboxEventType.CATEGORY_UPDATED, "Category", categoryId, userId, updatedDto);
+        return updatedDto;
     }
     
     /**
@@ -119,7 +156,52 @@ public class CategoryService {
         }
         
         category.setIsActive(false);
-        categoryRepository.save(category);
+        Category deletedCategory = categoryRepository.save(category);
+        userDataVersions.bump(userId);
+        outboxEventPublisher.publish(OutboxEventType.CATEGORY_DELETED, "Category", categoryId, userId, convertToDto(deletedCategory));
+    }
+    
+    /**
+     * Move all of the user's transactions (hot and archived) from one category into another
+     * with set-based UPDATEs. A source category the user owns is then soft-deleted; for a default category
+     * only the user's transactions are moved.
+     */
+    public CategoryMergeDto mergeCategory(UUID userId, Long sourceCategoryId, Long targetCategoryId) {
+        if (sourceCategoryId.equals(targetCategoryId)) {
+            throw new RuntimeException("Cannot merge a category into itself");
+        }
+        userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        
+        Category source = categoryRepository.findById(sourceCategoryId)
+                .orElseThrow(() -> new RuntimeException("Category not found with id: " + sourceCategoryId));
+        Category target = categoryRepository.findById(targetCategoryId)
+                .orElseThrow(() -> new RuntimeException("Category not found with id: " + targetCategoryId));
+        if (!isUsableBy(source, userId) || !isUsableBy(target, userId) || !target.getIsActive()) {
+            throw new RuntimeException("Cannot merge these categories");
+        }
+        
+        int moved = transactionRepository.moveToCategory(userId, source, target, LocalDateTime.now())
+                + archivedTransactionRepository.moveToCategory(userId, sourceCategoryId, targetCategoryId);
+        monthSummaryRepository.moveToCategory(userId, sourceCategoryId, targetCategoryId);
+        
+        boolean deleteSource = !source.getIsDefault();
+        if (deleteSource) {
+            // The bulk update cleared the persistence context, so reload before the soft delete
+            Category sourceCategory = categoryRepository.findById(sourceCategoryId).orElseThrow();
+            sourceCategory.setIsActive(false);
+            categoryRepository.save(sourceCategory);
+        }
+        
+        userDataVersions.bump(userId);
+        if (runningTotals != null) {
+            // Deltas pending anywhere still name the source category
+            runningTotals.markStale(userId);
+        }
+        CategoryMergeDto result = new CategoryMergeDto(sourceCategoryId, targetCategoryId, moved, deleteSource);
+        // Subscribers rebuild any per-category aggregates for the user from this event
+        outboxEventPublisher.publish(OutboxEventType.CATEGORY_MERGED, "Category", sourceCategoryId, userId, result);
+        return result;
     }
     
     /**
@@ -134,7 +216,7 @@ public class CategoryService {
     }
     
     /**
-     * Initialize default categories
+     * Initialize default categories (mirrored by db/seed/default-categories.sql)
      */
     public void initializeDefaultCategories() {
         List<Category> defaultCategories = List.of(
@@ -155,6 +237,10 @@ public class CategoryService {
         }
     }
     
+    private boolean isUsableBy(Category category, UUID userId) {
+        return category.getIsDefault() || (category.getUser() != null && category.getUser().getId().equals(userId));
+    }
+    
     /**
      * Convert Entity to DTO
      */
@@ -0,0 +1,10 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+
+/**
+ * Dashboard summary labelled with the user data version it was built from.
+ * Holds either the summary itself or its JSON form, depending on how it is cached.
+ */
+public record DashboardSnapshot(long dataVersion, DashboardSummaryDto summary, byte[] json) {
+}
@@ -0,0 +1,122 @@
+package com.kenyafinance.tracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kenyafinance.tracker.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Per-user cache of fully built dashboard summaries, validated against the user's data version.
+ * Every write to a user's transactions or categories bumps that version in the same database
+ * transaction ({@link UserDataVersions}), so a hit costs one indexed lookup and an entry is only
+ * served while that version is unchanged, whichever instance made the write.
+ * Entries are bounded by their approximate size in bytes. With {@code app.dashboard-cache.serialized}
+ * the summary is kept as JSON, so a hit also skips serialization.
+ *
+ * Metrics: dashboard.cache.requests{result=hit|miss}, plus the dashboard.snapshots cache meters.
+ */
+@Service
+public class DashboardSnapshotCache {
+    
+    // Rough per-object cost of the summary when it is kept as objects
+    private static final int BASE_WEIGHT = 512;
+    private static final int ROW_WEIGHT = 384;
+    
+    private final ReadCoalescingService readCoalescingService;
+    private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readOnlyTemplate;
+    private final Cache<UUID, DashboardSnapshot> snapshots;
+    private final Counter hits;
+    private final Counter misses;
+    private final boolean enabled;
+    private final boolean serialized;
+    
+    @Autowired
+    public DashboardSnapshotCache(ReadCoalescingService readCoalescingService, UserRepository userRepository,
+                                  ObjectMapper objectMapper, PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.dashboard-cache.enabled:true}") boolean enabled,
+                                  @Value("${app.dashboard-cache.serialized:true}") boolean serialized,
+                                  @Value("${app.dashboard-cache.max-bytes:67108864}") long maxBytes,
+                                  @Value("${app.dashboard-cache.idle-ttl-ms:1800000}") long idleTtlMillis) {
+        this.readCoalescingService = readCoalescingService;
+        this.userRepository = userRepository;
+        this.objectMapper = objectMapper;
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        this.enabled = enabled;
+        this.serialized = serialized;
+        this.snapshots = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((UUID userId, DashboardSnapshot snapshot) -> weigh(snapshot))
+                .expireAfterAccess(Duration.ofMillis(idleTtlMillis))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, snapshots, "dashboard.snapshots");
+        this.hits = counter(meterRegistry, "hit");
+        this.misses = counter(meterRegistry, "miss");
+    }
+    
+    /**
+     * Get the user's dashboard, from the cache when nothing has changed since it was built
+     */
+    public DashboardSnapshot getDashboard(UUID userId) {
+        if (!enabled) {
+            return readCoalescingService.getDashboardSnapshot(userId);
+        }
+        
+        long currentVersion = readOnlyTemplate.execute(status -> userRepository.findDataVersionById(userId))
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        DashboardSnapshot cached = snapshots.getIfPresent(userId);
+        if (cached != null && cached.dataVersion() == currentVersion) {
+            hits.increment();
+            return cached;
+        }
+        
+        misses.increment();
+        DashboardSnapshot loaded = readCoalescingService.getDashboardSnapshot(userId);
+        DashboardSnapshot stored = serialized
+                ? new DashboardSnapshot(loaded.dataVersion(), null, toJson(loaded))
+                : loaded;
+        // Never replace a newer entry with an older one loaded concurrently
+        snapshots.asMap().merge(userId, stored,
+                (existing, candidate) -> candidate.dataVersion() >= existing.dataVersion() ? candidate : existing);
+        return stored;
+    }
+    
+    private byte[] toJson(DashboardSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsBytes(snapshot.summary());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize dashboard summary", e);
+        }
+    }
+    
+    private static int weigh(DashboardSnapshot snapshot) {
+        if (snapshot.json() != null) {
+            return BASE_WEIGHT + snapshot.json().length;
+        }
+        int rows = snapshot.summary().getCategorySpending().size() + snapshot.summary().getRecentTransactions().size();
+        return BASE_WEIGHT + rows * ROW_WEIGHT;
+    }
+    
+    private static Counter counter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("dashboard.cache.requests")
+                .description("Dashboard reads, by whether a current snapshot was cached")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
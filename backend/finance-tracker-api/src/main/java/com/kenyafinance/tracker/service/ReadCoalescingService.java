@@ -0,0 +1,100 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.datasource.StatementDeadlines;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.support.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent identical heavy reads (same operation, same user) so they share
+ * one database round trip. Sits outside the transactional services on purpose: each
+ * leader call opens its own read-only transaction, followers never touch the database.
+ * A follower waits no longer than its own statement deadline, runs the read itself if the
+ * leader's statements timed out (the leader may have had a much shorter client timeout), and
+ * never joins a leader that started before the user's last committed write on this instance.
+ *
+ * Metrics: coalescing.requests{operation, result=leader|shared}; the coalescing ratio
+ * is shared / (leader + shared).
+ */
+@Service
+public class ReadCoalescingService {
+    
+    private final TransactionService transactionService;
+    private final StatementDeadlines statementDeadlines;
+    
+    private final SingleFlight<UUID, DashboardSnapshot> dashboardFlights = new SingleFlight<>();
+    private final SingleFlight<UUID, List<DashboardSummaryDto.CategorySpendingDto>> categorySpendingFlights = new SingleFlight<>();
+    
+    private final Counter dashboardLeaders;
+    private final Counter dashboardShared;
+    private final Counter categorySpendingLeaders;
+    private final Counter categorySpendingShared;
+    
+    @Autowired
+    public ReadCoalescingService(TransactionService transactionService, StatementDeadlines statementDeadlines,
+                                 MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.statementDeadlines = statementDeadlines;
+        this.dashboardLeaders = counter(meterRegistry, "dashboard", "leader");
+        this.dashboardShared = counter(meterRegistry, "dashboard", "shared");
+        this.categorySpendingLeaders = counter(meterRegistry, "category-spending", "leader");
+        this.categorySpendingShared = counter(meterRegistry, "category-spending", "shared");
+    }
+    
+    /**
+     * Get versioned dashboard summary for user, sharing any identical call already in flight
+     */
+    public DashboardSnapshot getDashboardSnapshot(UUID userId) {
+        return coalesce(dashboardFlights, userId, () -> transactionService.getDashboardSnapshot(userId),
+                dashboardLeaders, dashboardShared);
+    }
+    
+    /**
+     * Get category spending for user, sharing any identical call already in flight
+     */
+    public List<DashboardSummaryDto.CategorySpendingDto> getCategorySpending(UUID userId) {
+        return coalesce(categorySpendingFlights, userId, () -> transactionService.getCategorySpending(userId),
+                categorySpendingLeaders, categorySpendingShared);
+    }
+    
+    private <V> V coalesce(SingleFlight<UUID, V> flights, UUID userId, Supplier<V> supplier,
+                           Counter leaders, Counter shared) {
+        StatementDeadlines.Deadline deadline = statementDeadlines.current();
+        long maxWaitMillis = deadline != null && deadline.isBounded() ? Math.max(1, deadline.remainingMillis()) : 0;
+        SingleFlight.Result<V> result;
+        try {
+            result = flights.execute(userId, supplier, maxWaitMillis, StatementDeadlines::isTimeout);
+        } catch (SingleFlight.WaitTimeoutException e) {
+            // Out of time while waiting on the leader, which counts as this request's own timeout
+            statementDeadlines.markTimedOut();
+            throw new QueryTimeoutException(e.getMessage(), e);
+        }
+        (result.shared() ? shared : leaders).increment();
+        return result.value();
+    }
+    
+    /**
+     * Stop sharing the user's reads already in flight; call once a change to the user's data
+     * has committed, so a read issued after it cannot get a result from before it
+     */
+    public void forget(UUID userId) {
+        dashboardFlights.forget(userId);
+        categorySpendingFlights.forget(userId);
+    }
+    
+    private static Counter counter(MeterRegistry meterRegistry, String operation, String result) {
+        return Counter.builder("coalescing.requests")
+                .description("Heavy read calls, by whether they ran the query or shared an in-flight result")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,442 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.entity.CategoryTotal;
+import com.kenyafinance.tracker.entity.PendingTotalWrite;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.repository.CategoryTotalRepository;
+import com.kenyafinance.tracker.repository.PendingTotalWriteRepository;
+import com.kenyafinance.tracker.repository.TransactionMonthSummaryRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.repository.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lifetime totals per user, category and type in the category_totals table, maintained without
+ * making concurrent writes for one user queue on the same rows. Committed transaction changes add
+ * their deltas to striped in-memory counters; a flusher applies them to the table every
+ * {@code flush-interval-ms} and on shutdown.
+ *
+ * The pending_total_writes table logs the writes whose deltas are not in the table yet: each write
+ * inserts a row keyed by this instance in its own transaction, and the flush deletes as many of this
+ * instance's rows as it applied. Inserts don't lock any row another write of the user needs, so the
+ * log never serializes writers. When a user's row count equals the writes pending on this instance,
+ * the table plus the local deltas is exact; otherwise (writes pending on another instance, or lost in
+ * a crash) {@link #getTotals} returns empty and the caller aggregates the transactions instead. Users
+ * with a row older than {@code reconcile-after-ms} are rebuilt from their transactions.
+ *
+ * Metrics: totals.reads{result=merged|fallback}, totals.flush.failures
+ */
+@Component
+@ConditionalOnProperty(name = "app.running-totals.enabled", havingValue = "true")
+public class RunningTotals {
+    
+    private static final Logger log = LoggerFactory.getLogger(RunningTotals.class);
+    
+    // Logged by markStale so the next reconcile picks the user up; no instance flushes these
+    private static final LocalDateTime STALE = LocalDateTime.of(2000, 1, 1, 0, 0);
+    private static final String STALE_MARKER = "stale";
+    
+    private final String instanceId = UUID.randomUUID().toString();
+    private final UserRepository userRepository;
+    private final PendingTotalWriteRepository pendingTotalWriteRepository;
+    private final CategoryTotalRepository categoryTotalRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionMonthSummaryRepository monthSummaryRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate rebuildTemplate;
+    private final Map<UUID, PendingTotals> pending = new ConcurrentHashMap<>();
+    // Odd while a flush is moving deltas from memory to the table
+    private final AtomicLong flushSequence = new AtomicLong();
+    private final Counter mergedReads;
+    private final Counter fallbackReads;
+    private final Counter flushFailures;
+    
+    @Value("${app.running-totals.flush-batch-size:500}")
+    private int flushBatchSize;
+    
+    @Value("${app.running-totals.reconcile-after-ms:60000}")
+    private long reconcileAfterMillis;
+    
+    @Autowired
+    public RunningTotals(UserRepository userRepository, PendingTotalWriteRepository pendingTotalWriteRepository,
+                         CategoryTotalRepository categoryTotalRepository, TransactionRepository transactionRepository,
+                         TransactionMonthSummaryRepository monthSummaryRepository,
+                         PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.pendingTotalWriteRepository = pendingTotalWriteRepository;
+        this.categoryTotalRepository = categoryTotalRepository;
+        this.transactionRepository = transactionRepository;
+        this.monthSummaryRepository = monthSummaryRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        // Sees the transactions and the pending log at one point in time
+        this.rebuildTemplate = new TransactionTemplate(transactionManager);
+        this.rebuildTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.mergedReads = readCounter(meterRegistry, "merged");
+        this.fallbackReads = readCounter(meterRegistry, "fallback");
+        this.flushFailures = Counter.builder("totals.flush.failures")
+                .description("Running total flushes rolled back; their deltas are retried on the next flush")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Record a transaction change within the caller's transaction. The deltas are added in memory
+     * once it commits; {@code previous} is null for creates and {@code current} for deletes.
+     */
+    public void record(UUID userId, TransactionDto previous, TransactionDto current) {
+        Map<TotalKey, Delta> deltas = new HashMap<>();
+        if (previous != null) {
+            deltas.merge(new TotalKey(previous.getCategoryId(), previous.getType()),
+                    new Delta(-toCents(previous.getAmount()), -1), Delta::plus);
+        }
+        if (current != null) {
+            deltas.merge(new TotalKey(current.getCategoryId(), current.getType()),
+                    new Delta(toCents(current.getAmount()), 1), Delta::plus);
+        }
+        pendingTotalWriteRepository.save(new PendingTotalWrite(userId, instanceId, LocalDateTime.now()));
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                add(userId, new Deltas(1, deltas));
+            }
+        });
+    }
+    
+    /**
+     * Have the user's totals rebuilt by the next reconcile, for changes that move totals between
+     * categories; reads aggregate the transactions until then
+     */
+    public void markStale(UUID userId) {
+        pendingTotalWriteRepository.save(new PendingTotalWrite(userId, STALE_MARKER, STALE));
+    }
+    
+    /**
+     * The user's totals, archived transactions included, or empty when they cannot be read exactly
+     * right now and should be aggregated from the transactions
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<Total>> getTotals(UUID userId) {
+        long sequence = flushSequence.get();
+        if ((sequence & 1) == 0) {
+            long persistedWrites = pendingTotalWriteRepository.countByUserId(userId);
+            PendingTotals local = pending.get(userId);
+            Deltas localDeltas = local != null ? local.read() : Deltas.NONE;
+            if (localDeltas != null && persistedWrites == localDeltas.writes()) {
+                Map<TotalKey, Total> totals = new LinkedHashMap<>();
+                for (CategoryTotal row : categoryTotalRepository.findByUserId(userId)) {
+                    totals.put(new TotalKey(row.getCategoryId(), row.getType()),
+                            new Total(row.getCategoryId(), row.getType(), row.getTotalAmount(), row.getTransactionCount()));
+                }
+                localDeltas.changes().forEach((key, delta) -> totals.merge(key,
+                        new Total(key.categoryId(), key.type(), BigDecimal.valueOf(delta.cents(), 2), delta.count()), Total::plus));
+                if (flushSequence.get() == sequence) {
+                    mergedReads.increment();
+                    return Optional.of(totals.values().stream().filter(total -> total.count() != 0).toList());
+                }
+            }
+        }
+        fallbackReads.increment();
+        return Optional.empty();
+    }
+    
+    /**
+     * Apply the deltas held in memory to the table
+     */
+    @Scheduled(fixedDelayString = "${app.running-totals.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushSequence.incrementAndGet();
+        try {
+            List<UUID> userIds = new ArrayList<>(pending.keySet());
+            // Same lock order on every instance
+            userIds.sort(Comparator.naturalOrder());
+            for (int from = 0; from < userIds.size(); from += flushBatchSize) {
+                flushUsers(userIds.subList(from, Math.min(from + flushBatchSize, userIds.size())));
+            }
+        } finally {
+            flushSequence.incrementAndGet();
+        }
+    }
+    
+    @PreDestroy
+    void flushOnShutdown() {
+        flush();
+    }
+    
+    /**
+     * Rebuild the totals of users whose pending writes were never flushed, such as those of a
+     * crashed instance
+     */
+    @Scheduled(initialDelay = 0, fixedDelayString = "${app.running-totals.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(Duration.ofMillis(reconcileAfterMillis));
+        List<UUID> stale;
+        do {
+            stale = transactionTemplate.execute(status ->
+                    pendingTotalWriteRepository.findUsersWithStaleTotals(cutoff, PageRequest.of(0, flushBatchSize)));
+            for (UUID userId : stale) {
+                try {
+                    rebuildTemplate.executeWithoutResult(status -> rebuild(userId, cutoff));
+                } catch (RuntimeException e) {
+                    log.warn("Could not rebuild running totals for user {}", userId, e);
+                    return;
+                }
+            }
+        } while (stale.size() == flushBatchSize);
+    }
+    
+    private void flushUsers(List<UUID> userIds) {
+        Map<UUID, Deltas> drained = new TreeMap<>();
+        List<UUID> idle = new ArrayList<>();
+        for (UUID userId : userIds) {
+            PendingTotals totals = pending.get(userId);
+            Deltas deltas = totals != null ? totals.drain() : Deltas.NONE;
+            if (deltas.isEmpty()) {
+                idle.add(userId);
+            } else {
+                drained.put(userId, deltas);
+            }
+        }
+        
+        try {
+            transactionTemplate.executeWithoutResult(status -> drained.forEach(this::persist));
+        } catch (RuntimeException e) {
+            flushFailures.increment();
+            log.warn("Flushing running totals for {} users failed, keeping their deltas for the next flush", drained.size(), e);
+            drained.forEach(this::add);
+        }
+        // Users with nothing to flush for a whole interval are dropped from memory
+        idle.forEach(this::evict);
+    }
+    
+    private void persist(UUID userId, Deltas deltas) {
+        int writes = Math.toIntExact(deltas.writes());
+        List<Long> writeIds = writes > 0
+                ? pendingTotalWriteRepository.findIdsByUserIdAndInstanceId(userId, instanceId, PageRequest.of(0, writes))
+                : List.of();
+        int deleted = writeIds.isEmpty() ? 0 : pendingTotalWriteRepository.deleteByIds(writeIds);
+        if (deleted < writes) {
+            // Taken by a rebuild that already counted them, or purged since the write
+            if (!userRepository.existsById(userId)) {
+                return;
+            }
+            pendingTotalWriteRepository.save(new PendingTotalWrite(userId, STALE_MARKER, STALE));
+        }
+        deltas.changes().entrySet().stream()
+                .filter(entry -> !entry.getValue().isZero())
+                .sorted(Map.Entry.comparingByKey(TotalKey.ORDER))
+                .forEach(entry -> {
+                    TotalKey key = entry.getKey();
+                    BigDecimal amount = BigDecimal.valueOf(entry.getValue().cents(), 2);
+                    long count = entry.getValue().count();
+                    if (categoryTotalRepository.addToTotal(userId, key.categoryId(), key.type(), amount, count) == 0) {
+                        categoryTotalRepository.save(new CategoryTotal(userId, key.categoryId(), key.type(), amount, count));
+                    }
+                });
+    }
+    
+    private void rebuild(UUID userId, LocalDateTime cutoff) {
+        if (!pendingTotalWriteRepository.existsByUserIdAndCreatedAtBefore(userId, cutoff)) {
+            return;
+        }
+        // Every write in this snapshot is in the sums below, so its pending row is taken too; a flush
+        // that then finds its rows gone logs a stale marker for the next reconcile
+        pendingTotalWriteRepository.deleteByIds(pendingTotalWriteRepository.findIdsByUserId(userId));
+        categoryTotalRepository.deleteByUserId(userId);
+        Map<TotalKey, CategoryTotal> totals = new LinkedHashMap<>();
+        List<Object[]> rows = new ArrayList<>(transactionRepository.sumByCategoryAndType(userId));
+        rows.addAll(monthSummaryRepository.sumByCategoryAndType(userId));
+        for (Object[] row : rows) {
+            TotalKey key = new TotalKey((Long) row[0], (TransactionType) row[1]);
+            BigDecimal amount = (BigDecimal) row[2];
+            long count = ((Number) row[3]).longValue();
+            totals.merge(key, new CategoryTotal(userId, key.categoryId(), key.type(), amount, count), (existing, more) -> {
+                existing.setTotalAmount(existing.getTotalAmount().add(more.getTotalAmount()));
+                existing.setTransactionCount(existing.getTransactionCount() + more.getTransactionCount());
+                return existing;
+            });
+        }
+        categoryTotalRepository.saveAll(totals.values());
+        log.info("Rebuilt running totals for user {}", userId);
+    }
+    
+    private void add(UUID userId, Deltas deltas) {
+        while (true) {
+            PendingTotals totals = pending.computeIfAbsent(userId, id -> new PendingTotals());
+            if (totals.add(deltas)) {
+                return;
+            }
+            // Evicted meanwhile; start a new entry
+            pending.remove(userId, totals);
+        }
+    }
+    
+    private void evict(UUID userId) {
+        PendingTotals totals = pending.get(userId);
+        if (totals == null) {
+            return;
+        }
+        Deltas leftover = totals.retire();
+        pending.remove(userId, totals);
+        if (!leftover.isEmpty()) {
+            add(userId, leftover);
+        }
+    }
+    
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+    
+    private static Counter readCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("totals.reads")
+                .description("Running total reads, by whether the table and pending deltas could be merged exactly")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * A user's total for one category and type
+     */
+    public record Total(Long categoryId, TransactionType type, BigDecimal amount, long count) {
+        
+        Total plus(Total other) {
+            return new Total(categoryId, type, amount.add(other.amount), count + other.count);
+        }
+    }
+    
+    private record TotalKey(Long categoryId, TransactionType type) {
+        
+        static final Comparator<TotalKey> ORDER = Comparator.comparing(TotalKey::categoryId).thenComparing(TotalKey::type);
+    }
+    
+    private record Delta(long cents, long count) {
+        
+        Delta plus(Delta other) {
+            return new Delta(cents + other.cents, count + other.count);
+        }
+        
+        boolean isZero() {
+            return cents == 0 && count == 0;
+        }
+    }
+    
+    /**
+     * Changes made by a number of writes
+     */
+    private record Deltas(long writes, Map<TotalKey, Delta> changes) {
+        
+        static final Deltas NONE = new Deltas(0, Map.of());
+        
+        boolean isEmpty() {
+            return writes == 0 && changes.isEmpty();
+        }
+    }
+    
+    /**
+     * Deltas of one user not yet flushed. Writers add to striped counters without locking; readers
+     * detect a writer in progress by comparing the started and finished counts around their reads.
+     */
+    private static final class PendingTotals {
+        
+        private final Map<TotalKey, LongAdder[]> deltas = new ConcurrentHashMap<>();
+        private final LongAdder writes = new LongAdder();
+        private final LongAdder started = new LongAdder();
+        private final LongAdder finished = new LongAdder();
+        private volatile boolean retired;
+        
+        /**
+         * Add changes; false if the entry was retired first
+         */
+        boolean add(Deltas changes) {
+            started.increment();
+            try {
+                if (retired) {
+                    return false;
+                }
+                changes.changes().forEach((key, delta) -> {
+                    LongAdder[] cells = deltas.computeIfAbsent(key, k -> new LongAdder[] {new LongAdder(), new LongAdder()});
+                    cells[0].add(delta.cents());
+                    cells[1].add(delta.count());
+                });
+                // After the deltas, so a flush that takes the write also takes what it changed
+                writes.add(changes.writes());
+                return true;
+            } finally {
+                finished.increment();
+            }
+        }
+        
+        /**
+         * Current deltas, or null if a writer was midway
+         */
+        Deltas read() {
+            long before = finished.sum();
+            long writeCount = writes.sum();
+            Map<TotalKey, Delta> snapshot = new HashMap<>();
+            deltas.forEach((key, cells) -> snapshot.put(key, new Delta(cells[0].sum(), cells[1].sum())));
+            return started.sum() == before ? new Deltas(writeCount, snapshot) : null;
+        }
+        
+        /**
+         * Take the deltas added so far, leaving zeros behind
+         */
+        Deltas drain() {
+            // Writes before their deltas, the reverse of add()
+            long writeCount = writes.sumThenReset();
+            Map<TotalKey, Delta> drained = new HashMap<>();
+            deltas.forEach((key, cells) -> {
+                Delta delta = new Delta(cells[0].sumThenReset(), cells[1].sumThenReset());
+                if (!delta.isZero()) {
+                    drained.put(key, delta);
+                }
+            });
+            return new Deltas(writeCount, drained);
+        }
+        
+        /**
+         * Stop accepting writes, wait for those in progress and take whatever they added
+         */
+        Deltas retire() {
+            retired = true;
+            while (finished.sum() != started.sum()) {
+                Thread.onSpinWait();
+            }
+            return drain();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.entity.TransactionMonthSummary;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.repository.ArchivedTransactionRepository;
+import com.kenyafinance.tracker.repository.TransactionMonthSummaryRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Moves old transactions out of the hot {@code transactions} table. Each chunk is one
+ * transaction that appends monthly summaries for the rows, copies them into
+ * {@code transactions_archive} and deletes them, so lifetime totals (which add the
+ * summaries to the hot rows) never change while a chunk is moved.
+ */
+@Service
+@Transactional
+@Timed(value = "service.invocations", histogram = true)
+@Counted(value = "service.errors", recordFailuresOnly = true)
+public class TransactionArchiveService {
+    
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final TransactionMonthSummaryRepository monthSummaryRepository;
+    private final UserDataVersions userDataVersions;
+    
+    @Value("${app.archive.after-months:24}")
+    private int archiveAfterMonths;
+    
+    @Value("${app.archive.chunk-size:1000}")
+    private int chunkSize;
+    
+    @Autowired
+    public TransactionArchiveService(TransactionRepository transactionRepository,
+                                     ArchivedTransactionRepository archivedTransactionRepository,
+                                     TransactionMonthSummaryRepository monthSummaryRepository,
+                                     UserDataVersions userDataVersions) {
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.monthSummaryRepository = monthSummaryRepository;
+        this.userDataVersions = userDataVersions;
+    }
+    
+    /**
+     * Start of the oldest month that stays in the hot table
+     */
+    public LocalDateTime currentCutoff() {
+        return LocalDate.now().withDayOfMonth(1).minusMonths(archiveAfterMonths).atStartOfDay();
+    }
+    
+    /**
+     * Archive the next chunk of transactions dated before the cutoff and commit.
+     * Returns the number of transactions archived, 0 once nothing is left.
+     */
+    public int archiveNextChunk(LocalDateTime cutoff) {
+        // Locks the chunk, so the summaries and the archived copies see the same row values
+        List<Long> ids = transactionRepository.findIdsDatedBefore(cutoff, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        
+        List<TransactionMonthSummary> summaries = new ArrayList<>();
+        for (Object[] row : transactionRepository.summarizeByMonth(ids)) {
+            LocalDate month = LocalDate.of(((Number) row[3]).intValue(), ((Number) row[4]).intValue(), 1);
+            summaries.add(new TransactionMonthSummary((UUID) row[0], (Long) row[1], (TransactionType) row[2], month,
+                    (BigDecimal) row[5], ((Number) row[6]).longValue()));
+        }
+        monthSummaryRepository.saveAll(summaries);
+        archivedTransactionRepository.copyFromTransactions(ids);
+        // Totals are unchanged, but the rows drop out of recent-transaction lists
+        userDataVersions.bump(summaries.stream().map(TransactionMonthSummary::getUserId).collect(Collectors.toSet()));
+        
+        // Another instance may have archived (or a user deleted) some of these rows meanwhile;
+        // roll the whole chunk back rather than count them twice
+        int deleted = transactionRepository.deleteByIds(ids);
+        if (deleted != ids.size()) {
+            throw new RuntimeException("Transactions changed while archiving, expected " + ids.size() + " but deleted " + deleted);
+        }
+        return deleted;
+    }
+}
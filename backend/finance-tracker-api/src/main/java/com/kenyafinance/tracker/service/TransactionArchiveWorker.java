@@ -0,0 +1,56 @@
+package com.kenyafinance.tracker.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+
+/**
+ * Periodically archives transactions older than {@code app.archive.after-months}, one
+ * chunk (one short transaction) at a time.
+ */
+@Component
+@ConditionalOnProperty(name = "app.archive.worker.enabled", havingValue = "true", matchIfMissing = true)
+public class TransactionArchiveWorker {
+    
+    private static final Logger log = LoggerFactory.getLogger(TransactionArchiveWorker.class);
+    
+    private final TransactionArchiveService transactionArchiveService;
+    
+    @Value("${app.archive.chunk-pause-ms:50}")
+    private long chunkPauseMillis;
+    
+    @Autowired
+    public TransactionArchiveWorker(TransactionArchiveService transactionArchiveService) {
+        this.transactionArchiveService = transactionArchiveService;
+    }
+    
+    /**
+     * Archive everything before the current cutoff
+     */
+    @Scheduled(fixedDelayString = "${app.archive.interval-ms:3600000}", initialDelayString = "${app.archive.initial-delay-ms:600000}")
+    public void archiveOldTransactions() {
+        LocalDateTime cutoff = transactionArchiveService.currentCutoff();
+        long archived = 0;
+        try {
+            int chunk;
+            while ((chunk = transactionArchiveService.archiveNextChunk(cutoff)) > 0) {
+                archived += chunk;
+                // Leave room for other writers and for replicas to catch up
+                Thread.sleep(chunkPauseMillis);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Archiving transactions before {} failed, will resume on next run", cutoff, e);
+        }
+        if (archived > 0) {
+            log.info("Archived {} transactions dated before {}", archived, cutoff);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.kenyafinance.tracker.service;
+
+/**
+ * Thrown when a change targets a transaction the archiver has moved to {@code transactions_archive};
+ * archived transactions can be read by id but not updated or deleted
+ */
+public class TransactionArchivedException extends RuntimeException {
+    
+    public TransactionArchivedException(Long transactionId) {
+        super("Transaction " + transactionId + " is archived and read-only");
+    }
+}
@@ -0,0 +1,11 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.TransactionDto;
+
+import java.util.UUID;
+
+/**
+ * One transaction to create for a user, as part of a batch
+ */
+public record TransactionCreateRequest(UUID userId, TransactionDto transaction) {
+}
@@ -0,0 +1,17 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.TransactionDto;
+
+/**
+ * Outcome of one request in a batch: the created transaction, or why it was rejected
+ */
+public record TransactionCreateResult(TransactionDto transaction, RuntimeException error) {
+    
+    public static TransactionCreateResult created(TransactionDto transaction) {
+        return new TransactionCreateResult(transaction, null);
+    }
+    
+    public static TransactionCreateResult failed(RuntimeException error) {
+        return new TransactionCreateResult(null, error);
+    }
+}
@@ -0,0 +1,168 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.TransactionExportDto;
+import com.kenyafinance.tracker.dto.TransactionExportRow;
+import com.kenyafinance.tracker.export.ArrowTransactionWriter;
+import com.kenyafinance.tracker.repository.ArchivedTransactionRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Writes transactions (archived and hot) to month-partitioned Arrow IPC files on local disk
+ * for analytics tools. Rows are streamed from the database with a fetch size and written in
+ * fixed-size record batches, so neither the result set nor the file is held in memory.
+ * Each export is written to a temporary directory and renamed into place when complete,
+ * so readers never see a partial export. Archived and hot rows are read in one REPEATABLE READ
+ * transaction, so a chunk the archiver moves mid-export is neither missed nor written twice.
+ */
+@Service
+@Transactional(readOnly = true, isolation = Isolation.REPEATABLE_READ)
+@Timed(value = "service.invocations", histogram = true)
+@Counted(value = "service.errors", recordFailuresOnly = true)
+public class TransactionExportService {
+    
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportService.class);
+    private static final DateTimeFormatter EXPORT_ID = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmssSSS");
+    private static final String IN_PROGRESS_PREFIX = ".in-progress-";
+    
+    private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
+    private final UserRepository userRepository;
+    
+    @Value("${app.export.directory:exports}")
+    private String exportDirectory;
+    
+    @Value("${app.export.batch-rows:8192}")
+    private int batchRows;
+    
+    @Value("${app.export.memory-limit-bytes:268435456}")
+    private long memoryLimitBytes;
+    
+    @Value("${app.export.keep:3}")
+    private int keep;
+    
+    @Autowired
+    public TransactionExportService(TransactionRepository transactionRepository,
+                                    ArchivedTransactionRepository archivedTransactionRepository,
+                                    UserRepository userRepository) {
+        this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
+        this.userRepository = userRepository;
+    }
+    
+    /**
+     * Export one user's transactions
+     */
+    public TransactionExportDto exportUser(UUID userId) {
+        if (!userRepository.existsById(userId)) {
+            throw new RuntimeException("User not found with id: " + userId);
+        }
+        return export("user=" + userId,
+                () -> archivedTransactionRepository.streamForExportByUserId(userId),
+                () -> transactionRepository.streamForExportByUserId(userId));
+    }
+    
+    /**
+     * Export every user's transactions
+     */
+    public TransactionExportDto exportAll() {
+        return export("all", archivedTransactionRepository::streamForExport, transactionRepository::streamForExport);
+    }
+    
+    private TransactionExportDto export(String scope, Supplier<Stream<TransactionExportRow>> archived,
+                                        Supplier<Stream<TransactionExportRow>> hot) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        String exportId = "export=" + EXPORT_ID.format(startedAt);
+        Path scopeDirectory = Paths.get(exportDirectory, scope).toAbsolutePath();
+        Path inProgress = scopeDirectory.resolve(IN_PROGRESS_PREFIX + exportId);
+        Path target = scopeDirectory.resolve(exportId);
+        
+        try {
+            Files.createDirectories(inProgress);
+            List<String> files;
+            long rowCount;
+            try (BufferAllocator allocator = new RootAllocator(memoryLimitBytes);
+                 ArrowTransactionWriter writer = new ArrowTransactionWriter(inProgress, allocator, batchRows)) {
+                // Archived rows are older than hot ones, so this keeps the months mostly in order
+                writeAll(archived, writer);
+                writeAll(hot, writer);
+                files = List.copyOf(writer.getFiles());
+                rowCount = writer.getRowCount();
+            }
+            Files.move(inProgress, target, StandardCopyOption.ATOMIC_MOVE);
+            removeOldExports(scopeDirectory);
+            // Relative to the export directory, so responses do not reveal the server's file system layout
+            return new TransactionExportDto(scope, scope + "/" + exportId, files, rowCount, startedAt, LocalDateTime.now());
+        } catch (IOException e) {
+            deleteQuietly(inProgress);
+            throw new UncheckedIOException("Export of " + scope + " failed", e);
+        } catch (RuntimeException e) {
+            deleteQuietly(inProgress);
+            throw e;
+        }
+    }
+    
+    private void writeAll(Supplier<Stream<TransactionExportRow>> rows, ArrowTransactionWriter writer) throws IOException {
+        try (Stream<TransactionExportRow> stream = rows.get()) {
+            Iterator<TransactionExportRow> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                writer.write(iterator.next());
+            }
+        }
+    }
+    
+    /**
+     * Keep only the newest completed exports of a scope
+     */
+    private void removeOldExports(Path scopeDirectory) throws IOException {
+        List<Path> exports;
+        try (Stream<Path> children = Files.list(scopeDirectory)) {
+            exports = children
+                    .filter(path -> path.getFileName().toString().startsWith("export="))
+                    .sorted(Comparator.comparing(path -> path.getFileName().toString()))
+                    .toList();
+        }
+        for (Path old : exports.subList(0, Math.max(0, exports.size() - keep))) {
+            deleteQuietly(old);
+        }
+    }
+    
+    private void deleteQuietly(Path directory) {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            log.warn("Could not delete export directory {}", directory, e);
+        }
+    }
+}
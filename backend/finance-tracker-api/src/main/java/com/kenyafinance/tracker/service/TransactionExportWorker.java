@@ -0,0 +1,41 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.TransactionExportDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly export of the whole dataset for analytics. Files go to local disk, so enable
+ * this on the one instance whose export directory the analysts read.
+ */
+@Component
+@ConditionalOnProperty(name = "app.export.worker.enabled", havingValue = "true")
+public class TransactionExportWorker {
+    
+    private static final Logger log = LoggerFactory.getLogger(TransactionExportWorker.class);
+    
+    private final TransactionExportService transactionExportService;
+    
+    @Autowired
+    public TransactionExportWorker(TransactionExportService transactionExportService) {
+        this.transactionExportService = transactionExportService;
+    }
+    
+    /**
+     * Export every user's transactions
+     */
+    @Scheduled(cron = "${app.export.cron:0 0 2 * * *}")
+    public void exportAll() {
+        try {
+            TransactionExportDto export = transactionExportService.exportAll();
+            log.info("Exported {} transactions to {} files in {}", export.getRowCount(), export.getFiles().size(),
+                    export.getDirectory());
+        } catch (RuntimeException e) {
+            log.warn("Transaction export failed, will retry on next run", e);
+        }
+    }
+}
@@ -3,13 +3,24 @@ package com.kenyafinance.tracker.service;
 import com.kenyafinance.tracker.dto.CategoryDto;
 import com.kenyafinance.tracker.dto.DashboardSummaryDto;
 import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.TransactionSearchCriteria;
+import com.kenyafinance.tracker.entity.ArchivedTransaction;
 import com.kenyafinance.tracker.entity.Category;
+import com.kenyafinance.tracker.entity.OutboxEventType;
 import com.kenyafinance.tracker.entity.Transaction;
 import com.kenyafinance.tracker.entity.TransactionType;
 import com.kenyafinance.tracker.entity.User;
+import com.kenyafinance.tracker.event.OutboxEventPublisher;
+import com.kenyafinance.tracker.event.TransactionChangePayload;
+import com.kenyafinance.tracker.repository.ArchivedTransactionRepository;
 import com.kenyafinance.tracker.repository.CategoryRepository;
+import com.kenyafinance.tracker.repository.TransactionMonthSummaryRepository;
 import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.repository.TransactionSpecifications;
 import com.kenyafinance.tracker.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
@@ -20,26 +31,51 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
+@Timed(value = "service.invocations", histogram = true)
+@Counted(value = "service.errors", recordFailuresOnly = true)
 public class TransactionService {
     
     private final TransactionRepository transactionRepository;
+    private final ArchivedTransactionRepository archivedTransactionRepository;
     private final UserRepository userRepository;
     private final CategoryRepository categoryRepository;
+    private final TransactionMonthSummaryRepository monthSummaryRepository;
+    private final OutboxEventPublisher outboxEventPublisher;
+    private final UserDataVersions userDataVersions;
+    private final RunningTotals runningTotals;
     
     @Autowired
     public TransactionService(TransactionRepository transactionRepository, 
+                            ArchivedTransactionRepository archivedTransactionRepository,
                             UserRepository userRepository,
-                            CategoryRepository categoryRepository) {
+                            CategoryRepository categoryRepository,
+                            TransactionMonthSummaryRepository monthSummaryRepository,
+                            OutboxEventPublisher outboxEventPublisher,
+                            UserDataVersions userDataVersions,
+                            ObjectProvider<RunningTotals> runningTotals) {
         this.transactionRepository = transactionRepository;
+        this.archivedTransactionRepository = archivedTransactionRepository;
         this.userRepository = userRepository;
         this.categoryRepository = categoryRepository;
+        this.monthSummaryRepository = monthSummaryRepository;
+        this.outboxEventPublisher = outboxEventPublisher;
+        this.userDataVersions = userDataVersions;
+        // Only present with app.running-totals.enabled
+        this.runningTotals = runningTotals.getIfAvailable();
     }
     
     /**
@@ -52,12 +88,38 @@ public class TransactionService {
         Category category = categoryRepository.findById(transactionDto.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + transactionDto.getCategoryId()));
         
-        Transaction transaction = convertToEntity(transactionDto);
-        transaction.setUser(user);
-        transaction.setCategory(category);
-        
-        Transaction savedTransaction = transactionRepository.save(transaction);
-        return convertToDto(savedTransaction);
+        TransactionDto createdDto = saveNewTransaction(user, category, transactionDto);
+        userDataVersions.bump(userId);
+        return createdDto;
+    }
+    
+    /**
+     * Create several transactions in one database transaction, so they share a single commit.
+     * A request whose user or category does not exist gets its error in the result without
+     * affecting the others; any other failure rolls back the whole batch.
+     */
+    public List<TransactionCreateResult> createTransactions(List<TransactionCreateRequest> requests) {
+        List<TransactionCreateResult> results = new ArrayList<>(requests.size());
+        Set<UUID> changedUsers = new HashSet<>();
+        for (TransactionCreateRequest request : requests) {
+            UUID userId = request.userId();
+            Long categoryId = request.transaction().getCategoryId();
+            // Repeated lookups within the batch are answered by the persistence context
+            Optional<User> user = userRepository.findById(userId);
+            Optional<Category> category = categoryRepository.findById(categoryId);
+            if (user.isEmpty()) {
+                results.add(TransactionCreateResult.failed(new RuntimeException("User not found with id: " + userId)));
+            } else if (category.isEmpty()) {
+                results.add(TransactionCreateResult.failed(new RuntimeException("Category not found with id: " + categoryId)));
+            } else {
+                results.add(TransactionCreateResult.created(saveNewTransaction(user.get(), category.get(), request.transaction())));
+                changedUsers.add(userId);
+            }
+        }
+        if (!changedUsers.isEmpty()) {
+            userDataVersions.bump(changedUsers);
+        }
+        return results;
     }
     
     /**
@@ -73,12 +135,25 @@ public class TransactionService {
     }
     
     /**
-     * Get transaction by ID
+     * Search transactions for user, applying only the supplied filters
+     */
+    @Transactional(readOnly = true)
+    public Page<TransactionDto> searchTransactions(UUID userId, TransactionSearchCriteria criteria, Pageable pageable) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        
+        return transactionRepository.findAll(TransactionSpecifications.forCriteria(user, criteria), pageable)
+                .map(this::convertToDto);
+    }
+    
+    /**
+     * Get transaction by ID, looking in the archive when it is no longer a hot row
      */
     @Transactional(readOnly = true)
     public Optional<TransactionDto> getTransactionById(Long id) {
         return transactionRepository.findById(id)
-                .map(this::convertToDto);
+                .map(this::convertToDto)
+                .or(() -> archivedTransactionRepository.findById(id).map(this::convertToDto));
     }
     
     /**
@@ -89,7 +164,7 @@ public class TransactionService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
         Transaction existingTransaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + transactionId));
+                .orElseThrow(() -> notFoundOrArchived(userId, transactionId));
         
         // Check if user owns this transaction
         if (!existingTransaction.getUser().getId().equals(userId)) {
@@ -99,6 +174,8 @@ public class TransactionService {
         Category category = categoryRepository.findById(transactionDto.getCategoryId())
                 .orElseThrow(() -> new RuntimeException("Category not found with id: " + transactionDto.getCategoryId()));
         
+        TransactionDto previousDto = convertToDto(existingTransaction);
+        
         // Update fields
         existingTransaction.setType(transactionDto.getType());
         existingTransaction.setAmount(transactionDto.getAmount());
@@ -107,7 +184,10 @@ public class TransactionService {
         existingTransaction.setCategory(category);
         
         Transaction updatedTransaction = transactionRepository.save(existingTransaction);
-        return convertToDto(updatedTransaction);
+        TransactionDto updatedDto = convertToDto(updatedTransaction);
+        userDataVersions.bump(userId);
+        publishTransactionEvent(OutboxEventType.TRANSACTION_UPDATED, userId, transactionId, previousDto, updatedDto);
+        return updatedDto;
     }
     
     /**
@@ -118,14 +198,17 @@ public class TransactionService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
         Transaction transaction = transactionRepository.findById(transactionId)
-                .orElseThrow(() -> new RuntimeException("Transaction not found with id: " + transactionId));
+                .orElseThrow(() -> notFoundOrArchived(userId, transactionId));
         
         // Check if user owns this transaction
         if (!transaction.getUser().getId().equals(userId)) {
             throw new RuntimeException("Cannot delete this transaction");
         }
         
+        TransactionDto deletedDto = convertToDto(transaction);
         transactionRepository.delete(transaction);
+        userDataVersions.bump(userId);
+        publishTransactionEvent(OutboxEventType.TRANSACTION_DELETED, userId, transactionId, deletedDto, null);
     }
     
     /**
@@ -136,10 +219,24 @@ public class TransactionService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
         
-        BigDecimal totalIncome = transactionRepository.calculateTotalIncomeByUser(user);
-        BigDecimal totalExpenses = transactionRepository.calculateTotalExpensesByUser(user);
+        Optional<List<RunningTotals.Total>> runningTotals = getRunningTotals(userId);
+        BigDecimal totalIncome;
+        BigDecimal totalExpenses;
+        long totalTransactions;
+        List<DashboardSummaryDto.CategorySpendingDto> categorySpending;
+        if (runningTotals.isPresent()) {
+            List<RunningTotals.Total> totals = runningTotals.get();
+            totalIncome = sumOf(totals, TransactionType.INCOME);
+            totalExpenses = sumOf(totals, TransactionType.EXPENSE);
+            totalTransactions = totals.stream().mapToLong(RunningTotals.Total::count).sum();
+            categorySpending = getCategorySpending(totals, totalExpenses);
+        } else {
+            totalIncome = transactionRepository.calculateTotalIncomeByUser(user);
+            totalExpenses = transactionRepository.calculateTotalExpensesByUser(user);
+            totalTransactions = transactionRepository.countIncludingArchivedByUser(user);
+            categorySpending = getCategorySpending(user, totalExpenses);
+        }
         BigDecimal balance = totalIncome.subtract(totalExpenses);
-        long totalTransactions = transactionRepository.countByUser(user);
         
         // Get recent transactions (last 5)
         List<TransactionDto> recentTransactions = transactionRepository
@@ -148,9 +245,6 @@ public class TransactionService {
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
         
-        // Get category spending
-        List<DashboardSummaryDto.CategorySpendingDto> categorySpending = getCategorySpending(user, totalExpenses);
-        
         DashboardSummaryDto summary = new DashboardSummaryDto(totalIncome, totalExpenses, balance, totalTransactions);
         summary.setRecentTransactions(recentTransactions);
         summary.setCategorySpending(categorySpending);
@@ -159,30 +253,141 @@ public class TransactionService {
     }
     
     /**
-     * Get category spending breakdown
+     * Get dashboard summary for user together with the data version it reflects.
+     * The version is read first, so the summary includes at least every change up to it.
+     */
+    @Transactional(readOnly = true)
+    public DashboardSnapshot getDashboardSnapshot(UUID userId) {
+        long dataVersion = userRepository.findDataVersionById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        return new DashboardSnapshot(dataVersion, getDashboardSummary(userId), null);
+    }
+    
+    /**
+     * Get category spending breakdown for user
+     */
+    @Transactional(readOnly = true)
+    public List<DashboardSummaryDto.CategorySpendingDto> getCategorySpending(UUID userId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with id: " + userId));
+        
+        Optional<List<RunningTotals.Total>> runningTotals = getRunningTotals(userId);
+        if (runningTotals.isPresent()) {
+            return getCategorySpending(runningTotals.get(), sumOf(runningTotals.get(), TransactionType.EXPENSE));
+        }
+        BigDecimal totalExpenses = transactionRepository.calculateTotalExpensesByUser(user);
+        return getCategorySpending(user, totalExpenses);
+    }
+    
+    /**
+     * Get category spending breakdown (hot transactions plus archived monthly totals)
      */
     private List<DashboardSummaryDto.CategorySpendingDto> getCategorySpending(User user, BigDecimal totalExpenses) {
-        List<Object[]> spendingData = transactionRepository.getSpendingByCategory(user);
-        
-        return spendingData.stream()
-                .map(data -> {
-                    Category category = (Category) data[0];
-                    BigDecimal amount = (BigDecimal) data[1];
-                    Double percentage = totalExpenses.compareTo(BigDecimal.ZERO) > 0 ? 
-                            amount.divide(totalExpenses, 4, RoundingMode.HALF_UP)
-                                  .multiply(BigDecimal.valueOf(100))
-                                  .doubleValue() : 0.0;
+        Map<Long, Category> categories = new HashMap<>();
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>();
+        for (Object[] data : transactionRepository.getSpendingByCategory(user)) {
+            Category category = (Category) data[0];
+            categories.put(category.getId(), category);
+            amounts.put(category.getId(), (BigDecimal) data[1]);
+        }
+        for (Object[] data : monthSummaryRepository.getArchivedSpendingByCategoryId(user.getId())) {
+            amounts.merge((Long) data[0], (BigDecimal) data[1], BigDecimal::add);
+        }
+        List<Long> archivedOnly = amounts.keySet().stream().filter(id -> !categories.containsKey(id)).toList();
+        if (!archivedOnly.isEmpty()) {
+            categoryRepository.findAllById(archivedOnly).forEach(category -> categories.put(category.getId(), category));
+        }
+        return toCategorySpending(amounts, categories, totalExpenses);
+    }
+    
+    /**
+     * Get category spending breakdown from running totals
+     */
+    private List<DashboardSummaryDto.CategorySpendingDto> getCategorySpending(List<RunningTotals.Total> totals, BigDecimal totalExpenses) {
+        Map<Long, BigDecimal> amounts = new LinkedHashMap<>();
+        totals.stream()
+                .filter(total -> total.type() == TransactionType.EXPENSE)
+                .forEach(total -> amounts.merge(total.categoryId(), total.amount(), BigDecimal::add));
+        Map<Long, Category> categories = new HashMap<>();
+        if (!amounts.isEmpty()) {
+            categoryRepository.findAllById(amounts.keySet()).forEach(category -> categories.put(category.getId(), category));
+        }
+        return toCategorySpending(amounts, categories, totalExpenses);
+    }
+    
+    private List<DashboardSummaryDto.CategorySpendingDto> toCategorySpending(Map<Long, BigDecimal> amounts, Map<Long, Category> categories,
+                                                                            BigDecimal totalExpenses) {
+        return amounts.entrySet().stream()
+                .filter(entry -> categories.containsKey(entry.getKey()))
+                .sorted(Map.Entry.<Long, BigDecimal>comparingByValue(Comparator.reverseOrder()))
+                .map(entry -> {
+                    BigDecimal amount = entry.getValue();
+                    Double percentage = percentageOf(amount, totalExpenses);
                     
-                    CategoryDto categoryDto = convertCategoryToDto(category);
+                    CategoryDto categoryDto = convertCategoryToDto(categories.get(entry.getKey()));
                     return new DashboardSummaryDto.CategorySpendingDto(categoryDto, amount, percentage);
                 })
                 .collect(Collectors.toList());
     }
     
+    private TransactionDto saveNewTransaction(User user, Category category, TransactionDto transactionDto) {
+        Transaction transaction = convertToEntity(transactionDto);
+        transaction.setUser(user);
+        transaction.setCategory(category);
+        
+        Transaction savedTransaction = transactionRepository.save(transaction);
+        TransactionDto createdDto = convertToDto(savedTransaction);
+        publishTransactionEvent(OutboxEventType.TRANSACTION_CREATED, user.getId(), savedTransaction.getId(), null, createdDto);
+        return createdDto;
+    }
+    
+    /**
+     * Record a transaction change in the outbox (and running totals) as part of the current transaction
+     */
+    private void publishTransactionEvent(OutboxEventType eventType, UUID userId, Long transactionId,
+                                         TransactionDto previous, TransactionDto current) {
+        outboxEventPublisher.publish(eventType, "Transaction", transactionId, userId,
+                new TransactionChangePayload(previous, current));
+        if (runningTotals != null) {
+            runningTotals.record(userId, previous, current);
+        }
+    }
+    
+    private Optional<List<RunningTotals.Total>> getRunningTotals(UUID userId) {
+        return runningTotals != null ? runningTotals.getTotals(userId) : Optional.empty();
+    }
+    
+    private static BigDecimal sumOf(List<RunningTotals.Total> totals, TransactionType type) {
+        return totals.stream()
+                .filter(total -> total.type() == type)
+                .map(RunningTotals.Total::amount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
+    /**
+     * Share of total as a percentage rounded to two decimals (0 when total is zero)
+     */
+    static Double percentageOf(BigDecimal amount, BigDecimal total) {
+        return total.compareTo(BigDecimal.ZERO) > 0 ? 
+                amount.divide(total, 4, RoundingMode.HALF_UP)
+                      .multiply(BigDecimal.valueOf(100))
+                      .doubleValue() : 0.0;
+    }
+    
+    /**
+     * Error for a missing transaction: TransactionArchivedException when it belongs to the user and was archived, not-found otherwise
+     */
+    private RuntimeException notFoundOrArchived(UUID userId, Long transactionId) {
+        return archivedTransactionRepository.findById(transactionId)
+                .filter(archived -> archived.getUserId().equals(userId))
+                .<RuntimeException>map(archived -> new TransactionArchivedException(transactionId))
+                .orElseGet(() -> new RuntimeException("Transaction not found with id: " + transactionId));
+    }
+    
     /**
      * Convert Transaction Entity to DTO
      */
-    private TransactionDto convertToDto(Transaction transaction) {
+    TransactionDto convertToDto(Transaction transaction) {
         TransactionDto dto = new TransactionDto();
         dto.setId(transaction.getId());
         dto.setType(transaction.getType());
@@ -196,6 +401,24 @@ public class TransactionService {
         return dto;
     }
     
+    /**
+     * Convert an archived transaction to DTO; archived rows are never updated, so updatedAt is their creation time
+     */
+    private TransactionDto convertToDto(ArchivedTransaction transaction) {
+        TransactionDto dto = new TransactionDto();
+        dto.setId(transaction.getId());
+        dto.setType(transaction.getType());
+        dto.setAmount(transaction.getAmount());
+        dto.setNotes(transaction.getNotes());
+        dto.setTransactionDate(transaction.getTransactionDate());
+        dto.setCategoryId(transaction.getCategoryId());
+        categoryRepository.findById(transaction.getCategoryId())
+                .ifPresent(category -> dto.setCategory(convertCategoryToDto(category)));
+        dto.setCreatedAt(transaction.getCreatedAt());
+        dto.setUpdatedAt(transaction.getCreatedAt());
+        return dto;
+    }
+    
     /**
      * Convert DTO to Transaction Entity
      */
@@ -212,7 +435,7 @@ public class TransactionService {
     /**
      * Convert Category Entity to DTO
      */
-    private CategoryDto convertCategoryToDto(Category category) {
+    CategoryDto convertCategoryToDto(Category category) {
         CategoryDto dto = new CategoryDto();
         dto.setId(category.getId());
         dto.setName(category.getName());
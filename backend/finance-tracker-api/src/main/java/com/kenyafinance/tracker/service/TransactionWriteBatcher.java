@@ -0,0 +1,175 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.datasource.ReadYourWritesTracker;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit for single transaction creates. Callers queue their request and wait; a flusher
+ * thread takes up to {@code max-batch} queued requests, or whatever arrived within
+ * {@code max-delay-ms} of the first, and creates them in one database transaction, so the
+ * batch pays for one commit instead of one each. If the batch fails as a whole, every request
+ * in it is retried on its own. When the queue is full, callers create directly.
+ *
+ * Metrics: transactions.write-batch.size, transactions.write-batch.fallbacks
+ */
+@Service
+@ConditionalOnProperty(name = "app.write-batching.enabled", havingValue = "true")
+public class TransactionWriteBatcher {
+    
+    private static final Logger log = LoggerFactory.getLogger(TransactionWriteBatcher.class);
+    
+    private final TransactionService transactionService;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final BlockingQueue<PendingCreate> queue;
+    private final DistributionSummary batchSizes;
+    private final Counter fallbacks;
+    
+    @Value("${app.write-batching.max-batch:64}")
+    private int maxBatch;
+    
+    @Value("${app.write-batching.max-delay-ms:2}")
+    private long maxDelayMillis;
+    
+    private volatile boolean running = true;
+    private Thread flusher;
+    
+    @Autowired
+    public TransactionWriteBatcher(TransactionService transactionService,
+                                   ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${app.write-batching.queue-capacity:10000}") int queueCapacity) {
+        this.transactionService = transactionService;
+        // Only present when read replicas are enabled
+        this.readYourWritesTracker = readYourWritesTracker.getIfAvailable();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSizes = DistributionSummary.builder("transactions.write-batch.size")
+                .description("Transaction creates committed together")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.fallbacks = Counter.builder("transactions.write-batch.fallbacks")
+                .description("Creates done on their own because the queue was full or their batch failed")
+                .register(meterRegistry);
+    }
+    
+    @PostConstruct
+    void start() {
+        flusher = Thread.ofPlatform().name("transaction-write-batcher").daemon().start(this::flushLoop);
+    }
+    
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        flusher.join(TimeUnit.SECONDS.toMillis(10));
+        // Anything queued while the flusher was exiting
+        for (PendingCreate pending = queue.poll(); pending != null; pending = queue.poll()) {
+            createAlone(pending);
+        }
+    }
+    
+    /**
+     * Create a transaction as part of the next batch and wait for it to commit
+     */
+    public TransactionDto createTransaction(UUID userId, TransactionDto transactionDto) {
+        PendingCreate pending = new PendingCreate(new TransactionCreateRequest(userId, transactionDto), new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            fallbacks.increment();
+            return transactionService.createTransaction(userId, transactionDto);
+        }
+        try {
+            TransactionDto created = pending.result().join();
+            if (readYourWritesTracker != null) {
+                // The write ran on the flusher thread, which has no request user bound
+                readYourWritesTracker.recordWrite(userId);
+            }
+            return created;
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+    
+    private void flushLoop() {
+        List<PendingCreate> batch = new ArrayList<>(maxBatch);
+        // Keep draining after stop() so no queued caller is left waiting
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingCreate first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (batch.size() < maxBatch) {
+                    PendingCreate next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                if (!batch.isEmpty()) {
+                    flush(batch);
+                }
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void flush(List<PendingCreate> batch) {
+        batchSizes.record(batch.size());
+        List<TransactionCreateResult> results;
+        try {
+            results = transactionService.createTransactions(batch.stream().map(PendingCreate::request).toList());
+        } catch (RuntimeException e) {
+            log.warn("Batch of {} transaction creates failed, retrying them one by one", batch.size(), e);
+            batch.forEach(this::createAlone);
+            return;
+        }
+        
+        for (int i = 0; i < batch.size(); i++) {
+            TransactionCreateResult result = results.get(i);
+            if (result.error() != null) {
+                batch.get(i).result().completeExceptionally(result.error());
+            } else {
+                batch.get(i).result().complete(result.transaction());
+            }
+        }
+    }
+    
+    private void createAlone(PendingCreate pending) {
+        fallbacks.increment();
+        TransactionCreateRequest request = pending.request();
+        try {
+            pending.result().complete(transactionService.createTransaction(request.userId(), request.transaction()));
+        } catch (RuntimeException e) {
+            pending.result().completeExceptionally(e);
+        }
+    }
+    
+    private record PendingCreate(TransactionCreateRequest request, CompletableFuture<TransactionDto> result) {
+    }
+}
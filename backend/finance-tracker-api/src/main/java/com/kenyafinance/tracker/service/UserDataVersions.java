@@ -0,0 +1,113 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.entity.UserDataVersion;
+import com.kenyafinance.tracker.repository.UserDataVersionRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Per-user data version, for validating cached views of a user's data. Every change to a user's
+ * transactions or categories adds one to a random stripe of the user's row set in
+ * user_data_versions, in the same transaction as the change; the version is the sum of the
+ * stripes. Concurrent writes of one user therefore rarely wait on each other, and never on the
+ * users row. Stripe rows are created with the user, in the same transaction, so a write never
+ * needs a second connection to create one. Once the change commits, reads of the user already
+ * in flight on this instance are no longer shared with later callers.
+ */
+@Component
+public class UserDataVersions {
+    
+    private static final Logger log = LoggerFactory.getLogger(UserDataVersions.class);
+    
+    // Always created, so writes of users created before a stripe count increase fall back to it
+    private static final int FIRST_STRIPE = 0;
+    
+    private final UserDataVersionRepository userDataVersionRepository;
+    private final ObjectProvider<ReadCoalescingService> readCoalescingService;
+    
+    @Value("${app.dashboard-cache.version-stripes:4}")
+    private int stripes;
+    
+    @Autowired
+    public UserDataVersions(UserDataVersionRepository userDataVersionRepository,
+                            ObjectProvider<ReadCoalescingService> readCoalescingService) {
+        this.userDataVersionRepository = userDataVersionRepository;
+        this.readCoalescingService = readCoalescingService;
+    }
+    
+    /**
+     * Create the stripe rows of a new user; call in the same transaction as creating the user
+     */
+    public void create(UUID userId) {
+        userDataVersionRepository.saveAll(IntStream.range(0, stripes)
+                .mapToObj(stripe -> new UserDataVersion(userId, stripe))
+                .toList());
+    }
+    
+    /**
+     * Bump a user's data version; call in the same transaction as the change
+     */
+    public void bump(UUID userId) {
+        bump(Set.of(userId));
+    }
+    
+    /**
+     * Bump the data version of several users at once
+     */
+    public void bump(Collection<UUID> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        forgetReadsAfterCommit(Set.copyOf(userIds));
+        int stripe = ThreadLocalRandom.current().nextInt(stripes);
+        if (userDataVersionRepository.increment(userIds, stripe) == userIds.size()) {
+            return;
+        }
+        
+        // Users created before the stripe count was raised only have the lower stripes
+        Set<UUID> missing = new HashSet<>(userIds);
+        userDataVersionRepository.findUserIdsWithStripe(userIds, stripe).forEach(missing::remove);
+        if (userDataVersionRepository.increment(missing, FIRST_STRIPE) == missing.size()) {
+            return;
+        }
+        
+        // Users from before user_data_versions existed, if the migration has not been run
+        Set<UUID> unversioned = new HashSet<>(missing);
+        userDataVersionRepository.findUserIdsWithStripe(missing, FIRST_STRIPE).forEach(unversioned::remove);
+        log.warn("Creating data version stripes for {} users that have none; run db/migration/user-data-versions.sql",
+                unversioned.size());
+        unversioned.forEach(this::create);
+        userDataVersionRepository.flush();
+        userDataVersionRepository.increment(unversioned, FIRST_STRIPE);
+    }
+    
+    private void forgetReadsAfterCommit(Set<UUID> userIds) {
+        ReadCoalescingService coalescing = readCoalescingService.getIfAvailable();
+        if (coalescing == null) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userIds.forEach(coalescing::forget);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userIds.forEach(coalescing::forget);
+            }
+        });
+    }
+}
@@ -0,0 +1,95 @@
+package com.kenyafinance.tracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.kenyafinance.tracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Email to user id lookups in front of the users table.
+ * Answers are cached in a bounded cache, including "no such user" with a short TTL. Email
+ * lookups are limited to the caller's own email, so there is no stream of guesses at unknown
+ * emails to pre-filter; signup still checks the database.
+ */
+@Component
+public class UserEmailDirectory {
+    
+    private final UserRepository userRepository;
+    private final Cache<String, Optional<UUID>> userIds;
+    
+    @Autowired
+    public UserEmailDirectory(UserRepository userRepository, MeterRegistry meterRegistry,
+                              @Value("${app.users.email-cache.size:10000}") long cacheSize,
+                              @Value("${app.users.email-cache.ttl-ms:600000}") long ttlMillis,
+                              @Value("${app.users.email-cache.negative-ttl-ms:5000}") long negativeTtlMillis) {
+        this.userRepository = userRepository;
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfter(Expiry.<String, Optional<UUID>>writing((email, userId) ->
+                        Duration.ofMillis(userId.isPresent() ? ttlMillis : negativeTtlMillis)))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, userIds, "users.email-ids");
+    }
+    
+    /**
+     * Lower-cased, trimmed form in which emails are stored and looked up
+     */
+    public static String normalize(String email) {
+        return email == null ? null : email.trim().toLowerCase(Locale.ROOT);
+    }
+    
+    /**
+     * The id of the user with this (normalized) email, from the cache or the database
+     */
+    public Optional<UUID> findUserId(String email) {
+        return userIds.get(email, userRepository::findIdByEmail);
+    }
+    
+    /**
+     * Whether a user with this (normalized) email exists, from the cache or the database
+     */
+    public boolean exists(String email) {
+        return findUserId(email).isPresent();
+    }
+    
+    /**
+     * Forget cached answers for the emails, now and again once the current transaction
+     * commits
+     */
+    public void changed(String... emails) {
+        for (String email : emails) {
+            if (email != null) {
+                userIds.invalidate(email);
+            }
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    for (String email : emails) {
+                        if (email != null) {
+                            userIds.invalidate(email);
+                        }
+                    }
+                }
+            });
+        }
+    }
+    
+    public Cache<String, Optional<UUID>> getCache() {
+        return userIds;
+    }
+}
@@ -1,38 +1,67 @@
 package com.kenyafinance.tracker.service;
 
 import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.dto.UserPageDto;
 import com.kenyafinance.tracker.entity.User;
 import com.kenyafinance.tracker.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Transactional
+@Timed(value = "service.invocations", histogram = true)
+@Counted(value = "service.errors", recordFailuresOnly = true)
 public class UserService {
     
     private final UserRepository userRepository;
+    private final UserEmailDirectory emailDirectory;
+    private final ActiveUserCounter activeUserCounter;
+    private final UserDataVersions userDataVersions;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
     
     @Autowired
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, UserEmailDirectory emailDirectory,
+                       ActiveUserCounter activeUserCounter, UserDataVersions userDataVersions) {
         this.userRepository = userRepository;
+        this.emailDirectory = emailDirectory;
+        this.activeUserCounter = activeUserCounter;
+        this.userDataVersions = userDataVersions;
     }
     
     /**
      * Create a new user
      */
     public UserDto createUser(UserDto userDto) {
-        if (userRepository.existsByEmail(userDto.getEmail())) {
-            throw new RuntimeException("User with email " + userDto.getEmail() + " already exists");
+        String email = UserEmailDirectory.normalize(userDto.getEmail());
+        // Checked against the database, not the directory: its negative answers may be stale
+        if (userRepository.existsByEmail(email)) {
+            throw new RuntimeException("User with email " + email + " already exists");
         }
         
         User user = convertToEntity(userDto);
+        user.setEmail(email);
         User savedUser = userRepository.save(user);
+        userDataVersions.create(savedUser.getId());
+        if (Boolean.TRUE.equals(savedUser.getIsActive())) {
+            activeUserCounter.add(1);
+        }
+        emailDirectory.changed(email);
         return convertToDto(savedUser);
     }
     
@@ -50,8 +79,33 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public Optional<UserDto> getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-                .map(this::convertToDto);
+        String normalized = UserEmailDirectory.normalize(email);
+        Optional<User> user = emailDirectory.findUserId(normalized).flatMap(userRepository::findById);
+        if (user.isPresent() && !normalized.equals(user.get().getEmail())) {
+            // Email changed on another instance since it was cached
+            emailDirectory.changed(normalized);
+            user = userRepository.findByEmail(normalized);
+        }
+        return user.map(this::convertToDto);
+    }
+    
+    /**
+     * Resolve the user for an identity provider subject. A user not yet linked is matched
+     * once by email and linked to the subject, so later lookups go by subject only. Pass the
+     * email only when the identity provider has verified it; with null nothing is linked.
+     */
+    public Optional<UUID> resolveUserIdForSubject(String subject, String verifiedEmail) {
+        Optional<UUID> linked = userRepository.findIdByAuthSubject(subject);
+        if (linked.isPresent() || verifiedEmail == null) {
+            return linked;
+        }
+        
+        return userRepository.findByEmail(UserEmailDirectory.normalize(verifiedEmail))
+                .filter(user -> user.getAuthSubject() == null)
+                .map(user -> {
+                    user.setAuthSubject(subject);
+                    return userRepository.save(user).getId();
+                });
     }
     
     /**
@@ -62,19 +116,21 @@ public class UserService {
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
         // Check if email is being changed and if it already exists
-        if (!existingUser.getEmail().equals(userDto.getEmail()) && 
-            userRepository.existsByEmail(userDto.getEmail())) {
-            throw new RuntimeException("User with email " + userDto.getEmail() + " already exists");
+        String previousEmail = existingUser.getEmail();
+        String email = UserEmailDirectory.normalize(userDto.getEmail());
+        if (!previousEmail.equals(email) && userRepository.existsByEmail(email)) {
+            throw new RuntimeException("User with email " + email + " already exists");
         }
         
         // Update fields
-        existingUser.setEmail(userDto.getEmail());
+        existingUser.setEmail(email);
         existingUser.setFirstName(userDto.getFirstName());
         existingUser.setLastName(userDto.getLastName());
         existingUser.setPhoneNumber(userDto.getPhoneNumber());
         existingUser.setProfilePictureUrl(userDto.getProfilePictureUrl());
         
         User updatedUser = userRepository.save(existingUser);
+        emailDirectory.changed(previousEmail, email);
         return convertToDto(updatedUser);
     }
     
@@ -85,19 +141,45 @@ public class UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("User not found with id: " + id));
         
+        if (Boolean.TRUE.equals(user.getIsActive())) {
+            activeUserCounter.add(-1);
+        }
         user.setIsActive(false);
         userRepository.save(user);
+        emailDirectory.changed(user.getEmail());
     }
     
     /**
-     * Get all active users
+     * Get one page of active users in id order, starting after the given cursor (null for the first page)
      */
     @Transactional(readOnly = true)
-    public List<UserDto> getAllActiveUsers() {
-        return userRepository.findAllActiveUsers()
-                .stream()
+    public UserPageDto getActiveUsers(UUID after, int size) {
+        // Fetch one extra row to know whether another page follows
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<User> users = after == null
+                ? userRepository.findActiveUsers(limit)
+                : userRepository.findActiveUsersAfter(after, limit);
+        
+        boolean hasMore = users.size() > size;
+        List<UserDto> page = users.stream()
+                .limit(size)
                 .map(this::convertToDto)
                 .collect(Collectors.toList());
+        return new UserPageDto(page, hasMore ? page.get(page.size() - 1).getId() : null);
+    }
+    
+    /**
+     * Pass every active user, in id order, to the consumer without holding them all in memory
+     */
+    @Transactional(readOnly = true)
+    public void streamActiveUsers(Consumer<UserDto> consumer) {
+        try (Stream<User> users = userRepository.streamActiveUsers()) {
+            users.forEach(user -> {
+                consumer.accept(convertToDto(user));
+                // Keep the persistence context from growing with the result set
+                entityManager.detach(user);
+            });
+        }
     }
     
     /**
@@ -105,7 +187,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public boolean existsByEmail(String email) {
-        return userRepository.existsByEmail(email);
+        return emailDirectory.exists(UserEmailDirectory.normalize(email));
     }
     
     /**
@@ -113,7 +195,7 @@ public class UserService {
      */
     @Transactional(readOnly = true)
     public long getTotalActiveUsersCount() {
-        return userRepository.countActiveUsers();
+        return activeUserCounter.get();
     }
     
     /**
@@ -0,0 +1,167 @@
+package com.kenyafinance.tracker.startup;
+
+import com.kenyafinance.tracker.entity.User;
+import com.kenyafinance.tracker.repository.CategoryRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.service.CategoryService;
+import com.kenyafinance.tracker.service.TransactionService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Warms the application up before it reports ready. Spring Boot only switches readiness to
+ * ACCEPTING_TRAFFIC after all runners have completed, so the readiness probe stays red while
+ * this runs.
+ *
+ * Pre-opens pool connections, then repeatedly runs the dashboard, transaction list and
+ * category reads for the most recently active users (or a synthetic user on an empty
+ * database) to JIT-compile the hot paths and fill Hibernate's query plan cache, until
+ * the iteration count or the time budget is used up. Failures are logged, never fatal.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class WarmUpRunner implements ApplicationRunner {
+    
+    private static final Logger log = LoggerFactory.getLogger(WarmUpRunner.class);
+    
+    private final TransactionService transactionService;
+    private final CategoryService categoryService;
+    private final TransactionRepository transactionRepository;
+    private final CategoryRepository categoryRepository;
+    private final DataSource dataSource;
+    
+    @Value("${app.warmup.budget-ms:30000}")
+    private long budgetMillis;
+    
+    @Value("${app.warmup.iterations:500}")
+    private int iterations;
+    
+    @Value("${app.warmup.users:20}")
+    private int userCount;
+    
+    @Value("${app.warmup.connections:10}")
+    private int connectionCount;
+    
+    @Autowired
+    public WarmUpRunner(TransactionService transactionService, CategoryService categoryService,
+                        TransactionRepository transactionRepository, CategoryRepository categoryRepository,
+                        DataSource dataSource) {
+        this.transactionService = transactionService;
+        this.categoryService = categoryService;
+        this.transactionRepository = transactionRepository;
+        this.categoryRepository = categoryRepository;
+        this.dataSource = dataSource;
+    }
+    
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + budgetMillis * 1_000_000L;
+        
+        int opened = openConnections();
+        List<UUID> userIds = recentUserIds();
+        
+        int completed = 0;
+        int failures = 0;
+        while (completed < iterations && System.nanoTime() < deadline) {
+            try {
+                if (userIds.isEmpty()) {
+                    warmUpQueries(syntheticUser());
+                } else {
+                    warmUpServices(userIds.get(completed % userIds.size()));
+                }
+            } catch (RuntimeException e) {
+                failures++;
+                log.debug("Warm-up iteration failed", e);
+            }
+            completed++;
+        }
+        
+        log.info("Warm-up finished in {} ms: {} connections opened, {} iterations over {} users ({} failed)",
+                (System.nanoTime() - start) / 1_000_000, opened, completed,
+                userIds.isEmpty() ? "synthetic" : userIds.size(), failures);
+    }
+    
+    /**
+     * Hold several connections at once so the pool has them established before traffic arrives
+     */
+    private int openConnections() {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            for (int i = 0; i < connectionCount; i++) {
+                Connection connection = dataSource.getConnection();
+                connections.add(connection);
+                // Forces the physical connection behind lazy/proxying data sources
+                connection.isValid(1);
+            }
+        } catch (SQLException e) {
+            log.warn("Could not pre-open all {} connections: {}", connectionCount, e.getMessage());
+        } finally {
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.debug("Failed to return warm-up connection", e);
+                }
+            }
+        }
+        return connections.size();
+    }
+    
+    /**
+     * Users who created the latest transactions, newest first
+     */
+    private List<UUID> recentUserIds() {
+        try {
+            Set<UUID> userIds = new LinkedHashSet<>(
+                    transactionRepository.findRecentUserIds(PageRequest.of(0, userCount * 10)));
+            return userIds.stream().limit(userCount).toList();
+        } catch (RuntimeException e) {
+            log.warn("Could not load recently active users for warm-up: {}", e.getMessage());
+            return List.of();
+        }
+    }
+    
+    private void warmUpServices(UUID userId) {
+        transactionService.getDashboardSummary(userId);
+        transactionService.getTransactionsForUser(userId, PageRequest.of(0, 20));
+        categoryService.getCategoriesForUser(userId);
+        categoryService.getDefaultCategories();
+    }
+    
+    private User syntheticUser() {
+        User user = new User();
+        user.setId(UUID.randomUUID());
+        return user;
+    }
+    
+    /**
+     * Same queries as {@link #warmUpServices}, for a user that does not exist
+     */
+    private void warmUpQueries(User user) {
+        transactionRepository.calculateTotalIncomeByUser(user);
+        transactionRepository.calculateTotalExpensesByUser(user);
+        transactionRepository.countIncludingArchivedByUser(user);
+        transactionRepository.findRecentTransactionsByUser(user, PageRequest.of(0, 5));
+        transactionRepository.getSpendingByCategory(user);
+        transactionRepository.findByUserOrderByTransactionDateDesc(user, PageRequest.of(0, 20));
+        categoryRepository.findActiveByUserOrDefault(user);
+        categoryService.getDefaultCategories();
+    }
+}
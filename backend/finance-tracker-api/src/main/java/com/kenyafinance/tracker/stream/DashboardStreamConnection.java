@@ -0,0 +1,151 @@
+package com.kenyafinance.tracker.stream;
+
+import com.kenyafinance.tracker.dto.DashboardDeltaDto;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * One open dashboard stream. Events are queued in a bounded buffer and written by a virtual
+ * thread, so a slow client only ever blocks its own sender. Deltas that arrive before the
+ * snapshot has been read are held back and replayed after it. The snapshot covers every event up
+ * to its id except the ones that were not committed yet when it was read.
+ */
+class DashboardStreamConnection {
+    
+    private final UUID userId;
+    private final SseEmitter emitter;
+    private final int bufferSize;
+    private final BlockingQueue<SseEventBuilder> buffer;
+    private final List<PendingEvent> pending = new ArrayList<>();
+    
+    private long snapshotEventId;
+    private Set<Long> missingFromSnapshot = Set.of();
+    private boolean started;
+    private volatile boolean closed;
+    private Thread sender;
+    
+    DashboardStreamConnection(UUID userId, SseEmitter emitter, int bufferSize) {
+        this.userId = userId;
+        this.emitter = emitter;
+        this.bufferSize = bufferSize;
+        this.buffer = new ArrayBlockingQueue<>(bufferSize);
+    }
+    
+    UUID getUserId() {
+        return userId;
+    }
+    
+    SseEmitter getEmitter() {
+        return emitter;
+    }
+    
+    /**
+     * Queue the snapshot followed by any deltas it does not include, and start sending.
+     * Returns false if the buffered deltas did not fit.
+     *
+     * @param missingIds ids up to snapshotEventId that the snapshot could not see
+     */
+    synchronized boolean start(DashboardSummaryDto snapshot, long snapshotEventId, Set<Long> missingIds,
+                               Runnable onSendFailure) {
+        this.snapshotEventId = snapshotEventId;
+        this.missingFromSnapshot = missingIds;
+        boolean fits = buffer.offer(SseEmitter.event()
+                .id(String.valueOf(snapshotEventId))
+                .name("snapshot")
+                .data(snapshot));
+        for (PendingEvent event : pending) {
+            fits = fits && (inSnapshot(event.eventId()) || buffer.offer(event.event()));
+        }
+        pending.clear();
+        started = true;
+        sender = Thread.ofVirtual()
+                .name("dashboard-stream-" + userId)
+                .start(() -> sendLoop(onSendFailure));
+        return fits;
+    }
+    
+    /**
+     * Queue a delta; returns false if the buffer is full
+     */
+    boolean offer(DashboardDeltaDto delta) {
+        return offer(delta.getEventId(), SseEmitter.event()
+                .id(String.valueOf(delta.getEventId()))
+                .name("delta")
+                .data(delta));
+    }
+    
+    /**
+     * Ask the client to fetch a fresh snapshot; returns false if the buffer is full
+     */
+    boolean offerResync(long eventId) {
+        return offer(eventId, SseEmitter.event()
+                .id(String.valueOf(eventId))
+                .name("resync")
+                .data(eventId));
+    }
+    
+    /**
+     * Queue a heartbeat comment; returns false if the buffer is full
+     */
+    synchronized boolean offerHeartbeat() {
+        return !started || buffer.offer(SseEmitter.event().comment("heartbeat"));
+    }
+    
+    /**
+     * Stop the sender and end the response; safe to call more than once
+     */
+    void close() {
+        Thread thread;
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            thread = sender;
+        }
+        if (thread != null) {
+            thread.interrupt();
+        }
+        try {
+            emitter.complete();
+        } catch (IllegalStateException e) {
+            // Already completed by the container
+        }
+    }
+    
+    private void sendLoop(Runnable onSendFailure) {
+        try {
+            while (!closed) {
+                emitter.send(buffer.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException | IllegalStateException e) {
+            // The client went away
+            onSendFailure.run();
+        }
+    }
+    
+    private synchronized boolean offer(long eventId, SseEventBuilder event) {
+        if (!started) {
+            return pending.size() < bufferSize && pending.add(new PendingEvent(eventId, event));
+        }
+        return inSnapshot(eventId) || buffer.offer(event);
+    }
+    
+    private boolean inSnapshot(long eventId) {
+        return eventId <= snapshotEventId && !missingFromSnapshot.contains(eventId);
+    }
+    
+    private record PendingEvent(long eventId, SseEventBuilder event) {
+    }
+}
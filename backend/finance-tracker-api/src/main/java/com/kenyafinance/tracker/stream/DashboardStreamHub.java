@@ -0,0 +1,232 @@
+package com.kenyafinance.tracker.stream;
+
+import com.kenyafinance.tracker.dto.DashboardDeltaDto;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.repository.OutboxEventRepository;
+import com.kenyafinance.tracker.service.TransactionService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Open dashboard streams by user. A new stream starts with a snapshot of the dashboard and then
+ * receives deltas from {@link DashboardStreamRelay}. A stream whose buffer fills up is closed
+ * rather than allowed to grow; the client reconnects and starts again from a fresh snapshot.
+ */
+@Component
+public class DashboardStreamHub {
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamHub.class);
+    
+    private final Map<UUID, Set<DashboardStreamConnection>> connections = new ConcurrentHashMap<>();
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final TransactionService transactionService;
+    private final OutboxEventRepository outboxEventRepository;
+    private final TransactionTemplate snapshotTemplate;
+    private final TransactionTemplate primarySnapshotTemplate;
+    private final Counter overflows;
+    // Every outbox id up to this one has been handed to the streams (or given up on); -1 until the relay starts
+    private volatile long relayedUpTo = -1;
+    
+    @Value("${app.dashboard-stream.timeout-ms:1800000}")
+    private long timeoutMs;
+    
+    @Value("${app.dashboard-stream.buffer-size:32}")
+    private int bufferSize;
+    
+    @Value("${app.dashboard-stream.max-connections:20000}")
+    private int maxConnections;
+    
+    @Value("${app.dashboard-stream.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+    
+    @Autowired
+    public DashboardStreamHub(TransactionService transactionService, OutboxEventRepository outboxEventRepository,
+                              PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.transactionService = transactionService;
+        this.outboxEventRepository = outboxEventRepository;
+        // One database snapshot for the summary and the outbox ids it covers. Read-only, so a
+        // replica can serve it; a replica behind the relay is retried on the primary.
+        this.snapshotTemplate = new TransactionTemplate(transactionManager);
+        this.snapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTemplate.setReadOnly(true);
+        this.primarySnapshotTemplate = new TransactionTemplate(transactionManager);
+        this.primarySnapshotTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        meterRegistry.gauge("dashboard.stream.connections", connectionCount);
+        this.overflows = Counter.builder("dashboard.stream.overflows")
+                .description("Dashboard streams closed because the client fell too far behind")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Open a stream for a user. Throws IllegalStateException when the connection limits are reached.
+     */
+    public SseEmitter subscribe(UUID userId) {
+        if (connectionCount.incrementAndGet() > maxConnections) {
+            connectionCount.decrementAndGet();
+            throw new IllegalStateException("Too many open dashboard streams");
+        }
+        
+        DashboardStreamConnection connection = new DashboardStreamConnection(userId, new SseEmitter(timeoutMs), bufferSize);
+        Set<DashboardStreamConnection> userConnections = connections.compute(userId, (id, existing) -> {
+            Set<DashboardStreamConnection> set = existing != null ? existing : ConcurrentHashMap.newKeySet();
+            if (set.size() < maxConnectionsPerUser) {
+                set.add(connection);
+            }
+            return set;
+        });
+        if (!userConnections.contains(connection)) {
+            connectionCount.decrementAndGet();
+            throw new IllegalStateException("Too many open dashboard streams for user: " + userId);
+        }
+        
+        SseEmitter emitter = connection.getEmitter();
+        emitter.onCompletion(() -> remove(connection));
+        emitter.onTimeout(() -> remove(connection));
+        emitter.onError(error -> remove(connection));
+        
+        try {
+            // Registered before reading, so deltas committed after the snapshot are not missed.
+            // Ids above what the relay has passed that the snapshot cannot see yet belong to
+            // transactions still in flight; their deltas are applied when they arrive.
+            long relayed = relayedUpTo;
+            Snapshot snapshot = snapshotTemplate.execute(status -> takeSnapshot(userId, relayed));
+            if (snapshot.eventId() < relayed) {
+                // The replica has not caught up with events the relay already passed to the streams
+                snapshot = primarySnapshotTemplate.execute(status -> takeSnapshot(userId, relayed));
+            }
+            if (!connection.start(snapshot.summary(), snapshot.eventId(), snapshot.missingIds(), () -> remove(connection))) {
+                overflow(connection);
+            }
+        } catch (RuntimeException e) {
+            remove(connection);
+            throw e;
+        }
+        return emitter;
+    }
+    
+    /**
+     * Record that the relay has handed every outbox event up to the given id to the streams
+     */
+    void relayedUpTo(long eventId) {
+        relayedUpTo = eventId;
+    }
+    
+    /**
+     * Whether any stream is open
+     */
+    public boolean hasSubscribers() {
+        return connectionCount.get() > 0;
+    }
+    
+    /**
+     * Whether the user has a stream open on this instance
+     */
+    public boolean isSubscribed(UUID userId) {
+        return connections.containsKey(userId);
+    }
+    
+    /**
+     * Push a delta to every stream the user has open
+     */
+    public void publish(UUID userId, DashboardDeltaDto delta) {
+        forEachConnection(userId, connection -> connection.offer(delta));
+    }
+    
+    /**
+     * Tell the user's streams to fetch a fresh dashboard, for changes a delta cannot describe
+     */
+    public void requestResync(UUID userId, long eventId) {
+        forEachConnection(userId, connection -> connection.offerResync(eventId));
+    }
+    
+    /**
+     * Keep idle streams open through proxies and detect clients that have gone away
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard-stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        connections.values().forEach(set -> set.forEach(connection -> {
+            if (!connection.offerHeartbeat()) {
+                overflow(connection);
+            }
+        }));
+    }
+    
+    /**
+     * Number of streams open on this instance
+     */
+    public int getConnectionCount() {
+        return connectionCount.get();
+    }
+    
+    private Snapshot takeSnapshot(UUID userId, long relayed) {
+        long eventId = outboxEventRepository.findMaxId();
+        DashboardSummaryDto summary = transactionService.getDashboardSummary(userId);
+        return new Snapshot(eventId, missingIds(relayed, eventId), summary);
+    }
+    
+    private Set<Long> missingIds(long relayed, long upTo) {
+        if (relayed < 0 || relayed >= upTo) {
+            return Set.of();
+        }
+        Set<Long> missing = new HashSet<>();
+        long expected = relayed + 1;
+        for (long id : outboxEventRepository.findIdsInRange(relayed, upTo)) {
+            for (; expected < id; expected++) {
+                missing.add(expected);
+            }
+            expected = id + 1;
+        }
+        return missing;
+    }
+    
+    private void forEachConnection(UUID userId, Predicate<DashboardStreamConnection> offer) {
+        Set<DashboardStreamConnection> userConnections = connections.get(userId);
+        if (userConnections == null) {
+            return;
+        }
+        for (DashboardStreamConnection connection : userConnections) {
+            if (!offer.test(connection)) {
+                overflow(connection);
+            }
+        }
+    }
+    
+    private void overflow(DashboardStreamConnection connection) {
+        overflows.increment();
+        log.debug("Closing dashboard stream for user {} after its buffer filled up", connection.getUserId());
+        remove(connection);
+    }
+    
+    private void remove(DashboardStreamConnection connection) {
+        boolean[] removed = new boolean[1];
+        connections.computeIfPresent(connection.getUserId(), (id, set) -> {
+            removed[0] = set.remove(connection);
+            return set.isEmpty() ? null : set;
+        });
+        if (removed[0]) {
+            connectionCount.decrementAndGet();
+        }
+        connection.close();
+    }
+    
+    private record Snapshot(long eventId, Set<Long> missingIds, DashboardSummaryDto summary) {
+    }
+}
@@ -0,0 +1,176 @@
+package com.kenyafinance.tracker.stream;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyafinance.tracker.dto.DashboardDeltaDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.entity.OutboxEvent;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.event.TransactionChangePayload;
+import com.kenyafinance.tracker.repository.OutboxEventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tails the outbox table and turns transaction events into dashboard deltas for the users with a
+ * stream open on this instance. Unlike an {@link com.kenyafinance.tracker.event.OutboxEventSubscriber}
+ * it keeps no shared offset: every instance must see every event, and a live stream has no use
+ * for events from before it was opened, so the position is kept in memory and starts at the head.
+ * Like the outbox dispatcher it stops at a missing id until the gap has settled
+ * ({@code app.outbox.gap-settle-ms}), so an event that commits late is still relayed, in id order.
+ */
+@Component
+@ConditionalOnProperty(name = "app.dashboard-stream.enabled", havingValue = "true", matchIfMissing = true)
+public class DashboardStreamRelay {
+    
+    private static final Logger log = LoggerFactory.getLogger(DashboardStreamRelay.class);
+    
+    private final OutboxEventRepository outboxEventRepository;
+    private final DashboardStreamHub hub;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    
+    // First missing id -> when it was first seen (nanoTime)
+    private final NavigableMap<Long, Long> openGaps = new TreeMap<>();
+    
+    private long lastEventId = -1;
+    
+    @Value("${app.outbox.batch-size:100}")
+    private int batchSize;
+    
+    @Value("${app.outbox.gap-settle-ms:10000}")
+    private long gapSettleMillis;
+    
+    @Autowired
+    public DashboardStreamRelay(OutboxEventRepository outboxEventRepository, DashboardStreamHub hub,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.hub = hub;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    /**
+     * Push events written since the last poll to the open streams
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard-stream.poll-interval-ms:250}")
+    public synchronized void relay() {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (lastEventId < 0) {
+                // Nobody can be waiting for older events yet
+                lastEventId = outboxEventRepository.findMaxId();
+                hub.relayedUpTo(lastEventId);
+                return;
+            }
+            
+            // Keeps tailing without streams too, so the position never jumps over an open gap
+            List<OutboxEvent> batch;
+            do {
+                batch = outboxEventRepository.findByIdGreaterThanOrderByIdAsc(lastEventId, PageRequest.of(0, batchSize));
+            } while (relayBatch(batch) == batchSize);
+            hub.relayedUpTo(lastEventId);
+        });
+    }
+    
+    /**
+     * Relay a batch up to its first unsettled gap; returns the number of events passed
+     */
+    private int relayBatch(List<OutboxEvent> batch) {
+        long now = System.nanoTime();
+        long previous = lastEventId;
+        for (OutboxEvent event : batch) {
+            if (event.getId() > previous + 1) {
+                openGaps.putIfAbsent(previous + 1, now);
+            }
+            previous = event.getId();
+        }
+        
+        int count = 0;
+        for (OutboxEvent event : batch) {
+            if (event.getId() > lastEventId + 1) {
+                if (now - openGaps.get(lastEventId + 1) < TimeUnit.MILLISECONDS.toNanos(gapSettleMillis)) {
+                    break;
+                }
+                log.debug("Skipping outbox ids {} to {}, not committed after {} ms",
+                        lastEventId + 1, event.getId() - 1, gapSettleMillis);
+            }
+            if (event.getUserId() != null && hub.isSubscribed(event.getUserId())) {
+                deliver(event);
+            }
+            lastEventId = event.getId();
+            count++;
+        }
+        openGaps.headMap(lastEventId, true).clear();
+        return count;
+    }
+    
+    private void deliver(OutboxEvent event) {
+        switch (event.getEventType()) {
+            case TRANSACTION_CREATED, TRANSACTION_UPDATED, TRANSACTION_DELETED -> {
+                try {
+                    TransactionChangePayload payload = objectMapper.readValue(event.getPayload(), TransactionChangePayload.class);
+                    hub.publish(event.getUserId(), toDelta(event.getId(), payload));
+                } catch (JsonProcessingException e) {
+                    log.warn("Unreadable payload on outbox event {}, asking streams to resync", event.getId(), e);
+                    hub.requestResync(event.getUserId(), event.getId());
+                }
+            }
+            case CATEGORY_UPDATED, CATEGORY_MERGED -> hub.requestResync(event.getUserId(), event.getId());
+            default -> {
+                // Not shown on the dashboard
+            }
+        }
+    }
+    
+    /**
+     * Dashboard changes caused by replacing {@code previous} with {@code current}
+     */
+    static DashboardDeltaDto toDelta(long eventId, TransactionChangePayload payload) {
+        TransactionDto previous = payload.getPrevious();
+        TransactionDto current = payload.getCurrent();
+        
+        BigDecimal incomeDelta = amountOf(current, TransactionType.INCOME).subtract(amountOf(previous, TransactionType.INCOME));
+        BigDecimal expensesDelta = amountOf(current, TransactionType.EXPENSE).subtract(amountOf(previous, TransactionType.EXPENSE));
+        long countDelta = (current != null ? 1 : 0) - (previous != null ? 1 : 0);
+        
+        // Category spending only counts expenses
+        Map<Long, BigDecimal> categoryDeltas = new LinkedHashMap<>();
+        if (previous != null && previous.getType() == TransactionType.EXPENSE) {
+            categoryDeltas.merge(previous.getCategoryId(), previous.getAmount().negate(), BigDecimal::add);
+        }
+        if (current != null && current.getType() == TransactionType.EXPENSE) {
+            categoryDeltas.merge(current.getCategoryId(), current.getAmount(), BigDecimal::add);
+        }
+        
+        DashboardDeltaDto delta = new DashboardDeltaDto(eventId, incomeDelta, expensesDelta, countDelta);
+        delta.setCategorySpendingDeltas(categoryDeltas.entrySet().stream()
+                .filter(entry -> entry.getValue().signum() != 0)
+                .map(entry -> new DashboardDeltaDto.CategorySpendingDeltaDto(entry.getKey(), entry.getValue()))
+                .toList());
+        delta.setTransaction(current);
+        if (current == null && previous != null) {
+            delta.setRemovedTransactionId(previous.getId());
+        }
+        return delta;
+    }
+    
+    private static BigDecimal amountOf(TransactionDto transaction, TransactionType type) {
+        return transaction != null && transaction.getType() == type ? transaction.getAmount() : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,104 @@
+package com.kenyafinance.tracker.support;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls for the same key into one execution.
+ * The first caller runs the computation; callers arriving while it is in flight wait for
+ * and share its result (or its exception). Nothing is cached once the call completes.
+ */
+public class SingleFlight<K, V> {
+    
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    
+    /**
+     * Run the supplier for the key, or join a call already in flight for it
+     */
+    public Result<V> execute(K key, Supplier<V> supplier) {
+        return execute(key, supplier, 0, failure -> false);
+    }
+    
+    /**
+     * Run the supplier for the key, or join a call already in flight for it. A caller that
+     * joins waits at most {@code maxWaitMillis} when that is positive, and then gets a
+     * {@link WaitTimeoutException}. If the call it joined fails with an exception matching
+     * {@code runAloneOn}, it runs the supplier itself instead of sharing that failure.
+     */
+    public Result<V> execute(K key, Supplier<V> supplier, long maxWaitMillis, Predicate<Throwable> runAloneOn) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing == null) {
+            return lead(key, future, supplier);
+        }
+        
+        try {
+            return new Result<>(await(existing, maxWaitMillis), true);
+        } catch (RuntimeException | Error e) {
+            if (existing.isCompletedExceptionally() && runAloneOn.test(e)) {
+                return new Result<>(supplier.get(), false);
+            }
+            throw e;
+        }
+    }
+    
+    /**
+     * Stop sharing the call in flight for the key, for example because the data it reads has
+     * changed since it started. It still completes for the callers already waiting on it;
+     * later callers start a new one.
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+    
+    private Result<V> lead(K key, CompletableFuture<V> future, Supplier<V> supplier) {
+        try {
+            V value = supplier.get();
+            future.complete(value);
+            return new Result<>(value, false);
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+    
+    private V await(CompletableFuture<V> future, long maxWaitMillis) {
+        try {
+            return maxWaitMillis > 0 ? future.get(maxWaitMillis, TimeUnit.MILLISECONDS) : future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new WaitTimeoutException(maxWaitMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared call", e);
+        }
+    }
+    
+    /**
+     * Value plus whether it came from another caller's execution
+     */
+    public record Result<V>(V value, boolean shared) {}
+    
+    /** A caller gave up waiting for the call it joined */
+    public static class WaitTimeoutException extends RuntimeException {
+        
+        public WaitTimeoutException(long maxWaitMillis) {
+            super("Shared call did not complete within " + maxWaitMillis + " ms");
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.kenyafinance.tracker.support;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Finds the user a request acts on from its /user/{userId} or /users/{id} path segment.
+ */
+public final class UserIdPaths {
+    
+    private static final Pattern USER_ID_PATTERN = Pattern.compile(
+            "/users?/([0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12})");
+    
+    private UserIdPaths() {}
+    
+    public static Optional<UUID> find(String requestUri) {
+        Matcher matcher = USER_ID_PATTERN.matcher(requestUri);
+        return matcher.find() ? Optional.of(UUID.fromString(matcher.group(1))) : Optional.empty();
+    }
+}
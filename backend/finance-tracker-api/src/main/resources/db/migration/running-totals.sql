@@ -0,0 +1,28 @@
+-- Running totals (app.running-totals.enabled): lifetime totals per user, category and type, and the
+-- log of writes whose deltas have not reached the table yet, one row per write and instance.
+-- Run on existing PostgreSQL databases before enabling running totals (new databases get the schema
+-- from Hibernate). The final INSERT marks every user stale, so the reconcile job builds their totals
+-- and reads aggregate the transactions until it has; run it again when re-enabling after a period off.
+CREATE TABLE IF NOT EXISTS category_totals (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id UUID NOT NULL,
+    category_id BIGINT NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    total_amount NUMERIC(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL,
+    CONSTRAINT uk_category_totals_user_category_type UNIQUE (user_id, category_id, type)
+);
+CREATE TABLE IF NOT EXISTS pending_total_writes (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id UUID NOT NULL,
+    instance_id VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP NOT NULL
+);
+CREATE INDEX IF NOT EXISTS idx_pending_total_writes_user_instance ON pending_total_writes (user_id, instance_id);
+CREATE INDEX IF NOT EXISTS idx_pending_total_writes_created ON pending_total_writes (created_at);
+INSERT INTO pending_total_writes (user_id, instance_id, created_at)
+SELECT id, 'stale', TIMESTAMP '2000-01-01 00:00:00' FROM users;
+
+-- The pending count used to be kept on the users row; drop it once no older instance is running
+-- ALTER TABLE users DROP COLUMN IF EXISTS pending_total_writes;
+-- ALTER TABLE users DROP COLUMN IF EXISTS totals_pending_since;
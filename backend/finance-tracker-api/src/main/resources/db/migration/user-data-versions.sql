@@ -0,0 +1,21 @@
+-- Per-user data version, kept as a few stripes per user so concurrent writes of one user rarely
+-- wait on the same row; each change to a user's transactions or categories adds one to a random
+-- stripe in the same transaction, and cached dashboards are only served while the sum is unchanged.
+-- Run once on existing PostgreSQL databases before deploying (new databases get it from Hibernate).
+CREATE TABLE IF NOT EXISTS user_data_versions (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    user_id UUID NOT NULL,
+    stripe INTEGER NOT NULL,
+    version BIGINT NOT NULL,
+    CONSTRAINT uk_user_data_versions_user_stripe UNIQUE (user_id, stripe)
+);
+
+-- New users get their stripes when they are created; give existing users theirs. Use the value of
+-- app.dashboard-cache.version-stripes (4 by default) and run again after raising it; until then,
+-- writes of older users go to stripe 0.
+INSERT INTO user_data_versions (user_id, stripe, version)
+SELECT u.id, s.stripe, 0 FROM users u CROSS JOIN generate_series(0, 3) AS s(stripe)
+ON CONFLICT (user_id, stripe) DO NOTHING;
+
+-- The version used to be a column of the users row; drop it once no older instance is running
+-- ALTER TABLE users DROP COLUMN IF EXISTS data_version;
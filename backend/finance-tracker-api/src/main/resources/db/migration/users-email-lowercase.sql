@@ -0,0 +1,7 @@
+-- Emails are stored trimmed and lower-cased (UserService normalizes on write), so lookups
+-- are plain equality on the unique email index. Run once on existing PostgreSQL databases.
+-- Fails if two accounts differ only in case; merge those first.
+UPDATE users SET email = LOWER(TRIM(email)) WHERE email <> LOWER(TRIM(email));
+
+-- Guards the invariant against writers that bypass the service (imports, manual SQL)
+CREATE UNIQUE INDEX IF NOT EXISTS uk_users_email_lower ON users (LOWER(email));
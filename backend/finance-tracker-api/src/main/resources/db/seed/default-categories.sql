@@ -0,0 +1,17 @@
+-- Default categories, seeded in a single idempotent statement.
+-- Keep in sync with CategoryService.initializeDefaultCategories().
+INSERT INTO categories (name, description, icon_name, color_code, is_default, is_active, created_at, updated_at)
+SELECT v.name, v.description, v.icon_name, v.color_code, TRUE, TRUE, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP
+FROM (VALUES
+    ('Salary', 'Monthly salary income', 'work', '#4CAF50'),
+    ('Food', 'Food and dining expenses', 'restaurant', '#FF9800'),
+    ('Transport', 'Transportation costs', 'directions_car', '#2196F3'),
+    ('Utilities', 'Utility bills', 'flash_on', '#9C27B0'),
+    ('Rent', 'Housing rent', 'home', '#F44336'),
+    ('Entertainment', 'Entertainment expenses', 'movie', '#E91E63'),
+    ('Healthcare', 'Medical expenses', 'local_hospital', '#009688'),
+    ('Shopping', 'Shopping expenses', 'shopping_cart', '#FF5722')
+) AS v (name, description, icon_name, color_code)
+WHERE NOT EXISTS (
+    SELECT 1 FROM categories c WHERE c.name = v.name AND c.is_default = TRUE
+);
@@ -0,0 +1,48 @@
+package com.kenyafinance.tracker;
+
+import com.kenyafinance.tracker.repository.CategoryRepository;
+import com.kenyafinance.tracker.service.CategoryService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The SQL seed used by the fast-startup profile must produce the same default categories
+ * as CategoryService.initializeDefaultCategories() and be safe to run repeatedly.
+ */
+@SpringBootTest(properties = {
+        "app.categories.seed-on-startup=false",
+        "spring.sql.init.mode=always",
+        "spring.sql.init.data-locations=classpath:db/seed/default-categories.sql",
+        "spring.jpa.defer-datasource-initialization=true"
+})
+@ActiveProfiles("test")
+class DefaultCategorySeedTests {
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private DataSource dataSource;
+    
+    @Test
+    void seedScriptMatchesServiceDefaultsAndIsIdempotent() {
+        assertThat(categoryRepository.findByIsDefaultTrueAndIsActiveTrue()).hasSize(8);
+        
+        // The service finds every seeded category, so it inserts nothing
+        categoryService.initializeDefaultCategories();
+        new ResourceDatabasePopulator(new ClassPathResource("db/seed/default-categories.sql")).execute(dataSource);
+        
+        assertThat(categoryRepository.count()).isEqualTo(8);
+    }
+}
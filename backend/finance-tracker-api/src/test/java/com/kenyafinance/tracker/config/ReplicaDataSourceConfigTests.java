@@ -0,0 +1,59 @@
+package com.kenyafinance.tracker.config;
+
+import com.kenyafinance.tracker.datasource.ReplicaRoutingDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ReplicaDataSourceConfigTests {
+    
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withUserConfiguration(DataSourcePropertiesConfig.class, ReplicaDataSourceConfig.class)
+            .withPropertyValues(
+                    "app.datasource.replica.enabled=true",
+                    "app.datasource.replica.urls=jdbc:h2:mem:configReplica;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.url=jdbc:h2:mem:configPrimary;DB_CLOSE_DELAY=-1",
+                    "spring.datasource.username=sa",
+                    "spring.datasource.hikari.auto-commit=false");
+    
+    @Test
+    void primaryPoolTakesTheHikariProperties() {
+        contextRunner.run(context -> {
+            try (Connection connection = context.getBean(DataSource.class).getConnection()) {
+                assertThat(connection.getCatalog()).isEqualTo("CONFIGPRIMARY");
+                assertThat(connection.getAutoCommit()).isFalse();
+            }
+        });
+    }
+    
+    @Test
+    void poolsAreClosedWithTheContext() {
+        DataSource[] dataSource = new DataSource[1];
+        contextRunner.run(context -> {
+            dataSource[0] = context.getBean(DataSource.class);
+            assertThat(dataSource[0].unwrap(ReplicaRoutingDataSource.class)).isNotNull();
+        });
+        
+        assertThatThrownBy(() -> {
+            try (Connection connection = dataSource[0].getConnection()) {
+                connection.createStatement().close();
+            }
+        })
+                .isInstanceOf(SQLException.class)
+                .hasMessageContaining("closed");
+    }
+    
+    @Configuration
+    @EnableConfigurationProperties(DataSourceProperties.class)
+    static class DataSourcePropertiesConfig {
+    }
+}
@@ -0,0 +1,134 @@
+package com.kenyafinance.tracker.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyafinance.tracker.datasource.QueryStatistics;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.service.ActiveUserCounter;
+import com.kenyafinance.tracker.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@WithMockUser(authorities = "SCOPE_admin")
+class UserListingTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private ActiveUserCounter activeUserCounter;
+    
+    @Autowired
+    private QueryStatistics queryStatistics;
+    
+    @Test
+    void pagesWalkEveryActiveUserOnceInIdOrder() throws Exception {
+        Set<UUID> created = createUsers("page", 5);
+        UUID deactivated = userService.createUser(new UserDto(null, "page-gone@example.com", "Gone", "User")).getId();
+        userService.deactivateUser(deactivated);
+        
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            String url = "/api/v1/users?size=2" + (cursor == null ? "" : "&after=" + cursor);
+            JsonNode page = objectMapper.readTree(mockMvc.perform(get(url))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString());
+            page.get("users").forEach(user -> seen.add(UUID.fromString(user.get("id").asText())));
+            assertThat(page.get("users").size()).isLessThanOrEqualTo(2);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+        } while (cursor != null);
+        
+        // The database orders UUIDs by unsigned bytes, which matches their string form (UUID.compareTo is signed)
+        assertThat(seen).doesNotHaveDuplicates()
+                .isSortedAccordingTo(Comparator.comparing(UUID::toString))
+                .containsAll(created)
+                .doesNotContain(deactivated);
+    }
+    
+    @Test
+    void streamWritesOneJsonObjectPerLine() throws Exception {
+        Set<UUID> created = createUsers("stream", 3);
+        
+        String body = mockMvc.perform(get("/api/v1/users/stream"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString();
+        
+        assertThat(body).endsWith("\n");
+        Set<UUID> streamed = new HashSet<>();
+        for (String line : body.split("\n")) {
+            streamed.add(objectMapper.readValue(line, UserDto.class).getId());
+        }
+        assertThat(streamed).containsAll(created);
+    }
+    
+    @Test
+    @WithMockUser
+    void listingStreamingAndCountingNeedTheAdminAuthority() throws Exception {
+        mockMvc.perform(get("/api/v1/users")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/users/stream")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/users/count")).andExpect(status().isForbidden());
+    }
+    
+    @Test
+    void pageSizeIsBounded() throws Exception {
+        mockMvc.perform(get("/api/v1/users?size=0")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/v1/users?size=1001")).andExpect(status().isBadRequest());
+    }
+    
+    @Test
+    void activeUserCountIsMaintainedWithoutCountingTheTable() {
+        activeUserCounter.recount();
+        long before = userService.getTotalActiveUsersCount();
+        
+        Set<UUID> created = createUsers("count", 2);
+        userService.deactivateUser(created.iterator().next());
+        
+        QueryStatistics.Counters queries = queryStatistics.start();
+        try {
+            assertThat(userService.getTotalActiveUsersCount()).isEqualTo(before + 1);
+            assertThat(queries.getQueryCount()).isEqualTo(1);
+        } finally {
+            queryStatistics.clear();
+        }
+        
+        // A recount agrees with the maintained value
+        activeUserCounter.recount();
+        assertThat(userService.getTotalActiveUsersCount()).isEqualTo(before + 1);
+    }
+    
+    private Set<UUID> createUsers(String prefix, int count) {
+        return IntStream.range(0, count)
+                .mapToObj(i -> userService.createUser(new UserDto(null, prefix + i + "@example.com", "Test", "User")).getId())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,61 @@
+package com.kenyafinance.tracker.datasource;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class QueryStatisticsFilterTests {
+    
+    private final QueryStatistics queryStatistics = new QueryStatistics();
+    
+    @Test
+    void headersCoverStatementsExecutedBeforeTheBodyIsWritten() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        new QueryStatisticsFilter(queryStatistics, true).doFilter(apiRequest(), response, (req, res) -> {
+            queryStatistics.record(3);
+            queryStatistics.record(4);
+            res.getOutputStream().write("[]".getBytes(StandardCharsets.UTF_8));
+            res.flushBuffer();
+            // Executed after commit, so it cannot show up in the headers any more
+            queryStatistics.record(5);
+        });
+        
+        assertThat(response.getHeader(QueryStatisticsFilter.QUERY_COUNT_HEADER)).isEqualTo("2");
+        assertThat(response.getHeader(QueryStatisticsFilter.QUERY_TIME_HEADER)).isEqualTo("7ms");
+    }
+    
+    @Test
+    void headersAreAddedToBodilessResponses() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        new QueryStatisticsFilter(queryStatistics, true).doFilter(apiRequest(), response,
+                (req, res) -> queryStatistics.record(1));
+        
+        assertThat(response.getHeader(QueryStatisticsFilter.QUERY_COUNT_HEADER)).isEqualTo("1");
+    }
+    
+    @Test
+    void noHeadersWhenDisabledAndScopeIsClearedAfterTheRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        new QueryStatisticsFilter(queryStatistics, false).doFilter(apiRequest(), response,
+                (req, res) -> queryStatistics.record(1));
+        
+        assertThat(response.getHeader(QueryStatisticsFilter.QUERY_COUNT_HEADER)).isNull();
+        
+        // Statements outside a request scope (e.g. scheduled jobs) are not counted anywhere
+        QueryStatistics.Counters counters = queryStatistics.start();
+        queryStatistics.clear();
+        queryStatistics.record(1);
+        assertThat(counters.getQueryCount()).isZero();
+    }
+    
+    private MockHttpServletRequest apiRequest() {
+        return new MockHttpServletRequest("GET", "/api/v1/categories/defaults");
+    }
+}
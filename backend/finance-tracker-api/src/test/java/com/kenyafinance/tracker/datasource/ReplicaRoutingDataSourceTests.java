@@ -0,0 +1,133 @@
+package com.kenyafinance.tracker.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.setActualTransactionActive;
+import static org.springframework.transaction.support.TransactionSynchronizationManager.setCurrentTransactionReadOnly;
+
+class ReplicaRoutingDataSourceTests {
+    
+    private final DataSource primary = h2("primary");
+    private final DataSource replicaA = h2("replicaA");
+    private final DataSource replicaB = h2("replicaB");
+    private final DataSource unavailableReplica = h2At("jdbc:h2:tcp://localhost:1/unavailable");
+    
+    private ReadYourWritesTracker tracker;
+    
+    @BeforeEach
+    void setUp() {
+        tracker = new ReadYourWritesTracker(60_000);
+        setActualTransactionActive(true);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        setActualTransactionActive(false);
+        setCurrentTransactionReadOnly(false);
+        tracker.clearCurrentUser();
+    }
+    
+    @Test
+    void writesGoToPrimary() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replicaA), tracker, 30_000);
+        
+        assertThat(databaseOf(routing)).isEqualTo("PRIMARY");
+    }
+    
+    @Test
+    void readOnlyTransactionsAreSplitAcrossReplicas() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replicaA, replicaB), tracker, 30_000);
+        setCurrentTransactionReadOnly(true);
+        
+        assertThat(List.of(databaseOf(routing), databaseOf(routing), databaseOf(routing), databaseOf(routing)))
+                .containsExactly("REPLICAA", "REPLICAB", "REPLICAA", "REPLICAB");
+    }
+    
+    @Test
+    void readsStayOnPrimaryAfterUserWrites() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replicaA), tracker, 30_000);
+        UUID writer = UUID.randomUUID();
+        tracker.setCurrentUser(writer);
+        databaseOf(routing);
+        
+        setCurrentTransactionReadOnly(true);
+        assertThat(databaseOf(routing)).isEqualTo("PRIMARY");
+        
+        tracker.setCurrentUser(UUID.randomUUID());
+        assertThat(databaseOf(routing)).isEqualTo("REPLICAA");
+    }
+    
+    @Test
+    void unavailableReplicaFallsBackToNextReplicaThenPrimary() throws SQLException {
+        setCurrentTransactionReadOnly(true);
+        
+        ReplicaRoutingDataSource withHealthyReplica =
+                new ReplicaRoutingDataSource(primary, List.of(unavailableReplica, replicaA), tracker, 30_000);
+        assertThat(databaseOf(withHealthyReplica)).isEqualTo("REPLICAA");
+        assertThat(databaseOf(withHealthyReplica)).isEqualTo("REPLICAA");
+        
+        ReplicaRoutingDataSource withoutHealthyReplica =
+                new ReplicaRoutingDataSource(primary, List.of(unavailableReplica), tracker, 30_000);
+        assertThat(databaseOf(withoutHealthyReplica)).isEqualTo("PRIMARY");
+    }
+    
+    @Test
+    void explicitCredentialsAreRoutedLikeOtherConnections() throws SQLException {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primary, List.of(replicaA), tracker, 30_000);
+        
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(connection.getCatalog()).isEqualTo("PRIMARY");
+        }
+        setCurrentTransactionReadOnly(true);
+        try (Connection connection = routing.getConnection("sa", "")) {
+            assertThat(connection.getCatalog()).isEqualTo("REPLICAA");
+        }
+    }
+    
+    @Test
+    void closingClosesThePrimaryAndReplicaPools() {
+        HikariDataSource primaryPool = pool("jdbc:h2:mem:primaryPool;DB_CLOSE_DELAY=-1");
+        HikariDataSource replicaPool = pool("jdbc:h2:mem:replicaPool;DB_CLOSE_DELAY=-1");
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(primaryPool, List.of(replicaPool), tracker, 30_000);
+        
+        routing.close();
+        
+        assertThat(primaryPool.isClosed()).isTrue();
+        assertThat(replicaPool.isClosed()).isTrue();
+    }
+    
+    private static HikariDataSource pool(String url) {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setJdbcUrl(url);
+        pool.setUsername("sa");
+        return pool;
+    }
+    
+    private static String databaseOf(DataSource dataSource) throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.getCatalog();
+        }
+    }
+    
+    private static DataSource h2(String name) {
+        return h2At("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+    }
+    
+    private static DataSource h2At(String url) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(url);
+        dataSource.setUser("sa");
+        return dataSource;
+    }
+}
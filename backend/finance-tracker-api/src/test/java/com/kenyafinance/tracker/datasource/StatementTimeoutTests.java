@@ -0,0 +1,166 @@
+package com.kenyafinance.tracker.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.DelegatingServletOutputStream;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.servlet.HandlerExecutionChain;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "app.statement-timeout.spending-ms=2500")
+@ActiveProfiles("test")
+class StatementTimeoutTests {
+    
+    // Ten billion rows: runs for minutes unless it is cancelled
+    private static final String SLOW_QUERY = "SELECT COUNT(*) FROM SYSTEM_RANGE(1, 100000) a, SYSTEM_RANGE(1, 100000) b";
+    
+    @Autowired
+    private FilterRegistrationBean<StatementTimeoutFilter> statementTimeoutFilter;
+    
+    @Autowired
+    private StatementDeadlines statementDeadlines;
+    
+    @Autowired
+    private RequestMappingHandlerMapping requestMappingHandlerMapping;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void statementIsCancelledOnceTheClientHasGivenUpAndAnsweredWith503() throws Exception {
+        MockHttpServletRequest request = spendingRequest();
+        request.addHeader(StatementTimeoutFilter.CLIENT_TIMEOUT_HEADER, "1000");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        double timeoutsBefore = meterRegistry.get("http.statement-timeouts").tag("class", "dashboard").counter().count();
+        
+        long start = System.nanoTime();
+        statementTimeoutFilter.getFilter().doFilter(request, response, (req, res) -> {
+            // What the controllers do with any failure
+            try {
+                jdbcTemplate.queryForObject(SLOW_QUERY, Long.class);
+            } catch (RuntimeException e) {
+                ((HttpServletResponse) res).setStatus(HttpStatus.NOT_FOUND.value());
+            }
+        });
+        
+        assertThat(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start)).isLessThan(10);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(response.getHeader(StatementTimeoutFilter.STATEMENT_TIMEOUT_HEADER)).isEqualTo("1000");
+        assertThat(response.getHeader("Retry-After")).isNull();
+        assertThat(meterRegistry.get("http.statement-timeouts").tag("class", "dashboard").counter().count())
+                .isEqualTo(timeoutsBefore + 1);
+        // The pooled connection does not keep the timeout
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM SYSTEM_RANGE(1, 10)", Long.class)).isEqualTo(10);
+    }
+    
+    @Test
+    void statementIsNotStartedOnceTheDeadlineHasPassed() throws Exception {
+        MockHttpServletRequest request = spendingRequest();
+        request.addHeader(StatementTimeoutFilter.CLIENT_TIMEOUT_HEADER, "50");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        RuntimeException[] failure = new RuntimeException[1];
+        
+        statementTimeoutFilter.getFilter().doFilter(request, response, (req, res) -> {
+            try {
+                Thread.sleep(100);
+                long start = System.nanoTime();
+                try {
+                    jdbcTemplate.queryForObject(SLOW_QUERY, Long.class);
+                } catch (RuntimeException e) {
+                    failure[0] = e;
+                }
+                // Not given a whole second of query timeout
+                assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            ((HttpServletResponse) res).setStatus(HttpStatus.NOT_FOUND.value());
+        });
+        
+        assertThat(failure[0]).isInstanceOf(QueryTimeoutException.class);
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+    }
+    
+    @Test
+    void noStatementIsStartedAfterTheClientWentAway() throws Exception {
+        MockHttpServletResponse disconnected = new MockHttpServletResponse() {
+            @Override
+            public ServletOutputStream getOutputStream() {
+                return new DelegatingServletOutputStream(OutputStream.nullOutputStream()) {
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        throw new IOException("Broken pipe");
+                    }
+                };
+            }
+        };
+        RuntimeException[] failure = new RuntimeException[1];
+        
+        statementTimeoutFilter.getFilter().doFilter(new MockHttpServletRequest("GET", "/api/v1/users/stream"), disconnected,
+                (req, res) -> {
+                    assertThatThrownBy(() -> res.getOutputStream().write(new byte[] {'{', '}'}))
+                            .isInstanceOf(IOException.class);
+                    try {
+                        jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+                    } catch (RuntimeException e) {
+                        failure[0] = e;
+                    }
+                });
+        
+        assertThat(failure[0]).isInstanceOf(QueryTimeoutException.class);
+    }
+    
+    @Test
+    void endpointTimeoutAppliesUnlessTheClientAsksForLess() throws Exception {
+        assertThat(deadlineFor(spendingRequest()).getTimeoutMillis()).isEqualTo(2500);
+        
+        MockHttpServletRequest impatient = spendingRequest();
+        impatient.addHeader(StatementTimeoutFilter.CLIENT_TIMEOUT_HEADER, "800");
+        assertThat(deadlineFor(impatient).getTimeoutMillis()).isEqualTo(800);
+        
+        MockHttpServletRequest unbounded = new MockHttpServletRequest("GET", "/api/v1/categories/defaults");
+        assertThat(deadlineFor(unbounded).isBounded()).isFalse();
+    }
+    
+    private StatementDeadlines.Deadline deadlineFor(MockHttpServletRequest request) throws Exception {
+        HandlerExecutionChain chain = requestMappingHandlerMapping.getHandler(request);
+        assertThat(chain).isNotNull();
+        StatementTimeoutInterceptor interceptor = chain.getInterceptorList().stream()
+                .filter(StatementTimeoutInterceptor.class::isInstance)
+                .map(StatementTimeoutInterceptor.class::cast)
+                .findFirst().orElseThrow();
+        
+        StatementDeadlines.Deadline[] deadline = new StatementDeadlines.Deadline[1];
+        statementTimeoutFilter.getFilter().doFilter(request, new MockHttpServletResponse(), (req, res) -> {
+            interceptor.preHandle((HttpServletRequest) req, (HttpServletResponse) res, chain.getHandler());
+            deadline[0] = statementDeadlines.current();
+        });
+        return deadline[0];
+    }
+    
+    private static MockHttpServletRequest spendingRequest() {
+        return new MockHttpServletRequest("GET", "/api/v1/transactions/spending/user/" + UUID.randomUUID());
+    }
+}
@@ -0,0 +1,180 @@
+package com.kenyafinance.tracker.event;
+
+import com.kenyafinance.tracker.entity.OutboxConsumerOffset;
+import com.kenyafinance.tracker.entity.OutboxEvent;
+import com.kenyafinance.tracker.entity.OutboxEventType;
+import com.kenyafinance.tracker.repository.OutboxConsumerOffsetRepository;
+import com.kenyafinance.tracker.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.outbox.poll-interval-ms=3600000",
+        "app.outbox.cleanup-interval-ms=3600000",
+        "app.outbox.gap-settle-ms=1000",
+        "app.outbox.retention-ms=0"
+})
+@ActiveProfiles("test")
+class OutboxDispatcherTests {
+    
+    @Autowired
+    private OutboxDispatcher dispatcher;
+    
+    @Autowired
+    private RecordingSubscriber subscriber;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private OutboxConsumerOffsetRepository offsetRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void startAfterExistingEvents() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        offsetRepository.deleteAll();
+        OutboxConsumerOffset offset = new OutboxConsumerOffset(RecordingSubscriber.NAME);
+        offset.setLastEventId(outboxEventRepository.findMaxId());
+        offsetRepository.save(offset);
+        subscriber.delivered.clear();
+    }
+    
+    @Test
+    void eventCommittedLateIsDeliveredInIdOrderAfterTheOnesThatOvertookIt() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<Long> late = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            long id = outboxEventRepository.save(event("late")).getId();
+            written.countDown();
+            await(commit);
+            return id;
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        long early = insert("early");
+        
+        assertThat(dispatcher.dispatchBatch(subscriber)).isZero();
+        assertThat(subscriber.delivered).isEmpty();
+        
+        commit.countDown();
+        long lateId = late.get(10, TimeUnit.SECONDS);
+        assertThat(lateId).isLessThan(early);
+        
+        assertThat(dispatcher.dispatchBatch(subscriber)).isEqualTo(2);
+        assertThat(subscriber.delivered).containsExactly(lateId, early);
+    }
+    
+    @Test
+    void gapLeftByARollbackIsSkippedOnceItHasSettled() throws Exception {
+        CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            outboxEventRepository.save(event("rolled-back"));
+            status.setRollbackOnly();
+        })).get(10, TimeUnit.SECONDS);
+        long committed = insert("committed");
+        
+        assertThat(dispatcher.dispatchBatch(subscriber)).isZero();
+        Thread.sleep(1200);
+        
+        assertThat(dispatcher.dispatchBatch(subscriber)).isEqualTo(1);
+        assertThat(subscriber.delivered).containsExactly(committed);
+    }
+    
+    @Test
+    void purgeKeepsEventsUntilEverySubscriberHasAcknowledgedThem() {
+        long id = insert("pending");
+        
+        new OutboxDispatcher(outboxEventRepository, offsetRepository, List.of(), transactionManager).purgeDelivered();
+        assertThat(outboxEventRepository.existsById(id)).isTrue();
+        
+        dispatcher.purgeDelivered();
+        assertThat(outboxEventRepository.existsById(id)).isTrue();
+        
+        dispatcher.dispatchBatch(subscriber);
+        dispatcher.purgeDelivered();
+        assertThat(outboxEventRepository.existsById(id)).isFalse();
+    }
+    
+    @Test
+    void withoutSubscribersOrOffsetsEventsArePurgedOnceOlderThanTheRetention() {
+        long old = insert("old");
+        long recent = insert("recent");
+        jdbcTemplate.update("UPDATE outbox_events SET created_at = ? WHERE id = ?",
+                LocalDateTime.now().minusHours(2), old);
+        offsetRepository.deleteAll();
+        
+        OutboxDispatcher withoutSubscribers =
+                new OutboxDispatcher(outboxEventRepository, offsetRepository, List.of(), transactionManager);
+        ReflectionTestUtils.setField(withoutSubscribers, "retentionMillis", TimeUnit.HOURS.toMillis(1));
+        withoutSubscribers.purgeDelivered();
+        
+        assertThat(outboxEventRepository.existsById(old)).isFalse();
+        assertThat(outboxEventRepository.existsById(recent)).isTrue();
+    }
+    
+    private long insert(String aggregateId) {
+        return transactionTemplate.execute(status -> outboxEventRepository.save(event(aggregateId)).getId());
+    }
+    
+    private static OutboxEvent event(String aggregateId) {
+        return new OutboxEvent(OutboxEventType.TRANSACTION_CREATED, "Test", aggregateId, null, "{}");
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    @TestConfiguration
+    static class Subscribers {
+        
+        @Bean
+        RecordingSubscriber recordingSubscriber() {
+            return new RecordingSubscriber();
+        }
+    }
+    
+    static class RecordingSubscriber implements OutboxEventSubscriber {
+        
+        static final String NAME = "test-recorder";
+        
+        final List<Long> delivered = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String getName() {
+            return NAME;
+        }
+        
+        @Override
+        public void onEvent(OutboxEvent event) {
+            delivered.add(event.getId());
+        }
+    }
+}
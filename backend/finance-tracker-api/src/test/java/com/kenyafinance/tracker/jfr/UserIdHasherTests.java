@@ -0,0 +1,49 @@
+package com.kenyafinance.tracker.jfr;
+
+import com.kenyafinance.tracker.entity.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageImpl;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserIdHasherTests {
+    
+    private final UUID userId = UUID.randomUUID();
+    
+    @Test
+    void sameSaltGivesStableHashThatDoesNotContainTheId() {
+        UserIdHasher hasher = new UserIdHasher("salt");
+        
+        String hash = hasher.hash(userId);
+        
+        assertThat(hash).hasSize(16).isEqualTo(new UserIdHasher("salt").hash(userId));
+        assertThat(hash).isNotEqualTo(new UserIdHasher("other").hash(userId));
+        assertThat(userId.toString()).doesNotContain(hash);
+    }
+    
+    @Test
+    void firstUserIdOrUserArgumentIsHashed() {
+        UserIdHasher hasher = new UserIdHasher("salt");
+        User user = new User();
+        user.setId(userId);
+        
+        assertThat(hasher.hashFirstUser(new Object[]{"x", userId, UUID.randomUUID()})).isEqualTo(hasher.hash(userId));
+        assertThat(hasher.hashFirstUser(new Object[]{user})).isEqualTo(hasher.hash(userId));
+        assertThat(hasher.hashFirstUser(new Object[]{"x", 1L})).isNull();
+    }
+    
+    @Test
+    void rowCountsForReturnedValues() {
+        assertThat(JfrInstrumentationAspect.rowCount(List.of(1, 2, 3))).isEqualTo(3);
+        assertThat(JfrInstrumentationAspect.rowCount(new PageImpl<>(List.of(1, 2)))).isEqualTo(2);
+        assertThat(JfrInstrumentationAspect.rowCount(Optional.empty())).isZero();
+        assertThat(JfrInstrumentationAspect.rowCount(null)).isZero();
+        assertThat(JfrInstrumentationAspect.rowCount(Stream.of(1))).isEqualTo(-1);
+        assertThat(JfrInstrumentationAspect.rowCount(42L)).isEqualTo(1);
+    }
+}
@@ -0,0 +1,80 @@
+package com.kenyafinance.tracker.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AimdConcurrencyLimiterTests {
+    
+    private static final long FAST = 1_000_000L;
+    private static final long SLOW = 500_000_000L;
+    
+    @Test
+    void rejectsRequestsOverTheLimit() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 10, 100, 0.5);
+        
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+        assertThat(limiter.getRejected()).isEqualTo(1);
+    }
+    
+    @Test
+    void growsWhileBusyAndFast() {
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(2, 1, 3, 100, 0.5);
+        
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire();
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+            limiter.release(FAST, false);
+        }
+        
+        assertThat(limiter.getLimit()).isEqualTo(3);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+    
+    @Test
+    void backsOffOnSlowOrFailedResponses() {
+        AtomicLong clock = new AtomicLong();
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 2, 10, 100, 0.5, clock::get);
+        
+        limiter.tryAcquire();
+        clock.addAndGet(SLOW);
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        
+        limiter.tryAcquire();
+        clock.addAndGet(FAST);
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+        
+        limiter.tryAcquire();
+        clock.addAndGet(FAST);
+        limiter.release(FAST, true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+    
+    @Test
+    void backsOffOncePerWindowOfRequestsInFlightAtTheTime() {
+        AtomicLong clock = new AtomicLong();
+        AimdConcurrencyLimiter limiter = new AimdConcurrencyLimiter(8, 1, 10, 100, 0.5, clock::get);
+        
+        for (int i = 0; i < 8; i++) {
+            limiter.tryAcquire();
+        }
+        clock.addAndGet(SLOW);
+        for (int i = 0; i < 8; i++) {
+            limiter.release(SLOW, i % 2 == 0);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        
+        // A request admitted after the decrease may back the limit off again
+        limiter.tryAcquire();
+        clock.addAndGet(SLOW);
+        limiter.release(SLOW, false);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+}
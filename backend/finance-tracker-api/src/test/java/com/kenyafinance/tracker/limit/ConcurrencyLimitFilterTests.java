@@ -0,0 +1,133 @@
+package com.kenyafinance.tracker.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ConcurrencyLimitFilterTests {
+    
+    private static final String DASHBOARD = "/api/v1/transactions/dashboard/user/1";
+    private static final String LIST = "/api/v1/transactions/user/1";
+    
+    private final Map<EndpointClass, AimdConcurrencyLimiter> limiters = new EnumMap<>(EndpointClass.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConcurrencyLimitFilter filter;
+    
+    @BeforeEach
+    void createFilter() {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            limiters.put(endpointClass, new AimdConcurrencyLimiter(2, 1, 2, 1000, 0.5));
+        }
+        filter = new ConcurrencyLimitFilter(limiters, meterRegistry, 3);
+    }
+    
+    @Test
+    void rejectsRequestsOverTheLimitWith503AndRetryAfter() throws Exception {
+        AtomicInteger reached = new AtomicInteger();
+        MockHttpServletResponse[] nested = new MockHttpServletResponse[1];
+        
+        // Hold both dashboard slots while a third dashboard request arrives
+        perform("GET", DASHBOARD, (request, response) ->
+                perform("GET", DASHBOARD, (innerRequest, innerResponse) ->
+                        nested[0] = perform("GET", DASHBOARD, (r, s) -> reached.incrementAndGet())));
+        
+        assertThat(nested[0].getStatus()).isEqualTo(503);
+        assertThat(nested[0].getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(reached).hasValue(0);
+        assertThat(meterRegistry.get("http.concurrency.rejected").tag("class", "dashboard").counter().count())
+                .isEqualTo(1);
+        assertThat(limiters.get(EndpointClass.DASHBOARD).getInFlight()).isZero();
+    }
+    
+    @Test
+    void endpointClassesHaveSeparateLimits() throws Exception {
+        MockHttpServletResponse[] list = new MockHttpServletResponse[1];
+        
+        perform("GET", DASHBOARD, (request, response) ->
+                perform("GET", DASHBOARD, (innerRequest, innerResponse) ->
+                        list[0] = perform("GET", LIST, new MockFilterChain())));
+        
+        assertThat(list[0].getStatus()).isEqualTo(200);
+        assertThat(limiters.get(EndpointClass.LIST_READ).getRejected()).isZero();
+    }
+    
+    @Test
+    void streamHandshakesAreNotLimitedByRunningExports() throws Exception {
+        String export = "/api/v1/transactions/export/user/1";
+        MockHttpServletResponse[] stream = new MockHttpServletResponse[1];
+        
+        perform("POST", export, (request, response) ->
+                perform("POST", export, (innerRequest, innerResponse) ->
+                        stream[0] = perform("GET", DASHBOARD + "/stream", new MockFilterChain())));
+        
+        assertThat(stream[0].getStatus()).isEqualTo(200);
+        assertThat(limiters.get(EndpointClass.STREAM).getRejected()).isZero();
+    }
+    
+    @Test
+    void releasesTheSlotWhenTheChainThrows() {
+        assertThatThrownBy(() -> perform("POST", LIST, (request, response) -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        
+        AimdConcurrencyLimiter limiter = limiters.get(EndpointClass.WRITE);
+        assertThat(limiter.getInFlight()).isZero();
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+    
+    @Test
+    void serverErrorsBackTheLimitOff() throws Exception {
+        MockHttpServletResponse response = perform("GET", LIST, (request, servletResponse) ->
+                ((MockHttpServletResponse) servletResponse).setStatus(500));
+        
+        assertThat(response.getStatus()).isEqualTo(500);
+        assertThat(limiters.get(EndpointClass.LIST_READ).getLimit()).isEqualTo(1);
+        assertThat(limiters.get(EndpointClass.LIST_READ).getInFlight()).isZero();
+    }
+    
+    @Test
+    void leavesNonApiPathsAlone() throws Exception {
+        limiters.values().forEach(AimdConcurrencyLimiter::tryAcquire);
+        limiters.values().forEach(AimdConcurrencyLimiter::tryAcquire);
+        
+        MockHttpServletResponse response = perform("GET", "/actuator/health", new MockFilterChain());
+        
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(limiters.values()).allSatisfy(limiter -> assertThat(limiter.getRejected()).isZero());
+    }
+    
+    @Test
+    void classifiesRequestsByMethodAndPath() {
+        assertThat(EndpointClass.of("GET", DASHBOARD)).isEqualTo(EndpointClass.DASHBOARD);
+        assertThat(EndpointClass.of("GET", "/api/v1/transactions/spending/user/1")).isEqualTo(EndpointClass.DASHBOARD);
+        assertThat(EndpointClass.of("GET", "/api/v1/transactions/dashboard/user/1/stream")).isEqualTo(EndpointClass.STREAM);
+        assertThat(EndpointClass.of("GET", "/api/v1/users/stream")).isEqualTo(EndpointClass.EXPORT);
+        assertThat(EndpointClass.of("POST", "/api/v1/transactions/export/user/1")).isEqualTo(EndpointClass.EXPORT);
+        assertThat(EndpointClass.of("GET", LIST)).isEqualTo(EndpointClass.LIST_READ);
+        assertThat(EndpointClass.of("HEAD", LIST)).isEqualTo(EndpointClass.LIST_READ);
+        assertThat(EndpointClass.of("POST", "/api/v1/transactions")).isEqualTo(EndpointClass.WRITE);
+        assertThat(EndpointClass.of("DELETE", "/api/v1/transactions/5/user/1")).isEqualTo(EndpointClass.WRITE);
+    }
+    
+    private MockHttpServletResponse perform(String method, String path, FilterChain chain)
+            throws IOException, ServletException {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,218 @@
+package com.kenyafinance.tracker.repository;
+
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.TransactionSearchCriteria;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.Transaction;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.entity.User;
+import com.kenyafinance.tracker.service.CategoryService;
+import com.kenyafinance.tracker.service.TransactionService;
+import com.kenyafinance.tracker.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionSpecificationsTests {
+    
+    // Recent enough that an archive run by another test leaves them alone
+    private static final LocalDateTime DAY_ONE = LocalDate.now().minusMonths(3).atStartOfDay();
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private User user;
+    private Long food;
+    private Long rent;
+    private Long salary;
+    private Long lunch;
+    private Long deposit;
+    private Long payslip;
+    private Long snack;
+    
+    @BeforeEach
+    void seed() {
+        UUID userId = createUser("spec-" + UUID.randomUUID() + "@example.com");
+        user = userRepository.findById(userId).orElseThrow();
+        food = categoryByName(userId, "Food");
+        rent = categoryByName(userId, "Rent");
+        salary = categoryByName(userId, "Salary");
+        
+        lunch = add(userId, TransactionType.EXPENSE, "100.00", DAY_ONE, food);
+        deposit = add(userId, TransactionType.EXPENSE, "250.00", DAY_ONE.plusDays(14).plusHours(12), rent);
+        payslip = add(userId, TransactionType.INCOME, "5000.00", DAY_ONE.plusDays(31), salary);
+        snack = add(userId, TransactionType.EXPENSE, "99.99", DAY_ONE.plusDays(40), food);
+        
+        // Another user's transaction that matches every filter below except ownership
+        UUID otherId = createUser("spec-other-" + UUID.randomUUID() + "@example.com");
+        add(otherId, TransactionType.EXPENSE, "100.00", DAY_ONE, categoryByName(otherId, "Food"));
+    }
+    
+    @Test
+    void noFiltersReturnsEveryTransactionOfTheUserOnly() {
+        assertThat(search(new TransactionSearchCriteria())).containsExactlyInAnyOrder(lunch, deposit, payslip, snack);
+    }
+    
+    @Test
+    void filtersByType() {
+        TransactionSearchCriteria expenses = new TransactionSearchCriteria();
+        expenses.setType(TransactionType.EXPENSE);
+        assertThat(search(expenses)).containsExactlyInAnyOrder(lunch, deposit, snack);
+        
+        TransactionSearchCriteria income = new TransactionSearchCriteria();
+        income.setType(TransactionType.INCOME);
+        assertThat(search(income)).containsExactly(payslip);
+    }
+    
+    @Test
+    void filtersByAnyOfTheCategories() {
+        TransactionSearchCriteria foodAndRent = new TransactionSearchCriteria();
+        foodAndRent.setCategoryIds(List.of(food, rent));
+        assertThat(search(foodAndRent)).containsExactlyInAnyOrder(lunch, deposit, snack);
+        
+        TransactionSearchCriteria salaryOnly = new TransactionSearchCriteria();
+        salaryOnly.setCategoryIds(List.of(salary));
+        assertThat(search(salaryOnly)).containsExactly(payslip);
+    }
+    
+    @Test
+    void emptyCategoryListIsNotAFilter() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setCategoryIds(List.of());
+        
+        assertThat(search(criteria)).containsExactlyInAnyOrder(lunch, deposit, payslip, snack);
+    }
+    
+    @Test
+    void amountBoundsAreInclusive() {
+        TransactionSearchCriteria atLeast = new TransactionSearchCriteria();
+        atLeast.setMinAmount(new BigDecimal("100.00"));
+        assertThat(search(atLeast)).containsExactlyInAnyOrder(lunch, deposit, payslip);
+        
+        TransactionSearchCriteria atMost = new TransactionSearchCriteria();
+        atMost.setMaxAmount(new BigDecimal("100"));
+        assertThat(search(atMost)).containsExactlyInAnyOrder(lunch, snack);
+        
+        TransactionSearchCriteria exactly = new TransactionSearchCriteria();
+        exactly.setMinAmount(new BigDecimal("250.00"));
+        exactly.setMaxAmount(new BigDecimal("250.00"));
+        assertThat(search(exactly)).containsExactly(deposit);
+    }
+    
+    @Test
+    void dateBoundsAreInclusive() {
+        TransactionSearchCriteria from = new TransactionSearchCriteria();
+        from.setStartDate(DAY_ONE.plusDays(14).plusHours(12));
+        assertThat(search(from)).containsExactlyInAnyOrder(deposit, payslip, snack);
+        
+        TransactionSearchCriteria until = new TransactionSearchCriteria();
+        until.setEndDate(DAY_ONE.plusDays(31));
+        assertThat(search(until)).containsExactlyInAnyOrder(lunch, deposit, payslip);
+        
+        TransactionSearchCriteria instant = new TransactionSearchCriteria();
+        instant.setStartDate(DAY_ONE.plusDays(31));
+        instant.setEndDate(DAY_ONE.plusDays(31));
+        assertThat(search(instant)).containsExactly(payslip);
+        
+        TransactionSearchCriteria reversed = new TransactionSearchCriteria();
+        reversed.setStartDate(DAY_ONE.plusDays(40));
+        reversed.setEndDate(DAY_ONE);
+        assertThat(search(reversed)).isEmpty();
+    }
+    
+    @Test
+    void combinedFiltersMustAllMatch() {
+        TransactionSearchCriteria criteria = new TransactionSearchCriteria();
+        criteria.setType(TransactionType.EXPENSE);
+        criteria.setCategoryIds(List.of(food, salary));
+        criteria.setMinAmount(new BigDecimal("99.99"));
+        criteria.setMaxAmount(new BigDecimal("100.00"));
+        criteria.setStartDate(DAY_ONE.plusDays(1));
+        
+        assertThat(search(criteria)).containsExactly(snack);
+    }
+    
+    @Test
+    void eachFilterCombinationUsesItsIndex() {
+        // H2 only picks between the composite indexes once ANALYZE has seen a realistic spread of rows
+        List<Object[]> rows = new ArrayList<>();
+        for (int u = 0; u < 10; u++) {
+            UUID bulkUser = u == 0 ? user.getId() : createUser("spec-bulk-" + UUID.randomUUID() + "@example.com");
+            for (int i = 0; i < 500; i++) {
+                rows.add(new Object[] {bulkUser, i % 3 == 0 ? "INCOME" : "EXPENSE", (i * 37) % 10000,
+                        Timestamp.valueOf(DAY_ONE.minusHours(i * 7L)), i % 2 == 0 ? food : rent, Timestamp.valueOf(DAY_ONE)});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO transactions (user_id, type, amount, transaction_date, category_id, created_at) "
+                + "VALUES (?, ?, ?, ?, ?, ?)", rows);
+        jdbcTemplate.execute("ANALYZE");
+        
+        String byUser = "user_id = '" + user.getId() + "'";
+        String since = " AND transaction_date >= TIMESTAMP '" + Timestamp.valueOf(DAY_ONE.minusDays(30)) + "'";
+        assertThat(plan(byUser + since + " AND transaction_date <= TIMESTAMP '" + Timestamp.valueOf(DAY_ONE) + "'"))
+                .contains("IDX_TRANSACTIONS_USER_DATE");
+        assertThat(plan(byUser + " AND type = 'INCOME'" + since)).contains("IDX_TRANSACTIONS_USER_TYPE_DATE");
+        assertThat(plan(byUser + " AND category_id IN (" + food + ", " + rent + ")" + since))
+                .contains("IDX_TRANSACTIONS_USER_CATEGORY_DATE");
+        assertThat(plan(byUser + " AND amount >= 100 AND amount <= 500")).contains("IDX_TRANSACTIONS_USER_AMOUNT");
+    }
+    
+    private List<Long> search(TransactionSearchCriteria criteria) {
+        return transactionRepository.findAll(TransactionSpecifications.forCriteria(user, criteria)).stream()
+                .map(Transaction::getId)
+                .toList();
+    }
+    
+    private String plan(String where) {
+        return jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM transactions WHERE " + where
+                + " ORDER BY transaction_date DESC", String.class);
+    }
+    
+    private UUID createUser(String email) {
+        return userService.createUser(new UserDto(null, email, "Spec", "User")).getId();
+    }
+    
+    private Long categoryByName(UUID userId, String name) {
+        return categoryService.getCategoriesForUser(userId).stream()
+                .filter(category -> category.getName().equals(name))
+                .map(CategoryDto::getId)
+                .findFirst()
+                .orElseThrow();
+    }
+    
+    private Long add(UUID userId, TransactionType type, String amount, LocalDateTime date, Long categoryId) {
+        return transactionService.createTransaction(userId,
+                new TransactionDto(null, type, new BigDecimal(amount), null, date, categoryId)).getId();
+    }
+}
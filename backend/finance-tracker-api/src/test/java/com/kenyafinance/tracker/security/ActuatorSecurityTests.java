@@ -0,0 +1,67 @@
+package com.kenyafinance.tracker.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "management.endpoint.jfr.enabled=true",
+        "management.endpoint.prometheus.enabled=true",
+        "management.prometheus.metrics.export.enabled=true",
+        "app.security.prometheus.allowed-addresses=127.0.0.1/32, 10.20.0.0/16"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ActuatorSecurityTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Test
+    void prometheusAnswersScrapersFromTheAllowedRangesOnly() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddress("10.20.3.4"))).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddress("203.0.113.9"))).andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser
+    void prometheusAndMetricsAreNotAvailableToOrdinaryUsersElsewhere() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddress("203.0.113.9"))).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(authorities = "SCOPE_admin")
+    void adminsMayReadPrometheusFromAnywhere() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus").with(remoteAddress("203.0.113.9"))).andExpect(status().isOk());
+    }
+    
+    @Test
+    @WithMockUser
+    void flightRecordingsAreNotAvailableToOrdinaryUsers() throws Exception {
+        mockMvc.perform(get("/actuator/jfr")).andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/jfr/1")).andExpect(status().isForbidden());
+    }
+    
+    @Test
+    @WithMockUser(authorities = "SCOPE_admin")
+    void flightRecordingsAreAvailableToAdmins() throws Exception {
+        mockMvc.perform(get("/actuator/jfr")).andExpect(status().isOk());
+    }
+    
+    private static RequestPostProcessor remoteAddress(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
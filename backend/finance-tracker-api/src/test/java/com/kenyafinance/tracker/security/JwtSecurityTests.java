@@ -0,0 +1,168 @@
+package com.kenyafinance.tracker.security;
+
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.repository.UserRepository;
+import com.kenyafinance.tracker.service.CategoryService;
+import com.kenyafinance.tracker.service.TransactionService;
+import com.kenyafinance.tracker.service.UserService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * End-to-end check of the resource server: tokens verified against the JWKS, subject linked
+ * to the user by email, and user-scoped paths restricted to that user.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class JwtSecurityTests {
+    
+    private static final StubJwksServer jwks;
+    
+    static {
+        try {
+            jwks = new StubJwksServer();
+        } catch (Exception e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+    
+    @DynamicPropertySource
+    static void jwtProperties(DynamicPropertyRegistry registry) {
+        registry.add("app.security.jwt.enabled", () -> "true");
+        registry.add("app.security.jwt.issuer", () -> StubJwksServer.ISSUER);
+        registry.add("app.security.jwt.jwk-set-uri", jwks::jwkSetUri);
+        registry.add("app.security.jwt.audience", () -> StubJwksServer.AUDIENCE);
+    }
+    
+    @AfterAll
+    static void stopJwks() {
+        jwks.close();
+    }
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Test
+    void requestsWithoutAValidTokenAreUnauthorized() throws Exception {
+        mockMvc.perform(get("/api/v1/users/" + UUID.randomUUID()))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/users/" + UUID.randomUUID()).header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().isUnauthorized());
+    }
+    
+    @Test
+    void usersCanOnlyReachTheirOwnResources() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "owner@example.com", "Wanjiru", "Kamau"));
+        UserDto other = userService.createUser(new UserDto(null, "other@example.com", "Otieno", "Odhiambo"));
+        String bearer = "Bearer " + jwks.token("subject-owner", "owner@example.com", Instant.now().plusSeconds(600));
+        
+        mockMvc.perform(get("/api/v1/users/" + owner.getId()).header("Authorization", bearer))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/transactions/dashboard/user/" + other.getId()).header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+        
+        assertThat(userRepository.findIdByAuthSubject("subject-owner")).contains(owner.getId());
+    }
+    
+    @Test
+    void unverifiedEmailIsNotLinkedToAnExistingUser() throws Exception {
+        UserDto victim = userService.createUser(new UserDto(null, "unverified-victim@example.com", "Achieng", "Njeri"));
+        String bearer = "Bearer " + jwks.token("subject-impostor", "unverified-victim@example.com", false,
+                Instant.now().plusSeconds(600));
+        
+        mockMvc.perform(get("/api/v1/users/" + victim.getId()).header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+        
+        assertThat(userRepository.findIdByAuthSubject("subject-impostor")).isEmpty();
+        assertThat(userRepository.findById(victim.getId()).orElseThrow().getAuthSubject()).isNull();
+    }
+    
+    @Test
+    void percentEncodedUserIdsAreCheckedAsTheControllerSeesThem() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "encoded-owner@example.com", "Wambui", "Mwangi"));
+        UserDto other = userService.createUser(new UserDto(null, "encoded-other@example.com", "Kiprono", "Cheruiyot"));
+        String bearer = bearer("subject-encoded-owner", "encoded-owner@example.com");
+        
+        mockMvc.perform(get(URI.create("/api/v1/transactions/dashboard/user/" + encodeFirstChar(other.getId())))
+                        .header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get(URI.create("/api/v1/transactions/dashboard/user/" + encodeFirstChar(owner.getId())))
+                        .header("Authorization", bearer))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    void resourcesAddressedByTheirOwnIdOrByEmailAreOwnerOnly() throws Exception {
+        UserDto owner = userService.createUser(new UserDto(null, "by-id-owner@example.com", "Nyambura", "Kariuki"));
+        UserDto other = userService.createUser(new UserDto(null, "by-id-other@example.com", "Mutua", "Musyoka"));
+        Long ownTransaction = expense(owner.getId());
+        Long otherTransaction = expense(other.getId());
+        String bearer = bearer("subject-by-id-owner", "by-id-owner@example.com");
+        
+        mockMvc.perform(get("/api/v1/transactions/" + ownTransaction).header("Authorization", bearer))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/transactions/" + otherTransaction).header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+        
+        mockMvc.perform(get("/api/v1/users/email/By-Id-Owner@example.com").header("Authorization", bearer))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/users/email/by-id-other@example.com").header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/users/exists/by-id-other@example.com").header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+        
+        // Not a route: denied rather than let through to whatever answers it
+        mockMvc.perform(get("/api/v1/transactions/" + ownTransaction + "/unknown").header("Authorization", bearer))
+                .andExpect(status().isForbidden());
+    }
+    
+    private String bearer(String subject, String email) throws Exception {
+        return "Bearer " + jwks.token(subject, email, Instant.now().plusSeconds(600));
+    }
+    
+    private Long expense(UUID userId) {
+        Long categoryId = categoryService.getCategoriesForUser(userId).stream()
+                .map(CategoryDto::getId)
+                .findFirst().orElseThrow();
+        return transactionService.createTransaction(userId, new TransactionDto(null, TransactionType.EXPENSE,
+                new BigDecimal("15.00"), "Matatu fare", LocalDateTime.now(), categoryId)).getId();
+    }
+    
+    private static String encodeFirstChar(UUID id) {
+        String value = id.toString();
+        return "%" + Integer.toHexString(value.charAt(0)) + value.substring(1);
+    }
+}
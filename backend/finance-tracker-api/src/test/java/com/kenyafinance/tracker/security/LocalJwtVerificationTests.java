@@ -0,0 +1,103 @@
+package com.kenyafinance.tracker.security;
+
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.JWTClaimsSet;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtException;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LocalJwtVerificationTests {
+    
+    private StubJwksServer jwks;
+    private JwtDecoder verifier;
+    private final AtomicInteger verifications = new AtomicInteger();
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        jwks = new StubJwksServer();
+        JWKSource<SecurityContext> jwkSource = LocalJwtDecoders.remoteJwkSource(jwks.jwkSetUrl(),
+                Duration.ofMinutes(5), Duration.ofSeconds(5), Duration.ofSeconds(30));
+        JwtDecoder nimbus = LocalJwtDecoders.decoder(jwkSource, StubJwksServer.ISSUER, StubJwksServer.AUDIENCE);
+        verifier = token -> {
+            verifications.incrementAndGet();
+            return nimbus.decode(token);
+        };
+    }
+    
+    @AfterEach
+    void tearDown() {
+        jwks.close();
+    }
+    
+    @Test
+    void tokensAreVerifiedAgainstTheJwksFetchedOnce() throws Exception {
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        
+        Jwt first = verifier.decode(jwks.token("subject-1", "a@example.com", expiresAt));
+        Jwt second = verifier.decode(jwks.token("subject-2", "b@example.com", expiresAt));
+        
+        assertThat(first.getSubject()).isEqualTo("subject-1");
+        assertThat(second.getClaimAsString("email")).isEqualTo("b@example.com");
+        assertThat(jwks.fetches()).isEqualTo(1);
+    }
+    
+    @Test
+    void repeatedTokenSkipsSignatureVerificationUntilItExpires() throws Exception {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(verifier, 100, Duration.ofHours(1));
+        String token = jwks.token("subject-1", "a@example.com", Instant.now().plusSeconds(600));
+        
+        Jwt first = decoder.decode(token);
+        Jwt second = decoder.decode(token);
+        
+        assertThat(second).isSameAs(first);
+        assertThat(verifications).hasValue(1);
+    }
+    
+    @Test
+    void cachedEntryDoesNotOutliveTheToken() throws Exception {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(verifier, 100, Duration.ofHours(1));
+        String token = jwks.token("subject-1", "a@example.com", Instant.now().plusMillis(300));
+        
+        decoder.decode(token);
+        Thread.sleep(400);
+        decoder.decode(token);
+        
+        // The second call went back to the verifier (which still accepts it within the clock skew)
+        assertThat(verifications).hasValue(2);
+    }
+    
+    @Test
+    void invalidTokensAreRejectedAndNotCached() throws Exception {
+        CachingJwtDecoder decoder = new CachingJwtDecoder(verifier, 100, Duration.ofHours(1));
+        Instant expiresAt = Instant.now().plusSeconds(600);
+        String expired = jwks.token("subject-1", "a@example.com", Instant.now().minusSeconds(3600));
+        String wrongIssuer = jwks.token(new JWTClaimsSet.Builder()
+                .issuer("https://elsewhere.test").audience(StubJwksServer.AUDIENCE).subject("s")
+                .expirationTime(Date.from(expiresAt)).build());
+        String wrongAudience = jwks.token(new JWTClaimsSet.Builder()
+                .issuer(StubJwksServer.ISSUER).audience("anon").subject("s")
+                .expirationTime(Date.from(expiresAt)).build());
+        String unknownKey = StubJwksServer.sign(new RSAKeyGenerator(2048).keyID("other-key").generate(),
+                new JWTClaimsSet.Builder().issuer(StubJwksServer.ISSUER).audience(StubJwksServer.AUDIENCE)
+                        .subject("s").expirationTime(Date.from(expiresAt)).build());
+        
+        for (String token : new String[]{expired, wrongIssuer, wrongAudience, unknownKey, expired}) {
+            assertThatThrownBy(() -> decoder.decode(token)).isInstanceOf(JwtException.class);
+        }
+        assertThat(decoder.getCache().estimatedSize()).isZero();
+        assertThat(verifications).hasValue(5);
+    }
+}
@@ -0,0 +1,95 @@
+package com.kenyafinance.tracker.security;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local stand-in for the identity provider: serves a JWKS over HTTP, counts how often it is
+ * fetched, and signs tokens with the matching private key.
+ */
+class StubJwksServer implements AutoCloseable {
+    
+    static final String ISSUER = "https://auth.example.test/auth/v1";
+    static final String AUDIENCE = "authenticated";
+    
+    private final RSAKey signingKey;
+    private final HttpServer server;
+    private final AtomicInteger fetches = new AtomicInteger();
+    
+    StubJwksServer() throws IOException, JOSEException {
+        this.signingKey = new RSAKeyGenerator(2048).keyID("test-key").generate();
+        byte[] jwks = new JWKSet(signingKey.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/.well-known/jwks.json", exchange -> {
+            fetches.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, jwks.length);
+            try (OutputStream body = exchange.getResponseBody()) {
+                body.write(jwks);
+            }
+        });
+        server.start();
+    }
+    
+    URL jwkSetUrl() throws IOException {
+        return URI.create(jwkSetUri()).toURL();
+    }
+    
+    String jwkSetUri() {
+        return "http://localhost:" + server.getAddress().getPort() + "/.well-known/jwks.json";
+    }
+    
+    int fetches() {
+        return fetches.get();
+    }
+    
+    String token(String subject, String email, Instant expiresAt) throws JOSEException {
+        return token(subject, email, true, expiresAt);
+    }
+    
+    String token(String subject, String email, boolean emailVerified, Instant expiresAt) throws JOSEException {
+        return sign(signingKey, new JWTClaimsSet.Builder()
+                .issuer(ISSUER)
+                .audience(AUDIENCE)
+                .subject(subject)
+                .claim("email", email)
+                .claim("email_verified", emailVerified)
+                .issueTime(Date.from(expiresAt.minusSeconds(60)))
+                .expirationTime(Date.from(expiresAt))
+                .build());
+    }
+    
+    String token(JWTClaimsSet claims) throws JOSEException {
+        return sign(signingKey, claims);
+    }
+    
+    static String sign(RSAKey key, JWTClaimsSet claims) throws JOSEException {
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(), claims);
+        jwt.sign(new RSASSASigner(key));
+        return jwt.serialize();
+    }
+    
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
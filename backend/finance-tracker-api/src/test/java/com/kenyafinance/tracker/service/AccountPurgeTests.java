@@ -0,0 +1,118 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.AccountPurgeDto;
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.AccountPurgeStatus;
+import com.kenyafinance.tracker.entity.Category;
+import com.kenyafinance.tracker.entity.Transaction;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.entity.User;
+import com.kenyafinance.tracker.repository.CategoryRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.repository.UserRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "app.purge.worker.enabled=false",
+        "app.purge.chunk-size=50"
+})
+@ActiveProfiles("test")
+class AccountPurgeTests {
+    
+    @Autowired
+    private AccountPurgeService accountPurgeService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void purgeDeletesEverythingInChunksAndCanResume() {
+        UserDto user = userService.createUser(new UserDto(null, "erase-me@example.com", "Erase", "Me"));
+        UserDto bystander = userService.createUser(new UserDto(null, "keep-me@example.com", "Keep", "Me"));
+        CategoryDto ownCategory = categoryService.createCategory(user.getId(), new CategoryDto(null, "Side hustle", null, "work", "#000000"));
+        // Recorded through the service so outbox events exist for the user too
+        transactionService.createTransaction(user.getId(), new TransactionDto(null, TransactionType.INCOME,
+                new BigDecimal("500.00"), "Gig", LocalDateTime.now(), ownCategory.getId()));
+        insertTransactions(user.getId(), ownCategory.getId(), 119);
+        insertTransactions(bystander.getId(), categoryService.getDefaultCategories().get(0).getId(), 3);
+        
+        AccountPurgeDto requested = accountPurgeService.requestPurge(user.getId());
+        assertThat(requested.getStatus()).isEqualTo(AccountPurgeStatus.PENDING);
+        assertThat(userService.getUserById(user.getId())).map(UserDto::getIsActive).contains(false);
+        assertThat(accountPurgeService.requestPurge(user.getId()).getRequestedAt()).isEqualTo(requested.getRequestedAt());
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        
+        // Two chunks, then "crash": the next run continues with what is left
+        assertThat(accountPurgeService.purgeNextChunk(user.getId())).isTrue();
+        assertThat(accountPurgeService.purgeNextChunk(user.getId())).isTrue();
+        assertThat(accountPurgeService.getPurge(user.getId()).orElseThrow().getTransactionsDeleted()).isEqualTo(100);
+        
+        int chunks = 2;
+        while (accountPurgeService.purgeNextChunk(user.getId())) {
+            chunks++;
+        }
+        
+        // 120 transactions in 3 chunks, 1 category, 1 chunk of outbox events
+        assertThat(chunks).isEqualTo(5);
+        AccountPurgeDto completed = accountPurgeService.getPurge(user.getId()).orElseThrow();
+        assertThat(completed.getStatus()).isEqualTo(AccountPurgeStatus.COMPLETED);
+        assertThat(completed.getTransactionsDeleted()).isEqualTo(120);
+        assertThat(completed.getCategoriesDeleted()).isEqualTo(1);
+        assertThat(userRepository.findById(user.getId())).isEmpty();
+        assertThat(categoryRepository.findById(ownCategory.getId())).isEmpty();
+        assertThat(userService.existsByEmail("erase-me@example.com")).isFalse();
+        assertThat(transactionRepository.countByUser(userRepository.findById(bystander.getId()).orElseThrow())).isEqualTo(3);
+        
+        // Rows were deleted by id; no transaction or category entity was ever loaded
+        assertThat(statistics.getEntityStatistics(Transaction.class.getName()).getLoadCount()).isZero();
+        assertThat(statistics.getEntityStatistics(Category.class.getName()).getLoadCount()).isZero();
+        assertThat(accountPurgeService.purgeNextChunk(user.getId())).isFalse();
+    }
+    
+    private void insertTransactions(UUID userId, Long categoryId, int count) {
+        User user = userRepository.findById(userId).orElseThrow();
+        Category category = categoryRepository.findById(categoryId).orElseThrow();
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            transactions.add(new Transaction(TransactionType.EXPENSE, new BigDecimal("10.00"), "Item " + i,
+                    LocalDateTime.now().minusDays(i), user, category));
+        }
+        transactionRepository.saveAll(transactions);
+    }
+}
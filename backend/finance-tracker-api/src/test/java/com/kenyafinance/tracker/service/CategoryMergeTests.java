@@ -0,0 +1,116 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.CategoryMergeDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.OutboxEventType;
+import com.kenyafinance.tracker.entity.Transaction;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.repository.OutboxEventRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoryMergeTests {
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @Test
+    void mergeMovesEveryTransactionWithoutLoadingThemAndDeletesTheSource() {
+        UUID userId = userService.createUser(new UserDto(null, "merge@example.com", "Merge", "User")).getId();
+        CategoryDto matatu = categoryService.createCategory(userId, new CategoryDto(null, "Matatu", null, "bus", "#111111"));
+        CategoryDto transport = categoryByName(userId, "Transport");
+        addExpenses(userId, matatu.getId(), 4);
+        addExpenses(userId, transport.getId(), 1);
+        
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        CategoryMergeDto result = categoryService.mergeCategory(userId, matatu.getId(), transport.getId());
+        
+        assertThat(result.getTransactionsMoved()).isEqualTo(4);
+        assertThat(result.isSourceDeleted()).isTrue();
+        assertThat(statistics.getEntityStatistics(Transaction.class.getName()).getLoadCount()).isZero();
+        assertThat(transactionService.getTransactionsForUser(userId, PageRequest.of(0, 10)).getContent())
+                .extracting(transaction -> transaction.getCategory().getId())
+                .containsOnly(transport.getId());
+        assertThat(categoryService.getCategoryById(matatu.getId())).map(CategoryDto::getIsActive).contains(false);
+        assertThat(outboxEventRepository.findAll())
+                .anyMatch(event -> event.getEventType() == OutboxEventType.CATEGORY_MERGED
+                        && userId.equals(event.getUserId()));
+    }
+    
+    @Test
+    void recategorizingOutOfADefaultCategoryOnlyMovesTheCallersTransactions() {
+        UUID userId = userService.createUser(new UserDto(null, "recat@example.com", "Recat", "User")).getId();
+        UUID otherId = userService.createUser(new UserDto(null, "recat-other@example.com", "Other", "User")).getId();
+        CategoryDto food = categoryByName(userId, "Food");
+        CategoryDto groceries = categoryService.createCategory(userId, new CategoryDto(null, "Groceries", null, "cart", "#222222"));
+        addExpenses(userId, food.getId(), 3);
+        addExpenses(otherId, food.getId(), 2);
+        
+        CategoryMergeDto result = categoryService.mergeCategory(userId, food.getId(), groceries.getId());
+        
+        assertThat(result.getTransactionsMoved()).isEqualTo(3);
+        assertThat(result.isSourceDeleted()).isFalse();
+        assertThat(categoryService.getCategoryById(food.getId())).map(CategoryDto::getIsActive).contains(true);
+        assertThat(transactionService.getTransactionsForUser(otherId, PageRequest.of(0, 10)).getContent())
+                .extracting(transaction -> transaction.getCategory().getId())
+                .containsOnly(food.getId());
+    }
+    
+    @Test
+    void rejectsCategoriesTheUserCannotUse() {
+        UUID userId = userService.createUser(new UserDto(null, "merge-a@example.com", "Merge", "Alpha")).getId();
+        UUID otherId = userService.createUser(new UserDto(null, "merge-b@example.com", "Merge", "Beta")).getId();
+        CategoryDto mine = categoryService.createCategory(userId, new CategoryDto(null, "Mine", null, "x", "#333333"));
+        CategoryDto theirs = categoryService.createCategory(otherId, new CategoryDto(null, "Theirs", null, "x", "#444444"));
+        
+        assertThatThrownBy(() -> categoryService.mergeCategory(userId, mine.getId(), theirs.getId()))
+                .hasMessageContaining("Cannot merge");
+        assertThatThrownBy(() -> categoryService.mergeCategory(userId, theirs.getId(), mine.getId()))
+                .hasMessageContaining("Cannot merge");
+        assertThatThrownBy(() -> categoryService.mergeCategory(userId, mine.getId(), mine.getId()))
+                .hasMessageContaining("into itself");
+    }
+    
+    private CategoryDto categoryByName(UUID userId, String name) {
+        List<CategoryDto> categories = categoryService.getCategoriesForUser(userId);
+        return categories.stream().filter(category -> category.getName().equals(name)).findFirst().orElseThrow();
+    }
+    
+    private void addExpenses(UUID userId, Long categoryId, int count) {
+        for (int i = 0; i < count; i++) {
+            transactionService.createTransaction(userId, new TransactionDto(null, TransactionType.EXPENSE,
+                    new BigDecimal("150.00"), "Expense " + i, LocalDateTime.now().minusHours(i), categoryId));
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.kenyafinance.tracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyafinance.tracker.datasource.QueryStatistics;
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DashboardSnapshotCacheTests {
+    
+    @Autowired
+    private DashboardSnapshotCache dashboardSnapshotCache;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private QueryStatistics queryStatistics;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @AfterEach
+    void stopCounting() {
+        queryStatistics.clear();
+    }
+    
+    @Test
+    void unchangedDashboardIsServedFromTheCacheWithOneVersionLookup() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "cache-hit@example.com", "Cache", "Hit")).getId();
+        Long foodId = categoryId(userId, "Food");
+        addExpense(userId, foodId, "120.00");
+        
+        DashboardSnapshot first = dashboardSnapshotCache.getDashboard(userId);
+        QueryStatistics.Counters counters = queryStatistics.start();
+        DashboardSnapshot second = dashboardSnapshotCache.getDashboard(userId);
+        
+        assertThat(counters.getQueryCount()).isEqualTo(1);
+        assertThat(second).isSameAs(first);
+        assertThat(summaryOf(second).getTotalExpenses()).isEqualByComparingTo("120.00");
+    }
+    
+    @Test
+    void transactionAndCategoryWritesInvalidateTheCachedDashboard() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "cache-miss@example.com", "Cache", "Miss")).getId();
+        Long foodId = categoryId(userId, "Food");
+        DashboardSnapshot empty = dashboardSnapshotCache.getDashboard(userId);
+        
+        addExpense(userId, foodId, "80.00");
+        DashboardSnapshot afterWrite = dashboardSnapshotCache.getDashboard(userId);
+        assertThat(afterWrite.dataVersion()).isGreaterThan(empty.dataVersion());
+        assertThat(summaryOf(afterWrite).getTotalExpenses()).isEqualByComparingTo("80.00");
+        assertThat(summaryOf(afterWrite).getTotalTransactions()).isEqualTo(1);
+        
+        CategoryDto side = categoryService.createCategory(userId, new CategoryDto(null, "Side", null, "work", "#123456"));
+        categoryService.updateCategory(userId, side.getId(), new CategoryDto(null, "Side hustle", null, "work", "#123456"));
+        assertThat(dashboardSnapshotCache.getDashboard(userId).dataVersion()).isEqualTo(afterWrite.dataVersion() + 2);
+    }
+    
+    @Test
+    void writesBumpTheVersionWithoutWaitingOnTheUsersRow() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "cache-lock@example.com", "Cache", "Lock")).getId();
+        Long foodId = categoryId(userId, "Food");
+        long before = dashboardSnapshotCache.getDashboard(userId).dataVersion();
+        
+        // Another transaction holds the users row for the whole write
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE users SET first_name = first_name WHERE id = ?", userId);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 6; i++) {
+                addExpense(userId, foodId, "5.00");
+            }
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+        
+        DashboardSnapshot after = dashboardSnapshotCache.getDashboard(userId);
+        assertThat(after.dataVersion()).isEqualTo(before + 6);
+        assertThat(summaryOf(after).getTotalExpenses()).isEqualByComparingTo("30.00");
+    }
+    
+    @Test
+    void stripesAreCreatedWithTheUserAndWritesOfUsersMissingSomeStillBumpTheVersion() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "cache-stripes@example.com", "Cache", "Stripes")).getId();
+        Long foodId = categoryId(userId, "Food");
+        assertThat(stripeCount(userId)).isEqualTo(4);
+        
+        // As for a user created before the stripe count was raised
+        jdbcTemplate.update("DELETE FROM user_data_versions WHERE user_id = ? AND stripe > 0", userId);
+        long before = dashboardSnapshotCache.getDashboard(userId).dataVersion();
+        for (int i = 0; i < 8; i++) {
+            addExpense(userId, foodId, "5.00");
+        }
+        assertThat(dashboardSnapshotCache.getDashboard(userId).dataVersion()).isEqualTo(before + 8);
+        assertThat(stripeCount(userId)).isEqualTo(1);
+        
+        // As for a user created before user_data_versions existed
+        jdbcTemplate.update("DELETE FROM user_data_versions WHERE user_id = ?", userId);
+        addExpense(userId, foodId, "5.00");
+        DashboardSnapshot after = dashboardSnapshotCache.getDashboard(userId);
+        assertThat(after.dataVersion()).isEqualTo(1);
+        assertThat(summaryOf(after).getTotalExpenses()).isEqualByComparingTo("45.00");
+        assertThat(stripeCount(userId)).isEqualTo(4);
+    }
+    
+    @Test
+    void unknownUserIsRejected() {
+        assertThatThrownBy(() -> dashboardSnapshotCache.getDashboard(UUID.randomUUID()))
+                .hasMessageContaining("User not found");
+    }
+    
+    private DashboardSummaryDto summaryOf(DashboardSnapshot snapshot) throws Exception {
+        return snapshot.json() != null
+                ? objectMapper.readValue(snapshot.json(), DashboardSummaryDto.class)
+                : snapshot.summary();
+    }
+    
+    private int stripeCount(UUID userId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM user_data_versions WHERE user_id = ?", Integer.class, userId);
+    }
+    
+    private Long categoryId(UUID userId, String name) {
+        return categoryService.getCategoriesForUser(userId).stream()
+                .filter(category -> category.getName().equals(name))
+                .map(CategoryDto::getId)
+                .findFirst().orElseThrow();
+    }
+    
+    private void addExpense(UUID userId, Long categoryId, String amount) {
+        transactionService.createTransaction(userId, new TransactionDto(null, TransactionType.EXPENSE,
+                new BigDecimal(amount), "Expense", LocalDateTime.now(), categoryId));
+    }
+}
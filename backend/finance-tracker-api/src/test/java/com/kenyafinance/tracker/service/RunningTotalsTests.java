@@ -0,0 +1,218 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.CategoryTotal;
+import com.kenyafinance.tracker.entity.PendingTotalWrite;
+import com.kenyafinance.tracker.entity.Transaction;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.repository.CategoryRepository;
+import com.kenyafinance.tracker.repository.CategoryTotalRepository;
+import com.kenyafinance.tracker.repository.PendingTotalWriteRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {
+        "app.running-totals.enabled=true",
+        "app.running-totals.flush-interval-ms=3600000",
+        "app.running-totals.reconcile-interval-ms=3600000"
+})
+@ActiveProfiles("test")
+class RunningTotalsTests {
+    
+    @Autowired
+    private RunningTotals runningTotals;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PendingTotalWriteRepository pendingTotalWriteRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private CategoryTotalRepository categoryTotalRepository;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Test
+    void concurrentWritesAreExactBeforeAndAfterAFlush() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "running-totals@example.com", "Running", "Totals")).getId();
+        Long foodId = categoryId(userId, "Food");
+        Long salaryId = categoryId(userId, "Salary");
+        
+        List<TransactionDto> expenses = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<TransactionDto>> creates = new ArrayList<>();
+            for (int i = 0; i < 40; i++) {
+                creates.add(executor.submit(() -> create(userId, TransactionType.EXPENSE, "10.00", foodId)));
+            }
+            for (Future<TransactionDto> create : creates) {
+                expenses.add(create.get());
+            }
+        }
+        create(userId, TransactionType.INCOME, "500.00", salaryId);
+        TransactionDto changed = expenses.get(0);
+        transactionService.updateTransaction(userId, changed.getId(), new TransactionDto(null, TransactionType.EXPENSE,
+                new BigDecimal("25.00"), "Bigger lunch", changed.getTransactionDate(), foodId));
+        transactionService.deleteTransaction(userId, expenses.get(1).getId());
+        
+        // Nothing flushed yet: the table is empty and the deltas are all in memory
+        assertThat(categoryTotalRepository.findByUserId(userId)).isEmpty();
+        assertThat(pendingTotalWriteRepository.countByUserId(userId)).isEqualTo(43L);
+        assertThat(runningTotals.getTotals(userId)).isPresent();
+        assertDashboard(userId, "500.00", "405.00", 40);
+        
+        runningTotals.flush();
+        
+        assertThat(pendingTotalWriteRepository.countByUserId(userId)).isZero();
+        assertThat(categoryTotalRepository.findByUserId(userId))
+                .extracting(CategoryTotal::getCategoryId, CategoryTotal::getType,
+                        total -> total.getTotalAmount().toPlainString(), CategoryTotal::getTransactionCount)
+                .containsExactlyInAnyOrder(tuple(foodId, TransactionType.EXPENSE, "405.00", 39L),
+                        tuple(salaryId, TransactionType.INCOME, "500.00", 1L));
+        assertDashboard(userId, "500.00", "405.00", 40);
+    }
+    
+    @Test
+    void writesAreCountedWithoutWaitingOnTheUsersRow() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "running-lock@example.com", "Running", "Lock")).getId();
+        Long foodId = categoryId(userId, "Food");
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        
+        // Another transaction holds the users row for the whole write
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> holder = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE users SET first_name = first_name WHERE id = ?", userId);
+            locked.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        try {
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+            for (int i = 0; i < 5; i++) {
+                create(userId, TransactionType.EXPENSE, "8.00", foodId);
+            }
+        } finally {
+            release.countDown();
+            holder.get(10, TimeUnit.SECONDS);
+        }
+        
+        assertThat(pendingTotalWriteRepository.countByUserId(userId)).isEqualTo(5L);
+        assertThat(runningTotals.getTotals(userId)).isPresent();
+        runningTotals.flush();
+        assertThat(pendingTotalWriteRepository.countByUserId(userId)).isZero();
+        assertDashboard(userId, "0", "40.00", 5);
+    }
+    
+    @Test
+    void writesLostInACrashAreAggregatedUntilReconciled() {
+        UUID userId = userService.createUser(new UserDto(null, "running-crash@example.com", "Running", "Crash")).getId();
+        Long foodId = categoryId(userId, "Food");
+        create(userId, TransactionType.EXPENSE, "100.00", foodId);
+        runningTotals.flush();
+        
+        // What an instance that died before its flush leaves behind: the write and its pending row
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            transactionRepository.save(new Transaction(TransactionType.EXPENSE, new BigDecimal("40.00"), "Lost",
+                    LocalDateTime.now(), userRepository.findById(userId).orElseThrow(), categoryRepository.findById(foodId).orElseThrow()));
+            pendingTotalWriteRepository.save(new PendingTotalWrite(userId, "crashed-instance", LocalDateTime.now().minusHours(1)));
+        });
+        
+        assertThat(runningTotals.getTotals(userId)).isEmpty();
+        assertDashboard(userId, "0", "140.00", 2);
+        
+        runningTotals.reconcile();
+        
+        assertThat(pendingTotalWriteRepository.countByUserId(userId)).isZero();
+        assertThat(runningTotals.getTotals(userId)).isPresent();
+        assertDashboard(userId, "0", "140.00", 2);
+    }
+    
+    @Test
+    void categoryMergeRebuildsTotalsOnTheNextReconcile() {
+        UUID userId = userService.createUser(new UserDto(null, "running-merge@example.com", "Running", "Merge")).getId();
+        Long foodId = categoryId(userId, "Food");
+        CategoryDto snacks = categoryService.createCategory(userId, new CategoryDto(null, "Snacks", null, "cookie", "#FFAA00"));
+        create(userId, TransactionType.EXPENSE, "30.00", snacks.getId());
+        create(userId, TransactionType.EXPENSE, "70.00", foodId);
+        runningTotals.flush();
+        
+        categoryService.mergeCategory(userId, snacks.getId(), foodId);
+        assertThat(runningTotals.getTotals(userId)).isEmpty();
+        
+        runningTotals.reconcile();
+        
+        assertThat(runningTotals.getTotals(userId)).hasValueSatisfying(totals -> assertThat(totals)
+                .extracting(RunningTotals.Total::categoryId, total -> total.amount().toPlainString(), RunningTotals.Total::count)
+                .containsExactly(tuple(foodId, "100.00", 2L)));
+    }
+    
+    private void assertDashboard(UUID userId, String income, String expenses, long count) {
+        DashboardSummaryDto summary = transactionService.getDashboardSummary(userId);
+        assertThat(summary.getTotalIncome()).isEqualByComparingTo(income);
+        assertThat(summary.getTotalExpenses()).isEqualByComparingTo(expenses);
+        assertThat(summary.getTotalTransactions()).isEqualTo(count);
+        assertThat(summary.getCategorySpending())
+                .extracting(spending -> spending.getAmount().toPlainString())
+                .containsExactly(new BigDecimal(expenses).setScale(2).toPlainString());
+    }
+    
+    private TransactionDto create(UUID userId, TransactionType type, String amount, Long categoryId) {
+        return transactionService.createTransaction(userId, new TransactionDto(null, type, new BigDecimal(amount),
+                null, LocalDateTime.now(), categoryId));
+    }
+    
+    private Long categoryId(UUID userId, String name) {
+        return categoryService.getCategoriesForUser(userId).stream()
+                .filter(category -> category.getName().equals(name))
+                .map(CategoryDto::getId)
+                .findFirst().orElseThrow();
+    }
+}
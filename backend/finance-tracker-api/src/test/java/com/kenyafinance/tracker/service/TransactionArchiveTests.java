@@ -0,0 +1,231 @@
+package com.kenyafinance.tracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.entity.User;
+import com.kenyafinance.tracker.repository.ArchivedTransactionRepository;
+import com.kenyafinance.tracker.repository.TransactionRepository;
+import com.kenyafinance.tracker.repository.UserRepository;
+import com.kenyafinance.tracker.security.UserJwtAuthenticationToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionArchiveTests {
+    
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private ArchivedTransactionRepository archivedTransactionRepository;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void createTemplate() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Test
+    void archivingKeepsLifetimeTotalsAndCategorySpending() {
+        UUID userId = userService.createUser(new UserDto(null, "archive@example.com", "Archive", "User")).getId();
+        Long salary = categoryByName(userId, "Salary").getId();
+        Long rent = categoryByName(userId, "Rent").getId();
+        Long food = categoryByName(userId, "Food").getId();
+        LocalDateTime old = transactionArchiveService.currentCutoff().minusMonths(6);
+        
+        for (int month = 0; month < 3; month++) {
+            add(userId, TransactionType.INCOME, "50000.00", old.plusMonths(month), salary);
+            add(userId, TransactionType.EXPENSE, "20000.00", old.plusMonths(month), rent);
+            add(userId, TransactionType.EXPENSE, "1250.50", old.plusMonths(month).plusDays(3), food);
+        }
+        add(userId, TransactionType.INCOME, "60000.00", LocalDateTime.now().minusDays(2), salary);
+        add(userId, TransactionType.EXPENSE, "900.00", LocalDateTime.now().minusDays(1), food);
+        
+        DashboardSummaryDto before = transactionService.getDashboardSummary(userId);
+        
+        int archived = 0;
+        int chunk;
+        while ((chunk = transactionArchiveService.archiveNextChunk(transactionArchiveService.currentCutoff())) > 0) {
+            archived += chunk;
+        }
+        
+        User user = userRepository.findById(userId).orElseThrow();
+        assertThat(archived).isGreaterThanOrEqualTo(9);
+        assertThat(transactionRepository.countByUser(user)).isEqualTo(2);
+        assertThat(archivedTransactionRepository.findIdsByUserId(userId, Pageable.unpaged())).hasSize(9);
+        
+        DashboardSummaryDto after = transactionService.getDashboardSummary(userId);
+        assertThat(after.getTotalIncome()).isEqualByComparingTo(before.getTotalIncome()).isEqualByComparingTo("210000.00");
+        assertThat(after.getTotalExpenses()).isEqualByComparingTo(before.getTotalExpenses()).isEqualByComparingTo("64651.50");
+        assertThat(after.getBalance()).isEqualByComparingTo(before.getBalance());
+        assertThat(after.getTotalTransactions()).isEqualTo(before.getTotalTransactions()).isEqualTo(11);
+        assertThat(spendingByCategory(after)).isEqualTo(spendingByCategory(before));
+        assertThat(after.getCategorySpending().get(0).getCategory().getId()).isEqualTo(rent);
+        
+        assertThat(transactionRepository.calculateIncomeByUserAndDateRange(user, old.minusDays(1), old.plusMonths(1).minusDays(1)))
+                .isEqualByComparingTo("50000.00");
+    }
+    
+    @Test
+    void mergingACategoryMovesItsArchivedTotalsToo() {
+        UUID userId = userService.createUser(new UserDto(null, "archive-merge@example.com", "Archive", "Merge")).getId();
+        CategoryDto boda = categoryService.createCategory(userId, new CategoryDto(null, "Boda", null, "bike", "#555555"));
+        Long transport = categoryByName(userId, "Transport").getId();
+        add(userId, TransactionType.EXPENSE, "300.00", transactionArchiveService.currentCutoff().minusMonths(1), boda.getId());
+        add(userId, TransactionType.EXPENSE, "200.00", LocalDateTime.now().minusDays(1), boda.getId());
+        while (transactionArchiveService.archiveNextChunk(transactionArchiveService.currentCutoff()) > 0) {
+            // archive everything that is old enough
+        }
+        
+        assertThat(categoryService.mergeCategory(userId, boda.getId(), transport).getTransactionsMoved()).isEqualTo(2);
+        
+        assertThat(spendingByCategory(transactionService.getDashboardSummary(userId)))
+                .containsOnlyKeys(transport)
+                .hasEntrySatisfying(transport, amount -> assertThat(amount).isEqualByComparingTo("500.00"));
+    }
+    
+    @Test
+    void archivedTransactionsCanBeFetchedByIdButNotChanged() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "archive-by-id@example.com", "Archive", "ById")).getId();
+        Long food = categoryByName(userId, "Food").getId();
+        TransactionDto old = transactionService.createTransaction(userId, new TransactionDto(null, TransactionType.EXPENSE,
+                new BigDecimal("480.00"), "Old lunch", transactionArchiveService.currentCutoff().minusMonths(1), food));
+        while (transactionArchiveService.archiveNextChunk(transactionArchiveService.currentCutoff()) > 0) {
+            // archive everything that is old enough
+        }
+        assertThat(archivedTransactionRepository.existsById(old.getId())).isTrue();
+        
+        mockMvc.perform(get("/api/v1/transactions/" + old.getId()).with(asUser(userId)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.amount").value(480.00))
+                .andExpect(jsonPath("$.notes").value("Old lunch"))
+                .andExpect(jsonPath("$.category.name").value("Food"));
+        
+        TransactionDto change = new TransactionDto(null, TransactionType.EXPENSE, new BigDecimal("10.00"), "Changed",
+                LocalDateTime.now(), food);
+        mockMvc.perform(put("/api/v1/transactions/" + old.getId() + "/user/" + userId).with(asUser(userId))
+                        .contentType(MediaType.APPLICATION_JSON).content(objectMapper.writeValueAsString(change)))
+                .andExpect(status().isConflict());
+        mockMvc.perform(delete("/api/v1/transactions/" + old.getId() + "/user/" + userId).with(asUser(userId)))
+                .andExpect(status().isConflict());
+        assertThat(archivedTransactionRepository.existsById(old.getId())).isTrue();
+        
+        // Ids that exist nowhere keep their old response
+        mockMvc.perform(delete("/api/v1/transactions/" + Long.MAX_VALUE + "/user/" + userId).with(asUser(userId)))
+                .andExpect(status().isBadRequest());
+    }
+    
+    private RequestPostProcessor asUser(UUID userId) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject("sub-" + userId).build();
+        return SecurityMockMvcRequestPostProcessors.authentication(new UserJwtAuthenticationToken(jwt, List.of(), userId));
+    }
+    
+    private Map<Long, BigDecimal> spendingByCategory(DashboardSummaryDto summary) {
+        return summary.getCategorySpending().stream()
+                .collect(Collectors.toMap(spending -> spending.getCategory().getId(),
+                        spending -> spending.getAmount().stripTrailingZeros()));
+    }
+    
+    @Test
+    void aChunkWaitsForUpdatesInFlightAndArchivesTheirValues() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "archive-update@example.com", "Archive", "Update")).getId();
+        Long food = categoryByName(userId, "Food").getId();
+        TransactionDto old = transactionService.createTransaction(userId, new TransactionDto(null, TransactionType.EXPENSE,
+                new BigDecimal("480.00"), "Old lunch", transactionArchiveService.currentCutoff().minusMonths(1), food));
+        
+        CountDownLatch updated = new CountDownLatch(1);
+        CompletableFuture<Void> update = CompletableFuture.runAsync(() -> transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE transactions SET amount = 990.00 WHERE id = ?", old.getId());
+            updated.countDown();
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }));
+        assertThat(updated.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        while (transactionArchiveService.archiveNextChunk(transactionArchiveService.currentCutoff()) > 0) {
+            // archive everything that is old enough
+        }
+        update.get(5, TimeUnit.SECONDS);
+        
+        assertThat(archivedTransactionRepository.findById(old.getId()).orElseThrow().getAmount()).isEqualByComparingTo("990.00");
+        assertThat(transactionService.getDashboardSummary(userId).getTotalExpenses()).isEqualByComparingTo("990.00");
+    }
+    
+    private CategoryDto categoryByName(UUID userId, String name) {
+        return categoryService.getCategoriesForUser(userId).stream()
+                .filter(category -> category.getName().equals(name))
+                .findFirst()
+                .orElseThrow();
+    }
+    
+    private void add(UUID userId, TransactionType type, String amount, LocalDateTime date, Long categoryId) {
+        transactionService.createTransaction(userId, new TransactionDto(null, type, new BigDecimal(amount), null, date, categoryId));
+    }
+}
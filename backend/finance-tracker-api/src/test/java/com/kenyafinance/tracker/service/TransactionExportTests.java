@@ -0,0 +1,168 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.TransactionExportDto;
+import com.kenyafinance.tracker.dto.TransactionExportRow;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.export.ArrowTransactionWriter;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.DecimalVector;
+import org.apache.arrow.vector.VarCharVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionExportTests {
+    
+    @Autowired
+    private TransactionExportService transactionExportService;
+    
+    @Autowired
+    private TransactionArchiveService transactionArchiveService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Value("${app.export.directory}")
+    private String exportDirectory;
+    
+    @Test
+    void exportsHotAndArchivedTransactionsPartitionedByMonth() throws IOException {
+        UUID userId = userService.createUser(new UserDto(null, "export@example.com", "Export", "User")).getId();
+        Long rent = categoryByName(userId, "Rent");
+        Long food = categoryByName(userId, "Food");
+        LocalDateTime archived = transactionArchiveService.currentCutoff().minusMonths(2).plusDays(4);
+        LocalDateTime lastMonth = LocalDateTime.now().withDayOfMonth(10).minusMonths(1);
+        LocalDateTime thisMonth = LocalDateTime.now().withDayOfMonth(1).plusHours(1);
+        
+        add(userId, "20000.00", archived, rent);
+        while (transactionArchiveService.archiveNextChunk(transactionArchiveService.currentCutoff()) > 0) {
+            // archive everything that is old enough
+        }
+        add(userId, "20000.00", lastMonth, rent);
+        add(userId, "450.25", lastMonth.plusDays(1), food);
+        add(userId, "99.75", thisMonth, food);
+        
+        TransactionExportDto export = transactionExportService.exportUser(userId);
+        
+        assertThat(export.getRowCount()).isEqualTo(4);
+        assertThat(export.getFiles()).containsExactly(
+                "month=" + YearMonth.from(archived) + "/part-0.arrow",
+                "month=" + YearMonth.from(lastMonth) + "/part-0.arrow",
+                "month=" + YearMonth.from(thisMonth) + "/part-0.arrow");
+        
+        assertThat(export.getDirectory()).isEqualTo("user=" + userId + "/" + Path.of(export.getDirectory()).getFileName());
+        Path directory = Path.of(exportDirectory).resolve(export.getDirectory());
+        List<String[]> lastMonthRows = read(directory.resolve(export.getFiles().get(1)));
+        assertThat(lastMonthRows).extracting(row -> row[0]).containsOnly(userId.toString());
+        assertThat(lastMonthRows).extracting(row -> row[1]).containsExactly("Rent", "Food");
+        assertThat(lastMonthRows).extracting(row -> row[2]).containsExactly("20000.00", "450.25");
+        assertThat(read(directory.resolve(export.getFiles().get(0))))
+                .extracting(row -> row[1]).containsExactly("Rent");
+        assertThat(directory.getParent())
+                .isDirectoryNotContaining(path -> path.getFileName().toString().startsWith(".in-progress-"));
+    }
+    
+    @Test
+    void rejectsUnknownUsers() {
+        assertThatThrownBy(() -> transactionExportService.exportUser(UUID.randomUUID()))
+                .hasMessageContaining("User not found");
+    }
+    
+    @Test
+    void writesFixedSizeBatchesAndStartsAnotherPartWhenAMonthComesRoundAgain(@TempDir Path directory) throws IOException {
+        UUID userId = UUID.randomUUID();
+        LocalDateTime january = LocalDateTime.of(2024, 1, 15, 12, 0);
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowTransactionWriter writer = new ArrowTransactionWriter(directory, allocator, 3)) {
+            for (long id = 1; id <= 7; id++) {
+                writer.write(new TransactionExportRow(id, userId, 1L, null, TransactionType.EXPENSE,
+                        new BigDecimal("10.5"), january));
+            }
+            writer.write(new TransactionExportRow(8L, userId, 1L, null, TransactionType.INCOME, BigDecimal.ONE, january.plusMonths(1)));
+            writer.write(new TransactionExportRow(9L, userId, 1L, null, TransactionType.INCOME, BigDecimal.ONE, january));
+            
+            writer.close();
+            assertThat(writer.getRowCount()).isEqualTo(9);
+            assertThat(writer.getFiles()).containsExactly(
+                    "month=2024-01/part-0.arrow", "month=2024-02/part-0.arrow", "month=2024-01/part-1.arrow");
+        }
+        
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowFileReader reader = new ArrowFileReader(FileChannel.open(directory.resolve("month=2024-01/part-0.arrow")), allocator)) {
+            assertThat(reader.getRecordBlocks()).hasSize(3);
+            assertThat(read(directory.resolve("month=2024-01/part-0.arrow")))
+                    .hasSize(7)
+                    .allSatisfy(row -> assertThat(row[2]).isEqualTo("10.50"));
+        }
+    }
+    
+    /**
+     * user_id, category_name and amount of every row in a file
+     */
+    private List<String[]> read(Path file) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferAllocator allocator = new RootAllocator();
+             ArrowFileReader reader = new ArrowFileReader(FileChannel.open(file), allocator)) {
+            assertThat(reader.getVectorSchemaRoot().getSchema()).isEqualTo(ArrowTransactionWriter.SCHEMA);
+            while (reader.loadNextBatch()) {
+                VectorSchemaRoot root = reader.getVectorSchemaRoot();
+                VarCharVector userIds = (VarCharVector) root.getVector("user_id");
+                VarCharVector categoryNames = (VarCharVector) root.getVector("category_name");
+                DecimalVector amounts = (DecimalVector) root.getVector("amount");
+                for (int i = 0; i < root.getRowCount(); i++) {
+                    rows.add(new String[] {
+                            userIds.getObject(i).toString(),
+                            categoryNames.isNull(i) ? null : categoryNames.getObject(i).toString(),
+                            amounts.getObject(i).toPlainString()
+                    });
+                }
+            }
+        }
+        assertThat(Files.size(file)).isPositive();
+        return rows;
+    }
+    
+    private Long categoryByName(UUID userId, String name) {
+        return categoryService.getCategoriesForUser(userId).stream()
+                .filter(category -> category.getName().equals(name))
+                .map(CategoryDto::getId)
+                .findFirst()
+                .orElseThrow();
+    }
+    
+    private void add(UUID userId, String amount, LocalDateTime date, Long categoryId) {
+        transactionService.createTransaction(userId,
+                new TransactionDto(null, TransactionType.EXPENSE, new BigDecimal(amount), null, date, categoryId));
+    }
+}
@@ -0,0 +1,106 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {"app.write-batching.enabled=true", "app.write-batching.max-delay-ms=50"})
+@ActiveProfiles("test")
+class TransactionWriteBatcherTests {
+    
+    @Autowired
+    private TransactionWriteBatcher transactionWriteBatcher;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Test
+    void concurrentCreatesAreCommittedTogetherAndEachCallerGetsItsOwnId() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "batched-writes@example.com", "Batched", "Writes")).getId();
+        Long foodId = foodCategoryId(userId);
+        long batchesBefore = meterRegistry.get("transactions.write-batch.size").summary().count();
+        
+        List<Callable<TransactionDto>> creates = IntStream.range(0, 20)
+                .<Callable<TransactionDto>>mapToObj(i -> () -> transactionWriteBatcher.createTransaction(userId, expense(foodId, "Batched " + i)))
+                .toList();
+        List<TransactionDto> created;
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            created = executor.invokeAll(creates).stream().map(this::resultOf).toList();
+        }
+        
+        assertThat(created).extracting(TransactionDto::getId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(created).extracting(TransactionDto::getNotes)
+                .containsExactlyElementsOf(IntStream.range(0, 20).mapToObj(i -> "Batched " + i).toList());
+        assertThat(transactionService.getTransactionsForUser(userId, PageRequest.of(0, 50)).getTotalElements()).isEqualTo(20);
+        // Fewer commits than creates
+        assertThat(meterRegistry.get("transactions.write-batch.size").summary().count() - batchesBefore).isLessThan(20);
+    }
+    
+    @Test
+    void rejectedCreateFailsOnlyItsOwnCaller() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "batched-reject@example.com", "Batched", "Reject")).getId();
+        Long foodId = foodCategoryId(userId);
+        
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<TransactionDto> valid = executor.submit(() -> transactionWriteBatcher.createTransaction(userId, expense(foodId, "Valid")));
+            Future<TransactionDto> invalid = executor.submit(() -> transactionWriteBatcher.createTransaction(userId, expense(-1L, "Invalid")));
+            
+            assertThat(valid.get().getId()).isNotNull();
+            assertThatThrownBy(invalid::get)
+                    .hasCauseInstanceOf(RuntimeException.class)
+                    .hasMessageContaining("Category not found with id: -1");
+        }
+        assertThat(transactionService.getTransactionsForUser(userId, PageRequest.of(0, 10)).getContent())
+                .extracting(TransactionDto::getNotes)
+                .containsExactly("Valid");
+    }
+    
+    private TransactionDto resultOf(Future<TransactionDto> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new AssertionError(e);
+        }
+    }
+    
+    private Long foodCategoryId(UUID userId) {
+        return categoryService.getCategoriesForUser(userId).stream()
+                .filter(category -> category.getName().equals("Food"))
+                .map(CategoryDto::getId)
+                .findFirst().orElseThrow();
+    }
+    
+    private static TransactionDto expense(Long categoryId, String description) {
+        return new TransactionDto(null, TransactionType.EXPENSE, new BigDecimal("10.00"), description, LocalDateTime.now(), categoryId);
+    }
+}
@@ -0,0 +1,89 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.datasource.QueryStatistics;
+import com.kenyafinance.tracker.dto.UserDto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserEmailLookupTests {
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private UserEmailDirectory emailDirectory;
+    
+    @Autowired
+    private QueryStatistics queryStatistics;
+    
+    private QueryStatistics.Counters queries;
+    
+    @BeforeEach
+    void setUp() {
+        queries = queryStatistics.start();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        queryStatistics.clear();
+    }
+    
+    @Test
+    void emailsAreStoredAndMatchedCaseInsensitively() {
+        UserDto created = userService.createUser(new UserDto(null, "  Amina.Wanjiku@Example.COM ", "Amina", "Wanjiku"));
+        
+        assertThat(created.getEmail()).isEqualTo("amina.wanjiku@example.com");
+        assertThat(userService.getUserByEmail("AMINA.WANJIKU@example.com")).map(UserDto::getId).contains(created.getId());
+        assertThat(userService.existsByEmail("Amina.Wanjiku@example.com")).isTrue();
+        assertThatThrownBy(() -> userService.createUser(new UserDto(null, "amina.wanjiku@EXAMPLE.com", "Amina", "W")))
+                .hasMessageContaining("already exists");
+    }
+    
+    @Test
+    void unknownEmailsAreCachedAsMissing() {
+        assertThat(userService.existsByEmail("nobody@example.com")).isFalse();
+        int afterFirstLookup = queries.getQueryCount();
+        
+        for (int i = 0; i < 50; i++) {
+            assertThat(userService.existsByEmail("nobody@example.com")).isFalse();
+        }
+        
+        assertThat(queries.getQueryCount()).isEqualTo(afterFirstLookup);
+    }
+    
+    @Test
+    void repeatedLookupsAreServedFromTheCache() {
+        UserDto created = userService.createUser(new UserDto(null, "kiprop@example.com", "Kiprop", "Rotich"));
+        userService.existsByEmail("kiprop@example.com");
+        int afterFirstLookup = queries.getQueryCount();
+        
+        assertThat(userService.existsByEmail("kiprop@example.com")).isTrue();
+        assertThat(userService.existsByEmail("KIPROP@example.com")).isTrue();
+        
+        assertThat(queries.getQueryCount()).isEqualTo(afterFirstLookup);
+        assertThat(emailDirectory.findUserId("kiprop@example.com")).contains(created.getId());
+    }
+    
+    @Test
+    void writesInvalidateCachedAnswers() {
+        // Cache a negative answer for the address, then take it
+        assertThat(emailDirectory.findUserId("njeri@example.com")).isEmpty();
+        UserDto created = userService.createUser(new UserDto(null, "njeri@example.com", "Njeri", "Mwangi"));
+        assertThat(userService.existsByEmail("njeri@example.com")).isTrue();
+        
+        UserDto update = new UserDto(null, "njeri.mwangi@example.com", "Njeri", "Mwangi");
+        userService.updateUser(created.getId(), update);
+        
+        assertThat(userService.getUserByEmail("njeri@example.com")).isEmpty();
+        assertThat(userService.getUserByEmail("njeri.mwangi@example.com")).map(UserDto::getId).contains(created.getId());
+    }
+}
@@ -0,0 +1,227 @@
+package com.kenyafinance.tracker.stream;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.DashboardDeltaDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.event.TransactionChangePayload;
+import com.kenyafinance.tracker.security.UserJwtAuthenticationToken;
+import com.kenyafinance.tracker.service.CategoryService;
+import com.kenyafinance.tracker.service.TransactionService;
+import com.kenyafinance.tracker.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class DashboardStreamTests {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private DashboardStreamRelay relay;
+    
+    @Autowired
+    private DashboardStreamHub hub;
+    
+    @Autowired
+    private UserService userService;
+    
+    @Autowired
+    private CategoryService categoryService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    private TransactionTemplate transactionTemplate;
+    
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+    
+    @Test
+    void streamOpensWithASnapshotAndPushesADeltaForEachWrite() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "stream@example.com", "Stream", "User")).getId();
+        Long foodId = categoryService.getCategoriesForUser(userId).stream()
+                .filter(category -> category.getName().equals("Food"))
+                .map(CategoryDto::getId)
+                .findFirst().orElseThrow();
+        
+        MvcResult result = mockMvc.perform(get("/api/v1/transactions/dashboard/user/" + userId + "/stream").with(asUser(userId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(awaitEvent(result, "snapshot").get("totalTransactions").asLong()).isZero();
+        relay.relay();
+        
+        TransactionDto created = transactionService.createTransaction(userId, new TransactionDto(null,
+                TransactionType.EXPENSE, new BigDecimal("250.00"), "Lunch", LocalDateTime.now(), foodId));
+        relay.relay();
+        
+        JsonNode delta = awaitEvent(result, "delta");
+        assertThat(delta.get("totalExpensesDelta").decimalValue()).isEqualByComparingTo("250.00");
+        assertThat(delta.get("balanceDelta").decimalValue()).isEqualByComparingTo("-250.00");
+        assertThat(delta.get("totalTransactionsDelta").asLong()).isEqualTo(1);
+        assertThat(delta.get("categorySpendingDeltas").get(0).get("categoryId").asLong()).isEqualTo(foodId);
+        assertThat(delta.get("transaction").get("id").asLong()).isEqualTo(created.getId());
+    }
+    
+    @Test
+    void writeCommittedAfterTheSnapshotButWithAnOlderEventIdStillReachesTheStream() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "stream-late@example.com", "Stream", "Late")).getId();
+        UUID otherId = userService.createUser(new UserDto(null, "stream-other@example.com", "Stream", "Other")).getId();
+        relay.relay();
+        
+        // Takes its outbox id first but commits last
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch commit = new CountDownLatch(1);
+        CompletableFuture<TransactionDto> late = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> {
+            TransactionDto created = transactionService.createTransaction(userId, expense(userId, "40.00"));
+            written.countDown();
+            try {
+                commit.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return created;
+        }));
+        assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+        transactionService.createTransaction(otherId, expense(otherId, "10.00"));
+        relay.relay();
+        
+        MvcResult result = mockMvc.perform(get("/api/v1/transactions/dashboard/user/" + userId + "/stream").with(asUser(userId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertThat(awaitEvent(result, "snapshot").get("totalTransactions").asLong()).isZero();
+        
+        commit.countDown();
+        TransactionDto created = late.get(10, TimeUnit.SECONDS);
+        relay.relay();
+        
+        JsonNode delta = awaitEvent(result, "delta");
+        assertThat(delta.get("transaction").get("id").asLong()).isEqualTo(created.getId());
+        assertThat(delta.get("totalExpensesDelta").decimalValue()).isEqualByComparingTo("40.00");
+    }
+    
+    @Test
+    void snapshotBehindTheRelayIsTakenAgainOnThePrimary() throws Exception {
+        UUID userId = userService.createUser(new UserDto(null, "stream-lag@example.com", "Stream", "Lag")).getId();
+        transactionService.createTransaction(userId, expense(userId, "75.00"));
+        relay.relay();
+        // As if the relay had passed events a lagging replica has not replayed yet
+        hub.relayedUpTo(Long.MAX_VALUE - 1);
+        
+        try {
+            MvcResult result = mockMvc.perform(get("/api/v1/transactions/dashboard/user/" + userId + "/stream").with(asUser(userId)))
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+            JsonNode snapshot = awaitEvent(result, "snapshot");
+            assertThat(snapshot.get("totalTransactions").asLong()).isEqualTo(1);
+            assertThat(snapshot.get("totalExpenses").decimalValue()).isEqualByComparingTo("75.00");
+        } finally {
+            relay.relay();
+        }
+    }
+    
+    @Test
+    void recategorizedExpenseMovesSpendingBetweenCategories() {
+        TransactionDto previous = new TransactionDto(7L, TransactionType.EXPENSE, new BigDecimal("100.00"), null, LocalDateTime.now(), 1L);
+        TransactionDto current = new TransactionDto(7L, TransactionType.EXPENSE, new BigDecimal("150.00"), null, LocalDateTime.now(), 2L);
+        
+        DashboardDeltaDto delta = DashboardStreamRelay.toDelta(42, new TransactionChangePayload(previous, current));
+        
+        assertThat(delta.getTotalExpensesDelta()).isEqualByComparingTo("50.00");
+        assertThat(delta.getTotalIncomeDelta()).isEqualByComparingTo("0");
+        assertThat(delta.getTotalTransactionsDelta()).isZero();
+        assertThat(delta.getCategorySpendingDeltas())
+                .extracting(DashboardDeltaDto.CategorySpendingDeltaDto::getCategoryId,
+                        category -> category.getAmountDelta().toPlainString())
+                .containsExactly(tuple(1L, "-100.00"),
+                        tuple(2L, "150.00"));
+        
+        DashboardDeltaDto deleted = DashboardStreamRelay.toDelta(43, new TransactionChangePayload(current, null));
+        assertThat(deleted.getTotalTransactionsDelta()).isEqualTo(-1);
+        assertThat(deleted.getRemovedTransactionId()).isEqualTo(7L);
+        assertThat(deleted.getTransaction()).isNull();
+    }
+    
+    @Test
+    void unknownUserGetsNotFound() throws Exception {
+        UUID unknownId = UUID.randomUUID();
+        mockMvc.perform(get("/api/v1/transactions/dashboard/user/" + unknownId + "/stream").with(asUser(unknownId)))
+                .andExpect(status().isNotFound());
+    }
+    
+    private TransactionDto expense(UUID userId, String amount) {
+        Long foodId = categoryService.getCategoriesForUser(userId).stream()
+                .filter(category -> category.getName().equals("Food"))
+                .map(CategoryDto::getId)
+                .findFirst().orElseThrow();
+        return new TransactionDto(null, TransactionType.EXPENSE, new BigDecimal(amount), "Lunch", LocalDateTime.now(), foodId);
+    }
+    
+    private RequestPostProcessor asUser(UUID userId) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject("sub-" + userId).build();
+        return SecurityMockMvcRequestPostProcessors.authentication(new UserJwtAuthenticationToken(jwt, List.of(), userId));
+    }
+    
+    /**
+     * Wait for the named event to be written and return its data
+     */
+    private JsonNode awaitEvent(MvcResult result, String name) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            // Only complete events, which end with a blank line
+            String content = result.getResponse().getContentAsString();
+            String[] events = content.substring(0, content.lastIndexOf("\n\n") + 1).split("\n\n");
+            for (String event : events) {
+                if (event.contains("event:" + name + "\n")) {
+                    String data = Arrays.stream(event.split("\n"))
+                            .filter(line -> line.startsWith("data:"))
+                            .findFirst().orElseThrow()
+                            .substring("data:".length());
+                    return objectMapper.readTree(data);
+                }
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("No " + name + " event in: " + result.getResponse().getContentAsString());
+    }
+}
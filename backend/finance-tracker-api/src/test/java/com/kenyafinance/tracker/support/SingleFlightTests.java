@@ -0,0 +1,130 @@
+package com.kenyafinance.tracker.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTests {
+    
+    private final SingleFlight<String, Integer> singleFlight = new SingleFlight<>();
+    
+    @Test
+    void concurrentCallsForSameKeyShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        
+        CompletableFuture<SingleFlight.Result<Integer>> leader = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("user", () -> {
+                    executions.incrementAndGet();
+                    leaderStarted.countDown();
+                    await(release);
+                    return 42;
+                }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        
+        CompletableFuture<SingleFlight.Result<Integer>> follower = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("user", () -> executions.incrementAndGet() * 0));
+        Thread.sleep(100);
+        release.countDown();
+        
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Result<>(42, false));
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Result<>(42, true));
+        assertThat(executions).hasValue(1);
+    }
+    
+    @Test
+    void completedCallsAreNotCached() {
+        AtomicInteger executions = new AtomicInteger();
+        
+        singleFlight.execute("user", executions::incrementAndGet);
+        SingleFlight.Result<Integer> second = singleFlight.execute("user", executions::incrementAndGet);
+        
+        assertThat(second.value()).isEqualTo(2);
+        assertThat(second.shared()).isFalse();
+    }
+    
+    @Test
+    void failuresPropagateAndDoNotStick() {
+        assertThatThrownBy(() -> singleFlight.execute("user", () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        
+        assertThat(singleFlight.execute("user", () -> 7).value()).isEqualTo(7);
+    }
+    
+    @Test
+    void followerGivesUpAfterItsMaximumWait() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Result<Integer>> leader = blockedLeader(release, () -> 42);
+        
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> singleFlight.execute("user", () -> 7, 100, failure -> false))
+                .isInstanceOf(SingleFlight.WaitTimeoutException.class);
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(2000);
+        
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS).value()).isEqualTo(42);
+    }
+    
+    @Test
+    void followerRunsAloneWhenTheLeaderFailsWithAMatchingException() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Result<Integer>> leader = blockedLeader(release, () -> {
+            throw new IllegalStateException("leader timed out");
+        });
+        
+        CompletableFuture<SingleFlight.Result<Integer>> retried = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("user", () -> 7, 0, IllegalStateException.class::isInstance));
+        CompletableFuture<SingleFlight.Result<Integer>> sharedFailure = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("user", () -> 8, 0, IllegalArgumentException.class::isInstance));
+        Thread.sleep(100);
+        release.countDown();
+        
+        assertThat(retried.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Result<>(7, false));
+        assertThatThrownBy(() -> sharedFailure.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    void forgottenCallIsNotJoinedByLaterCallers() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Result<Integer>> leader = blockedLeader(release, () -> 42);
+        
+        singleFlight.forget("user");
+        assertThat(singleFlight.execute("user", () -> 7)).isEqualTo(new SingleFlight.Result<>(7, false));
+        
+        release.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(new SingleFlight.Result<>(42, false));
+        assertThat(singleFlight.execute("user", () -> 8).value()).isEqualTo(8);
+    }
+    
+    private CompletableFuture<SingleFlight.Result<Integer>> blockedLeader(CountDownLatch release,
+                                                                          Supplier<Integer> result) throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<SingleFlight.Result<Integer>> leader = CompletableFuture.supplyAsync(() ->
+                singleFlight.execute("user", () -> {
+                    started.countDown();
+                    await(release);
+                    return result.get();
+                }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        return leader;
+    }
+    
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
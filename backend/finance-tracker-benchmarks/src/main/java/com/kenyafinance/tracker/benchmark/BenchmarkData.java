@@ -0,0 +1,61 @@
+package com.kenyafinance.tracker.benchmark;
+
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Representative DTO graphs shared by the benchmarks.
+ */
+final class BenchmarkData {
+    
+    private static final String[] CATEGORY_NAMES = {
+        "Salary", "Food", "Transport", "Utilities", "Rent", "Entertainment", "Healthcare", "Shopping"
+    };
+    
+    private BenchmarkData() {}
+    
+    static CategoryDto category(long id) {
+        CategoryDto dto = new CategoryDto(id, CATEGORY_NAMES[(int) (id % CATEGORY_NAMES.length)],
+                "Benchmark category", "label", "#4CAF50");
+        dto.setIsDefault(true);
+        dto.setIsActive(true);
+        dto.setCreatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        dto.setUpdatedAt(LocalDateTime.of(2025, 1, 1, 0, 0));
+        return dto;
+    }
+    
+    static List<TransactionDto> transactions(int count) {
+        List<TransactionDto> transactions = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            CategoryDto category = category(i % CATEGORY_NAMES.length);
+            TransactionDto dto = new TransactionDto((long) i, i % 5 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE,
+                    BigDecimal.valueOf(100_00L + i * 37L, 2), "Transaction " + i,
+                    LocalDateTime.of(2025, 6, 1, 12, 0).minusDays(i), category.getId());
+            dto.setCategory(category);
+            dto.setCreatedAt(dto.getTransactionDate());
+            dto.setUpdatedAt(dto.getTransactionDate());
+            transactions.add(dto);
+        }
+        return transactions;
+    }
+    
+    static DashboardSummaryDto dashboard() {
+        DashboardSummaryDto summary = new DashboardSummaryDto(new BigDecimal("250000.00"), new BigDecimal("183420.55"),
+                new BigDecimal("66579.45"), 1200);
+        summary.setRecentTransactions(transactions(5));
+        
+        List<DashboardSummaryDto.CategorySpendingDto> spending = new ArrayList<>();
+        for (int i = 1; i < CATEGORY_NAMES.length; i++) {
+            spending.add(new DashboardSummaryDto.CategorySpendingDto(category(i), BigDecimal.valueOf(20_000L * i, 2), 100.0 / i));
+        }
+        summary.setCategorySpending(spending);
+        return summary;
+    }
+}
@@ -0,0 +1,70 @@
+package com.kenyafinance.tracker.benchmark;
+
+import com.kenyafinance.tracker.security.CachingJwtDecoder;
+import com.kenyafinance.tracker.security.LocalJwtDecoders;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jose.jwk.source.ImmutableJWKSet;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of bearer token authentication: full RS256 verification against an
+ * in-memory JWKS versus a hit in the verified-token cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtDecodingBenchmark {
+    
+    private static final String ISSUER = "https://auth.example.test/auth/v1";
+    private static final String AUDIENCE = "authenticated";
+    
+    private JwtDecoder verifyingDecoder;
+    private JwtDecoder cachingDecoder;
+    private String token;
+    
+    @Setup
+    public void setUp() throws JOSEException {
+        RSAKey key = new RSAKeyGenerator(2048).keyID("bench-key").generate();
+        verifyingDecoder = LocalJwtDecoders.decoder(new ImmutableJWKSet<>(new JWKSet(key.toPublicJWK())), ISSUER, AUDIENCE);
+        cachingDecoder = new CachingJwtDecoder(verifyingDecoder, 1000, Duration.ofHours(1));
+        
+        SignedJWT jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(key.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(ISSUER)
+                        .audience(AUDIENCE)
+                        .subject("bench-subject")
+                        .claim("email", "bench@example.com")
+                        .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(2))))
+                        .build());
+        jwt.sign(new RSASSASigner(key));
+        token = jwt.serialize();
+    }
+    
+    @Benchmark
+    public Jwt verifySignature() {
+        return verifyingDecoder.decode(token);
+    }
+    
+    @Benchmark
+    public Jwt cachedToken() {
+        return cachingDecoder.decode(token);
+    }
+}
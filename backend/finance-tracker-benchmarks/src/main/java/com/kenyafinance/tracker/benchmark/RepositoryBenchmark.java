@@ -0,0 +1,98 @@
+package com.kenyafinance.tracker.benchmark;
+
+import com.kenyafinance.tracker.FinanceTrackerApiApplication;
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.service.CategoryService;
+import com.kenyafinance.tracker.service.TransactionService;
+import com.kenyafinance.tracker.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service calls that round-trip through the Spring Data repositories against embedded H2.
+ * Measures the whole read path (transaction, queries, mapping) rather than SQL alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+    
+    @Param({"1000"})
+    private int transactionsPerUser;
+    
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private CategoryService categoryService;
+    private UUID userId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FinanceTrackerApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they take precedence over application.properties
+                .run("--spring.datasource.url=jdbc:h2:mem:bench;DB_CLOSE_DELAY=-1",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--app.outbox.dispatcher.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.kenyafinance.tracker=WARN");
+        
+        transactionService = context.getBean(TransactionService.class);
+        categoryService = context.getBean(CategoryService.class);
+        UserService userService = context.getBean(UserService.class);
+        
+        UserDto user = userService.createUser(new UserDto(null, "bench@example.com", "Bench", "User"));
+        userId = user.getId();
+        
+        List<CategoryDto> categories = categoryService.getCategoriesForUser(userId);
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < transactionsPerUser; i++) {
+            CategoryDto category = categories.get(i % categories.size());
+            TransactionType type = "Salary".equals(category.getName()) ? TransactionType.INCOME : TransactionType.EXPENSE;
+            transactionService.createTransaction(userId, new TransactionDto(null, type,
+                    BigDecimal.valueOf(500L + (i * 7919L) % 50_000L, 2), "Benchmark " + i,
+                    now.minusHours(i * 6L), category.getId()));
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public DashboardSummaryDto dashboardSummary() {
+        return transactionService.getDashboardSummary(userId);
+    }
+    
+    @Benchmark
+    public Page<TransactionDto> transactionsFirstPage() {
+        return transactionService.getTransactionsForUser(userId, PageRequest.of(0, 20));
+    }
+    
+    @Benchmark
+    public List<CategoryDto> categoriesForUser() {
+        return categoryService.getCategoriesForUser(userId);
+    }
+}
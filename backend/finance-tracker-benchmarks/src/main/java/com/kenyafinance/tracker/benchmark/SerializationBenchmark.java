@@ -0,0 +1,50 @@
+package com.kenyafinance.tracker.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the two largest response bodies, using an ObjectMapper
+ * built the same way Spring Boot builds the application's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+    
+    @Param({"20", "100"})
+    private int pageSize;
+    
+    private ObjectMapper objectMapper;
+    private Page<TransactionDto> transactionPage;
+    private DashboardSummaryDto dashboard;
+    
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        transactionPage = new PageImpl<>(BenchmarkData.transactions(pageSize), PageRequest.of(0, pageSize), 1200);
+        dashboard = BenchmarkData.dashboard();
+    }
+    
+    @Benchmark
+    public byte[] transactionPage() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(transactionPage);
+    }
+    
+    @Benchmark
+    public byte[] dashboardSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(dashboard);
+    }
+}
@@ -0,0 +1,114 @@
+package com.kenyafinance.tracker.benchmark;
+
+import com.kenyafinance.tracker.FinanceTrackerApiApplication;
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.dto.UserDto;
+import com.kenyafinance.tracker.entity.TransactionType;
+import com.kenyafinance.tracker.service.CategoryService;
+import com.kenyafinance.tracker.service.TransactionService;
+import com.kenyafinance.tracker.service.TransactionWriteBatcher;
+import com.kenyafinance.tracker.service.UserService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transaction creates per second from concurrent callers, each create committed on its own or
+ * through {@link TransactionWriteBatcher}. In-memory H2 does not sync on commit, so the numbers
+ * that matter come from a real database, e.g.
+ * {@code -p url=jdbc:postgresql://localhost:5432/bench -p username=... -p password=...}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(64)
+@Fork(1)
+public class WriteBatchingBenchmark {
+    
+    @Param({"false", "true"})
+    private boolean batching;
+    
+    @Param({"jdbc:h2:mem:writebench;DB_CLOSE_DELAY=-1"})
+    private String url;
+    
+    @Param({"sa"})
+    private String username;
+    
+    @Param({""})
+    private String password;
+    
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private TransactionWriteBatcher transactionWriteBatcher;
+    private UserService userService;
+    private CategoryService categoryService;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FinanceTrackerApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they take precedence over application.properties
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        // Blank, so the driver and dialect follow the URL instead of application.properties
+                        "--spring.datasource.driver-class-name=",
+                        "--spring.jpa.properties.hibernate.dialect=",
+                        "--spring.datasource.hikari.maximum-pool-size=32",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--app.outbox.dispatcher.enabled=false",
+                        "--app.write-batching.enabled=" + batching,
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.kenyafinance.tracker=WARN");
+        
+        transactionService = context.getBean(TransactionService.class);
+        transactionWriteBatcher = context.getBeanProvider(TransactionWriteBatcher.class).getIfAvailable();
+        userService = context.getBean(UserService.class);
+        categoryService = context.getBean(CategoryService.class);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public TransactionDto createTransaction(Writer writer) {
+        TransactionDto transaction = new TransactionDto(null, TransactionType.EXPENSE, new BigDecimal("12.50"),
+                "Benchmark", LocalDateTime.now(), writer.categoryId);
+        return transactionWriteBatcher != null
+                ? transactionWriteBatcher.createTransaction(writer.userId, transaction)
+                : transactionService.createTransaction(writer.userId, transaction);
+    }
+    
+    /**
+     * One user per benchmark thread, so creates contend on commits rather than on one user's row
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+        
+        private UUID userId;
+        private Long categoryId;
+        
+        @Setup(Level.Trial)
+        public void setUp(WriteBatchingBenchmark benchmark) {
+            UserDto user = benchmark.userService.createUser(new UserDto(null,
+                    "write-bench-" + UUID.randomUUID() + "@example.com", "Write", "Bench"));
+            userId = user.getId();
+            categoryId = benchmark.categoryService.getCategoriesForUser(userId).stream()
+                    .filter(category -> category.getName().equals("Food"))
+                    .map(CategoryDto::getId)
+                    .findFirst().orElseThrow();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.kenyafinance.tracker.event;
+
+import com.kenyafinance.tracker.FinanceTrackerApiApplication;
+import com.kenyafinance.tracker.entity.OutboxConsumerOffset;
+import com.kenyafinance.tracker.entity.OutboxEvent;
+import com.kenyafinance.tracker.entity.OutboxEventType;
+import com.kenyafinance.tracker.repository.OutboxConsumerOffsetRepository;
+import com.kenyafinance.tracker.repository.OutboxEventRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outbox batches delivered per second by {@link OutboxDispatcher#dispatchBatch}: lock the offset
+ * row, read the next batch, hand it to the subscriber and advance the offset, all in one
+ * transaction. Multiply the score by {@code batchSize} for events per second. The events are
+ * replayed from the start once the subscriber reaches the end. Defaults to embedded H2; pass
+ * {@code -p url=jdbc:postgresql://localhost:5432/bench -p username=... -p password=...} for PostgreSQL.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class OutboxDispatchBenchmark {
+    
+    private static final String SUBSCRIBER = "benchmark";
+    
+    @Param({"100", "500"})
+    private int batchSize;
+    
+    @Param({"20000"})
+    private int events;
+    
+    @Param({"jdbc:h2:mem:outboxbench;DB_CLOSE_DELAY=-1"})
+    private String url;
+    
+    @Param({"sa"})
+    private String username;
+    
+    @Param({""})
+    private String password;
+    
+    private ConfigurableApplicationContext context;
+    private OutboxDispatcher dispatcher;
+    private OutboxConsumerOffsetRepository offsetRepository;
+    private TransactionTemplate transactionTemplate;
+    private long beforeFirstId;
+    
+    // Measures the dispatcher alone, so the subscriber does no work
+    private final OutboxEventSubscriber subscriber = new OutboxEventSubscriber() {
+        
+        @Override
+        public String getName() {
+            return SUBSCRIBER;
+        }
+        
+        @Override
+        public void onEvent(OutboxEvent event) {
+        }
+    };
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(FinanceTrackerApiApplication.class)
+                .web(WebApplicationType.NONE)
+                // Passed as arguments so they take precedence over application.properties
+                .run("--spring.datasource.url=" + url,
+                        "--spring.datasource.username=" + username,
+                        "--spring.datasource.password=" + password,
+                        // Blank, so the driver and dialect follow the URL instead of application.properties
+                        "--spring.datasource.driver-class-name=",
+                        "--spring.jpa.properties.hibernate.dialect=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.show-sql=false",
+                        "--app.outbox.batch-size=" + batchSize,
+                        // Only the benchmark thread dispatches or purges
+                        "--app.outbox.poll-interval-ms=3600000",
+                        "--app.outbox.cleanup-interval-ms=3600000",
+                        "--app.dashboard-stream.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.kenyafinance.tracker=WARN");
+        
+        dispatcher = context.getBean(OutboxDispatcher.class);
+        offsetRepository = context.getBean(OutboxConsumerOffsetRepository.class);
+        OutboxEventRepository outboxEventRepository = context.getBean(OutboxEventRepository.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        
+        beforeFirstId = outboxEventRepository.findMaxId();
+        // A transaction-created payload of typical size
+        String payload = "{\"previous\":null,\"current\":{\"id\":1,\"type\":\"EXPENSE\",\"amount\":1250.50,"
+                + "\"notes\":\"Lunch at the office canteen\",\"transactionDate\":\"2025-06-01T12:30:00\","
+                + "\"categoryId\":7,\"categoryName\":\"Food\",\"createdAt\":\"2025-06-01T12:31:02\"}}";
+        for (int start = 0; start < events; start += 1000) {
+            List<OutboxEvent> chunk = new ArrayList<>();
+            for (int i = start; i < Math.min(events, start + 1000); i++) {
+                chunk.add(new OutboxEvent(OutboxEventType.TRANSACTION_CREATED, "Transaction", String.valueOf(i),
+                        UUID.randomUUID(), payload));
+            }
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.saveAll(chunk));
+        }
+        rewind();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public int dispatchBatch() {
+        int delivered = dispatcher.dispatchBatch(subscriber);
+        if (delivered < batchSize) {
+            rewind();
+        }
+        return delivered;
+    }
+    
+    private void rewind() {
+        transactionTemplate.executeWithoutResult(status -> {
+            OutboxConsumerOffset offset = offsetRepository.findById(SUBSCRIBER)
+                    .orElseGet(() -> new OutboxConsumerOffset(SUBSCRIBER));
+            offset.setLastEventId(beforeFirstId);
+            offsetRepository.save(offset);
+        });
+    }
+}
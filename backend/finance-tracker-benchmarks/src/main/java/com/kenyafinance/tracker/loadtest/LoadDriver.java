@@ -0,0 +1,279 @@
+package com.kenyafinance.tracker.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load driver for the API. Each of --concurrency virtual-thread workers
+ * repeatedly picks an endpoint from the weighted --mix and a random seeded user, and records
+ * the latency in a per-endpoint HdrHistogram. Results from the warm-up period are discarded.
+ *
+ * Usage: LoadDriver --users-file target/loadtest-users.csv [--base-url http://localhost:8080]
+ *        [--concurrency 32] [--duration-seconds 60] [--warmup-seconds 10]
+ *        [--mix dashboard=25,transactions=25,spending=10,categories=15,create-transaction=10,user=5,email-exists=10]
+ *        [--header "Authorization: Bearer ..."] [--hgrm-dir target/hgrm]
+ */
+public class LoadDriver {
+    
+    private static final String DEFAULT_MIX =
+            "dashboard=25,transactions=25,spending=10,categories=15,create-transaction=10,user=5,email-exists=10";
+    
+    enum Endpoint {
+        DASHBOARD("dashboard"),
+        TRANSACTIONS("transactions"),
+        SPENDING("spending"),
+        CATEGORIES("categories"),
+        CREATE_TRANSACTION("create-transaction"),
+        USER("user"),
+        EMAIL_EXISTS("email-exists");
+        
+        private final String key;
+        
+        Endpoint(String key) {
+            this.key = key;
+        }
+        
+        static Endpoint fromKey(String key) {
+            for (Endpoint endpoint : values()) {
+                if (endpoint.key.equals(key)) {
+                    return endpoint;
+                }
+            }
+            throw new IllegalArgumentException("Unknown endpoint in mix: " + key);
+        }
+    }
+    
+    record SeedUser(String id, String email) {}
+    
+    private static final class EndpointStats {
+        final Histogram latencyMicros = new ConcurrentHistogram(TimeUnit.MINUTES.toMicros(1), 3);
+        final LongAdder errors = new LongAdder();
+    }
+    
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final String[] extraHeader;
+    private final List<SeedUser> users;
+    private final Endpoint[] weightedEndpoints;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private List<Long> categoryIds = List.of();
+    private volatile boolean recording;
+    private double measuredSeconds;
+    
+    LoadDriver(String baseUrl, String header, List<SeedUser> users, String mix) {
+        this.baseUrl = baseUrl;
+        this.extraHeader = header != null ? header.split(":\\s*", 2) : null;
+        this.users = users;
+        this.weightedEndpoints = parseMix(mix);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestOptions.parse(args);
+        List<SeedUser> users = readUsers(Path.of(LoadTestOptions.required(options, "users-file")));
+        
+        LoadDriver driver = new LoadDriver(options.getOrDefault("base-url", "http://localhost:8080"),
+                options.get("header"), users, options.getOrDefault("mix", DEFAULT_MIX));
+        driver.run(Integer.parseInt(options.getOrDefault("concurrency", "32")),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "10"))),
+                Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-seconds", "60"))));
+        
+        driver.report(System.out);
+        if (options.containsKey("hgrm-dir")) {
+            driver.writeHistograms(Path.of(options.get("hgrm-dir")));
+        }
+    }
+    
+    void run(int concurrency, Duration warmup, Duration duration) throws Exception {
+        if (List.of(weightedEndpoints).contains(Endpoint.CREATE_TRANSACTION)) {
+            categoryIds = fetchDefaultCategoryIds();
+        }
+        
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        try (ExecutorService workers = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                workers.submit(() -> workerLoop(end));
+            }
+            
+            Thread.sleep(warmup.toMillis());
+            recording = true;
+            for (EndpointStats endpointStats : stats.values()) {
+                endpointStats.latencyMicros.reset();
+                endpointStats.errors.reset();
+            }
+            long remaining = end - System.nanoTime();
+            if (remaining > 0) {
+                Thread.sleep(TimeUnit.NANOSECONDS.toMillis(remaining));
+            }
+        }
+        this.measuredSeconds = duration.toMillis() / 1000.0;
+    }
+    
+    private void workerLoop(long end) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < end) {
+            Endpoint endpoint = weightedEndpoints[random.nextInt(weightedEndpoints.length)];
+            SeedUser user = users.get(random.nextInt(users.size()));
+            HttpRequest request = buildRequest(endpoint, user, random);
+            
+            long start = System.nanoTime();
+            boolean failed;
+            try {
+                HttpResponse<Void> response = httpClient.send(request, HttpResponse.BodyHandlers.discarding());
+                failed = response.statusCode() >= 400;
+            } catch (IOException e) {
+                failed = true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            
+            if (recording) {
+                EndpointStats endpointStats = stats.get(endpoint);
+                endpointStats.latencyMicros.recordValue(Math.min(
+                        TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), endpointStats.latencyMicros.getHighestTrackableValue()));
+                if (failed) {
+                    endpointStats.errors.increment();
+                }
+            }
+        }
+    }
+    
+    private HttpRequest buildRequest(Endpoint endpoint, SeedUser user, ThreadLocalRandom random) {
+        String path = switch (endpoint) {
+            case DASHBOARD -> "/api/v1/transactions/dashboard/user/" + user.id();
+            case TRANSACTIONS -> "/api/v1/transactions/user/" + user.id() + "?page=" + random.nextInt(3) + "&size=20";
+            case SPENDING -> "/api/v1/transactions/spending/user/" + user.id();
+            case CATEGORIES -> "/api/v1/categories/user/" + user.id();
+            case CREATE_TRANSACTION -> "/api/v1/transactions/user/" + user.id();
+            case USER -> "/api/v1/users/" + user.id();
+            case EMAIL_EXISTS -> "/api/v1/users/exists/" + (random.nextBoolean() ? user.email() : "nobody" + random.nextInt(1_000_000) + "@loadtest.local");
+        };
+        
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30));
+        if (extraHeader != null) {
+            builder.header(extraHeader[0], extraHeader[1]);
+        }
+        if (endpoint == Endpoint.CREATE_TRANSACTION) {
+            String body = String.format(Locale.ROOT,
+                    "{\"type\":\"EXPENSE\",\"amount\":%.2f,\"notes\":\"Load test\",\"transactionDate\":\"%s\",\"categoryId\":%d}",
+                    50 + random.nextDouble() * 5_000, LocalDateTime.now().withNano(0),
+                    categoryIds.get(random.nextInt(categoryIds.size())));
+            builder.header("Content-Type", "application/json").POST(HttpRequest.BodyPublishers.ofString(body));
+        }
+        return builder.build();
+    }
+    
+    private List<Long> fetchDefaultCategoryIds() throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + "/api/v1/categories/defaults")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        List<Long> ids = new ArrayList<>();
+        for (JsonNode category : objectMapper.readTree(response.body())) {
+            if (!"Salary".equals(category.path("name").asText())) {
+                ids.add(category.path("id").asLong());
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalStateException("No default categories returned by " + baseUrl);
+        }
+        return ids;
+    }
+    
+    void report(PrintStream out) {
+        out.printf("%-20s %10s %8s %10s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        long totalRequests = 0;
+        for (Endpoint endpoint : Endpoint.values()) {
+            EndpointStats endpointStats = stats.get(endpoint);
+            Histogram histogram = endpointStats.latencyMicros;
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                continue;
+            }
+            totalRequests += count;
+            out.printf(Locale.ROOT, "%-20s %10d %8d %10.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.key, count, endpointStats.errors.sum(), count / measuredSeconds,
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)), millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+        out.printf(Locale.ROOT, "%-20s %10d %8s %10.1f%n", "total", totalRequests, "", totalRequests / measuredSeconds);
+    }
+    
+    void writeHistograms(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Endpoint endpoint : Endpoint.values()) {
+            Histogram histogram = stats.get(endpoint).latencyMicros;
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(endpoint.key + ".hgrm")))) {
+                // Values recorded in microseconds, reported in milliseconds
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+    
+    private static Endpoint[] parseMix(String mix) {
+        List<Endpoint> weighted = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split("=");
+            Endpoint endpoint = Endpoint.fromKey(parts[0]);
+            int weight = Integer.parseInt(parts[1]);
+            for (int i = 0; i < weight; i++) {
+                weighted.add(endpoint);
+            }
+        }
+        if (weighted.isEmpty()) {
+            throw new IllegalArgumentException("Empty endpoint mix");
+        }
+        return weighted.toArray(new Endpoint[0]);
+    }
+    
+    static List<SeedUser> readUsers(Path usersFile) throws IOException {
+        List<SeedUser> users = new ArrayList<>();
+        for (String line : Files.readAllLines(usersFile)) {
+            String[] parts = line.split(",", 2);
+            if (parts.length == 2) {
+                users.add(new SeedUser(parts[0], parts[1]));
+            }
+        }
+        if (users.isEmpty()) {
+            throw new IllegalStateException("No users in " + usersFile + "; run SyntheticDataGenerator first");
+        }
+        return users;
+    }
+}
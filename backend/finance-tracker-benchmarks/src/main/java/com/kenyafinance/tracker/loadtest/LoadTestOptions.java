@@ -0,0 +1,40 @@
+package com.kenyafinance.tracker.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal "--name value" (or "--name=value", for values that themselves start with "--")
+ * command-line parsing for the load-test tools.
+ */
+final class LoadTestOptions {
+    
+    private LoadTestOptions() {}
+    
+    static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            int equals = name.indexOf('=');
+            if (equals > 0) {
+                options.put(name.substring(0, equals), name.substring(equals + 1));
+            } else if (i + 1 >= args.length || args[i + 1].startsWith("--")) {
+                options.put(name, "true");
+            } else {
+                options.put(name, args[++i]);
+            }
+        }
+        return options;
+    }
+    
+    static String required(Map<String, String> options, String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing required option --" + name);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,77 @@
+package com.kenyafinance.tracker.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the same read-only mix against the blocking API and the reactive read service, one
+ * after the other, and prints both reports with the server's live and peak thread counts
+ * (read from /actuator/prometheus). Use a high --concurrency to see how each stack copes
+ * with many concurrent connections.
+ *
+ * Usage: SideBySideLoadTest --users-file target/loadtest-users.csv
+ *        [--blocking-url http://localhost:8080] [--reactive-url http://localhost:8081]
+ *        [--concurrency 512] [--duration-seconds 60] [--warmup-seconds 10]
+ *        [--mix dashboard=40,transactions=40,categories=20] [--header "Authorization: Bearer ..."]
+ */
+public class SideBySideLoadTest {
+    
+    private static final String READ_MIX = "dashboard=40,transactions=40,categories=20";
+    
+    private static final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestOptions.parse(args);
+        List<LoadDriver.SeedUser> users = LoadDriver.readUsers(Path.of(LoadTestOptions.required(options, "users-file")));
+        String mix = options.getOrDefault("mix", READ_MIX);
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "512"));
+        Duration warmup = Duration.ofSeconds(Long.parseLong(options.getOrDefault("warmup-seconds", "10")));
+        Duration duration = Duration.ofSeconds(Long.parseLong(options.getOrDefault("duration-seconds", "60")));
+        
+        for (Map.Entry<String, String> target : List.of(
+                Map.entry("blocking", options.getOrDefault("blocking-url", "http://localhost:8080")),
+                Map.entry("reactive", options.getOrDefault("reactive-url", "http://localhost:8081")))) {
+            System.out.printf("%n== %s (%s), concurrency %d ==%n", target.getKey(), target.getValue(), concurrency);
+            LoadDriver driver = new LoadDriver(target.getValue(), options.get("header"), users, mix);
+            driver.run(concurrency, warmup, duration);
+            driver.report(System.out);
+            System.out.println("server threads: " + serverThreads(target.getValue()));
+        }
+    }
+    
+    /**
+     * Live and peak JVM thread counts reported by the server, or a note if unavailable
+     */
+    private static String serverThreads(String baseUrl) {
+        try {
+            HttpResponse<String> response = httpClient.send(
+                    HttpRequest.newBuilder(URI.create(baseUrl + "/actuator/prometheus")).timeout(Duration.ofSeconds(5)).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return "unavailable (HTTP " + response.statusCode() + " from /actuator/prometheus)";
+            }
+            return "live " + gauge(response.body(), "jvm_threads_live_threads") + ", peak " + gauge(response.body(), "jvm_threads_peak_threads");
+        } catch (IOException e) {
+            return "unavailable (" + e.getMessage() + ")";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unavailable (interrupted)";
+        }
+    }
+    
+    private static String gauge(String prometheusText, String name) {
+        for (String line : prometheusText.split("\n")) {
+            if (line.startsWith(name + "{") || line.startsWith(name + " ")) {
+                return line.substring(line.lastIndexOf(' ') + 1);
+            }
+        }
+        return "?";
+    }
+}
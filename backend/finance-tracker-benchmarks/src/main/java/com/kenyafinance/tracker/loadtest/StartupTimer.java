@@ -0,0 +1,128 @@
+package com.kenyafinance.tracker.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures cold-start time of the API: launches a fresh JVM per run and records the wall time
+ * from process start until /actuator/health answers 200. Used to compare the default build
+ * against the fast-startup profile (Spring AOT + JDK AOT cache).
+ *
+ * Usage: StartupTimer --jar ../finance-tracker-api/target/finance-tracker-api-0.0.1-SNAPSHOT-exec.jar
+ *        (or --main-class com.kenyafinance.tracker.FinanceTrackerApiApplication with -cp in --jvm-args)
+ *        [--java /path/to/java] [--jvm-args "-XX:AOTCache=app.aot -Dspring.aot.enabled=true"]
+ *        [--app-args="--spring.profiles.active=fast-startup"] [--runs 5] [--warmup-runs 1]
+ *        [--port 18080] [--timeout-seconds 120] [--log-dir target/startup-logs]
+ */
+public class StartupTimer {
+    
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+    private final List<String> command;
+    private final URI healthUri;
+    private final long timeoutNanos;
+    private final Path logDir;
+    
+    StartupTimer(List<String> command, int port, long timeoutSeconds, Path logDir) {
+        this.command = command;
+        this.healthUri = URI.create("http://localhost:" + port + "/actuator/health");
+        this.timeoutNanos = TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        this.logDir = logDir;
+    }
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestOptions.parse(args);
+        int port = Integer.parseInt(options.getOrDefault("port", "18080"));
+        int runs = Integer.parseInt(options.getOrDefault("runs", "5"));
+        int warmupRuns = Integer.parseInt(options.getOrDefault("warmup-runs", "1"));
+        
+        List<String> command = new ArrayList<>();
+        command.add(options.getOrDefault("java", Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.addAll(split(options.get("jvm-args")));
+        if (options.containsKey("main-class")) {
+            // Classpath launch, e.g. the extracted layout plus a JDBC driver given via --jvm-args "-cp ..."
+            command.add(options.get("main-class"));
+        } else {
+            command.add("-jar");
+            command.add(LoadTestOptions.required(options, "jar"));
+        }
+        command.add("--server.port=" + port);
+        command.addAll(split(options.get("app-args")));
+        
+        StartupTimer timer = new StartupTimer(command, port,
+                Long.parseLong(options.getOrDefault("timeout-seconds", "120")),
+                Path.of(options.getOrDefault("log-dir", "target/startup-logs")));
+        System.out.println("Command: " + String.join(" ", command));
+        
+        for (int i = 0; i < warmupRuns; i++) {
+            timer.measure("warmup-" + i);
+        }
+        long[] millis = new long[runs];
+        for (int i = 0; i < runs; i++) {
+            millis[i] = timer.measure("run-" + i);
+            System.out.printf(Locale.ROOT, "run %d: %d ms%n", i + 1, millis[i]);
+        }
+        
+        Arrays.sort(millis);
+        System.out.printf(Locale.ROOT, "startup to healthy (ms): min=%d median=%d max=%d over %d runs%n",
+                millis[0], millis[runs / 2], millis[runs - 1], runs);
+    }
+    
+    /**
+     * Start one JVM and return the milliseconds until it reports healthy
+     */
+    long measure(String name) throws IOException, InterruptedException {
+        Files.createDirectories(logDir);
+        ProcessBuilder builder = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(logDir.resolve(name + ".log").toFile());
+        
+        long start = System.nanoTime();
+        Process process = builder.start();
+        try {
+            while (System.nanoTime() - start < timeoutNanos) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("Application exited with " + process.exitValue()
+                            + ", see " + logDir.resolve(name + ".log"));
+                }
+                if (isHealthy()) {
+                    return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                }
+                Thread.sleep(10);
+            }
+            throw new IllegalStateException("Application did not become healthy within the timeout");
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+    
+    private boolean isHealthy() throws InterruptedException {
+        try {
+            HttpResponse<Void> response = httpClient.send(HttpRequest.newBuilder(healthUri)
+                    .timeout(Duration.ofSeconds(1))
+                    .GET()
+                    .build(), HttpResponse.BodyHandlers.discarding());
+            return response.statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+    
+    private static List<String> split(String value) {
+        return value == null || value.isBlank() ? List.of() : List.of(value.trim().split("\\s+"));
+    }
+}
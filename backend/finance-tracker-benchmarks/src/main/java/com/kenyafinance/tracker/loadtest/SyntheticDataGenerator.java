@@ -0,0 +1,212 @@
+package com.kenyafinance.tracker.loadtest;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Seeds N users x M transactions straight into the API's database with batched JDBC inserts.
+ * The schema and default categories must already exist (start the API once against the database).
+ *
+ * Runs are reproducible for a given --seed. Each user gets a monthly salary plus expenses spread
+ * over the last 12 months, drawn from per-category log-normal amount distributions. The generated
+ * users are written as "id,email" lines for {@link LoadDriver}.
+ *
+ * Usage: SyntheticDataGenerator --jdbc-url URL [--username U] [--password P] [--users 1000]
+ *        [--transactions 500] [--seed 42] [--batch-size 1000] [--users-file target/loadtest-users.csv]
+ */
+public class SyntheticDataGenerator {
+    
+    /**
+     * Expense category name, relative frequency and median amount (KES)
+     */
+    private record ExpenseProfile(String category, double weight, double medianAmount, String[] notes) {}
+    
+    private static final List<ExpenseProfile> EXPENSES = List.of(
+            new ExpenseProfile("Food", 0.38, 650, new String[] {"Lunch", "Groceries", "Dinner out", "Coffee"}),
+            new ExpenseProfile("Transport", 0.22, 300, new String[] {"Matatu fare", "Fuel", "Taxi", "Bus"}),
+            new ExpenseProfile("Shopping", 0.12, 2_500, new String[] {"Clothes", "Electronics", "Household items"}),
+            new ExpenseProfile("Entertainment", 0.10, 1_200, new String[] {"Movies", "Streaming", "Concert"}),
+            new ExpenseProfile("Utilities", 0.09, 2_000, new String[] {"Electricity tokens", "Water bill", "Internet", "Airtime"}),
+            new ExpenseProfile("Healthcare", 0.05, 3_000, new String[] {"Pharmacy", "Clinic visit"}),
+            new ExpenseProfile("Rent", 0.04, 25_000, new String[] {"Monthly rent"}));
+    
+    private static final String[] FIRST_NAMES = {"Amina", "Brian", "Cynthia", "David", "Esther", "Felix", "Grace", "Hassan", "Irene", "James"};
+    private static final String[] LAST_NAMES = {"Otieno", "Wanjiku", "Kamau", "Mwangi", "Njeri", "Kiptoo", "Achieng", "Mutua", "Chebet", "Omondi"};
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = LoadTestOptions.parse(args);
+        String jdbcUrl = LoadTestOptions.required(options, "jdbc-url");
+        int users = Integer.parseInt(options.getOrDefault("users", "1000"));
+        int transactionsPerUser = Integer.parseInt(options.getOrDefault("transactions", "500"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        int batchSize = Integer.parseInt(options.getOrDefault("batch-size", "1000"));
+        Path usersFile = Path.of(options.getOrDefault("users-file", "target/loadtest-users.csv"));
+        
+        try (Connection connection = DriverManager.getConnection(jdbcUrl,
+                options.getOrDefault("username", "postgres"), options.getOrDefault("password", "password"))) {
+            connection.setAutoCommit(false);
+            new SyntheticDataGenerator(connection, new Random(seed), seed, batchSize)
+                    .generate(users, transactionsPerUser, usersFile);
+        }
+    }
+    
+    private final Connection connection;
+    private final Random random;
+    private final long seed;
+    private final int batchSize;
+    
+    SyntheticDataGenerator(Connection connection, Random random, long seed, int batchSize) {
+        this.connection = connection;
+        this.random = random;
+        this.seed = seed;
+        this.batchSize = batchSize;
+    }
+    
+    void generate(int users, int transactionsPerUser, Path usersFile) throws SQLException, IOException {
+        Map<String, Long> categoryIds = loadDefaultCategoryIds();
+        long started = System.nanoTime();
+        
+        List<UUID> userIds = insertUsers(users, usersFile);
+        long inserted = insertTransactions(userIds, transactionsPerUser, categoryIds);
+        
+        double seconds = (System.nanoTime() - started) / 1e9;
+        System.out.printf("Inserted %d users and %d transactions in %.1f s (%.0f rows/s); users written to %s%n",
+                users, inserted, seconds, (users + inserted) / seconds, usersFile);
+    }
+    
+    private Map<String, Long> loadDefaultCategoryIds() throws SQLException {
+        Map<String, Long> ids = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(
+                "SELECT id, name FROM categories WHERE is_default = true AND is_active = true");
+             ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.put(resultSet.getString("name"), resultSet.getLong("id"));
+            }
+        }
+        if (!ids.containsKey("Salary")) {
+            throw new IllegalStateException("Default categories missing; start the API once against this database first");
+        }
+        return ids;
+    }
+    
+    private List<UUID> insertUsers(int users, Path usersFile) throws SQLException, IOException {
+        List<UUID> userIds = new ArrayList<>(users);
+        Files.createDirectories(usersFile.toAbsolutePath().getParent());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO users (id, email, first_name, last_name, is_active, created_at, updated_at) VALUES (?, ?, ?, ?, true, ?, ?)");
+             PrintWriter writer = new PrintWriter(Files.newBufferedWriter(usersFile, StandardCharsets.UTF_8))) {
+            for (int i = 0; i < users; i++) {
+                UUID id = UUID.nameUUIDFromBytes(("loadtest-" + seed + "-" + i).getBytes(StandardCharsets.UTF_8));
+                String email = "user" + i + "." + seed + "@loadtest.local";
+                statement.setObject(1, id);
+                statement.setString(2, email);
+                statement.setString(3, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+                statement.setString(4, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                statement.setTimestamp(5, now);
+                statement.setTimestamp(6, now);
+                statement.addBatch();
+                userIds.add(id);
+                writer.println(id + "," + email);
+                
+                if ((i + 1) % batchSize == 0) {
+                    statement.executeBatch();
+                    connection.commit();
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        return userIds;
+    }
+    
+    private long insertTransactions(List<UUID> userIds, int transactionsPerUser,
+                                    Map<String, Long> categoryIds) throws SQLException {
+        long inserted = 0;
+        LocalDate today = LocalDate.now();
+        
+        try (PreparedStatement statement = connection.prepareStatement(
+                "INSERT INTO transactions (type, amount, notes, transaction_date, created_at, updated_at, user_id, category_id) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+            for (UUID userId : userIds) {
+                // Salary scales the user's spending so balances stay plausible
+                double salary = logNormal(60_000, 0.6);
+                int salaries = Math.min(12, Math.max(1, transactionsPerUser / 20));
+                
+                for (int i = 0; i < transactionsPerUser; i++) {
+                    boolean income = i < salaries;
+                    LocalDateTime date = income
+                            ? today.minusMonths(i).withDayOfMonth(Math.min(28, 25 + random.nextInt(4))).atTime(9, 0)
+                            : today.minusDays(random.nextInt(365)).atTime(6 + random.nextInt(16), random.nextInt(60));
+                    
+                    String category;
+                    String notes;
+                    double amount;
+                    if (income) {
+                        category = "Salary";
+                        notes = "Monthly salary";
+                        amount = salary;
+                    } else {
+                        ExpenseProfile profile = pickExpense();
+                        category = profile.category();
+                        notes = profile.notes()[random.nextInt(profile.notes().length)];
+                        amount = logNormal(profile.medianAmount() * salary / 60_000, 0.5);
+                    }
+                    
+                    Timestamp timestamp = Timestamp.valueOf(date);
+                    statement.setString(1, income ? "INCOME" : "EXPENSE");
+                    statement.setBigDecimal(2, BigDecimal.valueOf(Math.max(1, Math.round(amount * 100)), 2));
+                    statement.setString(3, notes);
+                    statement.setTimestamp(4, timestamp);
+                    statement.setTimestamp(5, timestamp);
+                    statement.setTimestamp(6, timestamp);
+                    statement.setObject(7, userId);
+                    statement.setLong(8, categoryIds.getOrDefault(category, categoryIds.get("Shopping")));
+                    statement.addBatch();
+                    
+                    if (++inserted % batchSize == 0) {
+                        statement.executeBatch();
+                        connection.commit();
+                    }
+                }
+            }
+            statement.executeBatch();
+            connection.commit();
+        }
+        return inserted;
+    }
+    
+    private ExpenseProfile pickExpense() {
+        double roll = random.nextDouble();
+        for (ExpenseProfile profile : EXPENSES) {
+            roll -= profile.weight();
+            if (roll <= 0) {
+                return profile;
+            }
+        }
+        return EXPENSES.get(0);
+    }
+    
+    private double logNormal(double median, double sigma) {
+        return median * Math.exp(sigma * random.nextGaussian());
+    }
+}
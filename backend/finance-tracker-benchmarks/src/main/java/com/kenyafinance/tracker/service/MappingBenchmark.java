@@ -0,0 +1,68 @@
+package com.kenyafinance.tracker.service;
+
+import com.kenyafinance.tracker.dto.CategoryDto;
+import com.kenyafinance.tracker.dto.TransactionDto;
+import com.kenyafinance.tracker.entity.Category;
+import com.kenyafinance.tracker.entity.Transaction;
+import com.kenyafinance.tracker.entity.TransactionType;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity-to-DTO mapping and the category spending percentage math from TransactionService.
+ * Lives in the service package to reach the package-private helpers.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+    
+    private TransactionService transactionService;
+    private Transaction transaction;
+    private Category category;
+    private BigDecimal amount;
+    private BigDecimal totalExpenses;
+    
+    @Setup
+    public void setUp() {
+        // The mapping helpers do not touch the repositories
+        transactionService = new TransactionService(null, null, null, null, null, null, null,
+                new StaticListableBeanFactory().getBeanProvider(RunningTotals.class));
+        
+        category = new Category("Food", "Food and dining expenses", "restaurant", "#FF9800", true);
+        category.setId(2L);
+        category.setCreatedAt(LocalDateTime.now());
+        category.setUpdatedAt(LocalDateTime.now());
+        
+        transaction = new Transaction(TransactionType.EXPENSE, new BigDecimal("1250.75"), "Lunch with team",
+                LocalDateTime.now(), null, category);
+        transaction.setId(42L);
+        transaction.setCreatedAt(LocalDateTime.now());
+        transaction.setUpdatedAt(LocalDateTime.now());
+        
+        amount = new BigDecimal("1250.75");
+        totalExpenses = new BigDecimal("48211.30");
+    }
+    
+    @Benchmark
+    public TransactionDto convertToDto() {
+        return transactionService.convertToDto(transaction);
+    }
+    
+    @Benchmark
+    public CategoryDto convertCategoryToDto() {
+        return transactionService.convertCategoryToDto(category);
+    }
+    
+    @Benchmark
+    public Double categorySpendingPercentage() {
+        return TransactionService.percentageOf(amount, totalExpenses);
+    }
+}
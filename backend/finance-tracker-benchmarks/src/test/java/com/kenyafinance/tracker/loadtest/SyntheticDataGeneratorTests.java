@@ -0,0 +1,83 @@
+package com.kenyafinance.tracker.loadtest;
+
+import com.kenyafinance.tracker.FinanceTrackerApiApplication;
+import com.kenyafinance.tracker.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.service.TransactionService;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Seeds a schema created by the API itself, so a new NOT NULL column without a default on a seeded
+ * table fails here rather than in the middle of a load test
+ */
+class SyntheticDataGeneratorTests {
+    
+    private static final String JDBC_URL = "jdbc:h2:mem:generator;DB_CLOSE_DELAY=-1";
+    
+    private static ConfigurableApplicationContext context;
+    
+    @BeforeAll
+    static void startApi() {
+        context = new SpringApplicationBuilder(FinanceTrackerApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=" + JDBC_URL,
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.jpa.hibernate.ddl-auto=create-drop",
+                        "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                        "--spring.jpa.show-sql=false",
+                        "--app.outbox.dispatcher.enabled=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.com.kenyafinance.tracker=WARN");
+    }
+    
+    @AfterAll
+    static void stopApi() {
+        context.close();
+    }
+    
+    @Test
+    void seedsUsersAndTransactionsTheApiCanRead(@TempDir Path directory) throws Exception {
+        Path usersFile = directory.resolve("users.csv");
+        try (Connection connection = DriverManager.getConnection(JDBC_URL, "sa", "")) {
+            connection.setAutoCommit(false);
+            new SyntheticDataGenerator(connection, new Random(7), 7, 25).generate(3, 40, usersFile);
+            
+            assertThat(count(connection, "SELECT COUNT(*) FROM users WHERE email LIKE '%@loadtest.local'")).isEqualTo(3);
+            assertThat(count(connection, "SELECT COUNT(*) FROM transactions t JOIN users u ON u.id = t.user_id " +
+                    "WHERE u.email LIKE '%@loadtest.local'")).isEqualTo(120);
+        }
+        
+        List<String> lines = Files.readAllLines(usersFile);
+        assertThat(lines).hasSize(3);
+        UUID userId = UUID.fromString(lines.get(0).split(",")[0]);
+        DashboardSummaryDto summary = context.getBean(TransactionService.class).getDashboardSummary(userId);
+        assertThat(summary.getTotalTransactions()).isEqualTo(40);
+        assertThat(summary.getTotalIncome()).isPositive();
+    }
+    
+    private static long count(Connection connection, String sql) throws Exception {
+        try (Statement statement = connection.createStatement(); ResultSet resultSet = statement.executeQuery(sql)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.kenyafinance.tracker.reactive;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Read-only WebFlux/R2DBC front for the dashboard, transaction list and category list
+ * endpoints. It serves the same paths as finance-tracker-api from the same database, so a
+ * proxy can route those GETs here while every write stays on the blocking API.
+ */
+@SpringBootApplication
+public class ReactiveReadApplication {
+    
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveReadApplication.class, args);
+    }
+}
@@ -0,0 +1,131 @@
+package com.kenyafinance.tracker.reactive.config;
+
+import com.kenyafinance.tracker.reactive.repository.ReactiveUserRepository;
+import com.kenyafinance.tracker.reactive.security.UserJwtAuthenticationConverter;
+import com.kenyafinance.tracker.reactive.security.UserPathAuthorizationManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authorization.AuthorityReactiveAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.core.OAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import org.springframework.security.web.server.util.matcher.IpAddressServerWebExchangeMatcher;
+import org.springframework.security.web.server.util.matcher.ServerWebExchangeMatcher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Same rules as the blocking API: public defaults and health, everything else needs a
+ * bearer token verified against the cached JWKS, users only reach their own
+ * /user/{userId} resources, and any other /api path is denied.
+ */
+@Configuration
+@EnableWebFluxSecurity
+public class ReactiveSecurityConfig {
+    
+    // Routes whose {userId} must be the caller's own id
+    private static final String[] USER_SCOPED_PATHS = {
+            "/api/v1/categories/user/{userId}",
+            "/api/v1/transactions/user/{userId}",
+            "/api/v1/transactions/dashboard/user/{userId}",
+            "/api/v1/transactions/spending/user/{userId}"
+    };
+    
+    @Value("${app.security.jwt.enabled:true}")
+    private boolean jwtEnabled;
+    
+    @Value("${app.security.jwt.jwk-set-uri:}")
+    private String jwkSetUri;
+    
+    @Value("${app.security.jwt.issuer:}")
+    private String issuer;
+    
+    @Value("${app.security.jwt.audience:}")
+    private String audience;
+    
+    @Value("${app.security.jwt.user-cache-size:10000}")
+    private long userCacheSize;
+    
+    @Value("${app.security.jwt.user-cache-ttl-ms:600000}")
+    private long userCacheTtlMillis;
+    
+    @Value("${app.security.admin-authority:SCOPE_admin}")
+    private String adminAuthority;
+    
+    @Value("${app.security.prometheus.allowed-addresses:127.0.0.1/32,::1/128}")
+    private String prometheusAllowedAddresses;
+    
+    @Bean
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, ReactiveUserRepository userRepository) {
+        http
+            .csrf(ServerHttpSecurity.CsrfSpec::disable)
+            .httpBasic(ServerHttpSecurity.HttpBasicSpec::disable)
+            .formLogin(ServerHttpSecurity.FormLoginSpec::disable)
+            .authorizeExchange(exchange -> exchange
+                .pathMatchers("/api/v1/categories/defaults").permitAll()
+                .pathMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                // Scrapes come from the monitoring network; operators may also read it with a token
+                .pathMatchers("/actuator/prometheus").access(scraperOrAdmin())
+                .pathMatchers("/actuator/**").hasAuthority(adminAuthority)
+                .pathMatchers(HttpMethod.GET, USER_SCOPED_PATHS).access(new UserPathAuthorizationManager("userId"))
+                .pathMatchers("/api/**").denyAll()
+                .anyExchange().authenticated()
+            );
+        
+        if (jwtEnabled) {
+            http.oauth2ResourceServer(oauth2 -> oauth2.jwt(jwt -> jwt
+                    .jwtDecoder(jwtDecoder())
+                    .jwtAuthenticationConverter(new UserJwtAuthenticationConverter(userRepository, userCacheSize,
+                            Duration.ofMillis(userCacheTtlMillis)))));
+        }
+        return http.build();
+    }
+    
+    /**
+     * Allows requests whose remote address is in one of the configured scraper ranges, or
+     * that carry the admin authority
+     */
+    private ReactiveAuthorizationManager<AuthorizationContext> scraperOrAdmin() {
+        List<IpAddressServerWebExchangeMatcher> ranges = Arrays.stream(prometheusAllowedAddresses.split(","))
+                .map(String::trim)
+                .filter(range -> !range.isEmpty())
+                .map(IpAddressServerWebExchangeMatcher::new)
+                .toList();
+        ReactiveAuthorizationManager<AuthorizationContext> admin = AuthorityReactiveAuthorizationManager.hasAuthority(adminAuthority);
+        return (authentication, context) -> Flux.fromIterable(ranges)
+                .concatMap(range -> range.matches(context.getExchange()))
+                .any(ServerWebExchangeMatcher.MatchResult::isMatch)
+                .flatMap(scraper -> scraper
+                        ? Mono.just(new AuthorizationDecision(true))
+                        : admin.check(authentication, context));
+    }
+    
+    private NimbusReactiveJwtDecoder jwtDecoder() {
+        NimbusReactiveJwtDecoder decoder = NimbusReactiveJwtDecoder.withJwkSetUri(jwkSetUri).build();
+        List<OAuth2TokenValidator<Jwt>> validators = new ArrayList<>();
+        validators.add(issuer.isBlank() ? JwtValidators.createDefault() : JwtValidators.createDefaultWithIssuer(issuer));
+        if (!audience.isBlank()) {
+            validators.add(new JwtClaimValidator<Collection<String>>("aud",
+                    aud -> aud != null && aud.contains(audience)));
+        }
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(validators));
+        return decoder;
+    }
+}
@@ -0,0 +1,36 @@
+package com.kenyafinance.tracker.reactive.controller;
+
+import com.kenyafinance.tracker.reactive.dto.CategoryDto;
+import com.kenyafinance.tracker.reactive.service.ReactiveReadService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/categories")
+public class ReactiveCategoryController {
+    
+    private final ReactiveReadService readService;
+    
+    public ReactiveCategoryController(ReactiveReadService readService) {
+        this.readService = readService;
+    }
+    
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<List<CategoryDto>>> getCategoriesForUser(@PathVariable UUID userId) {
+        return readService.getCategoriesForUser(userId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/defaults")
+    public Mono<List<CategoryDto>> getDefaultCategories() {
+        return readService.getDefaultCategories();
+    }
+}
@@ -0,0 +1,57 @@
+package com.kenyafinance.tracker.reactive.controller;
+
+import com.kenyafinance.tracker.reactive.dto.CategorySpendingDto;
+import com.kenyafinance.tracker.reactive.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.reactive.dto.PageDto;
+import com.kenyafinance.tracker.reactive.dto.TransactionDto;
+import com.kenyafinance.tracker.reactive.service.ReactiveReadService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/transactions")
+public class ReactiveTransactionController {
+    
+    private static final int MAX_PAGE_SIZE = 1000;
+    
+    private final ReactiveReadService readService;
+    
+    public ReactiveTransactionController(ReactiveReadService readService) {
+        this.readService = readService;
+    }
+    
+    @GetMapping("/user/{userId}")
+    public Mono<ResponseEntity<PageDto<TransactionDto>>> getTransactionsForUser(
+            @PathVariable UUID userId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            return Mono.just(ResponseEntity.badRequest().build());
+        }
+        return readService.getTransactionsForUser(userId, page, size)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/dashboard/user/{userId}")
+    public Mono<ResponseEntity<DashboardSummaryDto>> getDashboardSummary(@PathVariable UUID userId) {
+        return readService.getDashboardSummary(userId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+    
+    @GetMapping("/spending/user/{userId}")
+    public Mono<ResponseEntity<List<CategorySpendingDto>>> getCategorySpending(@PathVariable UUID userId) {
+        return readService.getCategorySpending(userId)
+                .map(ResponseEntity::ok)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+}
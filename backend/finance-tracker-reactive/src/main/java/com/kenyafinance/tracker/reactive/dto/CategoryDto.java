@@ -0,0 +1,10 @@
+package com.kenyafinance.tracker.reactive.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Same JSON shape as the API's CategoryDto.
+ */
+public record CategoryDto(Long id, String name, String description, String iconName, String colorCode,
+                          Boolean isDefault, Boolean isActive, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
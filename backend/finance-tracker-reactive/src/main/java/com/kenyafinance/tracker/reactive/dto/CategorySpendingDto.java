@@ -0,0 +1,9 @@
+package com.kenyafinance.tracker.reactive.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Same JSON shape as the API's DashboardSummaryDto.CategorySpendingDto.
+ */
+public record CategorySpendingDto(CategoryDto category, BigDecimal amount, Double percentage) {
+}
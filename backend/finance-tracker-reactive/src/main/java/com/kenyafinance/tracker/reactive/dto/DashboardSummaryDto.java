@@ -0,0 +1,12 @@
+package com.kenyafinance.tracker.reactive.dto;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Same JSON shape as the API's DashboardSummaryDto.
+ */
+public record DashboardSummaryDto(BigDecimal totalIncome, BigDecimal totalExpenses, BigDecimal balance,
+                                  long totalTransactions, List<CategorySpendingDto> categorySpending,
+                                  List<TransactionDto> recentTransactions) {
+}
@@ -0,0 +1,15 @@
+package com.kenyafinance.tracker.reactive.dto;
+
+import java.util.List;
+
+/**
+ * One page of results with the page fields clients read from the API's Spring Data pages.
+ */
+public record PageDto<T>(List<T> content, int number, int size, long totalElements, int totalPages,
+                         boolean first, boolean last) {
+    
+    public static <T> PageDto<T> of(List<T> content, int number, int size, long totalElements) {
+        int totalPages = size == 0 ? 1 : (int) Math.ceil((double) totalElements / size);
+        return new PageDto<>(content, number, size, totalElements, totalPages, number == 0, number + 1 >= totalPages);
+    }
+}
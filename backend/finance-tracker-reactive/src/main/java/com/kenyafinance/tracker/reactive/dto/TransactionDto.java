@@ -0,0 +1,11 @@
+package com.kenyafinance.tracker.reactive.dto;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Same JSON shape as the API's TransactionDto.
+ */
+public record TransactionDto(Long id, String type, BigDecimal amount, String notes, LocalDateTime transactionDate,
+                             Long categoryId, CategoryDto category, LocalDateTime createdAt, LocalDateTime updatedAt) {
+}
@@ -0,0 +1,77 @@
+package com.kenyafinance.tracker.reactive.repository;
+
+import com.kenyafinance.tracker.reactive.dto.CategoryDto;
+import io.r2dbc.spi.Readable;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * R2DBC equivalents of the CategoryRepository queries used by the read endpoints.
+ */
+@Repository
+public class ReactiveCategoryRepository {
+    
+    static final String CATEGORY_COLUMNS =
+            "c.id, c.name, c.description, c.icon_name, c.color_code, c.is_default, c.is_active, c.created_at, c.updated_at";
+    
+    private final DatabaseClient databaseClient;
+    
+    public ReactiveCategoryRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+    
+    /**
+     * Active categories the user owns plus the active defaults, by name
+     */
+    public Flux<CategoryDto> findActiveByUserOrDefault(UUID userId) {
+        return databaseClient.sql("SELECT " + CATEGORY_COLUMNS + " FROM categories c " +
+                        "WHERE (c.user_id = :userId OR c.is_default = true) AND c.is_active = true ORDER BY c.name")
+                .bind("userId", userId)
+                .map(row -> toDto(row, ""))
+                .all();
+    }
+    
+    /**
+     * Active default categories
+     */
+    public Flux<CategoryDto> findActiveDefaults() {
+        return databaseClient.sql("SELECT " + CATEGORY_COLUMNS + " FROM categories c " +
+                        "WHERE c.is_default = true AND c.is_active = true ORDER BY c.id")
+                .map(row -> toDto(row, ""))
+                .all();
+    }
+    
+    /**
+     * Categories by id
+     */
+    public Flux<CategoryDto> findAllById(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Flux.empty();
+        }
+        return databaseClient.sql("SELECT " + CATEGORY_COLUMNS + " FROM categories c WHERE c.id IN (:ids)")
+                .bind("ids", ids)
+                .map(row -> toDto(row, ""))
+                .all();
+    }
+    
+    /**
+     * Map the {@link #CATEGORY_COLUMNS} of a row, whose names may carry a prefix
+     */
+    static CategoryDto toDto(Readable row, String prefix) {
+        return new CategoryDto(
+                row.get(prefix + "id", Long.class),
+                row.get(prefix + "name", String.class),
+                row.get(prefix + "description", String.class),
+                row.get(prefix + "icon_name", String.class),
+                row.get(prefix + "color_code", String.class),
+                row.get(prefix + "is_default", Boolean.class),
+                row.get(prefix + "is_active", Boolean.class),
+                row.get(prefix + "created_at", LocalDateTime.class),
+                row.get(prefix + "updated_at", LocalDateTime.class));
+    }
+}
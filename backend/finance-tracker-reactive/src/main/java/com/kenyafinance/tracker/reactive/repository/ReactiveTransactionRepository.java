@@ -0,0 +1,99 @@
+package com.kenyafinance.tracker.reactive.repository;
+
+import com.kenyafinance.tracker.reactive.dto.TransactionDto;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * R2DBC equivalents of the TransactionRepository queries behind the dashboard and list
+ * endpoints. Lifetime totals add the archived monthly summaries to the hot rows, as the
+ * blocking API does.
+ */
+@Repository
+public class ReactiveTransactionRepository {
+    
+    /** Lifetime total and count per transaction type */
+    public record TypeTotal(String type, BigDecimal total, long count) {}
+    
+    /** Lifetime expense total per category */
+    public record CategoryTotal(Long categoryId, BigDecimal amount) {}
+    
+    private final DatabaseClient databaseClient;
+    
+    public ReactiveTransactionRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+    
+    /**
+     * Lifetime total and count per type for user (hot transactions plus archived monthly totals)
+     */
+    public Flux<TypeTotal> findTotalsByType(UUID userId) {
+        return databaseClient.sql("SELECT x.type, SUM(x.total) AS total, CAST(SUM(x.cnt) AS BIGINT) AS cnt FROM (" +
+                        "SELECT t.type, SUM(t.amount) AS total, COUNT(*) AS cnt FROM transactions t " +
+                        "WHERE t.user_id = :userId GROUP BY t.type " +
+                        "UNION ALL " +
+                        "SELECT s.type, SUM(s.total_amount), SUM(s.transaction_count) FROM transaction_month_summaries s " +
+                        "WHERE s.user_id = :userId GROUP BY s.type) x GROUP BY x.type")
+                .bind("userId", userId)
+                .map(row -> new TypeTotal(row.get("type", String.class), row.get("total", BigDecimal.class),
+                        row.get("cnt", Long.class)))
+                .all();
+    }
+    
+    /**
+     * Lifetime expenses by category id for user, largest first
+     */
+    public Flux<CategoryTotal> findSpendingByCategoryId(UUID userId) {
+        return databaseClient.sql("SELECT x.category_id, SUM(x.amount) AS amount FROM (" +
+                        "SELECT t.category_id, t.amount FROM transactions t WHERE t.user_id = :userId AND t.type = 'EXPENSE' " +
+                        "UNION ALL " +
+                        "SELECT s.category_id, s.total_amount FROM transaction_month_summaries s " +
+                        "WHERE s.user_id = :userId AND s.type = 'EXPENSE') x " +
+                        "GROUP BY x.category_id ORDER BY amount DESC")
+                .bind("userId", userId)
+                .map(row -> new CategoryTotal(row.get("category_id", Long.class), row.get("amount", BigDecimal.class)))
+                .all();
+    }
+    
+    /**
+     * A page of the user's transactions with their categories, newest first
+     */
+    public Flux<TransactionDto> findByUserIdOrderByTransactionDateDesc(UUID userId, int limit, long offset) {
+        return databaseClient.sql("SELECT t.id, t.type, t.amount, t.notes, t.transaction_date, t.created_at, t.updated_at, " +
+                        "c.id AS c_id, c.name AS c_name, c.description AS c_description, c.icon_name AS c_icon_name, " +
+                        "c.color_code AS c_color_code, c.is_default AS c_is_default, c.is_active AS c_is_active, " +
+                        "c.created_at AS c_created_at, c.updated_at AS c_updated_at " +
+                        "FROM transactions t JOIN categories c ON c.id = t.category_id " +
+                        "WHERE t.user_id = :userId ORDER BY t.transaction_date DESC LIMIT :limit OFFSET :offset")
+                .bind("userId", userId)
+                .bind("limit", limit)
+                .bind("offset", offset)
+                .map(row -> new TransactionDto(
+                        row.get("id", Long.class),
+                        row.get("type", String.class),
+                        row.get("amount", BigDecimal.class),
+                        row.get("notes", String.class),
+                        row.get("transaction_date", LocalDateTime.class),
+                        row.get("c_id", Long.class),
+                        ReactiveCategoryRepository.toDto(row, "c_"),
+                        row.get("created_at", LocalDateTime.class),
+                        row.get("updated_at", LocalDateTime.class)))
+                .all();
+    }
+    
+    /**
+     * Count hot (not archived) transactions for user
+     */
+    public Mono<Long> countByUserId(UUID userId) {
+        return databaseClient.sql("SELECT COUNT(*) AS cnt FROM transactions t WHERE t.user_id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get("cnt", Long.class))
+                .one();
+    }
+}
@@ -0,0 +1,40 @@
+package com.kenyafinance.tracker.reactive.repository;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * User lookups needed by the read endpoints and token authentication.
+ */
+@Repository
+public class ReactiveUserRepository {
+    
+    private final DatabaseClient databaseClient;
+    
+    public ReactiveUserRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+    
+    /**
+     * Whether a user with this id exists
+     */
+    public Mono<Boolean> existsById(UUID userId) {
+        return databaseClient.sql("SELECT COUNT(*) AS cnt FROM users u WHERE u.id = :userId")
+                .bind("userId", userId)
+                .map(row -> row.get("cnt", Long.class) > 0)
+                .one();
+    }
+    
+    /**
+     * Id of the user linked to an identity provider subject
+     */
+    public Mono<UUID> findIdByAuthSubject(String subject) {
+        return databaseClient.sql("SELECT u.id FROM users u WHERE u.auth_subject = :subject")
+                .bind("subject", subject)
+                .map(row -> row.get("id", UUID.class))
+                .one();
+    }
+}
@@ -0,0 +1,54 @@
+package com.kenyafinance.tracker.reactive.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.kenyafinance.tracker.reactive.repository.ReactiveUserRepository;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * Turns a verified JWT into a {@link UserJwtAuthenticationToken}, mapping its subject to
+ * the internal user id through a bounded cache. This read path never links a subject to
+ * a user by email; the blocking API does that on the user's first request there.
+ */
+public class UserJwtAuthenticationConverter implements Converter<Jwt, Mono<AbstractAuthenticationToken>> {
+    
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+    private final ReactiveUserRepository userRepository;
+    private final Cache<String, UUID> userIds;
+    
+    public UserJwtAuthenticationConverter(ReactiveUserRepository userRepository, long maximumSize, Duration ttl) {
+        this.userRepository = userRepository;
+        this.userIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+    
+    @Override
+    public Mono<AbstractAuthenticationToken> convert(Jwt jwt) {
+        return resolve(jwt.getSubject())
+                .map(userId -> new UserJwtAuthenticationToken(jwt, authoritiesConverter.convert(jwt), userId))
+                .defaultIfEmpty(new UserJwtAuthenticationToken(jwt, authoritiesConverter.convert(jwt), null))
+                .cast(AbstractAuthenticationToken.class);
+    }
+    
+    private Mono<UUID> resolve(String subject) {
+        if (subject == null) {
+            return Mono.empty();
+        }
+        UUID cached = userIds.getIfPresent(subject);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        // Only resolved subjects are cached, so a user linked later is picked up right away
+        return userRepository.findIdByAuthSubject(subject)
+                .doOnNext(userId -> userIds.put(subject, userId));
+    }
+}
@@ -0,0 +1,26 @@
+package com.kenyafinance.tracker.reactive.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * A verified JWT together with the internal id of the user it belongs to (null when no
+ * user is linked to the token's subject yet).
+ */
+public class UserJwtAuthenticationToken extends JwtAuthenticationToken {
+    
+    private final UUID userId;
+    
+    public UserJwtAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, UUID userId) {
+        super(jwt, authorities);
+        this.userId = userId;
+    }
+    
+    public UUID getUserId() {
+        return userId;
+    }
+}
@@ -0,0 +1,47 @@
+package com.kenyafinance.tracker.reactive.security;
+
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.ReactiveAuthorizationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.server.authorization.AuthorizationContext;
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * Requires the authenticated user to be the user named by a path variable of the matched
+ * route. The variable comes from the path matcher, decoded the same way WebFlux decodes the
+ * controller's {@code @PathVariable}, so an encoded path cannot name one user here and
+ * another one in the controller.
+ */
+public class UserPathAuthorizationManager implements ReactiveAuthorizationManager<AuthorizationContext> {
+    
+    private final String variable;
+    
+    public UserPathAuthorizationManager(String variable) {
+        this.variable = variable;
+    }
+    
+    @Override
+    public Mono<AuthorizationDecision> check(Mono<Authentication> authentication, AuthorizationContext context) {
+        UUID pathUserId = parse(context.getVariables().get(variable));
+        
+        return authentication
+                .filter(current -> current.isAuthenticated() && !(current instanceof AnonymousAuthenticationToken))
+                .map(current -> new AuthorizationDecision(pathUserId != null
+                        && current instanceof UserJwtAuthenticationToken token && pathUserId.equals(token.getUserId())))
+                .defaultIfEmpty(new AuthorizationDecision(false));
+    }
+    
+    private static UUID parse(Object value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value.toString());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
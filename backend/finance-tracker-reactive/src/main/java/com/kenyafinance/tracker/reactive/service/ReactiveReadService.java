@@ -0,0 +1,127 @@
+package com.kenyafinance.tracker.reactive.service;
+
+import com.kenyafinance.tracker.reactive.dto.CategoryDto;
+import com.kenyafinance.tracker.reactive.dto.CategorySpendingDto;
+import com.kenyafinance.tracker.reactive.dto.DashboardSummaryDto;
+import com.kenyafinance.tracker.reactive.dto.PageDto;
+import com.kenyafinance.tracker.reactive.dto.TransactionDto;
+import com.kenyafinance.tracker.reactive.repository.ReactiveCategoryRepository;
+import com.kenyafinance.tracker.reactive.repository.ReactiveTransactionRepository;
+import com.kenyafinance.tracker.reactive.repository.ReactiveTransactionRepository.CategoryTotal;
+import com.kenyafinance.tracker.reactive.repository.ReactiveTransactionRepository.TypeTotal;
+import com.kenyafinance.tracker.reactive.repository.ReactiveUserRepository;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Builds the dashboard, transaction page and category list without blocking. Every method
+ * completes empty when the user does not exist, which the controllers turn into a 404
+ * just like the blocking API.
+ */
+@Service
+public class ReactiveReadService {
+    
+    private static final int RECENT_TRANSACTIONS = 5;
+    
+    private final ReactiveUserRepository userRepository;
+    private final ReactiveTransactionRepository transactionRepository;
+    private final ReactiveCategoryRepository categoryRepository;
+    
+    public ReactiveReadService(ReactiveUserRepository userRepository, ReactiveTransactionRepository transactionRepository,
+                               ReactiveCategoryRepository categoryRepository) {
+        this.userRepository = userRepository;
+        this.transactionRepository = transactionRepository;
+        this.categoryRepository = categoryRepository;
+    }
+    
+    /**
+     * Get dashboard summary for user; the three queries run concurrently on separate connections
+     */
+    public Mono<DashboardSummaryDto> getDashboardSummary(UUID userId) {
+        return whenUserExists(userId, Mono.zip(
+                transactionRepository.findTotalsByType(userId).collectMap(TypeTotal::type),
+                transactionRepository.findByUserIdOrderByTransactionDateDesc(userId, RECENT_TRANSACTIONS, 0).collectList(),
+                transactionRepository.findSpendingByCategoryId(userId).collectList()
+        ).flatMap(results -> {
+            Map<String, TypeTotal> totals = results.getT1();
+            BigDecimal totalIncome = totalOf(totals.get("INCOME"));
+            BigDecimal totalExpenses = totalOf(totals.get("EXPENSE"));
+            long totalTransactions = totals.values().stream().mapToLong(TypeTotal::count).sum();
+            return toCategorySpending(results.getT3(), totalExpenses)
+                    .map(spending -> new DashboardSummaryDto(totalIncome, totalExpenses, totalIncome.subtract(totalExpenses),
+                            totalTransactions, spending, results.getT2()));
+        }));
+    }
+    
+    /**
+     * Get category spending breakdown for user
+     */
+    public Mono<List<CategorySpendingDto>> getCategorySpending(UUID userId) {
+        return whenUserExists(userId, Mono.zip(
+                transactionRepository.findTotalsByType(userId).collectMap(TypeTotal::type),
+                transactionRepository.findSpendingByCategoryId(userId).collectList()
+        ).flatMap(results -> toCategorySpending(results.getT2(), totalOf(results.getT1().get("EXPENSE")))));
+    }
+    
+    /**
+     * Get a page of the user's transactions, newest first
+     */
+    public Mono<PageDto<TransactionDto>> getTransactionsForUser(UUID userId, int page, int size) {
+        return whenUserExists(userId, Mono.zip(
+                transactionRepository.findByUserIdOrderByTransactionDateDesc(userId, size, (long) page * size).collectList(),
+                transactionRepository.countByUserId(userId)
+        ).map(results -> PageDto.of(results.getT1(), page, size, results.getT2())));
+    }
+    
+    /**
+     * Get all active categories for user (including default categories)
+     */
+    public Mono<List<CategoryDto>> getCategoriesForUser(UUID userId) {
+        return whenUserExists(userId, categoryRepository.findActiveByUserOrDefault(userId).collectList());
+    }
+    
+    /**
+     * Get all default categories
+     */
+    public Mono<List<CategoryDto>> getDefaultCategories() {
+        return categoryRepository.findActiveDefaults().collectList();
+    }
+    
+    private <T> Mono<T> whenUserExists(UUID userId, Mono<T> result) {
+        return userRepository.existsById(userId)
+                .flatMap(exists -> exists ? result : Mono.empty());
+    }
+    
+    private Mono<List<CategorySpendingDto>> toCategorySpending(List<CategoryTotal> spending, BigDecimal totalExpenses) {
+        List<Long> categoryIds = spending.stream().map(CategoryTotal::categoryId).toList();
+        return categoryRepository.findAllById(categoryIds)
+                .collectMap(CategoryDto::id, Function.identity())
+                .map(categories -> spending.stream()
+                        .filter(total -> categories.containsKey(total.categoryId()))
+                        .map(total -> new CategorySpendingDto(categories.get(total.categoryId()), total.amount(),
+                                percentageOf(total.amount(), totalExpenses)))
+                        .collect(Collectors.toList()));
+    }
+    
+    private static BigDecimal totalOf(TypeTotal total) {
+        return total != null && total.total() != null ? total.total() : BigDecimal.ZERO;
+    }
+    
+    /**
+     * Share of total as a percentage rounded to two decimals (0 when total is zero)
+     */
+    static Double percentageOf(BigDecimal amount, BigDecimal total) {
+        return total.compareTo(BigDecimal.ZERO) > 0 ?
+                amount.divide(total, 4, RoundingMode.HALF_UP)
+                      .multiply(BigDecimal.valueOf(100))
+                      .doubleValue() : 0.0;
+    }
+}
@@ -0,0 +1,196 @@
+package com.kenyafinance.tracker.reactive;
+
+import com.kenyafinance.tracker.reactive.security.UserJwtAuthenticationToken;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.security.test.web.reactive.server.SecurityMockServerConfigurers.mockAuthentication;
+
+@SpringBootTest
+@AutoConfigureWebTestClient
+@ActiveProfiles("test")
+class ReactiveReadTests {
+    
+    @Autowired
+    private WebTestClient webTestClient;
+    
+    @Autowired
+    private DatabaseClient databaseClient;
+    
+    private UUID userId;
+    private long rent;
+    private long food;
+    
+    @BeforeEach
+    void seed() {
+        userId = UUID.randomUUID();
+        insertUser(userId);
+        rent = insertCategory("Rent " + userId, true, null);
+        food = insertCategory("Food " + userId, true, null);
+        long matatu = insertCategory("Matatu", false, userId);
+        
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        insertTransaction(userId, "INCOME", "50000.00", now.minusDays(6), food);
+        insertTransaction(userId, "EXPENSE", "20000.00", now.minusDays(5), rent);
+        insertTransaction(userId, "EXPENSE", "1500.00", now.minusDays(4), food);
+        insertTransaction(userId, "EXPENSE", "300.00", now.minusDays(3), matatu);
+        insertTransaction(userId, "EXPENSE", "200.00", now.minusDays(2), matatu);
+        insertTransaction(userId, "EXPENSE", "500.00", now.minusDays(1), food);
+        // Archived history, as left behind by the API's archiver
+        insertSummary(userId, rent, "EXPENSE", "40000.00", 2);
+        insertSummary(userId, food, "INCOME", "100000.00", 2);
+    }
+    
+    @Test
+    void dashboardAddsArchivedTotalsToHotTransactions() {
+        asUser(userId).get().uri("/api/v1/transactions/dashboard/user/{userId}", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.totalIncome").isEqualTo(150000.00)
+                .jsonPath("$.totalExpenses").isEqualTo(62500.00)
+                .jsonPath("$.balance").isEqualTo(87500.00)
+                .jsonPath("$.totalTransactions").isEqualTo(10)
+                .jsonPath("$.recentTransactions.length()").isEqualTo(5)
+                .jsonPath("$.recentTransactions[0].amount").isEqualTo(500.00)
+                .jsonPath("$.recentTransactions[0].category.id").isEqualTo(food)
+                .jsonPath("$.categorySpending[0].category.id").isEqualTo(rent)
+                .jsonPath("$.categorySpending[0].amount").isEqualTo(60000.00)
+                .jsonPath("$.categorySpending[0].percentage").isEqualTo(96.0)
+                .jsonPath("$.categorySpending.length()").isEqualTo(3);
+    }
+    
+    @Test
+    void listsTransactionsAndCategories() {
+        asUser(userId).get().uri("/api/v1/transactions/user/{userId}?page=1&size=4", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.content.length()").isEqualTo(2)
+                .jsonPath("$.content[0].amount").isEqualTo(20000.00)
+                .jsonPath("$.totalElements").isEqualTo(6)
+                .jsonPath("$.totalPages").isEqualTo(2)
+                .jsonPath("$.last").isEqualTo(true);
+        
+        asUser(userId).get().uri("/api/v1/categories/user/{userId}", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$[?(@.name == 'Matatu')].isDefault").isEqualTo(false)
+                .jsonPath("$[?(@.name == 'Rent " + userId + "')].isDefault").isEqualTo(true);
+    }
+    
+    @Test
+    void appliesTheSameAccessRulesAsTheApi() {
+        UUID unknown = UUID.randomUUID();
+        asUser(unknown).get().uri("/api/v1/transactions/dashboard/user/{userId}", unknown)
+                .exchange()
+                .expectStatus().isNotFound();
+        asUser(unknown).get().uri("/api/v1/transactions/dashboard/user/{userId}", userId)
+                .exchange()
+                .expectStatus().isForbidden();
+        webTestClient.get().uri("/api/v1/transactions/dashboard/user/{userId}", userId)
+                .exchange()
+                .expectStatus().isUnauthorized();
+        webTestClient.get().uri("/api/v1/categories/defaults")
+                .exchange()
+                .expectStatus().isOk();
+        asUser(userId).get().uri("/api/v1/transactions/user/{userId}?size=0", userId)
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+    
+    @Test
+    void checksPercentEncodedUserIdsAsTheControllerSeesThemAndDeniesUnlistedRoutes() {
+        asUser(userId).get().uri(URI.create("/api/v1/transactions/dashboard/user/" + encodeFirstChar(userId)))
+                .exchange()
+                .expectStatus().isOk();
+        UUID other = UUID.randomUUID();
+        insertUser(other);
+        asUser(userId).get().uri(URI.create("/api/v1/transactions/dashboard/user/" + encodeFirstChar(other)))
+                .exchange()
+                .expectStatus().isForbidden();
+        asUser(userId).get().uri("/api/v1/transactions/dashboard/user/not-a-uuid")
+                .exchange()
+                .expectStatus().isForbidden();
+        asUser(userId).get().uri("/api/v1/unknown/{userId}", userId)
+                .exchange()
+                .expectStatus().isForbidden();
+        // Not from a scraper address and not an admin
+        asUser(userId).get().uri("/actuator/prometheus")
+                .exchange()
+                .expectStatus().isForbidden();
+    }
+    
+    private static String encodeFirstChar(UUID id) {
+        String value = id.toString();
+        return "%" + Integer.toHexString(value.charAt(0)).toUpperCase() + value.substring(1);
+    }
+    
+    private WebTestClient asUser(UUID id) {
+        Jwt jwt = Jwt.withTokenValue("token").header("alg", "none").subject("subject-" + id).build();
+        return webTestClient.mutateWith(mockAuthentication(new UserJwtAuthenticationToken(jwt, List.of(), id)));
+    }
+    
+    private void insertUser(UUID id) {
+        databaseClient.sql("INSERT INTO users (id, email, first_name, last_name, is_active, created_at) " +
+                        "VALUES (:id, :email, 'Reactive', 'User', true, CURRENT_TIMESTAMP)")
+                .bind("id", id)
+                .bind("email", id + "@example.com")
+                .then()
+                .block();
+    }
+    
+    private long insertCategory(String name, boolean isDefault, UUID owner) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("INSERT INTO categories " +
+                        "(name, icon_name, color_code, is_default, is_active, created_at, user_id) " +
+                        "VALUES (:name, 'icon', '#000000', :isDefault, true, CURRENT_TIMESTAMP, :userId)")
+                .bind("name", name)
+                .bind("isDefault", isDefault);
+        spec = owner != null ? spec.bind("userId", owner) : spec.bindNull("userId", UUID.class);
+        return spec.filter(statement -> statement.returnGeneratedValues("id"))
+                .map(row -> row.get("id", Long.class))
+                .one()
+                .block();
+    }
+    
+    private void insertTransaction(UUID owner, String type, String amount, LocalDateTime date, long categoryId) {
+        databaseClient.sql("INSERT INTO transactions (type, amount, transaction_date, created_at, user_id, category_id) " +
+                        "VALUES (:type, :amount, :date, CURRENT_TIMESTAMP, :userId, :categoryId)")
+                .bind("type", type)
+                .bind("amount", new BigDecimal(amount))
+                .bind("date", date)
+                .bind("userId", owner)
+                .bind("categoryId", categoryId)
+                .then()
+                .block();
+    }
+    
+    private void insertSummary(UUID owner, long categoryId, String type, String total, long count) {
+        databaseClient.sql("INSERT INTO transaction_month_summaries " +
+                        "(user_id, category_id, type, summary_month, total_amount, transaction_count) " +
+                        "VALUES (:userId, :categoryId, :type, :month, :total, :count)")
+                .bind("userId", owner)
+                .bind("categoryId", categoryId)
+                .bind("type", type)
+                .bind("month", LocalDate.now().withDayOfMonth(1).minusYears(3))
+                .bind("total", new BigDecimal(total))
+                .bind("count", count)
+                .then()
+                .block();
+    }
+}
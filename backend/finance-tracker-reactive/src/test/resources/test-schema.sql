@@ -0,0 +1,45 @@
+CREATE TABLE IF NOT EXISTS users (
+    id UUID PRIMARY KEY,
+    email VARCHAR(255) NOT NULL UNIQUE,
+    first_name VARCHAR(50),
+    last_name VARCHAR(50),
+    auth_subject VARCHAR(255) UNIQUE,
+    is_active BOOLEAN,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    icon_name VARCHAR(255),
+    color_code VARCHAR(255),
+    is_default BOOLEAN,
+    is_active BOOLEAN,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    user_id UUID REFERENCES users (id)
+);
+
+CREATE TABLE IF NOT EXISTS transactions (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    type VARCHAR(255) NOT NULL,
+    amount NUMERIC(10, 2) NOT NULL,
+    notes VARCHAR(500),
+    transaction_date TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    user_id UUID NOT NULL REFERENCES users (id),
+    category_id BIGINT NOT NULL REFERENCES categories (id)
+);
+
+CREATE TABLE IF NOT EXISTS transaction_month_summaries (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id UUID NOT NULL,
+    category_id BIGINT NOT NULL,
+    type VARCHAR(255) NOT NULL,
+    summary_month DATE NOT NULL,
+    total_amount NUMERIC(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL
+);